@@ -0,0 +1,149 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.server.core.model.IncomeLedger;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GameSimulation;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Policy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.RandomPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.SimulationStats;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the loops over the whole {@link Board} on the state of a finished game of four players: the text
+ * {@code SYNC} snapshot without its cache, the binary checkpoint, and the income of all players as paid at the
+ * end of a game. Income runs the passive effects of the structures, so it is measured on a fork of the state that
+ * is taken again for every iteration. The runes of the tiles and their structures and monuments without the passive
+ * effects are measured as read from the {@link IncomeLedger} and as counted over the owned tiles of every player,
+ * as income did before the ledger.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=BoardBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardBenchmark {
+
+    /** The state of the finished game */
+    private GameState state;
+    /** The logic of a fork of the state, which pays the income */
+    private GameLogic income;
+
+    /**
+     * Plays a game with random policies, so the board has owned tiles, structures, statues and buffs.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Policy> policies = Collections.nCopies(4, new RandomPolicy());
+        state = GameSimulation.play(42L, policies, new SimulationStats(policies.size()));
+    }
+
+    /**
+     * Forks the state for the income of the next iteration, so the runes do not grow without bounds.
+     */
+    @Setup(Level.Iteration)
+    public void forkForIncome() {
+        income = new GameLogic(state.fork());
+    }
+
+    /**
+     * Creates the text snapshot of the state. The state is marked as changed, so the snapshot cache misses.
+     *
+     * @return the snapshot
+     */
+    @Benchmark
+    public String textSnapshot() {
+        state.markChanged();
+        return state.createDetailedStatusMessage();
+    }
+
+    /**
+     * Encodes a binary checkpoint of the state.
+     *
+     * @return the checkpoint
+     */
+    @Benchmark
+    public byte[] checkpoint() {
+        return GameStateCodec.encode(state);
+    }
+
+    /**
+     * Pays the income of their tiles, structures and monuments to all players.
+     *
+     * @return the state the income was paid in
+     */
+    @Benchmark
+    public GameState income() {
+        income.getTurnManager().giveFinalScores();
+        return income.getGameState();
+    }
+
+    /**
+     * Reads the runes of the tiles, structures and monuments of all players from the ledger.
+     *
+     * @return the runes
+     */
+    @Benchmark
+    public int tileIncome() {
+        int sum = 0;
+        for (Player player : state.getPlayers()) {
+            sum += state.getIncomeLedger().getIncome(player);
+        }
+        return sum;
+    }
+
+    /**
+     * Counts the runes of the tiles, structures and monuments of all players over their owned tiles.
+     *
+     * @return the runes
+     */
+    @Benchmark
+    public int tileIncomeRecount() {
+        Board board = state.getBoardManager().getBoard();
+        int sum = 0;
+        for (Player player : state.getPlayers()) {
+            double runeBuff = player.getStatus().get(Status.BuffType.RUNE_GENERATION);
+            double riverBuff = player.getStatus().get(Status.BuffType.RIVER_RUNE_GENERATION);
+            for (Tile tile : player.getOwnedTiles()) {
+                sum += IncomeLedger.runes(tile.getResourceValue(), runeBuff, riverBuff, board, tile.getTileID());
+                GameEntity entity = tile.getEntity();
+                if (entity instanceof Structure structure && !structure.isDisabled()) {
+                    sum += IncomeLedger.runes(structure.getResourceValue(), runeBuff, riverBuff, board, tile.getTileID());
+                } else if (entity instanceof Monument monument && !monument.isDisabled()) {
+                    int value = monument.getRunes();
+                    if (monument.isSet() && player.hasCompleteSet(monument)) {
+                        value *= SETTINGS.Config.SET_BONUS_MULTIPLIER.getValue();
+                    }
+                    sum += IncomeLedger.runes(value, runeBuff, riverBuff, board, tile.getTileID());
+                }
+            }
+        }
+        return sum;
+    }
+}
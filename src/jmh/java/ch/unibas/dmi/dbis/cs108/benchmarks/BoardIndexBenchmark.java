@@ -0,0 +1,118 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups the behaviors of structures and statues make on boards of growing size: the river tiles, the
+ * first tile with an artifact, the tiles with structures of a player and whether a seat has a statue. The board
+ * has four seats owning every eighth tile in turn, with a structure on every second owned tile, and only the last
+ * tile has an artifact, so the lookup that scanned for it went over the whole board.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=BoardIndexBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardIndexBenchmark {
+
+    /** The number of tiles in both directions */
+    @Param({"8", "32", "128"})
+    public int size;
+
+    /** The names of the seats */
+    private static final String[] NAMES = {"Alice", "Bob", "Carol", "Dave"};
+
+    /** The board */
+    private Board board;
+    /** The player of the last seat */
+    private Player player;
+
+    /**
+     * Creates the board with its owned tiles and structures.
+     */
+    @Setup
+    public void setUp() {
+        board = new Board();
+        board.initBoard(size, size, new GameRandom(42L));
+        board.setSeats(List.of(NAMES));
+        player = new Player(NAMES[NAMES.length - 1]);
+        player.setSeat(NAMES.length - 1);
+        for (int id = 0; id < board.getTileCount(); id++) {
+            Tile tile = board.getTile(id);
+            tile.setArtifact(null);
+            if (id % 8 == 0) {
+                int seat = id / 8 % NAMES.length;
+                if (seat == player.getSeat()) {
+                    player.addOwnedTile(tile);
+                } else {
+                    tile.setOwner(NAMES[seat]);
+                }
+                if (id % 64 < 32) {
+                    tile.setEntity(EntityRegistry.getStructure(1));
+                }
+            }
+        }
+        board.getTile(board.getTileCount() - 1).setArtifact(EntityRegistry.getRandomArtifact(new GameRandom(1L)));
+    }
+
+    /**
+     * Gets the river tiles.
+     *
+     * @return the tiles
+     */
+    @Benchmark
+    public List<Tile> riverTiles() {
+        return board.getRiverTiles();
+    }
+
+    /**
+     * Finds the first tile with an artifact, as Huginn and Muninn do.
+     *
+     * @return the id of the tile
+     */
+    @Benchmark
+    public int artifactTile() {
+        return board.nextArtifactTile(0);
+    }
+
+    /**
+     * Gets the tiles with structures of the player.
+     *
+     * @return the tiles
+     */
+    @Benchmark
+    public List<Tile> structureTiles() {
+        return player.getTilesWithStructures();
+    }
+
+    /**
+     * Checks if a statue stands on a tile of the seat of the player, which there does not.
+     *
+     * @return false
+     */
+    @Benchmark
+    public boolean hasStatue() {
+        return board.hasStatue(player.getSeat());
+    }
+}
@@ -0,0 +1,107 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.networking.Frame;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a broadcast that encodes the message once per recipient with one that encodes it once
+ * into a shared {@link Frame}. The message has the size of a SYNC message of a running game.
+ * Besides the time per broadcast, the {@code bytesEncoded} and {@code broadcasts} counters are reported;
+ * their ratio is the number of bytes run through the charset encoder per broadcast.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=BroadcastBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+
+    /** Number of recipients of a broadcast */
+    @Param({"4", "16", "64"})
+    public int recipients;
+
+    /** Size of the broadcast message in characters */
+    @Param({"4096"})
+    public int messageSize;
+
+    /** The message to broadcast */
+    private String message;
+
+    /**
+     * Builds a SYNC-like message of the configured size.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("SYNC$");
+        int i = 0;
+        while (builder.length() < messageSize) {
+            builder.append("Player").append(i % 4).append(':').append(i).append(",42,7,RUNE_").append(i).append(';');
+            i++;
+        }
+        message = builder.substring(0, messageSize);
+    }
+
+    /**
+     * Counts the encoded bytes and the broadcasts.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class EncodedBytes {
+        /** Bytes run through the charset encoder */
+        public long bytesEncoded;
+        /** Broadcasts performed */
+        public long broadcasts;
+    }
+
+    /**
+     * Each recipient encodes the message itself, like a PrintWriter per connection does.
+     *
+     * @param counter the encoded bytes counter
+     * @param hole    consumes the buffers
+     */
+    @Benchmark
+    public void encodePerRecipient(EncodedBytes counter, Blackhole hole) {
+        for (int r = 0; r < recipients; r++) {
+            ByteBuffer buffer = ByteBuffer.wrap((message + "\n").getBytes(StandardCharsets.UTF_8));
+            counter.bytesEncoded += buffer.remaining();
+            hole.consume(buffer);
+        }
+        counter.broadcasts++;
+    }
+
+    /**
+     * The message is encoded once and every recipient gets a view of the same frame.
+     *
+     * @param counter the encoded bytes counter
+     * @param hole    consumes the buffers
+     */
+    @Benchmark
+    public void encodeOnce(EncodedBytes counter, Blackhole hole) {
+        Frame frame = Frame.of(message);
+        counter.bytesEncoded += frame.length();
+        for (int r = 0; r < recipients; r++) {
+            hole.consume(frame.buffer());
+        }
+        counter.broadcasts++;
+    }
+}
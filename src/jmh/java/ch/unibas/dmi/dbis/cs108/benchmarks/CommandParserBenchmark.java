@@ -0,0 +1,119 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommandTokenizer;
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.NetworkProtocol.Commands;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing an inbound protocol line by splitting it with a regex and scanning the command names
+ * with parsing it with the reusable {@link CommandTokenizer} and the opcode lookup.
+ * The score is the number of messages parsed per second; the {@code gc.alloc.rate.norm} value of the
+ * gc profiler (enabled in the build) is the number of bytes allocated per message.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=CommandParserBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandParserBenchmark {
+
+    /** A mix of the messages a server receives during a game */
+    private static final String[] MESSAGES = {
+            "BUYT$3$4",
+            "PLST$2$5$7",
+            "USTA$1$6$12$3:4",
+            "CHTL$alice$hello everyone",
+            "ENDT$",
+            "PING$alice",
+            "USFA$0$0$3",
+            "GSTS$",
+    };
+
+    /** The tokenizer reused for every message, like the one of a connection */
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+
+    /** Index of the next message */
+    private int next;
+
+    /**
+     * Returns the next message of the mix.
+     */
+    private String nextMessage() {
+        String message = MESSAGES[next];
+        next = (next + 1) % MESSAGES.length;
+        return message;
+    }
+
+    /**
+     * The previous parser: regex split, copy of the arguments, linear search of the command and
+     * Integer.parseInt of the numeric arguments.
+     *
+     * @param hole consumes the results
+     */
+    @Benchmark
+    public void splitAndScan(Blackhole hole) {
+        String[] parts = nextMessage().split("[$]");
+        Commands type = null;
+        for (Commands command : Commands.values()) {
+            if (command.getCommand().equals(parts[0])) {
+                type = command;
+                break;
+            }
+        }
+        String[] args = Arrays.copyOfRange(parts, 1, parts.length);
+        hole.consume(type);
+        for (String arg : args) {
+            if (!arg.isEmpty() && Character.isDigit(arg.charAt(0))) {
+                hole.consume(Integer.parseInt(arg));
+            } else {
+                hole.consume(arg);
+            }
+        }
+    }
+
+    /**
+     * The tokenizer alone: field boundaries, opcode lookup and int parsing without strings.
+     *
+     * @param hole consumes the results
+     */
+    @Benchmark
+    public void tokenize(Blackhole hole) {
+        tokenizer.tokenize(nextMessage());
+        hole.consume(tokenizer.command());
+        for (int i = 0; i < tokenizer.argCount(); i++) {
+            try {
+                hole.consume(tokenizer.intArg(i));
+            } catch (NumberFormatException e) {
+                hole.consume(i);
+            }
+        }
+    }
+
+    /**
+     * The complete command as created by the server, including validation and the typed game action.
+     *
+     * @param hole consumes the results
+     */
+    @Benchmark
+    public void command(Blackhole hole) {
+        Command command = new Command(nextMessage(), null, tokenizer);
+        hole.consume(command.isValid());
+        hole.consume(command.getAction());
+    }
+}
@@ -0,0 +1,289 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.networking.GameServer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Load harness comparing the server transport modes with many simulated connections.
+ * All simulated clients are driven by a single selector thread of this harness, so the numbers
+ * reflect the server side only. Idle clients only answer the server's pings, active clients
+ * additionally send a LIST request every {@link #REQUEST_INTERVAL_MS} and measure the round trip.
+ * <p>
+ * Usage: {@code ./gradlew connectionBenchmark --args="[modes] [connections] [active] [seconds]"},
+ * e.g. {@code --args="blocking,virtual 5000 500 20"}. The virtual mode needs a Java 21 runtime
+ * ({@code -Pjava21}) and 5k connections need a file descriptor limit of at least 10k ({@code ulimit -n}).
+ */
+public class ConnectionBenchmark {
+    /** First port used, every mode gets its own port */
+    private static final int BASE_PORT = 19000;
+    /** Interval between two requests of an active client */
+    private static final long REQUEST_INTERVAL_MS = 100;
+    /** Time to let the server settle before measuring */
+    private static final long WARMUP_MS = 3000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args modes (comma separated), connections, active connections, duration in seconds
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        String[] modes = (args.length > 0 ? args[0] : "blocking,virtual").split(",");
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int active = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        Logger.getLogger("").setLevel(Level.SEVERE);
+        Arrays.stream(Logger.getLogger("").getHandlers()).forEach(h -> h.setLevel(Level.SEVERE));
+
+        System.out.printf("%-9s %6s %6s %7s %9s %9s %10s %9s %9s %8s%n",
+                "mode", "conns", "active", "failed", "threads", "peakThr", "heapMB", "req/s", "p50(ms)", "p99(ms)");
+        for (int i = 0; i < modes.length; i++) {
+            GameServer.TransportMode mode = GameServer.TransportMode.fromString(modes[i].trim());
+            run(mode, BASE_PORT + i, connections, active, seconds);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Runs one configuration and prints a result row.
+     */
+    private static void run(GameServer.TransportMode mode, int port, int connections, int active, int seconds)
+            throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        int baselineThreads = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        GameServer server = new GameServer(port, mode);
+        new Thread(server::start, "bench-server").start();
+        Thread.sleep(500);
+
+        // The driver runs while connecting, otherwise early connections miss their pings and time out
+        Driver driver = new Driver(Selector.open());
+        Thread driverThread = new Thread(driver, "bench-driver");
+        driverThread.start();
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+            channel.configureBlocking(false);
+            driver.add(new SimClient(channel, i < active, "bench" + i));
+        }
+
+        Thread.sleep(WARMUP_MS);
+        driver.startMeasuring();
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        long elapsed = System.nanoTime() - start;
+        driver.stopMeasuring();
+
+        System.gc();
+        Thread.sleep(200);
+        long heap = memory.getHeapMemoryUsage().getUsed();
+        int serverThreads = threads.getThreadCount() - baselineThreads - 1; // minus the driver thread
+        int peakThreads = threads.getPeakThreadCount() - baselineThreads - 1;
+
+        long[] latencies = driver.latencies();
+        Arrays.sort(latencies);
+        System.out.printf(Locale.ROOT, "%-9s %6d %6d %7d %9d %9d %10.1f %9.0f %9.2f %8.2f%n",
+                mode.name().toLowerCase(Locale.ROOT), connections, active, driver.failed(), serverThreads, peakThreads,
+                heap / (1024.0 * 1024.0), latencies.length / (elapsed / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+
+        driver.stop();
+        driverThread.join();
+        server.shutdown();
+        Thread.sleep(1000);
+    }
+
+    /**
+     * Returns the given percentile of the sorted latencies in milliseconds.
+     */
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return Double.NaN;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    /**
+     * A simulated client connection.
+     */
+    private static final class SimClient {
+        private final SocketChannel channel;
+        private final boolean active;
+        private final String name;
+        private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        private final StringBuilder line = new StringBuilder();
+        private long requestSentAt = 0;
+        private long nextRequestAt = 0;
+
+        SimClient(SocketChannel channel, boolean active, String name) {
+            this.channel = channel;
+            this.active = active;
+            this.name = name;
+        }
+
+        void send(String message) throws IOException {
+            ByteBuffer out = ByteBuffer.wrap((message + "\n").getBytes(StandardCharsets.UTF_8));
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Drives all simulated clients from a single thread.
+     */
+    private static final class Driver implements Runnable {
+        private final Selector selector;
+        private final List<SimClient> clients = new ArrayList<>();
+        private final Queue<SimClient> added = new ConcurrentLinkedQueue<>();
+        private long[] latencies = new long[1 << 16];
+        private int latencyCount = 0;
+        private volatile boolean measuring = false;
+        private volatile boolean running = true;
+        private volatile int failed = 0;
+
+        Driver(Selector selector) {
+            this.selector = selector;
+        }
+
+        void add(SimClient client) {
+            added.add(client);
+            selector.wakeup();
+        }
+
+        int failed() {
+            return failed;
+        }
+
+        void startMeasuring() {
+            measuring = true;
+        }
+
+        void stopMeasuring() {
+            measuring = false;
+        }
+
+        void stop() {
+            running = false;
+            selector.wakeup();
+        }
+
+        synchronized long[] latencies() {
+            return Arrays.copyOf(latencies, latencyCount);
+        }
+
+        private synchronized void record(long latency) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[latencyCount++] = latency;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(5);
+                    SimClient client;
+                    while ((client = added.poll()) != null) {
+                        try {
+                            client.channel.register(selector, SelectionKey.OP_READ, client);
+                            client.send("RGST$" + client.name);
+                            clients.add(client);
+                        } catch (IOException e) {
+                            fail(client);
+                        }
+                    }
+
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        if (key.isValid() && key.isReadable()) {
+                            read((SimClient) key.attachment());
+                        }
+                    }
+                    selector.selectedKeys().clear();
+
+                    long now = System.nanoTime();
+                    for (SimClient c : clients) {
+                        if (c.active && c.requestSentAt == 0 && now >= c.nextRequestAt && c.channel.isOpen()) {
+                            c.requestSentAt = now;
+                            try {
+                                c.send("LIST$");
+                            } catch (IOException e) {
+                                fail(c);
+                            }
+                        }
+                    }
+                }
+                for (SimClient c : clients) {
+                    c.channel.close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("Driver failed: " + e.getMessage());
+            }
+        }
+
+        private void fail(SimClient client) {
+            failed++;
+            try {
+                client.channel.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+
+        private void read(SimClient client) {
+            try {
+                readLines(client);
+            } catch (IOException e) {
+                fail(client);
+            }
+        }
+
+        private void readLines(SimClient client) throws IOException {
+            int read = client.channel.read(client.buffer);
+            if (read < 0) {
+                fail(client);
+                return;
+            }
+            client.buffer.flip();
+            while (client.buffer.hasRemaining()) {
+                char c = (char) client.buffer.get();
+                if (c != '\n') {
+                    client.line.append(c);
+                    continue;
+                }
+                String message = client.line.toString();
+                client.line.setLength(0);
+                if (message.startsWith("PING$")) {
+                    client.send("PING$");
+                } else if (message.startsWith("OK$LIST$") && client.requestSentAt != 0) {
+                    long now = System.nanoTime();
+                    if (measuring) {
+                        record(now - client.requestSentAt);
+                    }
+                    client.requestSentAt = 0;
+                    client.nextRequestAt = now + REQUEST_INTERVAL_MS * 1_000_000L;
+                }
+            }
+            client.buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the cost of journaling games for crash recovery: the throughput of appending commands to a
+ * {@link GameJournal} with one force per batch, and the time to read and replay a journal of 1000 commands
+ * into a new game.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=GameJournalBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameJournalBenchmark {
+
+    /** Number of commands in the replayed journal */
+    private static final int REPLAY_COMMANDS = 1000;
+    /** Number of commands a player sends before the turn deadline passes */
+    private static final int COMMANDS_PER_TURN = 100;
+    /** The players of the replayed game */
+    private static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+
+    /** Number of commands appended per force, like the commands drained by one run of a mailbox */
+    @Param({"1", "16", "64"})
+    private int batchSize;
+
+    /** The directory of the journals */
+    private Path directory;
+    /** The journal the appends go to */
+    private GameJournal journal;
+    /** The journal of 1000 commands, read once */
+    private GameJournal.Recovery recovery;
+    /** Number of commands appended since the last force */
+    private int pending;
+
+    /**
+     * Creates the journal to append to and writes the journal to replay.
+     *
+     * @throws IOException if a journal cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        // Batches are forced by the benchmark, not by the journal writer
+        journal = GameJournal.create(directory, "append", 1L, PLAYERS, task -> { });
+
+        GameJournal replay = GameJournal.create(directory, "replay", 42L, PLAYERS, task -> { });
+        Random random = new Random(42);
+        for (int i = 0; i < REPLAY_COMMANDS; i++) {
+            String player = PLAYERS.get(i / COMMANDS_PER_TURN % PLAYERS.size());
+            String message = random.nextBoolean()
+                    ? "BUYT$" + random.nextInt(8) + "$" + random.nextInt(7)
+                    : "PLST$" + random.nextInt(8) + "$" + random.nextInt(7) + "$" + (1 + random.nextInt(8));
+            replay.appendAction(player, message);
+            if ((i + 1) % COMMANDS_PER_TURN == 0) {
+                replay.appendTurn();
+            }
+        }
+        replay.close();
+        recovery = GameJournal.read(replay.getPath());
+    }
+
+    /**
+     * Deletes the journals.
+     *
+     * @throws IOException if a journal cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Appends one command and forces the batch once it is full.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void append() {
+        journal.appendAction("alice", "PLST$2$5$7");
+        if (++pending >= batchSize) {
+            journal.flush();
+            pending = 0;
+        }
+    }
+
+    /**
+     * Reads the journal of 1000 commands from disk.
+     *
+     * @return the records
+     * @throws IOException if the journal cannot be read
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GameJournal.Recovery read1k() throws IOException {
+        return GameJournal.read(recovery.path());
+    }
+
+    /**
+     * Rebuilds the game from the journal of 1000 commands: creates the seeded game and replays every record.
+     *
+     * @return the recovered lobby
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Lobby replay1k() {
+        // Without a journal directory the recovered game is not journaled again
+        Lobby lobby = new Lobby("replay", PLAYERS.size(), new Leaderboard(null), TimerWheel.getDefault(),
+                Runnable::run, null);
+        lobby.recover(recovery);
+        return lobby;
+    }
+}
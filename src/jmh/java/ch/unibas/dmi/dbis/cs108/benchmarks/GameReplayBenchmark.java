@@ -0,0 +1,99 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.replay.GameReplay;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the headless replay of a recorded game by {@link GameReplay}: a game of four players with 15 turns of
+ * 20 random commands, whose journal holds a checkpoint at every turn boundary. The replay re-simulates the game
+ * and compares every checkpoint; the score is the number of games replayed per second on one thread.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=GameReplayBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameReplayBenchmark {
+
+    /** Number of turns of the recorded game */
+    private static final int TURNS = 15;
+    /** Number of commands a player sends per turn */
+    private static final int COMMANDS_PER_TURN = 20;
+    /** The players of the game */
+    private static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+
+    /** The journal of the recorded game */
+    private GameJournal.Recovery recovery;
+
+    /**
+     * Records a game by playing it in a journaled lobby.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("replay-benchmark");
+        GameJournal journal = GameJournal.create(directory, "replay", 42L, PLAYERS, task -> { });
+        journal.close();
+        // The recovered lobby journals the commands played in it, with a checkpoint at every turn change
+        Lobby lobby = new Lobby("replay", PLAYERS.size(), new Leaderboard(null), TimerWheel.getDefault(),
+                Runnable::run, directory);
+        lobby.recover(GameJournal.read(journal.getPath()));
+        Random random = new Random(42);
+        for (int turn = 0; turn < TURNS; turn++) {
+            Player player = new Player(lobby.getGameLogic().getGameState().getPlayerTurn());
+            for (int i = 0; i < COMMANDS_PER_TURN; i++) {
+                String message = random.nextBoolean()
+                        ? "BUYT$" + random.nextInt(8) + "$" + random.nextInt(7)
+                        : "PLST$" + random.nextInt(8) + "$" + random.nextInt(7) + "$" + (1 + random.nextInt(8));
+                lobby.processGameCommand(new Command(message, player));
+            }
+            lobby.processGameCommand(new Command("ENDT", player));
+        }
+        lobby.stopTurnScheduler();
+        lobby.closeJournal();
+
+        recovery = GameJournal.read(journal.getPath());
+        journal.delete();
+        Files.deleteIfExists(directory);
+        if (GameReplay.replay(recovery).diverged()) {
+            throw new IllegalStateException("Replay differs from the recorded game");
+        }
+    }
+
+    /**
+     * Replays the recorded game.
+     *
+     * @return the result of the replay
+     */
+    @Benchmark
+    public GameReplay.Result replay() {
+        return GameReplay.replay(recovery);
+    }
+}
@@ -0,0 +1,125 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary checkpoints of {@link GameStateCodec} with the text {@code SYNC} snapshot of the
+ * same game state: the latency of encoding and decoding a checkpoint and of creating the text snapshot without
+ * its cache. The state is the one of a game after 1000 commands. The sizes of both formats are printed once
+ * during the setup.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=GameStateCodecBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameStateCodecBenchmark {
+
+    /** Number of commands played before the state is taken */
+    private static final int COMMANDS = 1000;
+    /** Number of commands a player sends before the turn deadline passes */
+    private static final int COMMANDS_PER_TURN = 100;
+    /** The players of the game */
+    private static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+
+    /** The state of the game after the commands */
+    private GameState state;
+    /** The checkpoint of the state */
+    private byte[] checkpoint;
+    /** The state the checkpoint is decoded into */
+    private GameState target;
+
+    /**
+     * Plays a game of 1000 random commands by replaying a journal and takes its state.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("codec-benchmark");
+        GameJournal journal = GameJournal.create(directory, "codec", 42L, PLAYERS, task -> { });
+        Random random = new Random(42);
+        for (int i = 0; i < COMMANDS; i++) {
+            String player = PLAYERS.get(i / COMMANDS_PER_TURN % PLAYERS.size());
+            String message = random.nextBoolean()
+                    ? "BUYT$" + random.nextInt(8) + "$" + random.nextInt(7)
+                    : "PLST$" + random.nextInt(8) + "$" + random.nextInt(7) + "$" + (1 + random.nextInt(8));
+            journal.appendAction(player, message);
+            if ((i + 1) % COMMANDS_PER_TURN == 0) {
+                journal.appendTurn();
+            }
+        }
+        journal.close();
+        Lobby lobby = new Lobby("codec", PLAYERS.size(), new Leaderboard(null), TimerWheel.getDefault(),
+                Runnable::run, null);
+        lobby.recover(GameJournal.read(journal.getPath()));
+        journal.delete();
+        Files.deleteIfExists(directory);
+
+        state = lobby.getGameLogic().getGameState();
+        checkpoint = GameStateCodec.encode(state);
+        target = new GameState(null);
+        System.out.printf("%nbinary checkpoint: %d bytes, text snapshot: %d bytes%n", checkpoint.length,
+                state.createDetailedStatusMessage().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * Encodes a checkpoint of the state.
+     *
+     * @return the checkpoint
+     */
+    @Benchmark
+    public byte[] encode() {
+        return GameStateCodec.encode(state);
+    }
+
+    /**
+     * Restores a state from the checkpoint.
+     *
+     * @return the restored state
+     * @throws IOException if the checkpoint cannot be decoded
+     */
+    @Benchmark
+    public GameState decode() throws IOException {
+        GameStateCodec.decode(checkpoint, target);
+        return target;
+    }
+
+    /**
+     * Creates the text snapshot of the state. The state is marked as changed, so the snapshot cache misses.
+     *
+     * @return the snapshot
+     */
+    @Benchmark
+    public String textSnapshot() {
+        state.markChanged();
+        return state.createDetailedStatusMessage();
+    }
+}
@@ -0,0 +1,111 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.actions.TileActionHandler;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GameSimulation;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Policy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.RandomPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.SimulationStats;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GameState#fork()} on the state of a finished game of four players, alone and followed by one
+ * action on the fork, as done by a search or a speculative check of what an action would cost. The baseline
+ * copies the state through a {@link GameStateCodec} snapshot instead.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=GameStateForkBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameStateForkBenchmark {
+
+    /** The state to fork */
+    private GameState state;
+    /** The player buying a tile on the fork */
+    private String buyer;
+    /** The x-coordinate of the tile bought on the fork */
+    private int x;
+    /** The y-coordinate of the tile bought on the fork */
+    private int y;
+
+    /**
+     * Plays a game with random policies, so the board has owned and free tiles, entities and artifacts.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Policy> policies = Collections.nCopies(4, new RandomPolicy());
+        state = GameSimulation.play(42L, policies, new SimulationStats(policies.size()));
+        Player richest = state.getPlayers().stream().max(Comparator.comparingInt(Player::getRunes)).orElseThrow();
+        richest.setRoundBoughtTiles(0);
+        buyer = richest.getName();
+        for (Tile[] column : state.getBoardManager().getBoard().getTiles()) {
+            for (Tile tile : column) {
+                if (!tile.isPurchased() && tile.getPrice() <= richest.getRunes()) {
+                    x = tile.getX();
+                    y = tile.getY();
+                }
+            }
+        }
+        if (!new TileActionHandler(state.fork()).buyTile(x, y, buyer)) {
+            throw new IllegalStateException("No tile to buy on the fork");
+        }
+    }
+
+    /**
+     * Forks the state.
+     *
+     * @return the fork
+     */
+    @Benchmark
+    public GameState fork() {
+        return state.fork();
+    }
+
+    /**
+     * Forks the state and buys a tile on the fork.
+     *
+     * @return the fork
+     */
+    @Benchmark
+    public GameState forkAndBuyTile() {
+        GameState fork = state.fork();
+        new TileActionHandler(fork).buyTile(x, y, buyer);
+        return fork;
+    }
+
+    /**
+     * Copies the state by encoding a snapshot and decoding it into a new state.
+     *
+     * @return the copy
+     * @throws IOException if the snapshot cannot be decoded
+     */
+    @Benchmark
+    public GameState snapshotCopy() throws IOException {
+        GameState copy = new GameState(state.getNotifier(), 1L);
+        GameStateCodec.decode(GameStateCodec.encode(state), copy);
+        return copy;
+    }
+}
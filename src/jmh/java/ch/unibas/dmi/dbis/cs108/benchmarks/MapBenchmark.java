@@ -0,0 +1,107 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the start of a lobby and the full game state sent to its players on boards of growing size, from the
+ * default map of 8x7 tiles up to the default map repeated over 64x64 tiles.
+ * <p>
+ * {@link #lobbyStart()} creates the game of a lobby on the map and starts it, as the lobby does when its players
+ * are ready. {@link #baseline(SyncSize)} creates the full state broadcast at the start of the game, in chunks of at
+ * most {@link ch.unibas.dmi.dbis.cs108.SETTINGS.Config#SYNC_CHUNK_TILES} tiles; the {@code chars}, {@code lines}
+ * and {@code snapshots} counters are reported besides the time, {@code chars / snapshots} is the size of the full
+ * state and {@code lines / snapshots} the number of messages it is sent in.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=MapBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapBenchmark {
+
+    /** The spec of the map of the board */
+    @Param({"default", "default:16x16", "default:32x32", "default:64x64"})
+    public String map;
+
+    /** The names of the players of a lobby */
+    private static final String[] NAMES = {"Alice", "Bob", "Carol", "Dave"};
+
+    /** The map loaded from the spec */
+    private MapDefinition definition;
+    /** The state of a started game on the map */
+    private GameState state;
+    /** The seed of the next lobby */
+    private long seed;
+
+    /**
+     * Counts the size of the full states and the messages they are sent in.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class SyncSize {
+        /** Characters of all messages */
+        public long chars;
+        /** Messages sent */
+        public long lines;
+        /** Full states created */
+        public long snapshots;
+    }
+
+    /**
+     * Loads the map and starts a game on it.
+     */
+    @Setup
+    public void setUp() {
+        definition = MapDefinition.load(map);
+        state = lobbyStart().getGameState();
+    }
+
+    /**
+     * Creates and starts the game of a lobby on the map.
+     *
+     * @return the game
+     */
+    @Benchmark
+    public GameLogic lobbyStart() {
+        GameLogic gameLogic = new GameLogic(null, seed++, definition);
+        gameLogic.startGame(NAMES);
+        return gameLogic;
+    }
+
+    /**
+     * Creates the chunks of the full state broadcast at the start of the game.
+     *
+     * @param size counts the size of the chunks
+     * @return the chunks
+     */
+    @Benchmark
+    public List<String> baseline(SyncSize size) {
+        List<String> chunks = state.createBaselineStatusMessages();
+        for (String chunk : chunks) {
+            size.chars += chunk.length();
+        }
+        size.lines += chunks.size();
+        size.snapshots++;
+        return chunks;
+    }
+}
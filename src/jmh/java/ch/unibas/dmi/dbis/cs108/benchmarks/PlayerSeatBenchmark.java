@@ -0,0 +1,123 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GameSimulation;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Policy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.RandomPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.SimulationStats;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the actions that look up players and owners: buying a tile, which finds the player by name once and
+ * sets the tile to its seat, the text {@code SYNC} snapshot of a finished game of four players, which writes the
+ * owner of every tile, and a rename, which only renames the seat instead of visiting the tiles of the player.
+ * <p>
+ * The tile is bought by the last player, whose name was found last when players were searched by name, and is
+ * released again after every purchase, so every invocation buys the same tile.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=PlayerSeatBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlayerSeatBenchmark {
+
+    /** The names of the players of the new game */
+    private static final String[] NAMES = {"Alice", "Bob", "Carol", "Dave"};
+
+    /** The logic of a new game, the tile is bought in */
+    private GameLogic gameLogic;
+    /** The buying player */
+    private Player buyer;
+    /** The tile bought, without entity or artifact */
+    private Tile tile;
+    /** The runes of the buyer before the purchase */
+    private int runes;
+    /** The state of a finished game, for the snapshot and the rename */
+    private GameState finished;
+    /** The name of the renamed player of the finished game, swapped on every rename */
+    private String renamed = "P4";
+
+    /**
+     * Starts a new game and plays a game with random policies, so the board of the finished game has owned tiles.
+     */
+    @Setup
+    public void setUp() {
+        gameLogic = new GameLogic(new GameState(null, 42L).fork());
+        gameLogic.startGame(NAMES);
+        GameState state = gameLogic.getGameState();
+        buyer = state.findPlayerByName(NAMES[NAMES.length - 1]);
+        runes = buyer.getRunes();
+        Board board = state.getBoardManager().getBoard();
+        for (int id = 0; id < board.getTileCount() && tile == null; id++) {
+            if (board.getEntity(id) == null && board.getArtifact(id) == null) {
+                tile = board.getTile(id);
+            }
+        }
+
+        List<Policy> policies = Collections.nCopies(NAMES.length, new RandomPolicy());
+        finished = GameSimulation.play(42L, policies, new SimulationStats(policies.size()));
+    }
+
+    /**
+     * Buys the tile and releases it again, including an artifact the buyer may have found.
+     *
+     * @return if the tile was bought
+     */
+    @Benchmark
+    public boolean buyTile() {
+        boolean bought = gameLogic.buyTile(tile.getX(), tile.getY(), buyer.getName());
+        tile.setPurchased(false);
+        tile.setOwner((String) null);
+        buyer.removeOwnedTile(tile);
+        buyer.getArtifacts().clear();
+        buyer.setRoundBoughtTiles(0);
+        buyer.setRunes(runes);
+        return bought;
+    }
+
+    /**
+     * Creates the text snapshot of the finished game. The state is marked as changed, so the snapshot cache
+     * misses.
+     *
+     * @return the snapshot
+     */
+    @Benchmark
+    public String syncSnapshot() {
+        finished.markChanged();
+        return finished.createDetailedStatusMessage();
+    }
+
+    /**
+     * Renames a player of the finished game, back and forth between two names.
+     *
+     * @return if the player was renamed
+     */
+    @Benchmark
+    public boolean rename() {
+        String name = renamed.equals("P4") ? "Q4" : "P4";
+        boolean done = finished.renamePlayer(renamed, name);
+        renamed = name;
+        return done;
+    }
+}
@@ -0,0 +1,97 @@
+package ch.unibas.dmi.dbis.cs108.benchmarks;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the footprint and the loops of the {@link Status} of tiles and players.
+ * <p>
+ * {@link #thousandLobbies()} creates the game states of 1000 lobbies of four players; the {@code gc.alloc.rate.norm}
+ * reported by the gc profiler is the memory allocated for them, of which the board with its statuses is most. The
+ * other benchmarks read and buff the statuses of all tiles of a board.
+ * <p>
+ * Usage: {@code ./gradlew jmh -Pjmh.includes=StatusBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatusBenchmark {
+
+    /** The number of lobbies created per operation */
+    private static final int LOBBIES = 1000;
+    /** The names of the players of a lobby */
+    private static final String[] NAMES = {"Alice", "Bob", "Carol", "Dave"};
+
+    /** The board whose statuses are read and buffed */
+    private Board board;
+
+    /**
+     * Creates the board of a game.
+     */
+    @Setup
+    public void setUp() {
+        board = new GameState(null, 42L).getBoardManager().getBoard();
+    }
+
+    /**
+     * Creates the game states of 1000 lobbies.
+     *
+     * @return the game states
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GameState[] thousandLobbies() {
+        GameState[] states = new GameState[LOBBIES];
+        for (int i = 0; i < LOBBIES; i++) {
+            states[i] = new GameState(null, i);
+            states[i].setPlayers(NAMES);
+        }
+        return states;
+    }
+
+    /**
+     * Sums the rune efficiency of all tiles from the array of the board, as income and serialization read it.
+     *
+     * @return the sum
+     */
+    @Benchmark
+    public double readTiles() {
+        double sum = 0;
+        for (int id = 0; id < board.getTileCount(); id++) {
+            sum += board.getBuff(id, Status.BuffType.RUNE_GENERATION);
+        }
+        return sum;
+    }
+
+    /**
+     * Buffs and debuffs the rune efficiency of all tiles through the views of their statuses, so the values stay
+     * the same.
+     *
+     * @return the board
+     */
+    @Benchmark
+    public Board buffTiles() {
+        for (int id = 0; id < board.getTileCount(); id++) {
+            Status status = board.getStatus(id);
+            status.buff(Status.BuffType.RUNE_GENERATION, 0.5);
+            status.buff(Status.BuffType.RUNE_GENERATION, -0.5);
+        }
+        return board;
+    }
+}
@@ -1,7 +1,9 @@
 package ch.unibas.dmi.dbis.cs108;
 
 import ch.unibas.dmi.dbis.cs108.client.app.GameApplication;
+import ch.unibas.dmi.dbis.cs108.server.app.ReplayMain;
 import ch.unibas.dmi.dbis.cs108.server.app.ServerMain;
+import ch.unibas.dmi.dbis.cs108.server.app.SimulationMain;
 
 import java.util.logging.Logger;
 
@@ -16,14 +18,18 @@ public class Main {
      * Main method for the server and the client
      *
      * @param args Usage in terminal:
-     *             Server: java -jar xyz.jar server listenport
+     *             Server: java -jar xyz.jar server listenport [nio|virtual] [map]
      *             Client: java -jar xyz.jar client serverip:serverport [username]
+     *             Replay: java -jar xyz.jar replay journalfile|journaldirectory [threads]
+     *             Simulate: java -jar xyz.jar simulate configfile
      */
     public static void main(String[] args) {
         if (args.length < 2) {
             logger.info("Usage:");
-            logger.info("Server: java -jar SettlersOfAsgard.jar server <listenport>");
+            logger.info("Server: java -jar SettlersOfAsgard.jar server <listenport> [nio|virtual] [map]");
             logger.info("Client: java -jar SettlersOfAsgard.jar client <serverip>:<serverport> [username]");
+            logger.info("Replay: java -jar SettlersOfAsgard.jar replay <journal file or directory> [threads]");
+            logger.info("Simulate: java -jar SettlersOfAsgard.jar simulate <config file>");
             System.exit(1);
         }
 
@@ -33,8 +39,12 @@ public class Main {
             ServerMain.main(args);
         } else if (mode.equalsIgnoreCase("client")) {
             GameApplication.main(args);
+        } else if (mode.equalsIgnoreCase("replay")) {
+            ReplayMain.main(args);
+        } else if (mode.equalsIgnoreCase("simulate")) {
+            SimulationMain.main(args);
         } else {
-            logger.warning("Invalid mode. Expected: 'server' or 'client'.");
+            logger.warning("Invalid mode. Expected: 'server', 'client', 'replay' or 'simulate'.");
             System.exit(1);
         }
     }
@@ -1,5 +1,7 @@
 package ch.unibas.dmi.dbis.cs108;
 
+import java.util.function.Supplier;
+
 /**
  * The {@code SETTINGS} class contains configuration settings for the game
  * server and client.
@@ -119,12 +121,57 @@ public class SETTINGS {
          * The delay between reconnection attempts in milliseconds.
          * This is used to set the time between reconnection attempts.
          */
-        AUDIO_CROSSFADE_DURATION_MS(2500); // Crossfade duration in ms
-
+        AUDIO_CROSSFADE_DURATION_MS(2500), // Crossfade duration in ms
         /**
          * The duration of the audio crossfade in milliseconds.
          * This is used to set the duration for fading between audio tracks.
          */
+        OUTBOUND_QUEUE_CAPACITY(1024), // Messages
+        /**
+         * The maximum number of outgoing messages queued per connection.
+         * A connection whose queue is full is disconnected as a slow consumer.
+         */
+        OUTBOUND_HIGH_WATER(256), // Messages
+        /**
+         * The queue depth above which a connection is considered a slow consumer.
+         * This is used to detect clients that cannot keep up with the server.
+         */
+        OUTBOUND_LOW_WATER(64), // Messages
+        /**
+         * The queue depth below which a slow consumer is considered healthy again.
+         * This is used to reset the slow consumer deadline.
+         */
+        SLOW_CONSUMER_TIMEOUT(10 * 1000), // Milliseconds
+        /**
+         * The time a connection may stay above the high water mark before it is disconnected.
+         * This is used to evict clients that stall the broadcasts of their lobby.
+         */
+        BOT_TURN_BUDGET(500), // Milliseconds
+        /**
+         * The CPU time a bot may spend searching for the actions of its turn.
+         * This is used to keep the turns of bots short and the load of the server bounded.
+         */
+        BOT_THREADS(2), // Threads
+        /**
+         * The number of threads of the pool shared by all bots.
+         * This is used so bots cannot take the threads of the lobbies of human players.
+         */
+        BOT_QUEUE_CAPACITY(64), // Turns
+        /**
+         * The maximum number of bot turns waiting for a thread of the bot pool.
+         * This is used to bound the backlog of the bots, further turns are played without a search.
+         */
+        INCOME_CHECK(0), // 0 = off, 1 = on
+        /**
+         * Whether the income of every turn is also recounted over all owned tiles and compared with the ledger.
+         * This is used to debug the income ledger, a difference throws an exception.
+         */
+        SYNC_CHUNK_TILES(256); // Tiles
+
+        /**
+         * The maximum number of tiles in one message of a full game state.
+         * This is used so the full state of a large board is sent as several lines instead of a single huge one.
+         */
         private final int value;
 
         /**
@@ -137,12 +184,107 @@ public class SETTINGS {
         }
 
         /**
-         * Gets the default value of the configuration setting.
+         * Gets the value of the configuration setting: the default value, unless the running code was started with
+         * {@link Overrides} for it.
          *
-         * @return The default value of the configuration setting.
+         * @return The value of the configuration setting.
          */
         public int getValue() {
-            return value;
+            int[] overrides = Overrides.ACTIVE.get();
+            return overrides == null ? value : overrides[ordinal()];
+        }
+    }
+
+    /**
+     * The {@code Overrides} class holds values of {@link Config} settings that differ from their defaults, e.g. for
+     * the games of a simulation sweep. The values only apply to code run with {@link #call(Supplier)} or
+     * {@link #run(Runnable)}, and only on the thread that runs it, so games played by the server at the same time
+     * keep the default values. An instance is immutable, {@link #with(Config, int)} returns a copy.
+     */
+    public static final class Overrides {
+        /**
+         * The values of all settings for the code running on the current thread, null if there are no overrides.
+         */
+        private static final ThreadLocal<int[]> ACTIVE = new ThreadLocal<>();
+        /**
+         * The value of every setting, by ordinal.
+         */
+        private final int[] values;
+
+        /**
+         * Creates overrides with the default values of all settings.
+         */
+        public Overrides() {
+            Config[] settings = Config.values();
+            values = new int[settings.length];
+            for (Config setting : settings) {
+                values[setting.ordinal()] = setting.value;
+            }
+        }
+
+        /**
+         * Creates overrides with the given values.
+         *
+         * @param values The value of every setting, by ordinal.
+         */
+        private Overrides(int[] values) {
+            this.values = values;
+        }
+
+        /**
+         * Returns a copy of these overrides with another value for a setting.
+         *
+         * @param setting The configuration setting.
+         * @param value   The value of the setting.
+         * @return The new overrides.
+         */
+        public Overrides with(Config setting, int value) {
+            int[] copy = values.clone();
+            copy[setting.ordinal()] = value;
+            return new Overrides(copy);
+        }
+
+        /**
+         * Gets the value of a setting in these overrides.
+         *
+         * @param setting The configuration setting.
+         * @return The value of the setting.
+         */
+        public int get(Config setting) {
+            return values[setting.ordinal()];
+        }
+
+        /**
+         * Runs code on the current thread with these values of the settings.
+         *
+         * @param code The code to run.
+         * @param <T>  The type of the result of the code.
+         * @return The result of the code.
+         */
+        public <T> T call(Supplier<T> code) {
+            int[] previous = ACTIVE.get();
+            ACTIVE.set(values);
+            try {
+                return code.get();
+            } finally {
+                if (previous == null) {
+                    ACTIVE.remove();
+                } else {
+                    ACTIVE.set(previous);
+                }
+            }
+        }
+
+        /**
+         * Runs code on the current thread with these values of the settings.
+         *
+         * @param code The code to run.
+         */
+        public void run(Runnable code) {
+            call(() -> {
+                code.run();
+                return null;
+            });
         }
     }
 }
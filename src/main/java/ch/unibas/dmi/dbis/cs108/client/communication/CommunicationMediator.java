@@ -69,6 +69,8 @@ public class CommunicationMediator {
         this.player = player;
         this.gameStateManager = gameStateManager;
         this.networkController = networkController;
+        // Request the full game state if a delta cannot be applied
+        gameStateManager.setResyncRequest(networkController::getGameState);
         registerUIListeners();
         registerNetworkListeners();
     }
@@ -203,7 +205,15 @@ public class CommunicationMediator {
 
         UIEventBus.getInstance().subscribe(
                 ch.unibas.dmi.dbis.cs108.client.ui.events.admin.LeaderboardRequestUIEvent.class,
-                event -> networkController.getLeaderboard());
+                event -> {
+                    if (event.getPlayerName() != null) {
+                        networkController.getLeaderboardRank(event.getPlayerName());
+                    } else if (event.isPageRequest()) {
+                        networkController.getLeaderboardPage(event.getOffset(), event.getLimit());
+                    } else {
+                        networkController.getLeaderboard();
+                    }
+                });
 
         UIEventBus.getInstance().subscribe(
                 RequestGameStateEvent.class,
@@ -550,8 +560,9 @@ public class CommunicationMediator {
                     @Override
                     public void onEvent(GameSyncEvent event) {
                         // Publish game sync event to UI
+                        String command = event.isDelta() ? "SYND$" : "SYNC$"; // Necessary for proper parsing
                         UIEventBus.getInstance()
-                                .publish(new ch.unibas.dmi.dbis.cs108.client.ui.events.game.GameSyncEvent("SYNC$" + event.getMessage(), gameStateManager)); // SYNC$ Necessary for proper parsing
+                                .publish(new ch.unibas.dmi.dbis.cs108.client.ui.events.game.GameSyncEvent(command + event.getMessage(), gameStateManager));
                     }
 
                     @Override
@@ -576,6 +587,22 @@ public class CommunicationMediator {
                     }
                 });
 
+        // Leaderboard Page Event
+        EventDispatcher.getInstance().registerListener(LeaderboardPageEvent.class,
+                new EventDispatcher.EventListener<LeaderboardPageEvent>() {
+                    @Override
+                    public void onEvent(LeaderboardPageEvent event) {
+                        UIEventBus.getInstance()
+                                .publish(new ch.unibas.dmi.dbis.cs108.client.ui.events.admin.LeaderboardPageUIEvent(
+                                        event.getEntries(), event.getTotal(), event.isRankResult()));
+                    }
+
+                    @Override
+                    public Class<LeaderboardPageEvent> getEventType() {
+                        return LeaderboardPageEvent.class;
+                    }
+                });
+
         // Player List Event
         EventDispatcher.getInstance().registerListener(PlayerListEvent.class,
                 new EventDispatcher.EventListener<PlayerListEvent>() {
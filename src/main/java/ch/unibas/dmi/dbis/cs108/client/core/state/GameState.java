@@ -44,6 +44,10 @@ public class GameState {
      * The name of the players whose turn it is
      */
     private String playerTurn;
+    /**
+     * The version of the last state received from the server, -1 if none has been received yet
+     */
+    private long version = -1;
 
     /**
      * Creates a new GameState. Initializes the BoardManager.
@@ -107,6 +111,24 @@ public class GameState {
         this.gameRound = gameRound;
     }
 
+    /**
+     * Gets the version of the last state received from the server
+     *
+     * @return the version, -1 if none has been received yet
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the last state received from the server
+     *
+     * @param version the version to set
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Adds a player to the list of players
      *
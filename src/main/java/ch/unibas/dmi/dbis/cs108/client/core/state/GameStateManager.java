@@ -14,6 +14,7 @@ import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
 /**
@@ -30,6 +31,15 @@ public class GameStateManager {
      * The gameState object managed by this class
      */
     private GameState gameState;
+    /**
+     * Requests the full game state from the server, called when a delta cannot be applied
+     */
+    private Runnable resyncRequest;
+    /**
+     * Set from a request of the full game state until a full state is received, so the deltas that keep arriving
+     * in between do not request it again
+     */
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
 
     /**
      * Creates a new object of this class
@@ -58,18 +68,35 @@ public class GameStateManager {
         this.gameState = gameState;
     }
 
+    /**
+     * Sets the action that requests the full game state from the server.
+     * It is run when a delta does not follow the version of the current game state, once until the full state
+     * has been received.
+     *
+     * @param resyncRequest the action requesting the full game state
+     */
+    public void setResyncRequest(Runnable resyncRequest) {
+        this.resyncRequest = resyncRequest;
+    }
+
     /**
      * Updates the gameState by parsing the message from the server.
+     * Full states ({@code SYNC$}) replace the game state, deltas ({@code SYND$}) are applied in place.
      *
      * @param message the message from the server.
      * @see ch.unibas.dmi.dbis.cs108.server.core.model.GameStateSerializer
      */
     public void updateGameState(String message) {
+        if (message != null && message.startsWith("SYND$")) {
+            applyDelta(message);
+            return;
+        }
         LOGGER.info("Updating GameState");
         if (message == null || !message.startsWith("SYNC$")) {
             LOGGER.warning("Invalid game state message: " + (message == null ? "null" : message));
             return;
         }
+        resyncPending.set(false);
 
         // Format: META|PLAYERS|BOARD
         String[] sections = message.split("\\|", 3);
@@ -84,6 +111,7 @@ public class GameStateManager {
             // Log each section before parsing to help with debugging
             LOGGER.fine("META section: " + sections[0]);
             parseMetaSection(sections[0]);
+            resizeBoard(sections[0]);
 
             LOGGER.fine("PLAYERS section: " + sections[1]);
             parsePlayersSection(sections[1]);
@@ -100,25 +128,104 @@ public class GameStateManager {
         }
     }
 
+    /**
+     * Applies a delta containing only the changed players and tiles to the current game state.
+     * If the delta is not based on the version of the current game state, the full state is requested instead.
+     * The request is sent after the lock of the game state has been released.
+     *
+     * @param message the delta message from the server
+     */
+    private void applyDelta(String message) {
+        // Format: META|PLAYERS|BOARD, with only the changed players and tiles
+        String[] sections = message.split("\\|", 3);
+        if (sections.length < 3) {
+            LOGGER.warning("Invalid delta format, expected 3 sections but got " + sections.length);
+            return;
+        }
+
+        boolean missed;
+        gameState.getStateLock().writeLock().lock();
+        try {
+            // Format: SYND$META:gameRound,playerRound,playerTurn,version,baseVersion
+            String[] meta = sections[0].substring(10).split(",");
+            long baseVersion = meta.length >= 5 ? Long.parseLong(meta[4]) : -1;
+            missed = baseVersion < 0 || baseVersion != gameState.getVersion();
+            if (missed) {
+                LOGGER.info("Missed game state update (have " + gameState.getVersion() + ", delta based on "
+                        + baseVersion + ")");
+            } else {
+                parseMetaSection(sections[0]);
+                parsePlayersSection(sections[1]);
+                parseBoardSection(sections[2]);
+            }
+        } catch (Exception e) {
+            LOGGER.severe("Error applying game state delta: " + e);
+            missed = true;
+        } finally {
+            gameState.getStateLock().writeLock().unlock();
+        }
+        if (missed) {
+            requestResync();
+        }
+    }
+
+    /**
+     * Requests the full game state from the server, unless it has been requested and not yet received.
+     */
+    private void requestResync() {
+        if (resyncRequest != null && resyncPending.compareAndSet(false, true)) {
+            LOGGER.info("Requesting full game state");
+            resyncRequest.run();
+        }
+    }
+
     /**
      * Parse the meta-section of the string
      *
      * @param metaSection the first section of the message that contains metadata
      */
     private void parseMetaSection(String metaSection) {
-        // Format: SYNC$META:gameRound,playerRound,playerTurn
+        // Format: SYNC$META:gameRound,playerRound,playerTurn,version,width,height (deltas append the base version)
         String[] parts = metaSection.substring(10).split(","); // Remove "SYNC$META:"
         if (parts.length >= 3) {
             try {
                 gameState.setGameRound(Integer.parseInt(parts[0]));
                 gameState.setPlayerRound(Integer.parseInt(parts[1]));
                 gameState.setPlayerTurn(parts[2]);
+                if (parts.length >= 4) {
+                    gameState.setVersion(Long.parseLong(parts[3]));
+                }
             } catch (NumberFormatException e) {
                 LOGGER.warning("Invalid meta format: " + metaSection);
             }
         }
     }
 
+    /**
+     * Resizes the board to the size given in the meta-section of a full state, before the players refer to its
+     * tiles. Full states of large boards are sent in chunks, the tiles of the further chunks follow as deltas.
+     *
+     * @param metaSection the first section of the full state
+     */
+    private void resizeBoard(String metaSection) {
+        // Format: SYNC$META:gameRound,playerRound,playerTurn,version,width,height
+        String[] parts = metaSection.substring(10).split(",");
+        if (parts.length < 6) {
+            return;
+        }
+        try {
+            int width = Integer.parseInt(parts[4]);
+            int height = Integer.parseInt(parts[5]);
+            Board board = gameState.getBoardManager().getBoard();
+            if (width > 0 && height > 0 && (board.getWidth() != width || board.getHeight() != height)) {
+                LOGGER.info("Resizing board to " + width + "x" + height);
+                gameState.getBoardManager().initializeBoard(width, height);
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid board size: " + metaSection);
+        }
+    }
+
     /**
      * Parse the player section of the string
      *
@@ -138,9 +245,12 @@ public class GameStateManager {
             String playerName = entry.substring(0, braceOpen);
             String props = entry.substring(braceOpen + 1, entry.length() - 1);
 
-            // Create player
-            Player player = new Player(playerName);
-            gameState.addPlayer(player);
+            // Update the known player in place, create it otherwise
+            Player player = gameState.findPlayerByName(playerName);
+            if (player == null) {
+                player = new Player(playerName);
+                gameState.addPlayer(player);
+            }
 
             // Parse properties
             for (String prop : splitTopLevelProperties(props)) {
@@ -362,7 +472,7 @@ public class GameStateManager {
                                 tile.setHasRiver("1".equals(value));
                                 break;
                             case "ID":
-                                tile.setTileID(Integer.parseInt(value));
+                                // The id of a tile is its position on the board
                                 break;
                             case "ST":
                                 // Format: RG:<val>,EG:<val>,RR:<val>,SP:<val>,AC:<val>,DB:<val>
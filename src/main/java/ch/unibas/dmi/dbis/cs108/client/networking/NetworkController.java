@@ -639,6 +639,27 @@ public class NetworkController {
         networkClient.send(message);
     }
 
+    /**
+     * Requests a page of the leaderboard from the server.
+     *
+     * @param offset the 0-based position of the first player
+     * @param limit  the maximum number of players
+     */
+    public void getLeaderboardPage(int offset, int limit) {
+        String message = translator.formatGetLeaderboardPage(offset, limit);
+        networkClient.send(message);
+    }
+
+    /**
+     * Requests the rank of a player on the leaderboard from the server.
+     *
+     * @param playerName the name of the player
+     */
+    public void getLeaderboardRank(String playerName) {
+        String message = translator.formatGetLeaderboardRank(playerName);
+        networkClient.send(message);
+    }
+
     /**
      * Sends a message to the server to get the local player's information.
      *
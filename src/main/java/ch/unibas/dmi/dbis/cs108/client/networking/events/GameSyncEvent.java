@@ -15,6 +15,10 @@ public class GameSyncEvent implements Event {
      * The message for the gameStateManager
      */
     private final String message;
+    /**
+     * Whether the message only contains the changes since the previous synchronization
+     */
+    private final boolean delta;
 
     /**
      * Constructor for GameSyncEvent.
@@ -22,7 +26,18 @@ public class GameSyncEvent implements Event {
      * @param message The message to be sent with the event.
      */
     public GameSyncEvent(String message) {
+        this(message, false);
+    }
+
+    /**
+     * Constructor for GameSyncEvent.
+     *
+     * @param message The message to be sent with the event.
+     * @param delta   Whether the message only contains the changes since the previous synchronization.
+     */
+    public GameSyncEvent(String message, boolean delta) {
         this.message = message;
+        this.delta = delta;
     }
 
     /**
@@ -43,4 +58,13 @@ public class GameSyncEvent implements Event {
     public String getMessage() {
         return message;
     }
+
+    /**
+     * Checks whether the message only contains the changes since the previous synchronization.
+     *
+     * @return true for a delta, false for the full game state
+     */
+    public boolean isDelta() {
+        return delta;
+    }
 }
@@ -0,0 +1,114 @@
+package ch.unibas.dmi.dbis.cs108.client.networking.events;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LeaderboardPageEvent represents a page of the leaderboard sent by the server,
+ * either requested by position or containing the single player whose rank was requested.
+ * The message has the form {@code PAGE$<offset>$<total>$<name>:<points>%...} or {@code RANK$<offset>$<total>$<name>:<points>}.
+ */
+public class LeaderboardPageEvent implements Event {
+    /**
+     * The timestamp of when the event occurred.
+     */
+    private final Instant timestamp = Instant.now();
+    /**
+     * The players of the page, sorted from highest to lowest.
+     */
+    private final List<Leaderboard.RankedEntry> entries = new ArrayList<>();
+    /**
+     * The 0-based position of the first player of the page.
+     */
+    private final int offset;
+    /**
+     * The number of players on the whole leaderboard.
+     */
+    private final int total;
+    /**
+     * Whether the page answers a rank request.
+     */
+    private final boolean rankResult;
+
+    /**
+     * Constructor for LeaderboardPageEvent. Parses the arguments of the message.
+     *
+     * @param message the arguments of the LEAD message
+     */
+    public LeaderboardPageEvent(String message) {
+        String[] parts = message.split("\\$", 4);
+        rankResult = parts[0].equals("RANK");
+        offset = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+        total = parts.length > 2 ? Integer.parseInt(parts[2]) : 0;
+        if (parts.length > 3 && !parts[3].isEmpty()) {
+            int rank = offset + 1;
+            for (String entry : parts[3].split("%")) {
+                int separator = entry.lastIndexOf(':');
+                if (separator > 0) {
+                    entries.add(new Leaderboard.RankedEntry(rank++, entry.substring(0, separator),
+                            Integer.parseInt(entry.substring(separator + 1))));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a message is a page or rank answer of the leaderboard.
+     *
+     * @param message the arguments of the LEAD message
+     * @return true if the message is a page, false if it is the whole leaderboard
+     */
+    public static boolean isPage(String message) {
+        return message.startsWith("PAGE$") || message.startsWith("RANK$");
+    }
+
+    /**
+     * getTimestamp returns the timestamp of the event.
+     *
+     * @return The timestamp of the event.
+     */
+    @Override
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the players of the page.
+     *
+     * @return the players with their rank, sorted from highest to lowest
+     */
+    public List<Leaderboard.RankedEntry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Gets the position of the first player of the page.
+     *
+     * @return the 0-based offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the number of players on the whole leaderboard.
+     *
+     * @return the total number of players
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Checks if the page answers a rank request.
+     *
+     * @return true if the page contains the player whose rank was requested
+     */
+    public boolean isRankResult() {
+        return rankResult;
+    }
+}
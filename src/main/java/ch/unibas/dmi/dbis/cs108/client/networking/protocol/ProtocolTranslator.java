@@ -83,6 +83,7 @@ public class ProtocolTranslator implements CommunicationAPI {
         commandHandlers.put(Commands.DISCONNECT.getCommand(), this::processDisconnectMessage);
         commandHandlers.put(Commands.ENDGAME.getCommand(), this::processEndGameMessage);
         commandHandlers.put(Commands.SYNCHRONIZE.getCommand(), this::processSyncMessage);
+        commandHandlers.put(Commands.SYNCDELTA.getCommand(), this::processSyncDeltaMessage);
         commandHandlers.put(Commands.LEADERBOARD.getCommand(), this::processLeaderboard);
         commandHandlers.put(Commands.RECONNECT.getCommand(), this::processReconnectMessage);
     }
@@ -146,6 +147,15 @@ public class ProtocolTranslator implements CommunicationAPI {
         eventDispatcher.dispatchEvent(new GameSyncEvent(message));
     }
 
+    /**
+     * This method invokes a new Event based on the message.
+     *
+     * @param message the args of the message.
+     */
+    public void processSyncDeltaMessage(String message) {
+        eventDispatcher.dispatchEvent(new GameSyncEvent(message, true));
+    }
+
     /**
      * This method invokes a new Event based on the message.
      *
@@ -353,6 +363,14 @@ public class ProtocolTranslator implements CommunicationAPI {
      */
     private void processLeaderboard(String args) {
         Logger.getGlobal().info("Processing leaderboard message: " + args);
+        if (LeaderboardPageEvent.isPage(args)) {
+            try {
+                eventDispatcher.dispatchEvent(new LeaderboardPageEvent(args));
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid LEADERBOARD page format: " + args);
+            }
+            return;
+        }
         eventDispatcher.dispatchEvent(new LeaderboardResponseEvent(args));
     }
 
@@ -412,6 +430,27 @@ public class ProtocolTranslator implements CommunicationAPI {
         return Commands.LEADERBOARD.getCommand() + DELIMITER;
     }
 
+    /**
+     * Formats the message based on the type.
+     *
+     * @param offset the 0-based position of the first player
+     * @param limit  the maximum number of players
+     * @return the formatted messages.
+     */
+    public String formatGetLeaderboardPage(int offset, int limit) {
+        return Commands.LEADERBOARD.getCommand() + DELIMITER + offset + DELIMITER + limit;
+    }
+
+    /**
+     * Formats the message based on the type.
+     *
+     * @param playerName the name of the player
+     * @return the formatted messages.
+     */
+    public String formatGetLeaderboardRank(String playerName) {
+        return Commands.LEADERBOARD.getCommand() + DELIMITER + "RANK" + DELIMITER + playerName;
+    }
+
     /**
      * Formats the message based on the type.
      *
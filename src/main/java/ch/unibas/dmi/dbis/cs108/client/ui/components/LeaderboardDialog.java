@@ -1,6 +1,9 @@
 package ch.unibas.dmi.dbis.cs108.client.ui.components;
 
 import ch.unibas.dmi.dbis.cs108.client.audio.AudioManager;
+import ch.unibas.dmi.dbis.cs108.client.ui.events.UIEventBus;
+import ch.unibas.dmi.dbis.cs108.client.ui.events.admin.LeaderboardPageUIEvent;
+import ch.unibas.dmi.dbis.cs108.client.ui.events.admin.LeaderboardRequestUIEvent;
 import ch.unibas.dmi.dbis.cs108.client.ui.utils.StylesheetLoader;
 import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
 import javafx.animation.FadeTransition;
@@ -15,11 +18,15 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- * LeaderboardDialog is a UI component that represents a dialog for displaying
+ * LeaderboardDialog is a UI component that represents a dialog for displaying the leaderboard.
+ * The leaderboard is fetched from the server page by page: the first page when the dialog is opened,
+ * the next one whenever the list is scrolled to the end. Pressing enter in the search field asks
+ * the server for the rank of the entered player.
  */
 public class LeaderboardDialog extends UIComponent<StackPane> {
     /**
@@ -27,9 +34,25 @@ public class LeaderboardDialog extends UIComponent<StackPane> {
      */
     private static final String LEADERBOARD_TITLE = "Global Leaderboard";
     /**
-     * The leaderboard
+     * The number of players requested per page
      */
-    private Leaderboard leaderboard;
+    public static final int PAGE_SIZE = 50;
+    /**
+     * The players loaded so far, sorted by rank
+     */
+    private final List<Leaderboard.RankedEntry> entries = new ArrayList<>();
+    /**
+     * The number of players on the server's leaderboard, -1 before the first page arrived
+     */
+    private int total = -1;
+    /**
+     * Whether a page has been requested and not yet received
+     */
+    private boolean loading;
+    /**
+     * The player found by the last rank search, null if none
+     */
+    private Leaderboard.RankedEntry searchResult;
     /**
      * The VBox for all entries in the dialog
      */
@@ -92,6 +115,7 @@ public class LeaderboardDialog extends UIComponent<StackPane> {
         searchField.getStyleClass().add("dialog-textfield");
         searchField.setMaxWidth(300);
         searchField.textProperty().addListener((obs, oldVal, newVal) -> updateLeaderboardEntries());
+        searchField.setOnAction(e -> requestRank());
 
         leaderboardBox = new VBox(5);
         leaderboardBox.setFillWidth(true);
@@ -101,6 +125,11 @@ public class LeaderboardDialog extends UIComponent<StackPane> {
         scrollPane.setPrefHeight(300);
         scrollPane.setMaxHeight(300);
         scrollPane.getStyleClass().add("dialog-scrollpane");
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal.doubleValue() >= scrollPane.getVmax() * 0.95) {
+                requestNextPage();
+            }
+        });
 
         Button closeButton = new Button("Close");
         closeButton.getStyleClass().addAll("dialog-button", "dialog-button-cancel");
@@ -118,24 +147,74 @@ public class LeaderboardDialog extends UIComponent<StackPane> {
     }
 
     /**
-     * Updates the leaderboard entries in the dialog based on the current leaderboard data.
-     * Filters the entries based on the search field input and sorts them by score.
+     * Discards the loaded players and requests the first page from the server.
+     */
+    public void reset() {
+        entries.clear();
+        total = -1;
+        loading = false;
+        searchResult = null;
+        updateLeaderboardEntries();
+        requestNextPage();
+    }
+
+    /**
+     * Requests the next page from the server, unless a page is pending or all players are loaded.
+     */
+    private void requestNextPage() {
+        if (loading || (total >= 0 && entries.size() >= total)) return;
+        loading = true;
+        UIEventBus.getInstance().publish(new LeaderboardRequestUIEvent(entries.size(), PAGE_SIZE));
+    }
+
+    /**
+     * Requests the rank of the player entered in the search field from the server.
+     */
+    private void requestRank() {
+        String name = searchField.getText() != null ? searchField.getText().trim().toLowerCase() : "";
+        if (!name.isEmpty()) {
+            UIEventBus.getInstance().publish(new LeaderboardRequestUIEvent(name));
+        }
+    }
+
+    /**
+     * Adds a page received from the server, or shows the result of a rank search.
+     *
+     * @param page the received page
+     */
+    public void addPage(LeaderboardPageUIEvent page) {
+        if (page.isRankResult()) {
+            searchResult = page.getEntries().isEmpty() ? null : page.getEntries().get(0);
+        } else {
+            loading = false;
+            total = page.getTotal();
+            for (Leaderboard.RankedEntry entry : page.getEntries()) {
+                // Skip players that are already loaded, e.g. if a page was requested twice
+                if (entry.rank() > entries.size()) {
+                    entries.add(entry);
+                }
+            }
+        }
+        updateLeaderboardEntries();
+    }
+
+    /**
+     * Updates the leaderboard entries in the dialog based on the loaded players.
+     * Filters the entries based on the search field input. The player found by a rank search is shown first.
      */
     private void updateLeaderboardEntries() {
         leaderboardBox.getChildren().clear();
-        if (leaderboard == null) return;
 
         String filter = searchField.getText() != null ? searchField.getText().trim().toLowerCase() : "";
-        Map<String, Integer> entries = leaderboard.getLeaderboard();
-        List<Map.Entry<String, Integer>> sorted = entries.entrySet().stream()
-                .filter(e -> filter.isEmpty() || e.getKey().toLowerCase().contains(filter))
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .toList();
-
-        int rank = 1;
-        for (Map.Entry<String, Integer> entry : sorted) {
-            leaderboardBox.getChildren().add(createLeaderboardCell(rank, entry.getKey(), entry.getValue()));
-            rank++;
+        if (searchResult != null && !filter.isEmpty() && searchResult.name().toLowerCase().contains(filter)) {
+            leaderboardBox.getChildren().add(createLeaderboardCell(searchResult.rank(), searchResult.name(),
+                    searchResult.points()));
+            leaderboardBox.getChildren().add(new DialogSeparator());
+        }
+        for (Leaderboard.RankedEntry entry : entries) {
+            if (filter.isEmpty() || entry.name().toLowerCase().contains(filter)) {
+                leaderboardBox.getChildren().add(createLeaderboardCell(entry.rank(), entry.name(), entry.points()));
+            }
         }
     }
 
@@ -224,12 +303,27 @@ public class LeaderboardDialog extends UIComponent<StackPane> {
     }
 
     /**
-     * Sets the leaderboard data for the dialog and updates the entries.
+     * Checks if the dialog is currently shown.
+     *
+     * @return true if the dialog is visible
+     */
+    public boolean isShowing() {
+        return this.view.isVisible();
+    }
+
+    /**
+     * Sets the whole leaderboard for the dialog and updates the entries.
      *
      * @param leaderboard The leaderboard data to be displayed
      */
     public void setLeaderboard(Leaderboard leaderboard) {
-        this.leaderboard = leaderboard;
+        entries.clear();
+        int rank = 1;
+        for (Map.Entry<String, Integer> entry : leaderboard.getLeaderboard().entrySet()) {
+            entries.add(new Leaderboard.RankedEntry(rank++, entry.getKey(), entry.getValue()));
+        }
+        total = entries.size();
+        loading = false;
         updateLeaderboardEntries();
     }
 
@@ -91,11 +91,11 @@ public class GameScreenController extends BaseController {
      * --------------------------------------------------
      */
     /*
-     * The number of rows in the hex grid.
+     * The number of rows in the hex grid of the default map, used before the board is known.
      */
     static final int HEX_ROWS = 7;
     /*
-     * The number of collums in the hex grid.
+     * The number of collums in the hex grid of the default map, used before the board is known.
      */
     static final int HEX_COLS = 8;
     /*
@@ -1624,8 +1624,8 @@ public class GameScreenController extends BaseController {
         double gridW = scaledMapWidth * gridAdjustmentManager.getGridWidthPercentage();
         double gridH = scaledMapHeight * gridAdjustmentManager.getGridHeightPercentage();
 
-        double hLimit = gridW / ((HEX_COLS - 1) * 0.75 + 1);
-        double vLimit = gridH / ((HEX_ROWS - 0.5) * 0.866 * 2);
+        double hLimit = gridW / ((hexCols() - 1) * 0.75 + 1);
+        double vLimit = gridH / ((hexRows() - 0.5) * 0.866 * 2);
         effectiveHexSize = Math.min(hLimit, vLimit) * 0.5 * gridAdjustmentManager.getGridScaleFactor();
 
         hSpacing = effectiveHexSize * gridAdjustmentManager.getHorizontalSpacingFactor();
@@ -1634,8 +1634,8 @@ public class GameScreenController extends BaseController {
         double addHX = gridAdjustmentManager.getGridHorizontalOffset() * scaledMapWidth;
         double addHY = gridAdjustmentManager.getGridVerticalOffset() * scaledMapHeight;
 
-        double totalW = hSpacing * (HEX_COLS - 0.5);
-        double totalH = vSpacing * HEX_ROWS;
+        double totalW = hSpacing * (hexCols() - 0.5);
+        double totalH = vSpacing * hexRows();
 
         double baseX = mapOffsetX + (scaledMapWidth - gridW) / 2;
         double baseY = mapOffsetY + (scaledMapHeight - gridH) / 2;
@@ -1647,8 +1647,8 @@ public class GameScreenController extends BaseController {
         gc.setLineWidth(1.5);
         gc.setGlobalAlpha(0.7);
 
-        for (int r = 0; r < HEX_ROWS; r++) {
-            for (int c = 0; c < HEX_COLS; c++) {
+        for (int r = 0; r < hexRows(); r++) {
+            for (int c = 0; c < hexCols(); c++) {
                 double cx = gridOffsetX + c * hSpacing + (r % 2) * (hSpacing / 2);
                 double cy = gridOffsetY + r * vSpacing;
                 drawHexBackground(gc, cx, cy, effectiveHexSize, r, c);
@@ -1897,8 +1897,8 @@ public class GameScreenController extends BaseController {
         GraphicsContext gc = gameCanvas.getGraphicsContext2D();
         gc.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
 
-        for (int r = 0; r < HEX_ROWS; r++) {
-            for (int c = 0; c < HEX_COLS; c++) {
+        for (int r = 0; r < hexRows(); r++) {
+            for (int c = 0; c < hexCols(); c++) {
                 Tile tile = getTile(r, c);
                 if (tile != null && tile.hasEntity()) {
                     double cx = gridOffsetX + c * hSpacing + (r % 2) * (hSpacing / 2.0);
@@ -1946,8 +1946,8 @@ public class GameScreenController extends BaseController {
         double hSpacing = effectiveHexSize * gridAdjustmentManager.getHorizontalSpacingFactor();
         double vSpacing = effectiveHexSize * gridAdjustmentManager.getVerticalSpacingFactor();
 
-        for (int r = 0; r < HEX_ROWS; r++) {
-            for (int c = 0; c < HEX_COLS; c++) {
+        for (int r = 0; r < hexRows(); r++) {
+            for (int c = 0; c < hexCols(); c++) {
                 double cx = gridOffsetX + c * hSpacing + (r % 2) * (hSpacing / 2);
                 double cy = gridOffsetY + r * vSpacing;
                 if (pointInHex(px, py, cx, cy, effectiveHexSize)) {
@@ -2919,6 +2919,30 @@ public class GameScreenController extends BaseController {
 
     // Helper methods for better gameState access
 
+    /**
+     * Gets the number of rows of the hex grid, the height of the board.
+     *
+     * @return the number of rows
+     */
+    private int hexRows() {
+        if (gameState == null || gameState.getBoardManager() == null) {
+            return HEX_ROWS;
+        }
+        return gameState.getBoardManager().getBoard().getHeight();
+    }
+
+    /**
+     * Gets the number of columns of the hex grid, the width of the board.
+     *
+     * @return the number of columns
+     */
+    private int hexCols() {
+        if (gameState == null || gameState.getBoardManager() == null) {
+            return HEX_COLS;
+        }
+        return gameState.getBoardManager().getBoard().getWidth();
+    }
+
     /*
     * getter for the tile at the given row and column
     *
@@ -3432,8 +3456,8 @@ public class GameScreenController extends BaseController {
      */
     private int countPlayerStructures(String playerName) {
         int count = 0;
-        for (int r = 0; r < HEX_ROWS; r++) {
-            for (int c = 0; c < HEX_COLS; c++) {
+        for (int r = 0; r < hexRows(); r++) {
+            for (int c = 0; c < hexCols(); c++) {
                 Tile tile = getTile(r, c);
                 if (tile != null &&
                         tile.getOwner() != null &&
@@ -3470,7 +3494,7 @@ public class GameScreenController extends BaseController {
             int col = event.getTileX(); // X is column
             int row = event.getTileY(); // Y is row
 
-            if (row < 0 || row >= HEX_ROWS || col < 0 || col >= HEX_COLS) {
+            if (row < 0 || row >= hexRows() || col < 0 || col >= hexCols()) {
                 LOGGER.warning("Invalid tile coordinates for artifact location: row=" + row + ", col=" + col);
                 clearArtifactIndicator();
                 return;
@@ -3574,7 +3598,7 @@ public class GameScreenController extends BaseController {
             int row = event.getY(); // Y is row
             int lostRunes = event.getLostRunes();
 
-            if (row < 0 || row >= HEX_ROWS || col < 0 || col >= HEX_COLS) {
+            if (row < 0 || row >= hexRows() || col < 0 || col >= hexCols()) {
                 LOGGER.warning("Invalid tile coordinates for trap location: row=" + row + ", col=" + col);
                 clearTrapIndicator();
                 return;
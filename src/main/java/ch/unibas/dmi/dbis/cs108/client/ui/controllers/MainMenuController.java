@@ -205,6 +205,7 @@ public class MainMenuController extends BaseController {
         eventBus.subscribe(ErrorEvent.class, this::handleErrorEvent);
         eventBus.subscribe(NameChangeResponseEvent.class, this::handleNameChangeResponse);
         eventBus.subscribe(LeaderboardResponseUIEvent.class, this::handleLeaderboardResponse);
+        eventBus.subscribe(LeaderboardPageUIEvent.class, this::handleLeaderboardPage);
     }
 
     /**
@@ -322,6 +323,26 @@ public class MainMenuController extends BaseController {
         });
     }
 
+    /**
+     * Handles a page of the leaderboard or the result of a rank search.
+     * Shows the leaderboard dialog when its first page arrives.
+     *
+     * @param event The leaderboard page event.
+     */
+    private void handleLeaderboardPage(LeaderboardPageUIEvent event) {
+        Objects.requireNonNull(event, "LeaderboardPageUIEvent cannot be null");
+        Platform.runLater(() -> {
+            if (leaderboardDialog == null) {
+                LOGGER.severe("LeaderboardDialog is null. Cannot display leaderboard.");
+                return;
+            }
+            leaderboardDialog.addPage(event);
+            if (!leaderboardDialog.isShowing()) {
+                showDialogAsOverlay(leaderboardDialog, mainMenuRoot);
+            }
+        });
+    }
+
     /**
      * Handles the "Play Game" button click. Switches to the lobby scene if
      * connected.
@@ -380,7 +401,8 @@ public class MainMenuController extends BaseController {
      */
     @FXML
     private void handleLeaderboard() {
-        eventBus.publish(new LeaderboardRequestUIEvent());
+        // Requests the first page, the dialog is shown when it arrives
+        leaderboardDialog.reset();
         LOGGER.info("Leaderboard button clicked.");
     }
 
@@ -508,6 +530,7 @@ public class MainMenuController extends BaseController {
         eventBus.unsubscribe(ErrorEvent.class, this::handleErrorEvent);
         eventBus.unsubscribe(NameChangeResponseEvent.class, this::handleNameChangeResponse);
         eventBus.unsubscribe(LeaderboardResponseUIEvent.class, this::handleLeaderboardResponse);
+        eventBus.unsubscribe(LeaderboardPageUIEvent.class, this::handleLeaderboardPage);
 
         playerManager.removePlayerUpdateListener(this::handlePlayerUpdate);
 
@@ -0,0 +1,72 @@
+package ch.unibas.dmi.dbis.cs108.client.ui.events.admin;
+
+import ch.unibas.dmi.dbis.cs108.client.ui.events.UIEvent;
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+
+import java.util.List;
+
+/**
+ * UIEvent triggered when a page of the leaderboard or the rank of a player is received from the server.
+ */
+public class LeaderboardPageUIEvent implements UIEvent {
+    /**
+     * The players of the page.
+     */
+    private final List<Leaderboard.RankedEntry> entries;
+    /**
+     * The number of players on the whole leaderboard.
+     */
+    private final int total;
+    /**
+     * Whether the page answers a rank request.
+     */
+    private final boolean rankResult;
+
+    /**
+     * Constructor for LeaderboardPageUIEvent.
+     *
+     * @param entries    the players of the page with their rank
+     * @param total      the number of players on the whole leaderboard
+     * @param rankResult whether the page answers a rank request
+     */
+    public LeaderboardPageUIEvent(List<Leaderboard.RankedEntry> entries, int total, boolean rankResult) {
+        this.entries = entries;
+        this.total = total;
+        this.rankResult = rankResult;
+    }
+
+    /**
+     * Gets the players of the page.
+     *
+     * @return the players with their rank, sorted from highest to lowest
+     */
+    public List<Leaderboard.RankedEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the number of players on the whole leaderboard.
+     *
+     * @return the total number of players
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Checks if the page answers a rank request.
+     *
+     * @return true if the page contains the player whose rank was requested
+     */
+    public boolean isRankResult() {
+        return rankResult;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getType() {
+        return "LEADERBOARD_PAGE";
+    }
+}
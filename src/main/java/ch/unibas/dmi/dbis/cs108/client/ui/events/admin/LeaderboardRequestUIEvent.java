@@ -3,10 +3,92 @@ package ch.unibas.dmi.dbis.cs108.client.ui.events.admin;
 import ch.unibas.dmi.dbis.cs108.client.ui.events.UIEvent;
 
 /**
- * UIEvent triggered when a user requests to view the leaderboard.
+ * UIEvent triggered when a user requests to view the leaderboard,
+ * either the whole leaderboard, a page of it or the rank of a player.
  */
 public class LeaderboardRequestUIEvent implements UIEvent {
 
+    /**
+     * The position of the first requested player, -1 if no page is requested.
+     */
+    private final int offset;
+    /**
+     * The maximum number of requested players.
+     */
+    private final int limit;
+    /**
+     * The player whose rank is requested, null if no rank is requested.
+     */
+    private final String playerName;
+
+    /**
+     * Constructs a request for the whole leaderboard.
+     */
+    public LeaderboardRequestUIEvent() {
+        this(-1, 0, null);
+    }
+
+    /**
+     * Constructs a request for a page of the leaderboard.
+     *
+     * @param offset the 0-based position of the first player
+     * @param limit  the maximum number of players
+     */
+    public LeaderboardRequestUIEvent(int offset, int limit) {
+        this(offset, limit, null);
+    }
+
+    /**
+     * Constructs a request for the rank of a player.
+     *
+     * @param playerName the name of the player
+     */
+    public LeaderboardRequestUIEvent(String playerName) {
+        this(-1, 0, playerName);
+    }
+
+    private LeaderboardRequestUIEvent(int offset, int limit, String playerName) {
+        this.offset = offset;
+        this.limit = limit;
+        this.playerName = playerName;
+    }
+
+    /**
+     * Checks if a page of the leaderboard is requested.
+     *
+     * @return true if a page is requested
+     */
+    public boolean isPageRequest() {
+        return offset >= 0;
+    }
+
+    /**
+     * Gets the position of the first requested player.
+     *
+     * @return the 0-based offset, -1 if no page is requested
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the maximum number of requested players.
+     *
+     * @return the page size
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Gets the player whose rank is requested.
+     *
+     * @return the player name, or null if no rank is requested
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,68 @@
+package ch.unibas.dmi.dbis.cs108.server.app;
+
+import ch.unibas.dmi.dbis.cs108.server.core.replay.GameReplay;
+import ch.unibas.dmi.dbis.cs108.server.core.replay.ReplayArchive;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Main class for replaying archived game journals, e.g. to verify a change of the rules against recorded games
+ * or as a regression benchmark. Prints the final state hash or the first divergence of every game and the number
+ * of games replayed per second.
+ */
+public class ReplayMain {
+
+    /**
+     * Logger to log logging
+     */
+    private static final Logger logger = Logger.getLogger(ReplayMain.class.getName());
+
+    /**
+     * Main method for the replay
+     *
+     * @param args contains the journal file or the directory of the journals at index 1 and optionally the
+     *             number of threads at index 2 (default: all cores).
+     */
+    public static void main(String[] args) {
+        List<Path> journals;
+        int threads;
+        try {
+            Path path = Path.of(args[1]);
+            journals = Files.isDirectory(path) ? GameJournal.list(path) : List.of(path);
+            threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not list game journals in " + args[1], e);
+            System.exit(1);
+            return;
+        } catch (NumberFormatException e) {
+            logger.info("Invalid number of threads in replay mode.");
+            System.exit(1);
+            return;
+        }
+        // Rejected commands of the replayed games are expected, only report real problems
+        Logger.getLogger("ch.unibas.dmi.dbis.cs108.server.core").setLevel(Level.SEVERE);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ReplayArchive.Report report;
+        try {
+            report = ReplayArchive.replay(journals, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for (GameReplay.Result result : report.results()) {
+            System.out.printf("%s %016x %s%n", result.lobbyId(), result.stateHash(), result.diverged()
+                    ? "DIVERGED at record " + result.divergence() + " (round " + result.gameRound() + ")"
+                    : result.ended() ? "ended" : "running (round " + result.gameRound() + ")");
+        }
+        System.out.printf("Replayed %d games in %.3f s (%.1f games/s) on %d threads, %d diverged, %d failed%n",
+                report.results().size(), report.nanos() / 1e9, report.gamesPerSecond(), threads,
+                report.diverged(), report.failed());
+    }
+}
@@ -1,6 +1,7 @@
 package ch.unibas.dmi.dbis.cs108.server.app;
 
 import ch.unibas.dmi.dbis.cs108.server.networking.GameServer;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
 
 import java.util.logging.Logger;
 
@@ -16,14 +17,19 @@ public class ServerMain {
 
     /**
      * Main method for the server
-     * Starts the server and adds a shutdown hook
+     * Starts the server and adds a shutdown hook. The games are journaled, so they are recovered after a crash.
      *
-     * @param args contains the portNr at index 1.
+     * @param args contains the portNr at index 1, optionally the transport mode ("nio" or "virtual") at index 2
+     *             and optionally the map of the boards at index 3, see {@link MapDefinition#load(String)}.
      */
     public static void main(String[] args) {
         try {
             int port = Integer.parseInt(args[1]);
-            GameServer server = new GameServer(port);
+            GameServer.TransportMode mode = GameServer.TransportMode.fromString(args.length > 2 ? args[2] : null);
+            GameServer server = new GameServer(port, mode, GameServer.defaultJournalDirectory());
+            if (args.length > 3) {
+                server.setMap(MapDefinition.load(args[3]));
+            }
             new Thread(server::start).start();
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 logger.info("Server shutting down...");
@@ -32,6 +38,9 @@ public class ServerMain {
         } catch (NumberFormatException e) {
             logger.info("Invalid port number in server mode.");
             System.exit(1);
+        } catch (IllegalArgumentException e) {
+            logger.info("Invalid map in server mode: " + e.getMessage());
+            System.exit(1);
         }
     }
 }
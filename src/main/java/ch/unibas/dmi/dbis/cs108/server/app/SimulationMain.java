@@ -0,0 +1,69 @@
+package ch.unibas.dmi.dbis.cs108.server.app;
+
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.SimulationConfig;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Simulator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Main class for Monte-Carlo simulations of the game for balance tuning. Plays the games configured in a
+ * {@link SimulationConfig} file on all cores and streams the statistics of every parameter point to a CSV file.
+ */
+public class SimulationMain {
+
+    /**
+     * Logger to log logging
+     */
+    private static final Logger logger = Logger.getLogger(SimulationMain.class.getName());
+
+    /**
+     * Main method for the simulation
+     *
+     * @param args contains the configuration file at index 1.
+     */
+    public static void main(String[] args) {
+        SimulationConfig config;
+        try {
+            config = SimulationConfig.read(Path.of(args[1]));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read simulation config " + args[1], e);
+            System.exit(1);
+            return;
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid simulation config: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        // Most actions the policies try are rejected, only report real problems
+        Logger.getLogger("ch.unibas.dmi.dbis.cs108.server.core.actions").setLevel(Level.SEVERE);
+        Logger.getLogger("ch.unibas.dmi.dbis.cs108.server.core.logic").setLevel(Level.SEVERE);
+        Logger.getLogger("ch.unibas.dmi.dbis.cs108.server.core.model").setLevel(Level.SEVERE);
+        Logger.getLogger("ch.unibas.dmi.dbis.cs108.shared").setLevel(Level.SEVERE);
+        Logger.getGlobal().setLevel(Level.SEVERE);
+
+        ForkJoinPool pool = new ForkJoinPool(config.threads());
+        List<Simulator.Result> results;
+        try (Writer out = Files.newBufferedWriter(config.output())) {
+            results = Simulator.run(config, out, pool);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write simulation results to " + config.output(), e);
+            System.exit(1);
+            return;
+        } finally {
+            pool.shutdown();
+        }
+        for (Simulator.Result result : results) {
+            System.out.printf("%s: %d games in %.3f s (%.1f games/s), mean runes %.1f, %d failed%n", result.point(),
+                    result.stats().getGames(), result.nanos() / 1e9, result.gamesPerSecond(),
+                    result.stats().getMeanRunes(), result.stats().getFailed());
+        }
+        System.out.printf("Wrote %d points on %d threads to %s%n", results.size(), config.threads(), config.output());
+    }
+}
@@ -6,7 +6,7 @@ import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.logging.Logger;
 
 /**
  * Handles all artifact-related actions in the game.
@@ -17,32 +17,30 @@ import java.util.concurrent.locks.ReadWriteLock;
  * to execute artifact effects.
  * </p>
  * <p>
- * All methods use thread-safe locking to ensure data consistency during game state changes.
+ * All methods run on the mailbox of the lobby, so actions are executed one at a time.
  * </p>
  */
 public class ArtifactActionHandler {
     /**
-     * The game state that this handler operates on.
+     * Logger to log logging
      */
-    private final GameState gameState;
+    private static final Logger LOGGER = Logger.getLogger(ArtifactActionHandler.class.getName());
     /**
-     * The lock used for thread safety.
+     * The game state that this handler operates on.
      */
-    private final ReadWriteLock gameLock;
+    private final GameState gameState;
     /**
      * The registry that contains all artifact behaviors.
      */
     private final ArtifactBehaviorRegistry registry = new ArtifactBehaviorRegistry();
 
     /**
-     * Creates a new ArtifactActionHandler with the specified game state and lock.
+     * Creates a new ArtifactActionHandler for the specified game state.
      *
      * @param gameState The current game state
-     * @param gameLock  The lock used for thread safety
      */
-    public ArtifactActionHandler(GameState gameState, ReadWriteLock gameLock) {
+    public ArtifactActionHandler(GameState gameState) {
         this.gameState = gameState;
-        this.gameLock = gameLock;
     }
 
     /**
@@ -55,55 +53,53 @@ public class ArtifactActionHandler {
      * @return true if the artifact was successfully used, false otherwise
      */
     public boolean useFieldArtifact(int x, int y, int artifactId, String playerName) {
-        return executeWithLock(() -> {
-            System.out.println("[ArtifactActionHandler] useFieldArtifact called with x=" + x + ", y=" + y + ", artifactId=" + artifactId + ", playerName=" + playerName);
-
-            // Validate player
-            Player player = gameState.findPlayerByName(playerName);
-            if (player == null) {
-                System.out.println("[ArtifactActionHandler] Player not found: " + playerName);
-                return false;
-            }
+        LOGGER.fine("useFieldArtifact called with x=" + x + ", y=" + y + ", artifactId=" + artifactId + ", playerName=" + playerName);
 
-            // Verify the player has the artifact
-            Artifact artifact = findPlayerArtifact(player, artifactId);
-            if (artifact == null) {
-                System.out.println("[ArtifactActionHandler] Artifact with ID " + artifactId + " not found in player inventory.");
-                return false;
-            }
+        // Validate player
+        Player player = gameState.findPlayerByName(playerName);
+        if (player == null) {
+            LOGGER.fine("Player not found: " + playerName);
+            return false;
+        }
 
-            // Validate target tile
-            Tile targetTile = gameState.getBoardManager().getTile(x, y);
-            if (targetTile == null) {
-                System.out.println("[ArtifactActionHandler] Target tile (" + x + "," + y + ") is null.");
-                return false;
-            }
+        // Verify the player has the artifact
+        Artifact artifact = findPlayerArtifact(player, artifactId);
+        if (artifact == null) {
+            LOGGER.fine("Artifact with ID " + artifactId + " not found in player inventory.");
+            return false;
+        }
 
-            boolean success = false;
-            if (artifact.getUseType() == Artifact.UseType.FIELD) {
-                // Execute artifact effect
-                success = registry.executeFieldArtifact(artifact, gameState, player, x, y);
-                System.out.println("[ArtifactActionHandler] registry.executeFieldArtifact returned: " + success);
-            } else if (artifact.getUseType() == Artifact.UseType.TRAP) {
-                // Execute trap artifact effect
-                success = registry.executeTrapArtifact(artifact, gameState, player, x, y);
-                System.out.println("[ArtifactActionHandler] registry.executeTrapArtifact returned: " + success);
-            } else {
-                System.out.println("[ArtifactActionHandler] Invalid artifact use type.");
-                return false;
-            }
+        // Validate target tile
+        Tile targetTile = gameState.getBoardManager().getTile(x, y);
+        if (targetTile == null) {
+            LOGGER.fine("Target tile (" + x + "," + y + ") is null.");
+            return false;
+        }
 
+        boolean success = false;
+        if (artifact.getUseType() == Artifact.UseType.FIELD) {
+            // Execute artifact effect
+            success = registry.executeFieldArtifact(artifact, gameState, player, x, y);
+            LOGGER.fine("registry.executeFieldArtifact returned: " + success);
+        } else if (artifact.getUseType() == Artifact.UseType.TRAP) {
+            // Execute trap artifact effect
+            success = registry.executeTrapArtifact(artifact, gameState, player, x, y);
+            LOGGER.fine("registry.executeTrapArtifact returned: " + success);
+        } else {
+            LOGGER.fine("Invalid artifact use type.");
+            return false;
+        }
 
-            // Remove artifact from player inventory if used successfully
-            if (success) {
-                player.removeArtifact(artifact);
-                System.out.println("[ArtifactActionHandler] Artifact removed from player inventory.");
-            } else {
-                System.out.println("[ArtifactActionHandler] Artifact NOT removed (effect failed).");
-            }
 
-            return success;
-        });
+        // Remove artifact from player inventory if used successfully
+        if (success) {
+            player.removeArtifact(artifact);
+            LOGGER.fine("Artifact removed from player inventory.");
+        } else {
+            LOGGER.fine("Artifact NOT removed (effect failed).");
+        }
+
+        return success;
     }
 
     /**
@@ -115,50 +111,48 @@ public class ArtifactActionHandler {
      * @return true if the artifact was successfully used, false otherwise
      */
     public boolean usePlayerArtifact(int artifactId, String targetPlayerName, String playerName) {
-        return executeWithLock(() -> {
-            System.out.println("[ArtifactActionHandler] usePlayerArtifact called with artifactId=" + artifactId + ", targetPlayerName=" + targetPlayerName + ", playerName=" + playerName);
-
-            // Validate player
-            Player player = gameState.findPlayerByName(playerName);
-            if (player == null) {
-                System.out.println("[ArtifactActionHandler] Player not found: " + playerName);
-                return false;
-            }
+        LOGGER.fine("usePlayerArtifact called with artifactId=" + artifactId + ", targetPlayerName=" + targetPlayerName + ", playerName=" + playerName);
 
-            // Verify the player has the artifact
-            Artifact artifact = findPlayerArtifact(player, artifactId);
-            if (artifact == null) {
-                System.out.println("[ArtifactActionHandler] Artifact with ID " + artifactId + " not found in player inventory.");
-                return false;
-            }
+        // Validate player
+        Player player = gameState.findPlayerByName(playerName);
+        if (player == null) {
+            LOGGER.fine("Player not found: " + playerName);
+            return false;
+        }
 
-            // Validate target player
-            Player targetPlayer = gameState.findPlayerByName(targetPlayerName);
-            if (targetPlayer == null) {
-                System.out.println("[ArtifactActionHandler] Target player not found: " + targetPlayerName);
-                return false;
-            }
+        // Verify the player has the artifact
+        Artifact artifact = findPlayerArtifact(player, artifactId);
+        if (artifact == null) {
+            LOGGER.fine("Artifact with ID " + artifactId + " not found in player inventory.");
+            return false;
+        }
 
-            // Check if artifact is a player artifact
-            if (!(artifact.getUseType() == Artifact.UseType.PLAYER)) {
-                System.out.println("[ArtifactActionHandler] Artifact " + artifact.getName() + " is not a PLAYER artifact.");
-                return false;
-            }
+        // Validate target player
+        Player targetPlayer = gameState.findPlayerByName(targetPlayerName);
+        if (targetPlayer == null) {
+            LOGGER.fine("Target player not found: " + targetPlayerName);
+            return false;
+        }
 
-            // Execute artifact effect
-            boolean success = registry.executePlayerArtifact(artifact, gameState, player, targetPlayer);
-            System.out.println("[ArtifactActionHandler] registry.executePlayerArtifact returned: " + success);
-
-            // Remove artifact from player inventory if used successfully
-            if (success) {
-                player.removeArtifact(artifact);
-                System.out.println("[ArtifactActionHandler] Artifact removed from player inventory.");
-            } else {
-                System.out.println("[ArtifactActionHandler] Artifact NOT removed (effect failed).");
-            }
+        // Check if artifact is a player artifact
+        if (!(artifact.getUseType() == Artifact.UseType.PLAYER)) {
+            LOGGER.fine("Artifact " + artifact.getName() + " is not a PLAYER artifact.");
+            return false;
+        }
+
+        // Execute artifact effect
+        boolean success = registry.executePlayerArtifact(artifact, gameState, player, targetPlayer);
+        LOGGER.fine("registry.executePlayerArtifact returned: " + success);
+
+        // Remove artifact from player inventory if used successfully
+        if (success) {
+            player.removeArtifact(artifact);
+            LOGGER.fine("Artifact removed from player inventory.");
+        } else {
+            LOGGER.fine("Artifact NOT removed (effect failed).");
+        }
 
-            return success;
-        });
+        return success;
     }
 
     /**
@@ -177,26 +171,4 @@ public class ArtifactActionHandler {
         return null;
     }
 
-    /**
-     * Executes an action with proper locking.
-     *
-     * @param action The action to execute
-     * @return The result of the action
-     */
-    private boolean executeWithLock(ActionWithResult action) {
-        gameLock.writeLock().lock();
-        try {
-            return action.execute();
-        } finally {
-            gameLock.writeLock().unlock();
-        }
-    }
-
-    /**
-     * Functional interface for actions that return a boolean result.
-     */
-    @FunctionalInterface
-    private interface ActionWithResult {
-        boolean execute();
-    }
 }
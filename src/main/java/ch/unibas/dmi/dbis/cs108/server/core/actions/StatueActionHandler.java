@@ -13,7 +13,6 @@ import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 
 import java.util.Objects;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.logging.Logger;
 
 /**
@@ -24,7 +23,7 @@ import java.util.logging.Logger;
  * the StatueBehaviorRegistry to execute statue effects.
  * </p>
  * <p>
- * All methods use thread-safe locking to ensure data consistency during game state changes.
+ * All methods run on the mailbox of the lobby, so actions are executed one at a time.
  * </p>
  */
 public class StatueActionHandler {
@@ -32,24 +31,18 @@ public class StatueActionHandler {
      * The game state that this handler operates on.
      */
     private final GameState gameState;
-    /**
-     * The lock used for thread safety.
-     */
-    private final ReadWriteLock gameLock;
     /**
      * The registry for statue behaviors.
      */
     private final StatueBehaviorRegistry registry = new StatueBehaviorRegistry();
 
     /**
-     * Creates a new StatueActionHandler with the specified game state and lock.
+     * Creates a new StatueActionHandler for the specified game state.
      *
      * @param gameState The current game state
-     * @param gameLock  The lock used for thread safety
      */
-    public StatueActionHandler(GameState gameState, ReadWriteLock gameLock) {
+    public StatueActionHandler(GameState gameState) {
         this.gameState = gameState;
-        this.gameLock = gameLock;
     }
 
     /**
@@ -66,34 +59,32 @@ public class StatueActionHandler {
      * @return true if the statue was successfully placed, false otherwise
      */
     public boolean placeStatue(int x, int y, int statueId, String playerName) {
-        return executeWithLock(() -> {
-            // Validate player and tile
-            ValidationResult result = validatePlayerAndTile(x, y, playerName, true, false);
-            if (!result.isValid()) {
-                Logger.getGlobal().info("StatueActionHandler: placeStatue: Validation failed");
-                return false;
-            }
+        // Validate player and tile
+        ValidationResult result = validatePlayerAndTile(x, y, playerName, true, false);
+        if (!result.isValid()) {
+            Logger.getGlobal().info("StatueActionHandler: placeStatue: Validation failed");
+            return false;
+        }
 
-            Player player = result.getPlayer();
-            Tile tile = result.getTile();
+        Player player = result.getPlayer();
+        Tile tile = result.getTile();
 
-            // Get statue and check if player already has one
-            Statue statue = EntityRegistry.getStatue(statueId);
-            if (statue == null || player.hasStatue() || !Objects.equals(tile.getWorld(), statue.getWorld())) {
-                Logger.getGlobal().info("StatueActionHandler: placeStatue: Statue not found or player already has one or world is incorrect.");
-                return false;
-            }
+        // Get statue and check if player already has one
+        Statue statue = EntityRegistry.getStatue(statueId);
+        if (statue == null || player.hasStatue() || !Objects.equals(tile.getWorld(), statue.getWorld())) {
+            Logger.getGlobal().info("StatueActionHandler: placeStatue: Statue not found or player already has one or world is incorrect.");
+            return false;
+        }
 
-            // Check if player can afford the statue
-            if (!player.buy(statue.getPrice())) {
-                Logger.getGlobal().info("StatueActionHandler: placeStatue: Player cannot afford statue");
-                return false;
-            }
+        // Check if player can afford the statue
+        if (!player.buy(statue.getPrice())) {
+            Logger.getGlobal().info("StatueActionHandler: placeStatue: Player cannot afford statue");
+            return false;
+        }
 
-            tile.setEntity(statue);
+        tile.setEntity(statue);
 
-            return true;
-        });
+        return true;
     }
 
     /**
@@ -110,24 +101,22 @@ public class StatueActionHandler {
      * @return true if the statue was successfully upgraded, false otherwise
      */
     public boolean upgradeStatue(int x, int y, int statueId, String playerName) {
-        return executeWithLock(() -> {
-            // Validate player, tile, and get statue
-            ValidationResult result = validatePlayerAndTile(x, y, playerName, false, true);
-            if (!result.isValid()) return false;
+        // Validate player, tile, and get statue
+        ValidationResult result = validatePlayerAndTile(x, y, playerName, false, true);
+        if (!result.isValid()) return false;
 
-            Statue statue = getStatueFromTile(result.getTile(), statueId);
-            if (statue == null) return false;
+        Statue statue = getStatueFromTile(result.getTile(), statueId);
+        if (statue == null) return false;
 
-            Player player = result.getPlayer();
-            // Check if statue can be upgraded (max level is 3)
-            if (statue.getLevel() >= 3) return false;
+        Player player = result.getPlayer();
+        // Check if statue can be upgraded (max level is 3)
+        if (statue.getLevel() >= 3) return false;
 
-            // Calculate upgrade cost and check if player can afford it
-            if (!player.buy(statue.getUpgradePrice())) return false;
-            statue.upgrade();
+        // Calculate upgrade cost and check if player can afford it
+        if (!player.buy(statue.getUpgradePrice())) return false;
+        statue.upgrade();
 
-            return true;
-        });
+        return true;
     }
 
     /**
@@ -145,18 +134,16 @@ public class StatueActionHandler {
      * @return true if the statue effect was successfully executed, false otherwise
      */
     public boolean useStatue(int x, int y, int statueId, String playerName, String params) {
-        return executeWithLock(() -> {
-            // Validate player, tile, and get statue
-            ValidationResult result = validatePlayerAndTile(x, y, playerName, false, true);
-            if (!result.isValid()) return false;
-
-            Statue statue = getStatueFromTile(result.getTile(), statueId);
-            if (statue == null) return false;
-
-            // Parse parameters and execute statue effect
-            StatueParameters statueParams = parseParameters(params);
-            return registry.executeStatue(statue, gameState, result.getPlayer(), statueParams);
-        });
+        // Validate player, tile, and get statue
+        ValidationResult result = validatePlayerAndTile(x, y, playerName, false, true);
+        if (!result.isValid()) return false;
+
+        Statue statue = getStatueFromTile(result.getTile(), statueId);
+        if (statue == null) return false;
+
+        // Parse parameters and execute statue effect
+        StatueParameters statueParams = parseParameters(params);
+        return registry.executeStatue(statue, gameState, result.getPlayer(), statueParams);
     }
 
     /**
@@ -274,8 +261,7 @@ public class StatueActionHandler {
         Tile tile = boardManager.getTile(x, y);
 
         // Validate tile state
-        if (tile == null || tile.getOwner() == null ||
-                !tile.getOwner().equals(playerName) ||
+        if (tile == null || tile.getOwnerSeat() < 0 || tile.getOwnerSeat() != player.getSeat() ||
                 (requireEmptyTile && tile.hasEntity()) ||
                 (requireEntityOnTile && !tile.hasEntity())) {
             return new ValidationResult(false, player, null);
@@ -299,28 +285,6 @@ public class StatueActionHandler {
         return (Statue) entity;
     }
 
-    /**
-     * Executes an action with proper locking.
-     *
-     * @param action The action to execute
-     * @return The result of the action
-     */
-    private boolean executeWithLock(ActionWithResult action) {
-        gameLock.writeLock().lock();
-        try {
-            return action.execute();
-        } finally {
-            gameLock.writeLock().unlock();
-        }
-    }
-
-    /**
-     * Functional interface for actions that return a boolean result.
-     */
-    @FunctionalInterface
-    private interface ActionWithResult {
-        boolean execute();
-    }
 
     /**
      * Helper class to store validation results.
@@ -11,13 +11,12 @@ import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 
 import java.util.ArrayList;
 import java.util.Objects;
-import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Handles all structure-related actions in the game including placement and activation.
  * <p>
- * This class manages structure placement and uses thread-safe locking to ensure
- * data consistency during game state changes.
+ * This class manages structure placement. All methods run on the mailbox of the lobby,
+ * so actions are executed one at a time.
  * </p>
  */
 public class StructureActionHandler {
@@ -29,20 +28,14 @@ public class StructureActionHandler {
      * The current game state.
      */
     private final GameState gameState;
-    /**
-     * The lock used for thread safety.
-     */
-    private final ReadWriteLock gameLock;
 
     /**
-     * Creates a new StructureActionHandler with the specified game state and lock.
+     * Creates a new StructureActionHandler for the specified game state.
      *
      * @param gameState The current game state
-     * @param gameLock  The lock used for thread safety
      */
-    public StructureActionHandler(GameState gameState, ReadWriteLock gameLock) {
+    public StructureActionHandler(GameState gameState) {
         this.gameState = gameState;
-        this.gameLock = gameLock;
     }
 
     /**
@@ -55,27 +48,25 @@ public class StructureActionHandler {
      * @return true if the structure was successfully placed, false otherwise
      */
     public boolean placeStructure(int x, int y, int structureID, String playerName) {
-        return executeWithLock(() -> {
-            // Validate player and tile
-            ValidationResult result = validatePlayerAndTile(x, y, playerName, true, false);
-            if (!result.isValid()) return false;
+        // Validate player and tile
+        ValidationResult result = validatePlayerAndTile(x, y, playerName, true, false);
+        if (!result.isValid()) return false;
 
-            Player player = result.getPlayer();
-            Tile tile = result.getTile();
+        Player player = result.getPlayer();
+        Tile tile = result.getTile();
 
-            // Get structure and check if player can afford it
-            Structure structure = EntityRegistry.getStructure(structureID);
-            if (structure == null) return false;
-            if (structure.getId() == 5 && !tile.hasRiver()) return false;
+        // Get structure and check if player can afford it
+        Structure structure = EntityRegistry.getStructure(structureID);
+        if (structure == null) return false;
+        if (structure.getId() == 5 && !tile.hasRiver()) return false;
 
-            // Check if player can afford the structure
-            if (!player.buy(structure.getPrice())) return false;
+        // Check if player can afford the structure
+        if (!player.buy(structure.getPrice())) return false;
 
-            player.addPurchasableEntity(structure);
-            tile.setEntity(structure);
+        player.addPurchasableEntity(structure);
+        tile.setEntity(structure);
 
-            return true;
-        });
+        return true;
     }
 
     /**
@@ -88,27 +79,25 @@ public class StructureActionHandler {
      * @return true if the structure effect was successfully executed, false otherwise
      */
     public boolean useStructure(int x, int y, int structureID, String playerName) {
-        return executeWithLock(() -> {
-            // Validate player, tile, and get structure
-            ValidationResult result = validatePlayerAndTile(x, y, playerName, false, true);
-            if (!result.isValid()) return false;
+        // Validate player, tile, and get structure
+        ValidationResult result = validatePlayerAndTile(x, y, playerName, false, true);
+        if (!result.isValid()) return false;
 
-            Structure structure = getStructureFromTile(result.getTile(), structureID);
-            if (structure == null) return false;
+        Structure structure = getStructureFromTile(result.getTile(), structureID);
+        if (structure == null) return false;
 
-            // Check if structure is already activated this turn
-            if (structure.isActivated()) {
-                return false;
-            }
+        // Check if structure is already activated this turn
+        if (structure.isActivated()) {
+            return false;
+        }
 
-            // Execute structure effect and mark as activated
-            boolean success = registry.execute(structure, gameState, result.getPlayer());
-            if (success) {
-                structure.setActivated(true);
-            }
+        // Execute structure effect and mark as activated
+        boolean success = registry.execute(structure, gameState, result.getPlayer());
+        if (success) {
+            structure.setActivated(true);
+        }
 
-            return success;
-        });
+        return success;
     }
 
     /**
@@ -118,19 +107,19 @@ public class StructureActionHandler {
      * @return if the action was successful, false otherwise
      */
     public boolean ragnarok(String playerName) {
-        return executeWithLock(() -> {
-            for (Tile[] tiles : gameState.getBoardManager().getBoard().getTiles()) {
-                for (Tile tile : tiles) {
-                    if (tile.hasOwner() && tile.getOwner().equals(playerName)) continue;
-                    if (tile.hasEntity()) tile.setEntity(null);
-                }
-            }
-            for (Player p : gameState.getPlayers()) {
-                if (Objects.equals(p.getName(), playerName)) continue;
-                p.setPurchasableEntities(new ArrayList<>());
+        Player player = gameState.findPlayerByName(playerName);
+        int seat = player == null ? -1 : player.getSeat();
+        for (Tile[] tiles : gameState.getBoardManager().getBoard().getTiles()) {
+            for (Tile tile : tiles) {
+                if (seat >= 0 && tile.getOwnerSeat() == seat) continue;
+                if (tile.hasEntity()) tile.setEntity(null);
             }
-            return true;
-        });
+        }
+        for (Player p : gameState.getPlayers()) {
+            if (Objects.equals(p.getName(), playerName)) continue;
+            p.setPurchasableEntities(new ArrayList<>());
+        }
+        return true;
     }
 
     /**
@@ -159,9 +148,7 @@ public class StructureActionHandler {
         if (tile == null) {
             return new ValidationResult(false, player, null);
         }
-        String owner = tile.getOwner();
-        if (owner == null ||
-                !owner.equals(playerName) ||
+        if (tile.getOwnerSeat() < 0 || tile.getOwnerSeat() != player.getSeat() ||
                 (requireEmptyTile && tile.hasEntity()) ||
                 (requireEntityOnTile && !tile.hasEntity())) {
             return new ValidationResult(false, player, null);
@@ -185,28 +172,6 @@ public class StructureActionHandler {
         return (Structure) entity;
     }
 
-    /**
-     * Executes an action with proper locking.
-     *
-     * @param action The action to execute
-     * @return The result of the action
-     */
-    private boolean executeWithLock(ActionWithResult action) {
-        gameLock.writeLock().lock();
-        try {
-            return action.execute();
-        } finally {
-            gameLock.writeLock().unlock();
-        }
-    }
-
-    /**
-     * Functional interface for actions that return a boolean result.
-     */
-    @FunctionalInterface
-    private interface ActionWithResult {
-        boolean execute();
-    }
 
     /**
      * Helper class to store validation results.
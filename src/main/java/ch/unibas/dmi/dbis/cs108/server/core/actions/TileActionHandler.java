@@ -10,38 +10,29 @@ import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.game.Status;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
-import ch.unibas.dmi.dbis.cs108.shared.utils.RandomGenerator;
-
-import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Handles actions related to tiles, such as buying tiles and claiming all tiles.
- * This class is responsible for managing the game state and ensuring thread safety
- * when performing actions on tiles.
+ * This class is responsible for managing the game state when performing actions on tiles.
+ * All methods run on the mailbox of the lobby, so actions are executed one at a time.
  */
 public class TileActionHandler {
     /**
      * The game state that this handler operates on.
      */
     private final GameState gameState;
-    /**
-     * The lock used to ensure thread safety when performing actions on tiles.
-     */
-    private final ReadWriteLock gameLock;
     /**
      * The registry for structure behaviors.
      */
     private final StructureBehaviorRegistry structureBehaviorRegistry;
 
     /**
-     * Constructs a TileActionHandler with the specified game state and lock.
+     * Constructs a TileActionHandler with the specified game state.
      *
      * @param gameState the game state
-     * @param gameLock  the lock used for thread safety
      */
-    public TileActionHandler(GameState gameState, ReadWriteLock gameLock) {
+    public TileActionHandler(GameState gameState) {
         this.gameState = gameState;
-        this.gameLock = gameLock;
         this.structureBehaviorRegistry = new StructureBehaviorRegistry();
     }
 
@@ -54,48 +45,44 @@ public class TileActionHandler {
      * @return true if the tile was bought successfully, false otherwise
      */
     public boolean buyTile(int x, int y, String playerName) {
-        gameLock.writeLock().lock();
-        try {
-            Tile tile = gameState.getBoardManager().getBoard().getTileByCoordinates(x, y);
-            if (tile == null || tile.isPurchased()) {
-                return false;
-            }
-
-            Player player = findPlayerByName(playerName);
-            if (player == null || !(player.getRoundBoughtTiles() < SETTINGS.Config.PURCHASABLE_TILES_PER_ROUND.getValue()) || !player.buy(tile.getPrice())) {
-                return false;
-            }
+        Tile tile = gameState.getBoardManager().getBoard().getTileByCoordinates(x, y);
+        if (tile == null || tile.isPurchased()) {
+            return false;
+        }
 
-            // Execute ActiveTrap, upon buying the tile and remove it afterward
-            if (tile.hasEntity() && tile.getEntity().getName().equals("ActiveTrap")) {
-                Structure s = (Structure) tile.getEntity();
-                structureBehaviorRegistry.execute(s, gameState, player);
-                gameState.sendNotification(player.getName(), "TRAP$" + s.getParams().get(0).getValue() + "$" + x + "$" + y);
-                tile.setEntity(null);
-            } else if (tile.hasEntity() && tile.getEntity().isMonument()) {
-                player.addOwnedMonument((Monument) tile.getEntity());
-            }
+        Player player = gameState.findPlayerByName(playerName);
+        if (player == null || !(player.getRoundBoughtTiles() < SETTINGS.Config.PURCHASABLE_TILES_PER_ROUND.getValue()) || !player.buy(tile.getPrice())) {
+            return false;
+        }
 
-            tile.setPurchased(true);
-            player.addOwnedTile(tile);
-            player.addBoughtTile();
+        // Execute ActiveTrap, upon buying the tile and remove it afterward
+        if (tile.hasEntity() && tile.getEntity().getName().equals("ActiveTrap")) {
+            Structure s = (Structure) tile.getEntity();
+            structureBehaviorRegistry.execute(s, gameState, player);
+            gameState.sendNotification(player.getName(), "TRAP$" + s.getParams().get(0).getValue() + "$" + x + "$" + y);
+            tile.setEntity(null);
+        } else if (tile.hasEntity() && tile.getEntity().isMonument()) {
+            player.addOwnedMonument((Monument) tile.getEntity());
+        }
 
-            // Players always have a chance to randomly find an artifact when they buy a tile based on their artifact chance
-            if (tile.getArtifact() == null && RandomGenerator.chance((int) player.getStatus().get(Status.BuffType.ARTIFACT_CHANCE))) {
-                Artifact artifact = EntityRegistry.getRandomArtifact();
-                tile.setArtifact(artifact);
-            }
+        tile.setPurchased(true);
+        player.addOwnedTile(tile);
+        player.addBoughtTile();
 
-            // Check if the Tile holds an artifact, and if so, add it to the player
-            if (tile.getArtifact() != null) {
-                player.getArtifacts().add(tile.getArtifact());
-                tile.setArtifact(null);
-            }
+        // Players always have a chance to randomly find an artifact when they buy a tile based on their artifact chance
+        if (tile.getArtifact() == null && gameState.getRandom().chance((int) player.getStatus().get(Status.BuffType.ARTIFACT_CHANCE))) {
+            Artifact artifact = EntityRegistry.getRandomArtifact(gameState.getRandom());
+            tile.setArtifact(artifact);
+        }
 
-            return true;
-        } finally {
-            gameLock.writeLock().unlock();
+        // Check if the Tile holds an artifact, and if so, add it to the player
+        if (tile.getArtifact() != null) {
+            player.getArtifacts().add(tile.getArtifact());
+            player.markDirty();
+            tile.setArtifact(null);
         }
+
+        return true;
     }
 
     /**
@@ -105,37 +92,17 @@ public class TileActionHandler {
      * @return true if the action was successful, false otherwise.
      */
     public boolean claimAllTiles(String playerName) {
-        gameLock.writeLock().lock();
-        try {
-            Player player = findPlayerByName(playerName);
-            assert player != null;
-            for (Tile[] tiles : gameState.getBoardManager().getBoard().getTiles()) {
-                for (Tile tile : tiles) {
-                    if (!tile.isPurchased()) {
-                        tile.setPurchased(true);
-                        player.addOwnedTile(tile);
-                        player.addBoughtTile();
-                    }
+        Player player = gameState.findPlayerByName(playerName);
+        assert player != null;
+        for (Tile[] tiles : gameState.getBoardManager().getBoard().getTiles()) {
+            for (Tile tile : tiles) {
+                if (!tile.isPurchased()) {
+                    tile.setPurchased(true);
+                    player.addOwnedTile(tile);
+                    player.addBoughtTile();
                 }
             }
-            return true;
-        } finally {
-            gameLock.writeLock().unlock();
-        }
-    }
-
-    /**
-     * finds a player by name
-     *
-     * @param playerName name of the player
-     * @return the player if found, null otherwise
-     */
-    private Player findPlayerByName(String playerName) {
-        for (Player p : gameState.getPlayers()) {
-            if (p.getName().equals(playerName)) {
-                return p;
-            }
         }
-        return null;
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package ch.unibas.dmi.dbis.cs108.server.core.bots;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.networking.ClientHandler;
+import ch.unibas.dmi.dbis.cs108.server.networking.Frame;
+import ch.unibas.dmi.dbis.cs108.server.networking.GameServer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A player hosted by the server, seated in a lobby like the client of a human player.
+ * <p>
+ * A bot has no connection, the messages sent to it are dropped. When its turn starts, the lobby hands it the state
+ * of the game; the bot searches for its actions with a {@link BotSearch} on a fork of the state, on the shared
+ * {@link BotPool}, and gives the chosen actions back to the lobby, which plays them and ends the turn.
+ */
+public class BotClient extends ClientHandler {
+
+    /**
+     * The name requested for bots, the server adds a number if it is taken
+     */
+    public static final String NAME = "bot";
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(BotClient.class.getName());
+
+    /**
+     * The pool the bot searches on
+     */
+    private final BotPool pool;
+
+    /**
+     * Creates a bot.
+     *
+     * @param server the GameServer
+     * @param pool   the pool the bot searches on
+     */
+    public BotClient(GameServer server, BotPool pool) {
+        super(server);
+        this.pool = pool;
+    }
+
+    /**
+     * Starts the turn of the bot. Must be called on the mailbox of the lobby, the state is forked before the search
+     * is queued on the bot pool. If the pool is busy, the greedy turn is played without a search.
+     *
+     * @param lobby the lobby of the bot
+     * @param state the state of the game, the turn of the bot has started
+     * @param turn  the number of the turn, so the lobby can drop the decision if the turn is over
+     */
+    public void playTurn(Lobby lobby, GameState state, int turn) {
+        long started = System.nanoTime();
+        long seed = ThreadLocalRandom.current().nextLong();
+        GameState fork = state.fork();
+        long budget = TimeUnit.MILLISECONDS.toNanos(pool.getTurnBudget());
+        boolean queued = pool.submit(() -> {
+            List<String> commands = List.of();
+            try {
+                BotSearch.Decision decision = BotSearch.search(fork, budget, seed);
+                pool.record(decision, System.nanoTime() - started);
+                commands = decision.commands();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Search of bot " + getPlayerName() + " failed, ending the turn", e);
+            }
+            lobby.playBotTurn(this, turn, commands);
+        });
+        if (!queued) {
+            BotSearch.Decision decision = BotSearch.greedy(fork, seed);
+            pool.record(decision, System.nanoTime() - started);
+            lobby.playBotTurn(this, turn, decision.commands());
+        }
+    }
+
+    /**
+     * Messages to a bot are dropped, the bot reads the state of the game directly.
+     *
+     * @param message the message String
+     */
+    @Override
+    public void sendMessage(String message) {
+    }
+
+    /**
+     * Messages to a bot are dropped, the bot reads the state of the game directly.
+     *
+     * @param frame the frame
+     */
+    @Override
+    public void sendFrame(Frame frame) {
+    }
+
+    /**
+     * Shuts the bot down and releases its name.
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (server != null) {
+            server.releasePlayerName(getPlayerName(), this);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package ch.unibas.dmi.dbis.cs108.server.core.bots;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * The pool the bots of the server search on, and the metrics of their searches.
+ * <p>
+ * The pool has a fixed number of low-priority daemon threads and a bounded queue of turns. Bots never search on
+ * the threads of the lobbies, so they cannot starve the games of human players, and a turn that finds the queue
+ * full is rejected and played without a search instead of piling up.
+ */
+public final class BotPool {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(BotPool.class.getName());
+    /**
+     * The server-wide pool of the bots
+     */
+    private static volatile BotPool defaultPool;
+
+    /**
+     * The threads and the queue of the searches
+     */
+    private final ThreadPoolExecutor executor;
+    /**
+     * The time a bot may search for its turn, in milliseconds
+     */
+    private final long turnBudget;
+    /**
+     * The number of decisions taken
+     */
+    private final LongAdder decisions = new LongAdder();
+    /**
+     * The number of turns rejected because the queue was full
+     */
+    private final LongAdder rejected = new LongAdder();
+    /**
+     * The sum of the decision latencies, from the start of the turn to the decision, in nanoseconds
+     */
+    private final LongAdder latencyNanos = new LongAdder();
+    /**
+     * The highest decision latency, in nanoseconds
+     */
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    /**
+     * The number of nodes evaluated by all searches
+     */
+    private final LongAdder nodes = new LongAdder();
+    /**
+     * The sum of the wall times of all searches, in nanoseconds
+     */
+    private final LongAdder searchNanos = new LongAdder();
+
+    /**
+     * Creates a pool whose bots search for {@link SETTINGS.Config#BOT_TURN_BUDGET} milliseconds per turn.
+     *
+     * @param threads       the number of threads
+     * @param queueCapacity the maximum number of turns waiting for a thread
+     */
+    public BotPool(int threads, int queueCapacity) {
+        this(threads, queueCapacity, SETTINGS.Config.BOT_TURN_BUDGET.getValue());
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param threads       the number of threads
+     * @param queueCapacity the maximum number of turns waiting for a thread
+     * @param turnBudget    the time a bot may search for its turn, in milliseconds
+     */
+    public BotPool(int threads, int queueCapacity, long turnBudget) {
+        this.turnBudget = turnBudget;
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+            Thread thread = new Thread(task, "bot-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the server-wide pool of the bots, creating it on first use with
+     * {@link SETTINGS.Config#BOT_THREADS} threads and a queue of {@link SETTINGS.Config#BOT_QUEUE_CAPACITY} turns.
+     *
+     * @return the shared bot pool
+     */
+    public static BotPool getDefault() {
+        BotPool result = defaultPool;
+        if (result == null) {
+            synchronized (BotPool.class) {
+                result = defaultPool;
+                if (result == null) {
+                    result = new BotPool(SETTINGS.Config.BOT_THREADS.getValue(),
+                            SETTINGS.Config.BOT_QUEUE_CAPACITY.getValue());
+                    defaultPool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the time a bot may search for its turn.
+     *
+     * @return the budget of a turn, in milliseconds
+     */
+    public long getTurnBudget() {
+        return turnBudget;
+    }
+
+    /**
+     * Submits the search of a turn.
+     *
+     * @param task the search
+     * @return true if the search was queued, false if the queue is full or the pool is shut down
+     */
+    public boolean submit(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            LOGGER.warning("Bot pool rejected a turn, " + executor.getQueue().size() + " turns pending");
+            return false;
+        }
+    }
+
+    /**
+     * Counts a decision in the metrics.
+     *
+     * @param decision     the decision
+     * @param latencyNanos the time from the start of the turn to the decision, in nanoseconds
+     */
+    public void record(BotSearch.Decision decision, long latencyNanos) {
+        decisions.increment();
+        this.latencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+        nodes.add(decision.nodes());
+        searchNanos.add(decision.nanos());
+        LOGGER.fine(String.format("Bot decision after %.1f ms: %d nodes, %.0f nodes/s",
+                latencyNanos / 1e6, decision.nodes(), decision.nodesPerSecond()));
+    }
+
+    /**
+     * Gets the number of decisions taken.
+     *
+     * @return the number of decisions
+     */
+    public long getDecisions() {
+        return decisions.sum();
+    }
+
+    /**
+     * Gets the number of turns rejected because the queue was full.
+     *
+     * @return the number of rejected turns
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of turns waiting for a thread.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Gets the mean time from the start of a turn to the decision, including the time waiting for a thread.
+     *
+     * @return the mean decision latency in milliseconds, 0 if no decision was taken
+     */
+    public double getMeanLatencyMillis() {
+        long count = decisions.sum();
+        return count == 0 ? 0 : latencyNanos.sum() / 1e6 / count;
+    }
+
+    /**
+     * Gets the highest time from the start of a turn to the decision.
+     *
+     * @return the highest decision latency in milliseconds
+     */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1e6;
+    }
+
+    /**
+     * Gets the number of nodes evaluated per second of search, over all searches.
+     *
+     * @return the nodes per second, 0 if nothing was searched
+     */
+    public double getNodesPerSecond() {
+        long nanos = searchNanos.sum();
+        return nanos == 0 ? 0 : nodes.sum() * 1e9 / nanos;
+    }
+
+    /**
+     * Stops the threads of the pool. Queued searches are discarded.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
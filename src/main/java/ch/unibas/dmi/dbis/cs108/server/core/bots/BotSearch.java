@@ -0,0 +1,224 @@
+package ch.unibas.dmi.dbis.cs108.server.core.bots;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GameSimulation;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GreedyPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Policy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.RandomPolicy;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The time-budgeted search of a bot for the actions of its turn.
+ * <p>
+ * The search plays candidate turns for the bot on {@link GameState#fork() forks} of the state: the turn of the
+ * {@link GreedyPolicy}, an empty turn and turns of the {@link RandomPolicy}. The candidates are then evaluated by
+ * Monte-Carlo playouts, each playing the rest of the game from a fork of a candidate with greedy policies for all
+ * seats. The candidates are played out one after the other, all candidates of a sweep with the same seed, until the
+ * budget is spent. The candidate with the best mean margin of runes over the best opponent is chosen, the greedy turn
+ * if no playout finished.
+ * <p>
+ * Every fork played, candidate turn or playout, counts as one node. The budget is CPU time of the searching thread
+ * if the JVM measures it, so a search is not cut short when its thread is preempted; it still stops at twice the
+ * budget in wall time.
+ */
+public final class BotSearch {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(BotSearch.class.getName());
+    /**
+     * The number of candidate turns played by the random policy
+     */
+    private static final int RANDOM_CANDIDATES = 6;
+    /**
+     * Increment of the seeds of the sweeps of playouts
+     */
+    private static final long SEED_STEP = 0xBF58476D1CE4E5B9L;
+    /**
+     * Measures the CPU time of the searching thread
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    /**
+     * Policy of the greedy candidate and of all seats in the playouts
+     */
+    private static final Policy GREEDY = new GreedyPolicy();
+    /**
+     * Policy of the random candidates
+     */
+    private static final Policy RANDOM = new RandomPolicy();
+
+    private BotSearch() {
+    }
+
+    /**
+     * Searches for the actions of the player whose turn it is.
+     *
+     * @param state       the state of the game, owned by the search, e.g. a fork of the state of a lobby
+     * @param budgetNanos the CPU time the search may spend, in nanoseconds
+     * @param seed        the seed of the random decisions and playouts of the search
+     * @return the chosen actions
+     */
+    public static Decision search(GameState state, long budgetNanos, long seed) {
+        long start = System.nanoTime();
+        Budget budget = new Budget(budgetNanos);
+        GameRandom random = new GameRandom(seed);
+        String name = state.getPlayerTurn();
+
+        List<Candidate> candidates = new ArrayList<>();
+        Set<List<String>> played = new HashSet<>();
+        long nodes = 0;
+        // The greedy turn is played whatever the budget, so there always is a decision
+        for (int i = 0; i < RANDOM_CANDIDATES + 2 && (i == 0 || !budget.isSpent()); i++) {
+            GameSimulation.Turn turn;
+            if (i == 1) {
+                turn = new GameSimulation.Turn(state, List.of());
+            } else {
+                nodes++;
+                try {
+                    turn = GameSimulation.playTurn(state, i == 0 ? GREEDY : RANDOM, random);
+                } catch (RuntimeException e) {
+                    LOGGER.fine("Candidate turn of " + name + " failed: " + e);
+                    continue;
+                }
+            }
+            if (played.add(turn.commands())) {
+                candidates.add(new Candidate(turn));
+            }
+        }
+
+        if (candidates.size() > 1) {
+            List<Policy> policies = Collections.nCopies(state.getPlayers().size(), GREEDY);
+            long sweepSeed = seed;
+            int next = 0;
+            while (!budget.isSpent()) {
+                if (next == 0) {
+                    sweepSeed += SEED_STEP;
+                }
+                Candidate candidate = candidates.get(next);
+                next = (next + 1) % candidates.size();
+                nodes++;
+                try {
+                    candidate.add(margin(GameSimulation.playOut(candidate.turn.state(), sweepSeed, policies), name));
+                } catch (RuntimeException e) {
+                    LOGGER.fine("Playout of " + name + " failed: " + e);
+                }
+            }
+        }
+
+        Candidate best = candidates.isEmpty() ? null : candidates.get(0);
+        for (Candidate candidate : candidates) {
+            if (candidate.playouts > 0 && (best.playouts == 0 || candidate.mean() > best.mean())) {
+                best = candidate;
+            }
+        }
+        List<String> commands = best == null ? List.of() : best.turn.commands();
+        return new Decision(commands, candidates.size(), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Plays the greedy turn of the player whose turn it is, without a search, e.g. when the bot pool is busy.
+     *
+     * @param state the state of the game, not changed
+     * @param seed  the seed of the random decisions
+     * @return the actions of the greedy turn
+     */
+    public static Decision greedy(GameState state, long seed) {
+        long start = System.nanoTime();
+        List<String> commands = GameSimulation.playTurn(state, GREEDY, new GameRandom(seed)).commands();
+        return new Decision(commands, 1, 1, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the runes of a player minus the runes of the best other player.
+     *
+     * @param state the state at the end of a game
+     * @param name  the name of the player
+     * @return the margin, negative if another player has more runes
+     */
+    private static int margin(GameState state, String name) {
+        int own = 0;
+        int best = 0;
+        for (Player player : state.getPlayers()) {
+            if (player.getName().equals(name)) {
+                own = player.getRunes();
+            } else {
+                best = Math.max(best, player.getRunes());
+            }
+        }
+        return own - best;
+    }
+
+    /**
+     * The actions chosen by a search.
+     *
+     * @param commands   the protocol messages of the actions, without the end of the turn
+     * @param candidates the number of different candidate turns
+     * @param nodes      the number of forks played
+     * @param nanos      the wall time of the search, in nanoseconds
+     */
+    public record Decision(List<String> commands, int candidates, long nodes, long nanos) {
+
+        /**
+         * Returns the number of forks played per second of the search.
+         *
+         * @return the nodes per second
+         */
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+    }
+
+    /**
+     * A candidate turn and the margins of its playouts.
+     */
+    private static final class Candidate {
+        private final GameSimulation.Turn turn;
+        private long sum;
+        private int playouts;
+
+        private Candidate(GameSimulation.Turn turn) {
+            this.turn = turn;
+        }
+
+        private void add(int margin) {
+            sum += margin;
+            playouts++;
+        }
+
+        private double mean() {
+            return (double) sum / playouts;
+        }
+    }
+
+    /**
+     * The budget of a search, in CPU time of the searching thread and twice as much wall time.
+     */
+    private static final class Budget {
+        private final boolean cpu;
+        private final long cpuEnd;
+        private final long wallEnd;
+
+        private Budget(long nanos) {
+            long now = System.nanoTime();
+            cpu = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+            cpuEnd = cpu ? THREADS.getCurrentThreadCpuTime() + nanos : now + nanos;
+            wallEnd = now + 2 * nanos;
+        }
+
+        private boolean isSpent() {
+            long now = System.nanoTime();
+            return now - wallEnd >= 0 || (cpu ? THREADS.getCurrentThreadCpuTime() : now) - cpuEnd >= 0;
+        }
+    }
+}
@@ -1,18 +1,18 @@
 package ch.unibas.dmi.dbis.cs108.server.core.logic;
 
-import ch.unibas.dmi.dbis.cs108.client.ui.events.game.CheatEvent;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameAction;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.NetworkProtocol.Commands;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.ErrorsAPI;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Thread-safe handler for command parsing and execution with the command pattern
+ * Handler for command execution with the command pattern.
+ * Handlers are looked up by the ordinal of the command type and work on the typed {@link GameAction}
+ * parsed when the command was received.
  */
 public class CommandProcessor {
     /**
@@ -20,19 +20,26 @@ public class CommandProcessor {
      */
     private static final Logger LOGGER = Logger.getLogger(CommandProcessor.class.getName());
     /**
-     * The game logic instance
+     * Success response of every command type, indexed by ordinal. Only errors are sent back to the client,
+     * so the success responses do not need to contain the arguments.
      */
-    private final GameLogic gameLogic;
+    private static final String[] SUCCESS_RESPONSES = new String[Commands.values().length];
+
+    static {
+        for (Commands command : Commands.values()) {
+            SUCCESS_RESPONSES[command.ordinal()] = Commands.OK.getCommand() + "$" + command.getCommand();
+        }
+    }
+
     /**
-     * Map of command types to their handlers
+     * The game logic instance
      */
-    private final Map<Commands, Function<Command, String>> commandHandlers = new ConcurrentHashMap<>();
-
-    // Use a single lock for state-changing commands to ensure consistency
+    private final GameLogic gameLogic;
     /**
-     * Lock object for synchronizing command execution
+     * Handlers of the game commands, indexed by the ordinal of the command type
      */
-    private final Object commandExecutionLock = new Object();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Function<Command, String>[] commandHandlers = new Function[Commands.values().length];
 
     /**
      * Constructor for CommandProcessor
@@ -48,17 +55,17 @@ public class CommandProcessor {
      * Register command handlers for various commands
      */
     private void registerCommandHandlers() {
-        commandHandlers.put(Commands.ENDTURN, this::handleEndTurn);
-        commandHandlers.put(Commands.GETGAMESTATUS, this::handleGetGameStatus);
-        commandHandlers.put(Commands.BUYTILE, this::handleBuyTile);
-        commandHandlers.put(Commands.PLACESTRUCTURE, this::handlePlaceStructure);
-        commandHandlers.put(Commands.USESTRUCTURE, this::handleUseStructure);
-        commandHandlers.put(Commands.PLACESTATUE, this::handlePlaceStatue);
-        commandHandlers.put(Commands.UPGRADESTATUE, this::handleUpgradeStatue);
-        commandHandlers.put(Commands.USESTATUE, this::handleUseStatue);
-        commandHandlers.put(Commands.USEFIELDARTIFACT, this::handleUseFieldArtifact);
-        commandHandlers.put(Commands.USEPLAYERARTIFACT, this::handleUsePlayerArtifact);
-        commandHandlers.put(Commands.CHEAT, this::handleCheatCode);
+        commandHandlers[Commands.ENDTURN.ordinal()] = this::handleEndTurn;
+        commandHandlers[Commands.GETGAMESTATUS.ordinal()] = this::handleGetGameStatus;
+        commandHandlers[Commands.BUYTILE.ordinal()] = this::handleBuyTile;
+        commandHandlers[Commands.PLACESTRUCTURE.ordinal()] = this::handlePlaceStructure;
+        commandHandlers[Commands.USESTRUCTURE.ordinal()] = this::handleUseStructure;
+        commandHandlers[Commands.PLACESTATUE.ordinal()] = this::handlePlaceStatue;
+        commandHandlers[Commands.UPGRADESTATUE.ordinal()] = this::handleUpgradeStatue;
+        commandHandlers[Commands.USESTATUE.ordinal()] = this::handleUseStatue;
+        commandHandlers[Commands.USEFIELDARTIFACT.ordinal()] = this::handleUseFieldArtifact;
+        commandHandlers[Commands.USEPLAYERARTIFACT.ordinal()] = this::handleUsePlayerArtifact;
+        commandHandlers[Commands.CHEAT.ordinal()] = this::handleCheatCode;
     }
 
     /**
@@ -68,23 +75,22 @@ public class CommandProcessor {
      * @return The response message
      */
     public String processCommand(Command command) {
-
-        Function<Command, String> handler = commandHandlers.get(command.getCommandType());
+        Commands type = command.getCommandType();
+        Function<Command, String> handler = type == null ? null : commandHandlers[type.ordinal()];
         if (handler == null) {
             return formatError(ErrorsAPI.Errors.UNHANDLED_COMMAND.getError() + command);
         }
+        if (command.getAction() == null) {
+            return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$" + type.name());
+        }
 
         try {
-            if (isStateChangingCommand(command.getCommandType())) {
-                synchronized (commandExecutionLock) {
-                    if (!gameLogic.getGameState().getPlayerTurn().equals(command.getPlayer().getName())) {
-                        return formatError(ErrorsAPI.Errors.NOT_PLAYER_TURN.getError());
-                    }
-                    return handler.apply(command);
-                }
-            } else {
-                return handler.apply(command);
+            // Commands of a lobby are processed one at a time on its mailbox
+            if (isStateChangingCommand(type)
+                    && !gameLogic.getGameState().getPlayerTurn().equals(command.getPlayer().getName())) {
+                return formatError(ErrorsAPI.Errors.NOT_PLAYER_TURN.getError());
             }
+            return handler.apply(command);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error processing command: " + command, e);
             return formatError(e.getMessage());
@@ -102,290 +108,121 @@ public class CommandProcessor {
      * Manually end the current player's turn.
      */
     private String handleEndTurn(Command cmd) {
-        try {
-            String playerName = cmd.getPlayer().getName();
-            if (playerName == null || playerName.isEmpty()) {
-                return formatError(ErrorsAPI.Errors.PLAYER_DOES_NOT_EXIST.getError());
-            }
-
-            // Validate it's this player's turn
-            if (!playerName.equals(gameLogic.getGameState().getPlayerTurn())) {
-                return formatError(ErrorsAPI.Errors.NOT_PLAYER_TURN.getError());
-            }
+        String playerName = cmd.getPlayer().getName();
+        if (playerName == null || playerName.isEmpty()) {
+            return formatError(ErrorsAPI.Errors.PLAYER_DOES_NOT_EXIST.getError());
+        }
 
-            boolean success = gameLogic.getNotifier().manualEndTurn();
-            if (!success) {
-                return formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError());
-            }
-            return formatSuccess(Commands.STARTTURN.getCommand() + "$" + playerName + "$" +
-                    gameLogic.getGameState().getPlayerTurn());
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error ending turn", e);
-            return formatError(e.getMessage());
+        // Validate it's this player's turn
+        if (!playerName.equals(gameLogic.getGameState().getPlayerTurn())) {
+            return formatError(ErrorsAPI.Errors.NOT_PLAYER_TURN.getError());
         }
+
+        boolean success = gameLogic.getNotifier().manualEndTurn();
+        return result(success, Commands.ENDTURN);
     }
 
     /**
-     * Get detailed game status
+     * Get detailed game status, the first chunk of it on large boards. All chunks are sent by
+     * {@link GameLogic#processCommand(Command)}.
      */
     private String handleGetGameStatus(Command cmd) {
-        return gameLogic.getGameState().createDetailedStatusMessage();
+        return gameLogic.getGameState().createDetailedStatusMessages().get(0);
     }
 
     /**
      * Process buy tile command
      */
     private String handleBuyTile(Command cmd) {
-        try {
-            String[] params = cmd.getArgs();
-            if (params.length != 2) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$BUYTILE");
-            }
-
-            int x = Integer.parseInt(params[0]);
-            int y = Integer.parseInt(params[1]);
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.buyTile(x, y, playerName);
-            return success ?
-                    formatSuccess(Commands.BUYTILE.getCommand() + "$" + x + "$" + y + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$BUYTILE");
-        } catch (NumberFormatException e) {
-            return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$BUYTILE");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error buying tile", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.BuyTile action = (GameAction.BuyTile) cmd.getAction();
+        return result(gameLogic.buyTile(action.x(), action.y(), cmd.getPlayer().getName()), Commands.BUYTILE);
     }
 
     /**
      * Process place structure command
      */
     private String handlePlaceStructure(Command cmd) {
-        try {
-            String[] parts = cmd.getArgs();
-            if (parts.length != 3) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$PLACESTRUCTURE");
-            }
-
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            int structureId = Integer.parseInt(parts[2]);
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.placeStructure(x, y, structureId, playerName);
-            return success ?
-                    formatSuccess(Commands.PLACESTRUCTURE.getCommand() + "$" + x + "$" + y + "$" + structureId + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$PLACESTRUCTURE");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error placing structure", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.PlaceStructure action = (GameAction.PlaceStructure) cmd.getAction();
+        return result(gameLogic.placeStructure(action.x(), action.y(), action.structureId(), cmd.getPlayer().getName()),
+                Commands.PLACESTRUCTURE);
     }
 
     /**
      * Process use structure command
      */
     private String handleUseStructure(Command cmd) {
-        try {
-            String[] parts = cmd.getArgs();
-            if (parts.length != 3) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$USESTRUCTURE");
-            }
-
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            int structureId = Integer.parseInt(parts[2]);
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.useStructure(x, y, structureId, playerName);
-            return success ? formatSuccess(Commands.USESTRUCTURE.getCommand() + "$" + x + "$" + y + "$" + structureId + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$USESTRUCTURE");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error using structure", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.UseStructure action = (GameAction.UseStructure) cmd.getAction();
+        return result(gameLogic.useStructure(action.x(), action.y(), action.structureId(), cmd.getPlayer().getName()),
+                Commands.USESTRUCTURE);
     }
 
     /**
      * Process place statue command
      */
     private String handlePlaceStatue(Command cmd) {
-        try {
-            String[] parts = cmd.getArgs();
-            if (parts.length != 3) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "PLACESTATUE");
-            }
-
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            int statueId = Integer.parseInt(parts[2]);
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.placeStatue(x, y, statueId, playerName);
-            return success ?
-                    formatSuccess(Commands.PLACESTATUE.getCommand() + "$" + x + "$" + y + "$" + statueId + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$PLACESTATUE");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error buying statue", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.PlaceStatue action = (GameAction.PlaceStatue) cmd.getAction();
+        return result(gameLogic.placeStatue(action.x(), action.y(), action.statueId(), cmd.getPlayer().getName()),
+                Commands.PLACESTATUE);
     }
 
     /**
      * Process upgrade statue command
      */
     private String handleUpgradeStatue(Command cmd) {
-        try {
-            String[] parts = cmd.getArgs();
-            if (parts.length != 3) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$UPGRADESTATUE");
-            }
-
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            int statueId = Integer.parseInt(parts[2]);
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.upgradeStatue(x, y, statueId, playerName);
-            return success ? formatSuccess(Commands.UPGRADESTATUE.getCommand() + "$" + x + "$" + y + "$" + statueId + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$UPGRADESTATUE");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error upgrading statue", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.UpgradeStatue action = (GameAction.UpgradeStatue) cmd.getAction();
+        return result(gameLogic.upgradeStatue(action.x(), action.y(), action.statueId(), cmd.getPlayer().getName()),
+                Commands.UPGRADESTATUE);
     }
 
     /**
      * Process use statue command
      */
     private String handleUseStatue(Command cmd) {
-        try {
-            String[] parts = cmd.getArgs();
-            if (parts.length != 4) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS + "$USESTATUE");
-            }
-
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            int statueId = Integer.parseInt(parts[2]);
-            String params = parts[3];
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.useStatue(x, y, statueId, playerName, params);
-            return success ? formatSuccess(Commands.USESTATUE.getCommand() + "$" + x + "$" + y + "$" + statueId + "$" + params + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$USESTATUE");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error using statue", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.UseStatue action = (GameAction.UseStatue) cmd.getAction();
+        return result(gameLogic.useStatue(action.x(), action.y(), action.statueId(), cmd.getPlayer().getName(),
+                action.params()), Commands.USESTATUE);
     }
 
     /**
      * Process use field artifact command
      */
     private String handleUseFieldArtifact(Command cmd) {
-        try {
-            String[] parts = cmd.getArgs();
-            if (parts.length != 3) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS + "$USEFIELDARTIFACT");
-            }
-
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            int artifactId = Integer.parseInt(parts[2]);
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.useFieldArtifact(x, y, artifactId, playerName);
-            return success ?
-                    formatSuccess(Commands.USEFIELDARTIFACT.getCommand() + "$" + x + "$" + y + "$" + artifactId + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$USEFIELDARTIFACT");
-        } catch (NumberFormatException e) {
-            return formatError("Invalid coordinates or artifact ID");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error using field artifact", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.UseFieldArtifact action = (GameAction.UseFieldArtifact) cmd.getAction();
+        return result(gameLogic.useFieldArtifact(action.x(), action.y(), action.artifactId(), cmd.getPlayer().getName()),
+                Commands.USEFIELDARTIFACT);
     }
 
     /**
      * Process use player artifact command
      */
     private String handleUsePlayerArtifact(Command cmd) {
-        try {
-            String[] parts = cmd.getArgs();
-            if (parts.length != 2) {
-                return formatError(ErrorsAPI.Errors.INVALID_PARAMETERS + "$USEPLAYERARTIFACT");
-            }
-
-            int artifactId = Integer.parseInt(parts[0]);
-            String targetPlayer = parts[1];
-            String playerName = cmd.getPlayer().getName();
-
-            boolean success = gameLogic.usePlayerArtifact(artifactId, targetPlayer, playerName);
-            return success ?
-                    formatSuccess(Commands.USEPLAYERARTIFACT.getCommand() + "$" + artifactId + "$" + targetPlayer + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$USEPLAYERARTIFACT");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error using player artifact", e);
-            return formatError(e.getMessage());
-        }
+        GameAction.UsePlayerArtifact action = (GameAction.UsePlayerArtifact) cmd.getAction();
+        return result(gameLogic.usePlayerArtifact(action.artifactId(), action.targetPlayer(), cmd.getPlayer().getName()),
+                Commands.USEPLAYERARTIFACT);
     }
 
     /**
      * Process cheat code command
      */
     private String handleCheatCode(Command cmd) {
-        try {
-            String cheatCode = cmd.getArgs()[0];
-            return switch (cheatCode) {
-                case "CLAM" -> handleClaimAll(cmd);
-                case "RAGN" -> handleRagnarok(cmd);
-                default -> formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$CHEAT");
-            };
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error while cheating", e);
-            return formatError(e.getMessage());
-        }
-    }
-
-    /**
-     * Process claim all command
-     */
-    private String handleClaimAll(Command cmd) {
-        try {
-            String playerName = cmd.getPlayer().getName();
-            boolean success = gameLogic.claimAll(playerName);
-            return success ?
-                    formatSuccess(Commands.CHEAT.getCommand() + "$" + CheatEvent.Cheat.RAGNAROK.getCode() + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$CHEAT");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error while cheating", e);
-            return formatError(e.getMessage());
-        }
-    }
-
-    /**
-     * Process ragnarok command
-     */
-    private String handleRagnarok(Command cmd) {
-        try {
-            String playerName = cmd.getPlayer().getName();
-            boolean success = gameLogic.ragnarok(playerName);
-            return success ?
-                    formatSuccess((Commands.CHEAT.getCommand()) + "$" + CheatEvent.Cheat.RAGNAROK.getCode() + "$" + playerName) :
-                    formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$CHEAT");
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error while cheating", e);
-            return formatError(e.getMessage());
-        }
+        String playerName = cmd.getPlayer().getName();
+        return switch (((GameAction.Cheat) cmd.getAction()).code()) {
+            case "CLAM" -> result(gameLogic.claimAll(playerName), Commands.CHEAT);
+            case "RAGN" -> result(gameLogic.ragnarok(playerName), Commands.CHEAT);
+            default -> formatError(ErrorsAPI.Errors.INVALID_PARAMETERS.getError() + "$CHEAT");
+        };
     }
 
     /**
-     * Helper method to format success responses
+     * Creates the response of a game action.
+     *
+     * @param success if the action was successful
+     * @param command the command type of the action
+     * @return the shared success response or an error
      */
-    private String formatSuccess(String message) {
-        return Commands.OK.getCommand() + "$" + message;
+    private String result(boolean success, Commands command) {
+        return success ? SUCCESS_RESPONSES[command.ordinal()] :
+                formatError(ErrorsAPI.Errors.GAME_COMMAND_FAILED.getError() + "$" + command.name());
     }
 
     /**
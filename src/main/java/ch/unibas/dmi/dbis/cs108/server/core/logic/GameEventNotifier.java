@@ -31,4 +31,14 @@ public interface GameEventNotifier {
      * @param message The message to send.
      */
     void sendMessageToPlayer(String player, String message);
+
+    /**
+     * Returns whether the changes of the game state are sent to the players. If not, the game creates no state
+     * messages, e.g. when it is replayed without players.
+     *
+     * @return true if state messages are sent.
+     */
+    default boolean sendsStateMessages() {
+        return true;
+    }
 }
@@ -6,19 +6,20 @@ import ch.unibas.dmi.dbis.cs108.server.core.actions.StructureActionHandler;
 import ch.unibas.dmi.dbis.cs108.server.core.actions.TileActionHandler;
 import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Logger;
 
 /**
- * Implementation of the GameLogicInterface with proper concurrency control.
+ * Implementation of the GameLogicInterface.
  * Acts as a facade coordinating specialized components.
+ * All methods are called from the mailbox of the lobby, so no locking is needed.
  */
 public class GameLogic implements GameLogicInterface {
     /**
@@ -26,13 +27,6 @@ public class GameLogic implements GameLogicInterface {
      */
     private static final Logger LOGGER = Logger.getLogger(GameLogic.class.getName());
 
-    // Thread safety mechanism
-    /**
-     * The lock for the game logic.
-     * It uses a ReadWriteLock to allow multiple readers or one writer at a time.
-     */
-    private final ReadWriteLock gameLock = new ReentrantReadWriteLock();
-
     /**
      * The GameEventNotifier to notify game events.
      */
@@ -67,33 +61,65 @@ public class GameLogic implements GameLogicInterface {
     private final ArtifactActionHandler artifactActionHandler;
 
     /**
-     * Constructor initializes game with proper components
+     * Constructor initializes game with proper components and a random seed
      *
      * @param notifier the GameEventNotifier to notify game events
      */
     public GameLogic(GameEventNotifier notifier) {
-        this.notifier = notifier;
-        this.gameState = new GameState(notifier);
-        this.turnManager = new TurnManager(gameState);
-        this.tileActionHandler = new TileActionHandler(gameState, gameLock);
-        this.structureActionHandler = new StructureActionHandler(gameState, gameLock);
-        this.statueActionHandler = new StatueActionHandler(gameState, gameLock);
-        this.artifactActionHandler = new ArtifactActionHandler(gameState, gameLock);
+        this(notifier, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructor initializes game with proper components. The game draws all random choices from a source
+     * created from the seed.
+     *
+     * @param notifier the GameEventNotifier to notify game events
+     * @param seed     the seed of the source of randomness of the game
+     */
+    public GameLogic(GameEventNotifier notifier, long seed) {
+        this(new GameState(notifier, seed), true);
+    }
+
+    /**
+     * Constructor initializes a game on the board of a map. The game draws all random choices from a source
+     * created from the seed.
+     *
+     * @param notifier the GameEventNotifier to notify game events
+     * @param seed     the seed of the source of randomness of the game
+     * @param map      the map of the board
+     */
+    public GameLogic(GameEventNotifier notifier, long seed, MapDefinition map) {
+        this(new GameState(notifier, seed, map), true);
+    }
+
+    /**
+     * Constructor for a game that is already running, e.g. on a {@link GameState#fork() fork} of the state of
+     * another game. The game goes on with the turn of the state and notifies the notifier of the state.
+     *
+     * @param gameState the state of the running game
+     */
+    public GameLogic(GameState gameState) {
+        this(gameState, false);
+    }
+
+    private GameLogic(GameState gameState, boolean newGame) {
+        this.notifier = gameState.getNotifier();
+        this.gameState = gameState;
+        this.turnManager = new TurnManager(gameState, newGame);
+        this.tileActionHandler = new TileActionHandler(gameState);
+        this.structureActionHandler = new StructureActionHandler(gameState);
+        this.statueActionHandler = new StatueActionHandler(gameState);
+        this.artifactActionHandler = new ArtifactActionHandler(gameState);
         this.commandProcessor = new CommandProcessor(this);
     }
 
     /**
-     * Gets the GameState with thread-safe access.
+     * Gets the GameState.
      *
      * @return the current object of the GameState.
      */
     public GameState getGameState() {
-        gameLock.readLock().lock();
-        try {
-            return gameState;
-        } finally {
-            gameLock.readLock().unlock();
-        }
+        return gameState;
     }
 
     /**
@@ -112,13 +138,8 @@ public class GameLogic implements GameLogicInterface {
      */
     @Override
     public void startGame(String[] players) {
-        gameLock.writeLock().lock();
-        try {
-            gameState.setPlayers(players);
-            turnManager.nextTurn();
-        } finally {
-            gameLock.writeLock().unlock();
-        }
+        gameState.setPlayers(players);
+        turnManager.nextTurn();
     }
 
     /**
@@ -130,18 +151,39 @@ public class GameLogic implements GameLogicInterface {
             String response = commandProcessor.processCommand(command);
             if (notifier != null && response != null) {
                 // Send the response of the command (e.g. Error or Ok message)
-                if (response.startsWith(CommunicationAPI.NetworkProtocol.Commands.ERROR.getCommand())) {
+                boolean rejected = response.startsWith(CommunicationAPI.NetworkProtocol.Commands.ERROR.getCommand());
+                if (rejected) {
                     LOGGER.warning("Error processing game command: " + command + " led to response: " + response);
                     notifier.sendMessageToPlayer(command.getPlayer().getName(), response);
                 } else {
                     //LOGGER.info("Command processed successfully: " + response);
                 }
-                // Send an updated version of the GameState to all players
-                notifier.broadcastMessage(gameState.createDetailedStatusMessage());
+                if (command.getCommandType() == CommunicationAPI.NetworkProtocol.Commands.GETGAMESTATUS) {
+                    // The full state was requested, e.g. after a missed delta, the chunks of it are cached
+                    for (String chunk : gameState.createDetailedStatusMessages()) {
+                        notifier.sendMessageToPlayer(command.getPlayer().getName(), chunk);
+                    }
+                    return;
+                }
+                // Send the changes of the GameState to all players, none if a rejected command changed nothing
+                if (notifier.sendsStateMessages() && (!rejected || gameState.hasDeltaChanges())) {
+                    notifier.broadcastMessage(gameState.createDeltaStatusMessage());
+                }
             }
         }
     }
 
+    /**
+     * Renames a player in the game state, see {@link GameState#renamePlayer(String, String)}.
+     *
+     * @param oldName the old name of the player.
+     * @param newName the new name of the player.
+     * @return if a player with the old name was renamed.
+     */
+    public boolean renamePlayer(String oldName, String newName) {
+        return gameState.renamePlayer(oldName, newName);
+    }
+
     /**
      * Creates the final score message without modifying the original player order.
      *
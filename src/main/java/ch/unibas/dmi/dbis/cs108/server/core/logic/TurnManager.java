@@ -1,15 +1,13 @@
 package ch.unibas.dmi.dbis.cs108.server.core.logic;
 
-import ch.unibas.dmi.dbis.cs108.SETTINGS;
 import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Behaviors.StructureBehaviorRegistry;
-import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
-import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
-import ch.unibas.dmi.dbis.cs108.shared.game.Status;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 
+import java.util.function.Consumer;
+
 /**
  * This class manages the turn and player related logic and updates the gameState.
  */
@@ -22,6 +20,10 @@ public class TurnManager {
      * Registry for handling structure effects
      */
     private final StructureBehaviorRegistry structureBehaviorRegistry;
+    /**
+     * Listener called with the gameState at every turn boundary, null if no checkpoints are taken
+     */
+    private Consumer<GameState> checkpointListener;
 
     /**
      * Initializes the turnManager. Sets the player- and gameRound to 0.
@@ -29,10 +31,20 @@ public class TurnManager {
      * @param gameState the gameState to manage.
      */
     public TurnManager(GameState gameState) {
+        this(gameState, true);
+    }
+
+    /**
+     * Initializes the turnManager of a gameState, e.g. of a game that is already running.
+     *
+     * @param gameState the gameState to manage.
+     * @param reset     true to set the player- and gameRound to 0, false to go on with the turn of the gameState.
+     */
+    TurnManager(GameState gameState, boolean reset) {
         this.gameState = gameState;
-        gameState.setGameRound(0);
-        gameState.setPlayerRound(0);
-        gameState.setPlayerTurn(null);
+        if (reset) {
+            reset();
+        }
         structureBehaviorRegistry = new StructureBehaviorRegistry();
     }
 
@@ -41,34 +53,47 @@ public class TurnManager {
      * - Correct Assignment of the next player whose turn it is.
      * - Updating the gameState (method call).
      * - Distributing resources for the next player.
+     * - Notifying the checkpoint listener, if one is set.
      */
     public void nextTurn() {
         gameState.getStateLock().writeLock().lock();
         try {
             if (gameState.getPlayerTurn() == null) {
                 initializeFirstTurn();
-                return;
-            }
+            } else {
+                Player oldPlayer = gameState.findPlayerByName(gameState.getPlayerTurn());
+                endTurn(oldPlayer);
 
-            Player oldPlayer = gameState.findPlayerByName(gameState.getPlayerTurn());
-            endTurn(oldPlayer);
+                int nextPosition = (gameState.getPlayerRound() + 1) % gameState.getPlayers().size();
+                gameState.setPlayerTurn(gameState.getPlayers().get(nextPosition).getName());
+                gameState.setPlayerRound(nextPosition);
 
-            int nextPosition = (gameState.getPlayerRound() + 1) % gameState.getPlayers().size();
-            gameState.setPlayerTurn(gameState.getPlayers().get(nextPosition).getName());
-            gameState.setPlayerRound(nextPosition);
+                if (nextPosition == 0) {
+                    gameState.setGameRound(gameState.getGameRound() + 1);
+                }
 
-            if (nextPosition == 0) {
-                gameState.setGameRound(gameState.getGameRound() + 1);
+                distributeResources(gameState.findPlayerByName(gameState.getPlayerTurn()));
             }
 
-            distributeResources(gameState.findPlayerByName(gameState.getPlayerTurn()));
-
-
+            if (checkpointListener != null) {
+                checkpointListener.accept(gameState);
+            }
         } finally {
             gameState.getStateLock().writeLock().unlock();
         }
     }
 
+    /**
+     * Sets the listener that is called at the end of every turn change, after the resources of the next player
+     * were distributed. It is called with the write lock of the gameState held, so it sees a consistent state,
+     * e.g. to write a checkpoint with {@link ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec}.
+     *
+     * @param checkpointListener the listener, null to take no checkpoints
+     */
+    public void setCheckpointListener(Consumer<GameState> checkpointListener) {
+        this.checkpointListener = checkpointListener;
+    }
+
     /**
      * Ends the turn for the given player by deactivating all their activated purchasable entities.
      *
@@ -117,56 +142,22 @@ public class TurnManager {
 
     /**
      * Distributes resources to the player based on their owned tiles and structures.
+     * The runes of the tiles and of the structures and monuments on them are read from the income ledger at the
+     * start of the turn, then the passive effects of the structures run in the order of the tiles, so buffs they
+     * give count from the next turn on.
      *
      * @param player The player to distribute resources to.
      */
     private void distributeResources(Player player) {
-        // Tile income
-        player.getOwnedTiles().forEach(tile -> {
-            // Handle Tile - Rune Generation based on the Resource Value of the tile
-            int val = tile.getResourceValue();
-            calcAndAddRunes(player, tile, val);
-            // Handle Structure - Rune Generation based on the ressource value of the entity
-            if (tile.hasEntity()) {
-                GameEntity ent = tile.getEntity();
-                // Handle for Structures
-                if (ent instanceof Structure) {
-                    Structure entity = (Structure) tile.getEntity();
-                    int value = entity.getResourceValue();
-                    if (entity.isStructure() && !entity.isDisabled()) {
-                        calcAndAddRunes(player, tile, value);
-                        // All structures except rune table and the active trap have a passive effect which should be used -> the latter only gets used when buying the tile
-                        if (!entity.getName().equals("Rune Table") && !entity.getName().equals("ActiveTrap")) {
-                            structureBehaviorRegistry.execute(entity, gameState, player); // Do passive effects -> each structure except Rune Table has one
-                        }
-                    }
-                    // Handle for Monuments
-                } else if (ent instanceof Monument mon) {
-                    if (!mon.isDisabled()) {
-                        int value = mon.getRunes();
-                        if (mon.isSet() && player.hasCompleteSet(mon)) {
-                            value *= SETTINGS.Config.SET_BONUS_MULTIPLIER.getValue();
-                        }
-                        calcAndAddRunes(player, tile, value);
-                    }
-                }
+        player.addRunes(gameState.getIncomeLedger().getIncome(player));
+        for (Tile tile : player.getTilesWithStructures()) {
+            Structure entity = (Structure) tile.getEntity();
+            // All structures except rune table and the active trap have a passive effect which should be used -> the latter only gets used when buying the tile
+            if (entity.isStructure() && !entity.isDisabled()
+                    && !entity.getName().equals("Rune Table") && !entity.getName().equals("ActiveTrap")) {
+                structureBehaviorRegistry.execute(entity, gameState, player); // Do passive effects -> each structure except Rune Table has one
             }
-        });
-    }
-
-    /**
-     * Helper method for calculating and adding the adjusted value of generated runes
-     *
-     * @param player the player
-     * @param tile   the tile
-     * @param value  the static value of runes
-     */
-    private void calcAndAddRunes(Player player, Tile tile, int value) {
-        if (tile.hasRiver()) {
-            value = (int) (value * player.getStatus().get(Status.BuffType.RIVER_RUNE_GENERATION) * tile.getStatus().get(Status.BuffType.RIVER_RUNE_GENERATION));
         }
-        value = (int) (value * player.getStatus().get(Status.BuffType.RUNE_GENERATION) * tile.getStatus().get(Status.BuffType.RUNE_GENERATION));
-        player.addRunes(value);
     }
 
     /**
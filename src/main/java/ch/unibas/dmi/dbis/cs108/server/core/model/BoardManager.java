@@ -1,10 +1,12 @@
 package ch.unibas.dmi.dbis.cs108.server.core.model;
 
 import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.logging.Logger;
 
@@ -25,15 +27,30 @@ public class BoardManager {
      * The game board
      */
     private final Board board;
+    /**
+     * The source of randomness of the game, used to initialize and reset the board
+     */
+    private final GameRandom random;
 
     /**
-     * Constructor for BoardManager
+     * Constructor for BoardManager with a source of randomness from a random seed
      *
      * @param stateLock The lock to use for state management
      */
     public BoardManager(ReadWriteLock stateLock) {
+        this(stateLock, new GameRandom(ThreadLocalRandom.current().nextLong()));
+    }
+
+    /**
+     * Constructor for BoardManager
+     *
+     * @param stateLock The lock to use for state management
+     * @param random    The source of randomness of the game
+     */
+    public BoardManager(ReadWriteLock stateLock, GameRandom random) {
         this.stateLock = stateLock;
         this.board = new Board();
+        this.random = random;
     }
 
     /**
@@ -54,7 +71,21 @@ public class BoardManager {
     public void initializeBoard(int width, int height) {
         stateLock.writeLock().lock();
         try {
-            board.initBoard(width, height);
+            board.initBoard(width, height, random);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Initialize the board with the tiles of a map
+     *
+     * @param map The map of the board
+     */
+    public void initializeBoard(MapDefinition map) {
+        stateLock.writeLock().lock();
+        try {
+            board.initBoard(map, random);
         } finally {
             stateLock.writeLock().unlock();
         }
@@ -105,7 +136,7 @@ public class BoardManager {
     public void reset() {
         stateLock.writeLock().lock();
         try {
-            board.resetTiles();
+            board.resetTiles(random);
         } finally {
             stateLock.writeLock().unlock();
         }
@@ -134,16 +165,8 @@ public class BoardManager {
      */
     public List<Tile> getRiverTiles() {
         stateLock.readLock().lock();
-        List<Tile> result = new ArrayList<>();
         try {
-            for (Tile[] tile : board.getTiles()) {
-                for (Tile t : tile) {
-                    if (t != null && t.hasRiver()) {
-                        result.add(t);
-                    }
-                }
-            }
-            return result;
+            return board.getRiverTiles();
         } finally {
             stateLock.readLock().unlock();
         }
@@ -1,12 +1,27 @@
 package ch.unibas.dmi.dbis.cs108.server.core.model;
 
 import ch.unibas.dmi.dbis.cs108.server.core.logic.GameEventNotifier;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.PurchasableEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
@@ -19,18 +34,56 @@ public class GameState {
      * Logger to log logging
      */
     private static final Logger LOGGER = Logger.getLogger(GameState.class.getName());
+    /**
+     * Notifier of forks, which drops all messages
+     */
+    private static final GameEventNotifier SILENT = new GameEventNotifier() {
+        @Override
+        public void broadcastMessage(String message) {
+        }
+
+        @Override
+        public void endGame() {
+        }
+
+        @Override
+        public boolean manualEndTurn() {
+            return false;
+        }
+
+        @Override
+        public void sendMessageToPlayer(String player, String message) {
+        }
+
+        @Override
+        public boolean sendsStateMessages() {
+            return false;
+        }
+    };
     /**
      * State Lock for Thread safe handling
      */
     private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+    /**
+     * The source of randomness of the game, not shared with any other game
+     */
+    private final GameRandom random;
     /**
      * BoardManager that contains all info about the board & tiles
      */
     private final BoardManager boardManager;
+    /**
+     * The runes the tiles of every player earn per turn, updated with the changes of the board
+     */
+    private final IncomeLedger incomeLedger;
     /**
      * List of players in the game (stored as player objects)
      */
     private final List<Player> players = new ArrayList<>();
+    /**
+     * The players by name, names are only used to find the seat of a player at the edge of the protocol
+     */
+    private final Map<String, Player> playersByName = new HashMap<>();
     /**
      * GameEventNotifier to notify the game about events
      */
@@ -51,16 +104,175 @@ public class GameState {
      * A list of notifications (used for special effects)
      */
     private final List<String> notifications = new ArrayList<>();
+    /**
+     * Serializer for the SYNC messages, keeps track of what has been sent to the clients
+     */
+    private final GameStateSerializer serializer = new GameStateSerializer(this);
+    /**
+     * The state version, incremented with every delta sent to the clients
+     */
+    private long version;
+    /**
+     * Counter incremented on every change of the state, used to detect if a cached snapshot is still valid
+     */
+    private final AtomicLong mutations = new AtomicLong();
 
     /**
-     * Creates a new gameState object. Initializes the Board- and TurnManager.
+     * Creates a new gameState object with a random seed. Initializes the Board- and TurnManager.
      *
      * @param notifier the GameEventNotifier to notify the game about events
      */
     public GameState(GameEventNotifier notifier) {
-        this.boardManager = new BoardManager(stateLock);
-        this.boardManager.initializeBoard(8, 7);
+        this(notifier, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a new gameState object. Initializes the Board- and TurnManager.
+     * All random choices of the game are drawn from a source created from the seed, so the game can be
+     * reproduced from the seed and the commands played.
+     *
+     * @param notifier the GameEventNotifier to notify the game about events
+     * @param seed     the seed of the source of randomness of the game
+     */
+    public GameState(GameEventNotifier notifier, long seed) {
+        this(notifier, seed, MapDefinition.getDefault());
+    }
+
+    /**
+     * Creates a new gameState object on the board of a map. Initializes the Board- and TurnManager.
+     *
+     * @param notifier the GameEventNotifier to notify the game about events
+     * @param seed     the seed of the source of randomness of the game
+     * @param map      the map of the board
+     */
+    public GameState(GameEventNotifier notifier, long seed, MapDefinition map) {
+        this.random = new GameRandom(seed);
+        this.boardManager = new BoardManager(stateLock, random);
+        this.boardManager.initializeBoard(map);
+        this.incomeLedger = new IncomeLedger(boardManager.getBoard(), this::getPlayer);
+        this.notifier = notifier;
+        trackTiles();
+    }
+
+    /**
+     * Creates a deep copy of a state, see {@link #fork(GameEventNotifier)}. Must be called with the read lock of
+     * the source held.
+     *
+     * @param source   the state to copy
+     * @param notifier the GameEventNotifier of the copy
+     */
+    private GameState(GameState source, GameEventNotifier notifier) {
+        this.random = source.random.copy();
+        this.boardManager = new BoardManager(stateLock, random);
         this.notifier = notifier;
+        this.playerRound = source.playerRound;
+        this.gameRound = source.gameRound;
+        this.playerTurn = source.playerTurn;
+        this.version = source.version;
+        this.notifications.addAll(source.notifications);
+
+        // Entities are copied once, so an entity on a tile and in the inventory of its owner stays shared
+        Map<GameEntity, GameEntity> entities = new IdentityHashMap<>();
+        Board board = boardManager.getBoard();
+        board.copyFrom(source.boardManager.getBoard(), entity -> copyEntity(entity, entities));
+        this.incomeLedger = new IncomeLedger(board, this::getPlayer, source.incomeLedger);
+        trackTiles();
+
+        for (Player player : source.players) {
+            Player copy = new Player(player);
+            List<Tile> ownedTiles = new ArrayList<>(player.getOwnedTiles().size());
+            for (Tile tile : player.getOwnedTiles()) {
+                ownedTiles.add(board.getTile(tile.getTileID()));
+            }
+            copy.setOwnedTiles(ownedTiles);
+            List<Artifact> artifacts = new ArrayList<>(player.getArtifacts().size());
+            for (Artifact artifact : player.getArtifacts()) {
+                artifacts.add(copyEntity(artifact, entities));
+            }
+            copy.setArtifacts(artifacts);
+            List<PurchasableEntity> purchasableEntities = new ArrayList<>(player.getPurchasableEntities().size());
+            for (PurchasableEntity entity : player.getPurchasableEntities()) {
+                purchasableEntities.add(copyEntity(entity, entities));
+            }
+            copy.setPurchasableEntities(purchasableEntities);
+            // Added to the list of the copy, so its monument changes stay those the ledger was counted with
+            for (Monument monument : player.getMonuments()) {
+                copy.getMonuments().add(copyEntity(monument, entities));
+            }
+            copy.setChangeCounter(mutations);
+            players.add(copy);
+            playersByName.put(copy.getName(), copy);
+        }
+    }
+
+    /**
+     * Creates an independent copy of the state whose messages are dropped, e.g. for an AI search or to check
+     * what an action would do without touching the running game.
+     *
+     * @return the copy
+     * @see #fork(GameEventNotifier)
+     */
+    public GameState fork() {
+        return fork(SILENT);
+    }
+
+    /**
+     * Creates an independent copy of the state. The board, the players, their inventories and the entities are
+     * copied, with the links between them (owned tiles, placed entities) pointing to the copies, and the random
+     * source of the copy continues where the one of this state is, so the copy makes the same random choices.
+     * Changes to the copy never affect this state and vice versa.
+     * <p>
+     * Entities are copied with {@link GameEntity#clone()} instead of being rebuilt from the registry and the
+     * arrays of the board are copied instead of generating it again, so a fork takes a few microseconds. The
+     * read lock is held while copying.
+     *
+     * @param notifier the GameEventNotifier of the copy, which receives its notifications
+     * @return the copy
+     */
+    public GameState fork(GameEventNotifier notifier) {
+        stateLock.readLock().lock();
+        try {
+            return new GameState(this, notifier);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the copy of an entity, copying it on first use. {@link GameEntity#clone()} copies the parameters
+     * and the state of purchasable entities, the level of statues and the disabled turns of monuments are copied
+     * here.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends GameEntity> T copyEntity(T entity, Map<GameEntity, GameEntity> entities) {
+        GameEntity copy = entities.get(entity);
+        if (copy == null) {
+            copy = entity.clone();
+            if (entity instanceof Statue statue) {
+                ((Statue) copy).setLevel(statue.getLevel());
+            } else if (entity instanceof Monument monument) {
+                ((Monument) copy).setDisabled(monument.getDisabled());
+            }
+            entities.put(entity, copy);
+        }
+        return (T) copy;
+    }
+
+    /**
+     * Lets the tiles of the board increment the change counter of this state, e.g. after the board was
+     * initialized again.
+     */
+    void trackTiles() {
+        boardManager.getBoard().setChangeCounter(mutations);
+    }
+
+    /**
+     * Gets the source of randomness of the game. Must only be used by the thread running the game.
+     *
+     * @return the source of randomness
+     */
+    public GameRandom getRandom() {
+        return random;
     }
 
     /**
@@ -78,7 +290,8 @@ public class GameState {
     }
 
     /**
-     * Sets the players based on a String array of names
+     * Sets the players based on a String array of names. Every player is seated at the index of its name, the
+     * seats are the owners of the tiles on the board.
      *
      * @param playerNames the names of the players
      */
@@ -86,9 +299,16 @@ public class GameState {
         stateLock.writeLock().lock();
         try {
             players.clear();
+            playersByName.clear();
             for (String name : playerNames) {
-                players.add(new Player(name));
+                Player player = new Player(name);
+                player.setSeat(players.size());
+                player.setChangeCounter(mutations);
+                players.add(player);
+                playersByName.put(name, player);
             }
+            boardManager.getBoard().setSeats(Arrays.asList(playerNames));
+            mutations.incrementAndGet();
         } finally {
             stateLock.writeLock().unlock();
         }
@@ -103,15 +323,53 @@ public class GameState {
     public Player findPlayerByName(String name) {
         stateLock.readLock().lock();
         try {
-            return players.stream()
-                    .filter(p -> p.getName().equals(name))
-                    .findFirst()
-                    .orElse(null);
+            return playersByName.get(name);
         } finally {
             stateLock.readLock().unlock();
         }
     }
 
+    /**
+     * Gets the player of a seat, e.g. the owner of a tile.
+     *
+     * @param seat the seat of the player, see {@link Player#getSeat()}
+     * @return the player, null if the seat is empty
+     */
+    public Player getPlayer(int seat) {
+        stateLock.readLock().lock();
+        try {
+            return seat >= 0 && seat < players.size() ? players.get(seat) : null;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Renames a player. The tiles of the player are owned by its seat, so they are not visited.
+     *
+     * @param oldName the old name of the player
+     * @param newName the new name of the player
+     * @return if a player with the old name was renamed
+     */
+    public boolean renamePlayer(String oldName, String newName) {
+        stateLock.writeLock().lock();
+        try {
+            Player player = playersByName.remove(oldName);
+            if (player == null) {
+                return false;
+            }
+            player.setName(newName);
+            playersByName.put(newName, player);
+            boardManager.getBoard().renameSeat(player.getSeat(), newName);
+            if (oldName.equals(playerTurn)) {
+                playerTurn = newName;
+            }
+            return true;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Gets the current state of the BoardManager.
      *
@@ -121,6 +379,15 @@ public class GameState {
         return boardManager;
     }
 
+    /**
+     * Gets the ledger of the runes the tiles of the players earn per turn.
+     *
+     * @return the income ledger
+     */
+    public IncomeLedger getIncomeLedger() {
+        return incomeLedger;
+    }
+
     /**
      * Gets the current state of the StateLock.
      *
@@ -138,7 +405,13 @@ public class GameState {
         try {
             notifications.clear();
             players.forEach(Player::reset);
+            // The players keep their seats, so the index follows their cleared names like a search of the seats
+            playersByName.clear();
+            for (Player player : players) {
+                playersByName.putIfAbsent(player.getName(), player);
+            }
             boardManager.reset();
+            mutations.incrementAndGet();
         } finally {
             stateLock.writeLock().unlock();
         }
@@ -150,7 +423,116 @@ public class GameState {
      * @return a String of the status message
      */
     public String createDetailedStatusMessage() {
-        return new GameStateSerializer(this).createDetailedStatusMessage();
+        return serializer.createDetailedStatusMessage();
+    }
+
+    /**
+     * Create the chunks of a detailed status message containing all info, to be sent to a player in order.
+     *
+     * @return the chunks of the status message
+     * @see GameStateSerializer#createDetailedStatusMessages()
+     */
+    public List<String> createDetailedStatusMessages() {
+        return serializer.createDetailedStatusMessages();
+    }
+
+    /**
+     * Create a detailed status message containing all info that becomes the baseline for later deltas.
+     * Use this when the full state is broadcast to all players, e.g. at the start of the game.
+     *
+     * @return a String of the status message
+     * @see GameStateSerializer#createBaselineStatusMessage()
+     */
+    public String createBaselineStatusMessage() {
+        return serializer.createBaselineStatusMessage();
+    }
+
+    /**
+     * Create the chunks of a detailed status message that becomes the baseline for later deltas, to be broadcast
+     * to all players in order.
+     *
+     * @return the chunks of the status message
+     * @see GameStateSerializer#createBaselineStatusMessages()
+     */
+    public List<String> createBaselineStatusMessages() {
+        return serializer.createBaselineStatusMessages();
+    }
+
+    /**
+     * Create a status message containing only the players and tiles that changed since the last delta.
+     * Must be broadcast to all players.
+     *
+     * @return a String of the delta message
+     * @see GameStateSerializer#createDeltaStatusMessage()
+     */
+    public String createDeltaStatusMessage() {
+        return serializer.createDeltaStatusMessage();
+    }
+
+    /**
+     * Checks if a delta would contain any change since the last delta, e.g. to send none after a rejected command.
+     *
+     * @return true if there are changes to send
+     * @see GameStateSerializer#hasChanges()
+     */
+    public boolean hasDeltaChanges() {
+        return serializer.hasChanges();
+    }
+
+    /**
+     * Gets the state version, the version of the last delta or baseline sent to the clients.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Increments the state version. Must be called with the write lock held.
+     *
+     * @return the new version
+     */
+    long nextVersion() {
+        mutations.incrementAndGet();
+        return ++version;
+    }
+
+    /**
+     * Sets the state version, e.g. when the state is restored from a checkpoint. Must be called with the write
+     * lock held.
+     *
+     * @param version the version
+     */
+    void setVersion(long version) {
+        this.version = version;
+        mutations.incrementAndGet();
+    }
+
+    /**
+     * Gets the mutation version, which changes whenever the state that is part of a snapshot changes.
+     *
+     * @return the mutation version
+     */
+    public long getMutationVersion() {
+        return mutations.get();
+    }
+
+    /**
+     * Marks the state as changed. Only needed after modifications that bypass the setters of the players, tiles
+     * and entities, which count their changes themselves.
+     */
+    public void markChanged() {
+        mutations.incrementAndGet();
+    }
+
+    /**
+     * Gets the serializer of this game state, e.g. to read its snapshot cache statistics.
+     *
+     * @return the serializer
+     */
+    public GameStateSerializer getSerializer() {
+        return serializer;
     }
 
     /**
@@ -190,6 +572,7 @@ public class GameState {
      */
     public void setPlayerTurn(String playerTurn) {
         this.playerTurn = playerTurn;
+        mutations.incrementAndGet();
     }
 
     /**
@@ -208,6 +591,7 @@ public class GameState {
      */
     public void setPlayerRound(int playerRound) {
         this.playerRound = playerRound;
+        mutations.incrementAndGet();
     }
 
     /**
@@ -226,6 +610,7 @@ public class GameState {
      */
     public void setGameRound(int gameRound) {
         this.gameRound = gameRound;
+        mutations.incrementAndGet();
     }
 
     /**
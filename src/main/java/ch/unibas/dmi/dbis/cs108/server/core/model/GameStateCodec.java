@@ -0,0 +1,627 @@
+package ch.unibas.dmi.dbis.cs108.server.core.model;
+
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.PurchasableEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Versioned binary codec for checkpoints of the full server {@link GameState}.
+ * <p>
+ * A snapshot holds the META section, the names of the players, every tile of the board and the inventory of every
+ * player. Entities are written as their {@link EntityRegistry} id together with the state that changes during a
+ * game (activation, disabled turns, resource value, statue level and parameters) and are rebuilt from the registry
+ * when decoding. An entity that is both placed on a tile and held by a player is written once with the tile and
+ * referenced by the board index of the tile, so it is shared again after decoding. Owned tiles are written as board
+ * indexes ({@code x * height + y}).
+ * <p>
+ * Integers are written as zigzag variable-length integers and a status only holds the values that differ from
+ * the default, so a snapshot of a running game is a fraction of the size of the text {@code SYNC} message.
+ * Encoding reuses a buffer per thread; the only allocations are the returned array and the index of placed
+ * entities.
+ */
+public final class GameStateCodec {
+    /**
+     * Marks the start of a snapshot ("SOAG")
+     */
+    private static final int MAGIC = 0x534F4147;
+    /**
+     * Version of the snapshot format
+     */
+    public static final byte VERSION = 1;
+    /**
+     * Upper bound of the length of a list in a snapshot, guards against corrupt input
+     */
+    private static final int MAX_COUNT = 1 << 16;
+
+    private static final byte NO_ENTITY = 0;
+    private static final byte STRUCTURE = 1;
+    private static final byte STATUE = 2;
+    private static final byte MONUMENT = 3;
+
+    private static final int PURCHASED = 1;
+    private static final int RIVER = 1 << 1;
+    private static final int ARTIFACT = 1 << 2;
+
+    /**
+     * The buff types in the order of the bits of a status mask
+     */
+    private static final Status.BuffType[] BUFF_TYPES = Status.BuffType.values();
+    /**
+     * Buffer reused by the snapshots encoded on a thread
+     */
+    private static final ThreadLocal<SnapshotBuffer> BUFFER = ThreadLocal.withInitial(SnapshotBuffer::new);
+
+    private GameStateCodec() {
+    }
+
+    /**
+     * Encodes a snapshot of the game state.
+     *
+     * @param state the game state
+     * @return the snapshot
+     */
+    public static byte[] encode(GameState state) {
+        SnapshotBuffer buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            encode(state, buffer.out);
+        } catch (IOException e) {
+            // The buffer is in memory, only an unknown entity type ends up here
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of the snapshot of the game state, without copying the snapshot. The version
+     * of the state is left out, as it only counts the state messages sent to the clients, so a replayed game has
+     * the same hash as the game it was recorded from.
+     *
+     * @param state the game state
+     * @return the hash of the snapshot
+     */
+    public static long hash(GameState state) {
+        SnapshotBuffer buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            encode(state, buffer.out);
+            return hash(buffer.array(), buffer.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the hash of a snapshot, which is the hash of the game state it was encoded from.
+     *
+     * @param snapshot the snapshot
+     * @return the hash of the snapshot
+     * @throws IOException if the input is no snapshot
+     * @see #hash(GameState)
+     */
+    public static long hash(byte[] snapshot) throws IOException {
+        return hash(snapshot, snapshot.length);
+    }
+
+    private static long hash(byte[] snapshot, int length) throws IOException {
+        SnapshotInput input = new SnapshotInput(snapshot, length);
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a game state snapshot");
+        }
+        readVarInt(in);
+        readVarInt(in);
+        readString(in);
+        int versionOffset = input.position;
+        if (versionOffset + Long.BYTES > length) {
+            throw new IOException("Truncated snapshot");
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            if (i == versionOffset) {
+                i += Long.BYTES - 1;
+                continue;
+            }
+            hash = (hash ^ (snapshot[i] & 0xFF)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Encodes a snapshot of the game state. The read lock of the state is held while encoding.
+     *
+     * @param state the game state
+     * @param out   the output to write the snapshot to
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void encode(GameState state, DataOutput out) throws IOException {
+        ReadWriteLock lock = state.getStateLock();
+        lock.readLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeVarInt(out, state.getGameRound());
+            writeVarInt(out, state.getPlayerRound());
+            writeString(out, state.getPlayerTurn());
+            out.writeLong(state.getVersion());
+
+            List<Player> players = state.getPlayers();
+            writeVarInt(out, players.size());
+            for (Player player : players) {
+                out.writeUTF(player.getName());
+            }
+
+            Board board = state.getBoardManager().getBoard();
+            int height = board.getHeight();
+            writeVarInt(out, board.getWidth());
+            writeVarInt(out, height);
+            Map<GameEntity, Integer> placed = new IdentityHashMap<>();
+            for (int id = 0; id < board.getTileCount(); id++) {
+                writeTile(out, board, id);
+                if (board.getEntity(id) != null) {
+                    placed.put(board.getEntity(id), id);
+                }
+            }
+            for (Player player : players) {
+                writePlayer(out, player, height, placed);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restores the game state from a snapshot.
+     *
+     * @param snapshot the snapshot created by {@link #encode(GameState)}
+     * @param state    the game state to restore, e.g. the one of a new game
+     * @throws IOException if the snapshot is corrupt or references unknown entities
+     */
+    public static void decode(byte[] snapshot, GameState state) throws IOException {
+        decode(new DataInputStream(new SnapshotInput(snapshot)), state);
+    }
+
+    /**
+     * Restores the game state from a snapshot. The players, the board and the META section of the state are
+     * replaced, the board is initialized again if its size differs. The write lock of the state is held while
+     * decoding. If decoding fails, the state is left partially restored.
+     *
+     * @param in    the input to read the snapshot from
+     * @param state the game state to restore, e.g. the one of a new game
+     * @throws IOException if the snapshot is corrupt or references unknown entities
+     */
+    public static void decode(DataInput in, GameState state) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a game state snapshot");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        int gameRound = readVarInt(in);
+        int playerRound = readVarInt(in);
+        String playerTurn = readString(in);
+        long stateVersion = in.readLong();
+        String[] names = new String[readCount(in)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        int width = readCount(in);
+        int height = readCount(in);
+
+        ReadWriteLock lock = state.getStateLock();
+        lock.writeLock().lock();
+        try {
+            state.setPlayers(names);
+            BoardManager boardManager = state.getBoardManager();
+            Tile[][] tiles = boardManager.getBoard().getTiles();
+            if (tiles.length != width || (width > 0 && tiles[0].length != height)) {
+                boardManager.initializeBoard(width, height);
+                state.trackTiles();
+                tiles = boardManager.getBoard().getTiles();
+            }
+            List<Player> players = state.getPlayers();
+            for (Tile[] column : tiles) {
+                for (Tile tile : column) {
+                    readTile(in, tile, players);
+                }
+            }
+            for (Player player : players) {
+                readPlayer(in, player, tiles, height);
+            }
+            state.setGameRound(gameRound);
+            state.setPlayerRound(playerRound);
+            state.setPlayerTurn(playerTurn);
+            state.setVersion(stateVersion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void writeTile(DataOutput out, Board board, int id) throws IOException {
+        Artifact artifact = board.getArtifact(id);
+        int flags = (board.isPurchased(id) ? PURCHASED : 0)
+                | (board.hasRiver(id) ? RIVER : 0)
+                | (artifact != null ? ARTIFACT : 0);
+        out.writeByte(flags);
+        writeOwner(out, board, id);
+        writeVarInt(out, board.getPrice(id));
+        writeVarInt(out, board.getResourceValue(id));
+        writeVarInt(out, id);
+        writeString(out, board.getWorld(id));
+        if (artifact != null) {
+            writeVarInt(out, artifact.getId());
+        }
+        writeEntity(out, board.getEntity(id));
+        writeStatus(out, type -> board.getBuff(id, type));
+    }
+
+    private static void readTile(DataInput in, Tile tile, List<Player> players) throws IOException {
+        int flags = in.readUnsignedByte();
+        tile.setPurchased((flags & PURCHASED) != 0);
+        tile.setHasRiver((flags & RIVER) != 0);
+        tile.setOwner(readOwner(in, players));
+        tile.setPrice(readVarInt(in));
+        tile.setResourceValue(readVarInt(in));
+        readVarInt(in); // The id of a tile is its position on the board
+        tile.setWorld(readString(in));
+        tile.setArtifact((flags & ARTIFACT) != 0 ? readArtifact(in) : null);
+        tile.setEntity(readEntity(in));
+        int mask = in.readUnsignedByte();
+        // The statuses of a new board have the default values, the view of a status is only created for buffs
+        if (mask != 0) {
+            readStatus(in, mask, tile.getStatus());
+        }
+    }
+
+    private static void writePlayer(DataOutput out, Player player, int height, Map<GameEntity, Integer> placed)
+            throws IOException {
+        writeVarInt(out, player.getRunes());
+        writeVarInt(out, player.getEnergy());
+        writeVarInt(out, player.getRoundBoughtTiles());
+        writeVarInt(out, player.getOwnedTiles().size());
+        for (Tile tile : player.getOwnedTiles()) {
+            writeVarInt(out, tile.getX() * height + tile.getY());
+        }
+        writeVarInt(out, player.getArtifacts().size());
+        for (Artifact artifact : player.getArtifacts()) {
+            writeVarInt(out, artifact.getId());
+        }
+        writeVarInt(out, player.getPurchasableEntities().size());
+        for (PurchasableEntity entity : player.getPurchasableEntities()) {
+            writeReference(out, entity, placed);
+        }
+        writeVarInt(out, player.getMonuments().size());
+        for (Monument monument : player.getMonuments()) {
+            writeReference(out, monument, placed);
+        }
+        writeStatus(out, player.getStatus()::get);
+    }
+
+    private static void readPlayer(DataInput in, Player player, Tile[][] tiles, int height) throws IOException {
+        player.setRunes(readVarInt(in));
+        player.setEnergy(readVarInt(in));
+        player.setRoundBoughtTiles(readVarInt(in));
+        int count = readCount(in);
+        List<Tile> ownedTiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ownedTiles.add(tileAt(tiles, height, readVarInt(in)));
+        }
+        player.setOwnedTiles(ownedTiles);
+        count = readCount(in);
+        List<Artifact> artifacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            artifacts.add(readArtifact(in));
+        }
+        player.setArtifacts(artifacts);
+        count = readCount(in);
+        List<PurchasableEntity> purchasableEntities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            purchasableEntities.add(readReference(in, tiles, height, PurchasableEntity.class));
+        }
+        player.setPurchasableEntities(purchasableEntities);
+        count = readCount(in);
+        List<Monument> monuments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            monuments.add(readReference(in, tiles, height, Monument.class));
+        }
+        player.setMonuments(monuments);
+        readStatus(in, in.readUnsignedByte(), player.getStatus());
+    }
+
+    /**
+     * Writes the owner of a tile as the seat of the player plus one, 0 if the tile has no owner.
+     * An owner that is not a player of the game is written as -1 followed by the name.
+     */
+    private static void writeOwner(DataOutput out, Board board, int id) throws IOException {
+        int seat = board.getOwnerSeat(id);
+        String owner = board.getOwner(id);
+        if (seat >= 0 || owner == null) {
+            writeVarInt(out, seat + 1);
+            return;
+        }
+        writeVarInt(out, -1);
+        out.writeUTF(owner);
+    }
+
+    private static String readOwner(DataInput in, List<Player> players) throws IOException {
+        int owner = readVarInt(in);
+        if (owner == -1) {
+            return in.readUTF();
+        }
+        if (owner < 0 || owner > players.size()) {
+            throw new IOException("Invalid owner " + owner);
+        }
+        return owner == 0 ? null : players.get(owner - 1).getName();
+    }
+
+    /**
+     * Writes an entity held by a player: the board index of its tile plus one if it is placed, 0 followed by
+     * the entity otherwise.
+     */
+    private static void writeReference(DataOutput out, GameEntity entity, Map<GameEntity, Integer> placed)
+            throws IOException {
+        Integer index = placed.get(entity);
+        if (index != null) {
+            writeVarInt(out, index + 1);
+        } else {
+            writeVarInt(out, 0);
+            writeEntity(out, entity);
+        }
+    }
+
+    private static <T extends GameEntity> T readReference(DataInput in, Tile[][] tiles, int height, Class<T> type)
+            throws IOException {
+        int reference = readVarInt(in);
+        GameEntity entity = reference == 0 ? readEntity(in) : tileAt(tiles, height, reference - 1).getEntity();
+        if (!type.isInstance(entity)) {
+            throw new IOException("Expected " + type.getSimpleName() + " but found " + entity);
+        }
+        return type.cast(entity);
+    }
+
+    private static void writeEntity(DataOutput out, GameEntity entity) throws IOException {
+        if (entity == null) {
+            out.writeByte(NO_ENTITY);
+            return;
+        }
+        if (entity instanceof Statue statue) {
+            out.writeByte(STATUE);
+            writePurchasable(out, statue);
+            writeVarInt(out, statue.getLevel());
+        } else if (entity instanceof Structure structure) {
+            out.writeByte(STRUCTURE);
+            writePurchasable(out, structure);
+        } else if (entity instanceof Monument monument) {
+            out.writeByte(MONUMENT);
+            writeVarInt(out, monument.getId());
+            writeVarInt(out, monument.getDisabled());
+        } else {
+            throw new IOException("Cannot encode entity " + entity.getId() + " of type " + entity.getClass().getSimpleName());
+        }
+        writeVarInt(out, entity.getParams().size());
+        for (int i = 0; i < entity.getParams().size(); i++) {
+            out.writeDouble(entity.getParams().get(i).getValue());
+        }
+    }
+
+    private static void writePurchasable(DataOutput out, PurchasableEntity entity) throws IOException {
+        writeVarInt(out, entity.getId());
+        out.writeBoolean(entity.isActivated());
+        writeVarInt(out, entity.getDisabled());
+        writeVarInt(out, entity.getResourceValue());
+    }
+
+    private static GameEntity readEntity(DataInput in) throws IOException {
+        int kind = in.readUnsignedByte();
+        if (kind == NO_ENTITY) {
+            return null;
+        }
+        int id = readVarInt(in);
+        GameEntity entity = switch (kind) {
+            case STRUCTURE -> EntityRegistry.getStructure(id);
+            case STATUE -> EntityRegistry.getStatue(id);
+            case MONUMENT -> EntityRegistry.getMonument(id);
+            default -> throw new IOException("Unknown entity kind " + kind);
+        };
+        if (entity == null) {
+            throw new IOException("Unknown entity " + id + " of kind " + kind);
+        }
+        if (entity instanceof PurchasableEntity purchasable) {
+            purchasable.setActivated(in.readBoolean());
+            purchasable.setDisabled(readVarInt(in));
+            purchasable.setRessourceValue(readVarInt(in));
+            if (purchasable instanceof Statue statue) {
+                statue.setLevel(readVarInt(in));
+            }
+        } else if (entity instanceof Monument monument) {
+            monument.setDisabled(readVarInt(in));
+        }
+        int params = readCount(in);
+        if (params != entity.getParams().size()) {
+            throw new IOException("Entity " + id + " has " + entity.getParams().size() + " parameters, snapshot has " + params);
+        }
+        for (int i = 0; i < params; i++) {
+            entity.setParam(i, in.readDouble());
+        }
+        return entity;
+    }
+
+    private static Artifact readArtifact(DataInput in) throws IOException {
+        int id = readVarInt(in);
+        Artifact artifact = EntityRegistry.getArtifact(id);
+        if (artifact == null) {
+            throw new IOException("Unknown artifact " + id);
+        }
+        return artifact;
+    }
+
+    /**
+     * Writes a status as a mask of the buff types that differ from the default of 1.0, followed by their values.
+     */
+    private static void writeStatus(DataOutput out, ToDoubleFunction<Status.BuffType> status) throws IOException {
+        int mask = 0;
+        for (int i = 0; i < BUFF_TYPES.length; i++) {
+            if (status.applyAsDouble(BUFF_TYPES[i]) != 1.0) {
+                mask |= 1 << i;
+            }
+        }
+        out.writeByte(mask);
+        for (int i = 0; i < BUFF_TYPES.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                out.writeDouble(status.applyAsDouble(BUFF_TYPES[i]));
+            }
+        }
+    }
+
+    private static void readStatus(DataInput in, int mask, Status status) throws IOException {
+        for (int i = 0; i < BUFF_TYPES.length; i++) {
+            status.set(BUFF_TYPES[i], (mask & (1 << i)) != 0 ? in.readDouble() : 1.0);
+        }
+    }
+
+    private static Tile tileAt(Tile[][] tiles, int height, int index) throws IOException {
+        if (height == 0 || index < 0 || index >= tiles.length * height) {
+            throw new IOException("Invalid tile index " + index);
+        }
+        return tiles[index / height][index % height];
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static int readCount(DataInput in) throws IOException {
+        int count = readVarInt(in);
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Writes a zigzag encoded variable-length integer: 7 bits per byte, small values of either sign take one byte.
+     */
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        int bits = (value << 1) ^ (value >> 31);
+        while ((bits & ~0x7F) != 0) {
+            out.writeByte((bits & 0x7F) | 0x80);
+            bits >>>= 7;
+        }
+        out.writeByte(bits);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int bits = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            bits |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (bits >>> 1) ^ -(bits & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * Growable byte buffer with a data output on top, reused by the snapshots encoded on a thread.
+     * Unlike its superclass it does not synchronize every written byte, it is only used by one thread.
+     */
+    private static final class SnapshotBuffer extends ByteArrayOutputStream {
+        private final DataOutputStream out = new DataOutputStream(this);
+
+        private SnapshotBuffer() {
+            super(4096);
+        }
+
+        @Override
+        public void write(int b) {
+            if (count == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + len));
+            }
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * Input stream over a snapshot that does not synchronize every read byte, unlike {@link ByteArrayInputStream}.
+     */
+    private static final class SnapshotInput extends InputStream {
+        private final byte[] snapshot;
+        private final int length;
+        private int position;
+
+        private SnapshotInput(byte[] snapshot) {
+            this(snapshot, snapshot.length);
+        }
+
+        private SnapshotInput(byte[] snapshot, int length) {
+            this.snapshot = snapshot;
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            return position < length ? snapshot[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int n = Math.min(len, length - position);
+            System.arraycopy(snapshot, position, b, off, n);
+            position += n;
+            return n;
+        }
+    }
+}
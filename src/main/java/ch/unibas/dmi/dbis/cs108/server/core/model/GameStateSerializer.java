@@ -1,20 +1,41 @@
 package ch.unibas.dmi.dbis.cs108.server.core.model;
 
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
 import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.PurchasableEntity;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.game.Status;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 /**
- * Responsible for serializing game state for network transmission
+ * Responsible for serializing game state for network transmission.
+ * <p>
+ * Besides the full snapshot ({@code SYNC$}), the serializer creates delta messages ({@code SYND$}) that only
+ * contain the players and tiles that changed since the previous delta. Changes are detected with the dirty
+ * flags of {@link Player}, {@link Tile} and {@link Status}; entities placed on a tile mark the tile as changed when
+ * their state changes, so a delta only visits the changed tiles. Every delta increments the state version, which is
+ * part of the META section of both message types, so clients can detect missed deltas.
+ * <p>
+ * The last full snapshot is cached together with the mutation version of the game state it was created for.
+ * As long as the state does not change, further requests return the cached message without serializing again.
+ * <p>
+ * On the network, a full snapshot is sent as chunks of at most {@link SETTINGS.Config#SYNC_CHUNK_TILES} tiles, so
+ * the state of a large board does not become a single line of hundreds of kilobytes. The first chunk is the
+ * {@code SYNC$} message with the META section, whose size of the board lets the client resize its board, all
+ * players and the first tiles. The further chunks are {@code SYND$} messages with the remaining tiles, based on the
+ * version of the snapshot itself, so clients apply them like a delta without any change to the version.
  */
 public class GameStateSerializer {
     /**
@@ -25,6 +46,39 @@ public class GameStateSerializer {
      * The gameState object related to this
      */
     private final GameState gameState;
+    /**
+     * The META section without the version as sent with the last delta or baseline, null if none was sent
+     */
+    private String sentMeta;
+    /**
+     * The last full snapshot, null if none was created yet
+     */
+    private volatile Snapshot snapshot;
+    /**
+     * Lock held while creating a snapshot, so concurrent requests share a single serialization
+     */
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    /**
+     * Number of snapshot requests answered from the cache
+     */
+    private final AtomicLong snapshotHits = new AtomicLong();
+    /**
+     * Number of snapshot requests that needed a serialization
+     */
+    private final AtomicLong snapshotMisses = new AtomicLong();
+    /**
+     * Total time spent creating full snapshots in nanoseconds
+     */
+    private final AtomicLong serializationNanos = new AtomicLong();
+
+    /**
+     * A full snapshot and the mutation version of the state it represents.
+     *
+     * @param mutationVersion the mutation version of the game state when the snapshot was created
+     * @param messages        the chunks of the snapshot
+     */
+    private record Snapshot(long mutationVersion, List<String> messages) {
+    }
 
     /**
      * Creates a new GameStateSerializer Object.
@@ -36,118 +90,356 @@ public class GameStateSerializer {
     }
 
     /**
-     * Create a detailed status message with complete state information
+     * Create a detailed status message with complete state information, as a single message containing all tiles.
      *
      * @return the detailed status message
+     * @see #createDetailedStatusMessages()
      */
     public String createDetailedStatusMessage() {
-        ReadWriteLock lock = gameState.getStateLock();
-        lock.readLock().lock();
+        return join(createDetailedStatusMessages());
+    }
+
+    /**
+     * Create the chunks of a detailed status message with complete state information, to be sent in order.
+     * Creating the message does not affect the change tracking, so it can be sent to single players.
+     * If the state did not change since the last snapshot, the cached chunks are returned.
+     *
+     * @return the chunks of the detailed status message
+     */
+    public List<String> createDetailedStatusMessages() {
+        Snapshot cached = snapshot;
+        if (cached != null && cached.mutationVersion() == gameState.getMutationVersion()) {
+            snapshotHits.incrementAndGet();
+            return cached.messages();
+        }
+        snapshotLock.lock();
         try {
-            StringBuilder sb = new StringBuilder("SYNC$"); // CommandType = SYNCHRONIZE
+            // Another thread may have created the snapshot while this one was waiting
+            cached = snapshot;
+            if (cached != null && cached.mutationVersion() == gameState.getMutationVersion()) {
+                snapshotHits.incrementAndGet();
+                return cached.messages();
+            }
+            snapshotMisses.incrementAndGet();
+            ReadWriteLock lock = gameState.getStateLock();
+            lock.readLock().lock();
+            try {
+                return cacheFullMessage(gameState.getVersion());
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
 
-            // 1. Game Meta
-            sb.append("META:")
-                    .append(gameState.getGameRound()).append(",")
-                    .append(gameState.getPlayerRound()).append(",")
-                    .append(gameState.getPlayerTurn()).append("|");
+    /**
+     * Create a detailed status message that becomes the new baseline for deltas, as a single message containing
+     * all tiles.
+     *
+     * @return the detailed status message
+     * @see #createBaselineStatusMessages()
+     */
+    public String createBaselineStatusMessage() {
+        return join(createBaselineStatusMessages());
+    }
 
-            // 2. All Players
-            sb.append("PLAYERS:");
+    /**
+     * Create the chunks of a detailed status message that becomes the new baseline for deltas, to be sent in order.
+     * Must be sent to all players of the game, as it resets the change tracking.
+     *
+     * @return the chunks of the detailed status message
+     */
+    public List<String> createBaselineStatusMessages() {
+        ReadWriteLock lock = gameState.getStateLock();
+        lock.writeLock().lock();
+        try {
+            long version = gameState.nextVersion();
+            List<String> messages = cacheFullMessage(version);
             for (Player p : gameState.getPlayers()) {
-                sb.append(p.getName()).append("{")
-                        .append("R:").append(p.getRunes()).append(",")
-                        .append("E:").append(p.getEnergy()).append(",")
-
-                        // Owned tiles (IDs)
-                        .append("T:[");
-                for (Tile t : p.getOwnedTiles()) {
-                    sb.append(t.getTileID()).append(",");
-                }
-                if (!p.getOwnedTiles().isEmpty()) sb.deleteCharAt(sb.length() - 1);
-                sb.append("],");
+                p.clearDirty();
+            }
+            Board board = gameState.getBoardManager().getBoard();
+            for (int id = 0; id < board.getTileCount(); id++) {
+                board.clearDirty(id);
+            }
+            sentMeta = meta();
+            return messages;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 
-                // Artifacts
-                sb.append("A:[");
-                for (Artifact a : p.getArtifacts()) {
-                    sb.append(a.getId()).append(",");
-                }
-                if (!p.getArtifacts().isEmpty()) sb.deleteCharAt(sb.length() - 1);
-                sb.append("],");
+    /**
+     * Create a delta message containing the META section and all players and tiles that changed since the
+     * previous delta or baseline. Must be sent to all players of the game, as it resets the change tracking.
+     * Format: {@code SYND$META:gameRound,playerRound,playerTurn,version,baseVersion|PLAYERS:...|BOARD:...}
+     *
+     * @return the delta message
+     */
+    public String createDeltaStatusMessage() {
+        ReadWriteLock lock = gameState.getStateLock();
+        lock.writeLock().lock();
+        try {
+            long baseVersion = gameState.getVersion();
+            long version = gameState.nextVersion();
+            StringBuilder sb = new StringBuilder("SYND$");
+            appendMeta(sb, version).append(",").append(baseVersion).append("|");
 
-                // Purchasable entities
-                sb.append("PE:[");
-                for (PurchasableEntity pe : p.getPurchasableEntities()) {
-                    sb.append(pe.getId()).append(",");
+            sb.append("PLAYERS:");
+            for (Player p : gameState.getPlayers()) {
+                if (p.isDirty()) {
+                    appendPlayer(sb, p);
+                    p.clearDirty();
                 }
-                if (!p.getPurchasableEntities().isEmpty()) sb.deleteCharAt(sb.length() - 1);
-                sb.append("],");
-
-                // Status
-                sb.append("ST:{")
-                        .append("RG:").append(p.getStatus().get(Status.BuffType.RUNE_GENERATION)).append(",")
-                        .append("EG:").append(p.getStatus().get(Status.BuffType.ENERGY_GENERATION)).append(",")
-                        .append("RR:").append(p.getStatus().get(Status.BuffType.RIVER_RUNE_GENERATION)).append(",")
-                        .append("SP:").append(p.getStatus().get(Status.BuffType.SHOP_PRICE)).append(",")
-                        .append("AC:").append(p.getStatus().get(Status.BuffType.ARTIFACT_CHANCE)).append(",")
-                        .append("DB:").append(p.getStatus().get(Status.BuffType.DEBUFFABLE))
-                        .append("}};");
             }
             sb.append("|");
 
-            // 3. All Tiles (Simplified and consistent board section)
             sb.append("BOARD:");
-            Tile[][] tiles = gameState.getBoardManager().getBoard().getTiles();
-            for (int x = 0; x < tiles.length; x++) {
-                for (int y = 0; y < tiles[x].length; y++) {
-                    Tile t = tiles[x][y];
-                    GameEntity e = t.getEntity();
-
-                    sb.append(x).append(",").append(y).append("{");
-                    sb.append("HE=").append(t.hasEntity() ? 1 : 0).append("|");
-                    sb.append("O=").append(t.getOwner() != null ? t.getOwner() : "null").append("|");
-                    sb.append("P=").append(t.getPrice()).append("|");
-
-                    // Entity section
-                    if (e == null) {
-                        sb.append("ENT=NONE|");
-                    } else if (e instanceof Statue statue) {
-                        sb.append("ENT=STA,")
-                                .append(statue.getId()).append(",")
-                                .append("DI=").append(statue.getDisabled()).append(",")
-                                .append("AC=").append(statue.isActivated()).append(",")
-                                .append("LV=").append(statue.getLevel()).append("|");
-                    } else if (e instanceof Monument monument) {
-                        sb.append("ENT=MON,")
-                                .append(monument.getId()).append(",")
-                                .append("DI=").append(monument.isDisabled()).append("|");
-                    } else if (e instanceof Structure structure) {
-                        sb.append("ENT=STR,")
-                                .append(structure.getId()).append(",")
-                                .append("DI=").append(structure.isDisabled()).append(",")
-                                .append("AC=").append(structure.isActivated()).append("|");
-                    }
-
-                    sb.append("AR=").append(t.getArtifact() != null ? t.getArtifact().getId() : "null").append("|");
-                    sb.append("W=").append(t.getWorld()).append("|");
-                    sb.append("PU=").append(t.isPurchased() ? 1 : 0).append("|");
-                    sb.append("RV=").append(t.getResourceValue()).append("|");
-                    sb.append("HR=").append(t.hasRiver() ? 1 : 0).append("|");
-                    sb.append("ID=").append(t.getTileID()).append("|");
-
-                    // Tile status
-                    sb.append("ST=RG:").append(t.getStatus().get(Status.BuffType.RUNE_GENERATION)).append(",");
-                    sb.append("EG:").append(t.getStatus().get(Status.BuffType.ENERGY_GENERATION)).append(",");
-                    sb.append("RR:").append(t.getStatus().get(Status.BuffType.RIVER_RUNE_GENERATION)).append(",");
-                    sb.append("SP:").append(t.getStatus().get(Status.BuffType.SHOP_PRICE)).append(",");
-                    sb.append("AC:").append(t.getStatus().get(Status.BuffType.ARTIFACT_CHANCE)).append(",");
-                    sb.append("DB:").append(t.getStatus().get(Status.BuffType.DEBUFFABLE));
-                    sb.append("};");
-                }
+            Board board = gameState.getBoardManager().getBoard();
+            for (int id = board.nextDirtyTile(0); id >= 0; id = board.nextDirtyTile(id + 1)) {
+                appendTile(sb, board, id, entitySection(board.getEntity(id)));
+                board.clearDirty(id);
             }
+            sentMeta = meta();
             return sb.toString();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a delta created now would contain any change since the previous delta or baseline, i.e. a changed
+     * player, a changed tile or a different turn.
+     *
+     * @return true if there are changes to send
+     */
+    public boolean hasChanges() {
+        ReadWriteLock lock = gameState.getStateLock();
+        lock.readLock().lock();
+        try {
+            for (Player p : gameState.getPlayers()) {
+                if (p.isDirty()) {
+                    return true;
+                }
+            }
+            return gameState.getBoardManager().getBoard().nextDirtyTile(0) >= 0 || !meta().equals(sentMeta);
         } finally {
             lock.readLock().unlock();
         }
     }
+
+    /**
+     * Gets the number of snapshot requests answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getSnapshotHits() {
+        return snapshotHits.get();
+    }
+
+    /**
+     * Gets the number of snapshot requests that needed a serialization.
+     *
+     * @return the number of cache misses
+     */
+    public long getSnapshotMisses() {
+        return snapshotMisses.get();
+    }
+
+    /**
+     * Gets the total time spent creating full snapshots.
+     *
+     * @return the serialization time in nanoseconds
+     */
+    public long getSerializationNanos() {
+        return serializationNanos.get();
+    }
+
+    /**
+     * Creates the full snapshot and caches it. Must be called with the state lock held.
+     * The mutation version is read before serializing, so changes made meanwhile invalidate the snapshot.
+     *
+     * @param version the state version to report
+     * @return the chunks of the full snapshot
+     */
+    private List<String> cacheFullMessage(long version) {
+        long mutationVersion = gameState.getMutationVersion();
+        long start = System.nanoTime();
+        List<String> messages = createFullMessages(version);
+        serializationNanos.addAndGet(System.nanoTime() - start);
+        snapshot = new Snapshot(mutationVersion, messages);
+        return messages;
+    }
+
+    /**
+     * Creates the chunks of the full snapshot. Must be called with the state lock held.
+     * Format: {@code SYNC$META:gameRound,playerRound,playerTurn,version,width,height|PLAYERS:...|BOARD:...}, followed
+     * by {@code SYND$META:gameRound,playerRound,playerTurn,version,version|PLAYERS:|BOARD:...} for every further
+     * chunk of tiles.
+     *
+     * @param version the state version to report
+     * @return the chunks of the full snapshot
+     */
+    private List<String> createFullMessages(long version) {
+        Board board = gameState.getBoardManager().getBoard();
+        StringBuilder sb = new StringBuilder("SYNC$"); // CommandType = SYNCHRONIZE
+
+        // 1. Game Meta
+        appendMeta(sb, version).append(",")
+                .append(board.getWidth()).append(",")
+                .append(board.getHeight()).append("|");
+
+        // 2. All Players
+        sb.append("PLAYERS:");
+        for (Player p : gameState.getPlayers()) {
+            appendPlayer(sb, p);
+        }
+        sb.append("|");
+
+        // 3. All Tiles (Simplified and consistent board section), split into chunks
+        sb.append("BOARD:");
+        int chunkTiles = Math.max(1, SETTINGS.Config.SYNC_CHUNK_TILES.getValue());
+        List<String> messages = new ArrayList<>();
+        for (int id = 0; id < board.getTileCount(); id++) {
+            if (id > 0 && id % chunkTiles == 0) {
+                messages.add(sb.toString());
+                sb.setLength(0);
+                appendMeta(sb.append("SYND$"), version).append(",").append(version).append("|PLAYERS:|BOARD:");
+            }
+            appendTile(sb, board, id, entitySection(board.getEntity(id)));
+        }
+        messages.add(sb.toString());
+        return List.copyOf(messages);
+    }
+
+    /**
+     * Joins the chunks of a full snapshot into a single message by appending the tiles of the further chunks to
+     * the first one.
+     */
+    private static String join(List<String> messages) {
+        if (messages.size() == 1) {
+            return messages.get(0);
+        }
+        StringBuilder sb = new StringBuilder(messages.get(0));
+        for (String chunk : messages.subList(1, messages.size())) {
+            sb.append(chunk, chunk.indexOf("|BOARD:") + 7, chunk.length());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the values of the META section that are not versions.
+     */
+    private String meta() {
+        return gameState.getGameRound() + "," + gameState.getPlayerRound() + "," + gameState.getPlayerTurn();
+    }
+
+    /**
+     * Appends the META section without the section separator.
+     */
+    private StringBuilder appendMeta(StringBuilder sb, long version) {
+        return sb.append("META:")
+                .append(gameState.getGameRound()).append(",")
+                .append(gameState.getPlayerRound()).append(",")
+                .append(gameState.getPlayerTurn()).append(",")
+                .append(version);
+    }
+
+    /**
+     * Appends the entry of a single player.
+     */
+    private void appendPlayer(StringBuilder sb, Player p) {
+        sb.append(p.getName()).append("{")
+                .append("R:").append(p.getRunes()).append(",")
+                .append("E:").append(p.getEnergy()).append(",")
+
+                // Owned tiles (IDs)
+                .append("T:[");
+        for (Tile t : p.getOwnedTiles()) {
+            sb.append(t.getTileID()).append(",");
+        }
+        if (!p.getOwnedTiles().isEmpty()) sb.deleteCharAt(sb.length() - 1);
+        sb.append("],");
+
+        // Artifacts
+        sb.append("A:[");
+        for (Artifact a : p.getArtifacts()) {
+            sb.append(a.getId()).append(",");
+        }
+        if (!p.getArtifacts().isEmpty()) sb.deleteCharAt(sb.length() - 1);
+        sb.append("],");
+
+        // Purchasable entities
+        sb.append("PE:[");
+        for (PurchasableEntity pe : p.getPurchasableEntities()) {
+            sb.append(pe.getId()).append(",");
+        }
+        if (!p.getPurchasableEntities().isEmpty()) sb.deleteCharAt(sb.length() - 1);
+        sb.append("],");
+
+        // Status
+        sb.append("ST:{")
+                .append("RG:").append(p.getStatus().get(Status.BuffType.RUNE_GENERATION)).append(",")
+                .append("EG:").append(p.getStatus().get(Status.BuffType.ENERGY_GENERATION)).append(",")
+                .append("RR:").append(p.getStatus().get(Status.BuffType.RIVER_RUNE_GENERATION)).append(",")
+                .append("SP:").append(p.getStatus().get(Status.BuffType.SHOP_PRICE)).append(",")
+                .append("AC:").append(p.getStatus().get(Status.BuffType.ARTIFACT_CHANCE)).append(",")
+                .append("DB:").append(p.getStatus().get(Status.BuffType.DEBUFFABLE))
+                .append("}};");
+    }
+
+    /**
+     * Appends the entry of a single tile, read from the arrays of the board.
+     */
+    private void appendTile(StringBuilder sb, Board board, int id, String entity) {
+        int height = board.getHeight();
+        String owner = board.getOwner(id);
+        Artifact artifact = board.getArtifact(id);
+        sb.append(id / height).append(",").append(id % height).append("{");
+        sb.append("HE=").append(board.getEntity(id) != null ? 1 : 0).append("|");
+        sb.append("O=").append(owner != null ? owner : "null").append("|");
+        sb.append("P=").append(board.getPrice(id)).append("|");
+
+        // Entity section
+        sb.append(entity);
+
+        sb.append("AR=").append(artifact != null ? artifact.getId() : "null").append("|");
+        sb.append("W=").append(board.getWorld(id)).append("|");
+        sb.append("PU=").append(board.isPurchased(id) ? 1 : 0).append("|");
+        sb.append("RV=").append(board.getResourceValue(id)).append("|");
+        sb.append("HR=").append(board.hasRiver(id) ? 1 : 0).append("|");
+        sb.append("ID=").append(id).append("|");
+
+        // Tile status
+        sb.append("ST=RG:").append(board.getBuff(id, Status.BuffType.RUNE_GENERATION)).append(",");
+        sb.append("EG:").append(board.getBuff(id, Status.BuffType.ENERGY_GENERATION)).append(",");
+        sb.append("RR:").append(board.getBuff(id, Status.BuffType.RIVER_RUNE_GENERATION)).append(",");
+        sb.append("SP:").append(board.getBuff(id, Status.BuffType.SHOP_PRICE)).append(",");
+        sb.append("AC:").append(board.getBuff(id, Status.BuffType.ARTIFACT_CHANCE)).append(",");
+        sb.append("DB:").append(board.getBuff(id, Status.BuffType.DEBUFFABLE));
+        sb.append("};");
+    }
+
+    /**
+     * Creates the entity section of a tile entry, including the trailing separator.
+     */
+    private String entitySection(GameEntity e) {
+        if (e == null) {
+            return "ENT=NONE|";
+        } else if (e instanceof Statue statue) {
+            return "ENT=STA," + statue.getId() + ","
+                    + "DI=" + statue.getDisabled() + ","
+                    + "AC=" + statue.isActivated() + ","
+                    + "LV=" + statue.getLevel() + "|";
+        } else if (e instanceof Monument monument) {
+            return "ENT=MON," + monument.getId() + ","
+                    + "DI=" + monument.isDisabled() + "|";
+        } else if (e instanceof Structure structure) {
+            return "ENT=STR," + structure.getId() + ","
+                    + "DI=" + structure.isDisabled() + ","
+                    + "AC=" + structure.isActivated() + "|";
+        }
+        return "";
+    }
 }
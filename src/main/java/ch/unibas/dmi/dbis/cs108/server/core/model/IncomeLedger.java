@@ -0,0 +1,262 @@
+package ch.unibas.dmi.dbis.cs108.server.core.model;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+
+/**
+ * The runes the owned tiles of every seat earn per turn, kept up to date with the changes of the board.
+ * <p>
+ * The ledger counts the runes of every owned tile once and adds them to the total of the seat of its owner. A tile
+ * earns the runes of its resource value, of the structure on it unless the structure is disabled, and of the
+ * monument on it unless the monument is disabled, with the set bonus if its owner has the complete set. When the
+ * income of a player is read, the tiles changed since the last read are taken from the board with
+ * {@link Board#drainChangedTiles} and counted again, and all tiles of the seat are counted again if the rune buffs
+ * or the monuments of the player changed. The entities mark their tile as changed themselves, so a disabled
+ * structure is counted again as well. Reading the income therefore only visits the tiles that changed.
+ * <p>
+ * If {@link SETTINGS.Config#INCOME_CHECK} is 1, every read is compared with a count over the owned tiles of the
+ * player the board gives to its seat, and a difference throws an {@link IllegalStateException}.
+ */
+public final class IncomeLedger {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(IncomeLedger.class.getName());
+
+    /**
+     * The board whose tiles are counted
+     */
+    private final Board board;
+    /**
+     * Gives the player of a seat, for the set bonuses of the monuments
+     */
+    private final IntFunction<Player> players;
+    /**
+     * The runes counted for every tile, 0 if it has no owner
+     */
+    private int[] runes = new int[0];
+    /**
+     * The seat every tile was counted for, -1 if it has no owner
+     */
+    private byte[] counted = new byte[0];
+    /**
+     * The sum of the runes of the tiles of every seat
+     */
+    private int[] totals = new int[0];
+    /**
+     * The rune generation buff of every seat the tiles were counted with, NaN if the seat was never read
+     */
+    private double[] runeBuffs = new double[0];
+    /**
+     * The river rune generation buff of every seat the tiles were counted with, NaN if the seat was never read
+     */
+    private double[] riverBuffs = new double[0];
+    /**
+     * The monument changes of the player of every seat the tiles were counted with, see
+     * {@link Player#getMonumentChanges()}
+     */
+    private int[] monumentChanges = new int[0];
+
+    /**
+     * Creates an empty ledger, all tiles are counted on the first read.
+     *
+     * @param board   the board whose tiles are counted
+     * @param players gives the player of a seat
+     */
+    IncomeLedger(Board board, IntFunction<Player> players) {
+        this.board = board;
+        this.players = players;
+    }
+
+    /**
+     * Creates a copy of a ledger for a copy of its board, see {@link GameState#fork()}. The board must have been
+     * copied with {@link Board#copyFrom}, so it has the same changes pending as the board of the other ledger.
+     *
+     * @param board   the copy of the board
+     * @param players gives the player of a seat of the copy
+     * @param source  the ledger to copy
+     */
+    IncomeLedger(Board board, IntFunction<Player> players, IncomeLedger source) {
+        this.board = board;
+        this.players = players;
+        this.runes = source.runes.clone();
+        this.counted = source.counted.clone();
+        this.totals = source.totals.clone();
+        this.runeBuffs = source.runeBuffs.clone();
+        this.riverBuffs = source.riverBuffs.clone();
+        this.monumentChanges = source.monumentChanges.clone();
+    }
+
+    /**
+     * Returns the runes a player earns per turn from its tiles and the structures and monuments on them. Must be
+     * called with the write lock of the state held, as it takes the changes of the board.
+     *
+     * @param player the player
+     * @return the runes of the tiles of the player
+     */
+    public int getIncome(Player player) {
+        int seat = player.getSeat();
+        if (seat < 0) {
+            return count(player);
+        }
+        if (runes.length != board.getTileCount()) {
+            clear();
+        }
+        grow(seat);
+        board.drainChangedTiles(this::count);
+
+        Status status = player.getStatus();
+        double runeBuff = status.get(Status.BuffType.RUNE_GENERATION);
+        double riverBuff = status.get(Status.BuffType.RIVER_RUNE_GENERATION);
+        if (runeBuff != runeBuffs[seat] || riverBuff != riverBuffs[seat]
+                || player.getMonumentChanges() != monumentChanges[seat]) {
+            runeBuffs[seat] = runeBuff;
+            riverBuffs[seat] = riverBuff;
+            monumentChanges[seat] = player.getMonumentChanges();
+            for (int id = 0; id < counted.length; id++) {
+                if (counted[id] == seat) {
+                    count(id);
+                }
+            }
+        }
+
+        int income = totals[seat];
+        if (SETTINGS.Config.INCOME_CHECK.getValue() == 1) {
+            int expected = count(player, seat);
+            if (income != expected) {
+                LOGGER.severe("Income ledger of " + player.getName() + " is " + income + ", expected " + expected);
+                throw new IllegalStateException("Income ledger of " + player.getName() + " is " + income
+                        + " runes, a full count gives " + expected);
+            }
+        }
+        return income;
+    }
+
+    /**
+     * Returns the runes a value earns on a tile for a player with the given buffs, the same for the resource value
+     * of the tile and for the runes of the entity on it.
+     *
+     * @param value     the runes before buffs
+     * @param runeBuff  the rune generation buff of the player
+     * @param riverBuff the river rune generation buff of the player
+     * @param board     the board of the tile
+     * @param id        the id of the tile
+     * @return the runes
+     */
+    public static int runes(int value, double runeBuff, double riverBuff, Board board, int id) {
+        if (board.hasRiver(id)) {
+            value = (int) (value * riverBuff * board.getBuff(id, Status.BuffType.RIVER_RUNE_GENERATION));
+        }
+        return (int) (value * runeBuff * board.getBuff(id, Status.BuffType.RUNE_GENERATION));
+    }
+
+    /**
+     * Returns the runes a tile earns for a player with the given buffs: its resource value and the structure or
+     * monument on it. The parts are converted one by one, as they were paid one by one before the ledger.
+     *
+     * @param id        the id of the tile
+     * @param player    the owner of the tile, null if it is not seated
+     * @param runeBuff  the rune generation buff of the player
+     * @param riverBuff the river rune generation buff of the player
+     * @return the runes
+     */
+    private int runes(int id, Player player, double runeBuff, double riverBuff) {
+        int sum = runes(board.getResourceValue(id), runeBuff, riverBuff, board, id);
+        GameEntity entity = board.getEntity(id);
+        if (entity instanceof Structure structure) {
+            if (structure.isStructure() && !structure.isDisabled()) {
+                sum += runes(structure.getResourceValue(), runeBuff, riverBuff, board, id);
+            }
+        } else if (entity instanceof Monument monument && !monument.isDisabled()) {
+            int value = monument.getRunes();
+            if (monument.isSet() && player != null && player.hasCompleteSet(monument)) {
+                value *= SETTINGS.Config.SET_BONUS_MULTIPLIER.getValue();
+            }
+            sum += runes(value, runeBuff, riverBuff, board, id);
+        }
+        return sum;
+    }
+
+    /**
+     * Counts the runes of the owned tiles of a player without the ledger.
+     */
+    private int count(Player player) {
+        return count(player, -1);
+    }
+
+    /**
+     * Counts the runes of the owned tiles of a player without the ledger, only the tiles the board gives to a seat
+     * if the seat is not negative. A tile can be owned by two players if it was given away without being marked
+     * purchased, the board and the ledger count it for its last owner.
+     */
+    private int count(Player player, int seat) {
+        Status status = player.getStatus();
+        double runeBuff = status.get(Status.BuffType.RUNE_GENERATION);
+        double riverBuff = status.get(Status.BuffType.RIVER_RUNE_GENERATION);
+        int sum = 0;
+        for (Tile tile : player.getOwnedTiles()) {
+            if (seat < 0 || board.getOwnerSeat(tile.getTileID()) == seat) {
+                sum += runes(tile.getTileID(), player, runeBuff, riverBuff);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Counts a tile again for the seat of its owner, with the buffs the seat was last counted with.
+     */
+    private void count(int id) {
+        int previous = counted[id];
+        if (previous >= 0) {
+            totals[previous] -= runes[id];
+        }
+        int seat = board.getOwnerSeat(id);
+        if (seat < 0) {
+            runes[id] = 0;
+            counted[id] = -1;
+            return;
+        }
+        grow(seat);
+        runes[id] = runes(id, players.apply(seat), runeBuffs[seat], riverBuffs[seat]);
+        counted[id] = (byte) seat;
+        totals[seat] += runes[id];
+    }
+
+    /**
+     * Forgets all counts, e.g. after the board was initialized with another size. The board marks all tiles as
+     * changed when it is initialized, so they are counted again.
+     */
+    private void clear() {
+        runes = new int[board.getTileCount()];
+        counted = new byte[runes.length];
+        Arrays.fill(counted, (byte) -1);
+        Arrays.fill(totals, 0);
+    }
+
+    /**
+     * Makes room for the totals and buffs of a seat.
+     */
+    private void grow(int seat) {
+        if (seat < totals.length) {
+            return;
+        }
+        int previous = totals.length;
+        totals = Arrays.copyOf(totals, seat + 1);
+        runeBuffs = Arrays.copyOf(runeBuffs, seat + 1);
+        riverBuffs = Arrays.copyOf(riverBuffs, seat + 1);
+        monumentChanges = Arrays.copyOf(monumentChanges, seat + 1);
+        Arrays.fill(runeBuffs, previous, seat + 1, Double.NaN);
+        Arrays.fill(riverBuffs, previous, seat + 1, Double.NaN);
+    }
+}
@@ -1,56 +1,119 @@
 package ch.unibas.dmi.dbis.cs108.server.core.model;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * This class manages a Leaderboard. It handles loading, updating, saving and sending
  * of the leaderboard.txt file (@see leaderboard/leaderboard.txt)
+ * <p>
+ * Changes are persisted write-behind: {@link #update(String, int)} and {@link #set(String, int)} only change the
+ * map and queue a record for a background writer, so a game ending never waits for the disk. The writer appends
+ * all queued records to a journal next to the leaderboard file and forces them to disk once per batch (group
+ * commit). Every record carries a sequence number. Periodically, the writer compacts the journal into a new
+ * snapshot of the leaderboard file, which is written to a temporary file and atomically renamed, then the journal
+ * is truncated. The first line of the snapshot holds the last sequence number it contains, so on startup the
+ * snapshot is loaded and only the newer journal records are replayed.
+ * <p>
+ * Besides the map, the players are kept in a {@link RankIndex} ordered by points, which is updated with every
+ * change. The sorted leaderboard, pages of it and the rank of a player are read from the index without sorting.
  */
 public class Leaderboard {
     /**
      * Logger to log logging
      */
     private static final Logger LOGGER = Logger.getLogger(Leaderboard.class.getName());
+    /**
+     * Number of journal records after which the journal is compacted into the snapshot
+     */
+    private static final int COMPACTION_THRESHOLD = 1024;
+    /**
+     * Time after which an idle writer compacts a non-empty journal
+     */
+    private static final long COMPACTION_INTERVAL_MS = 60_000;
+    /**
+     * Maximum time to wait for the writer in {@link #flush()} and {@link #close()}
+     */
+    private static final long FLUSH_TIMEOUT_MS = 5_000;
+    /**
+     * Prefix of the snapshot header line holding the last contained sequence number
+     */
+    private static final String HEADER_PREFIX = "# ";
     /**
      * Map for the leaderboard (name -> points (runes)
      */
     private final Map<String, Integer> leaderboard = new ConcurrentHashMap<>();
     /**
-     * The path to the leaderboard
+     * The players ordered by points, guarded by the lock
+     */
+    private final RankIndex ranking = new RankIndex();
+    /**
+     * The path to the leaderboard, null if the leaderboard is not persisted
      */
     private final Path leaderboardPath;
+    /**
+     * The path to the journal of changes since the last snapshot
+     */
+    private final Path journalPath;
     /**
      * ReadWriteLock to ensure thread-safe handling
      */
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * The records waiting to be written by the writer
+     */
+    private final BlockingQueue<Op> pending = new LinkedBlockingQueue<>();
+    /**
+     * The leaderboard as persisted in snapshot and journal, only accessed by the writer (and on load)
+     */
+    private final Map<String, Integer> persisted = new HashMap<>();
+    /**
+     * The background writer, started with the first change
+     */
+    private Thread writer;
+    /**
+     * The open journal, only accessed by the writer
+     */
+    private FileChannel journal;
+    /**
+     * Sequence number of the last record written to the journal
+     */
+    private long lastSequence;
+    /**
+     * Number of records in the journal since the last compaction
+     */
+    private int journalRecords;
 
     /**
      * Instantiates a Leaderboard object. Creates the correct path.
      */
     public Leaderboard() {
-        // Try to use the Git-tracked leaderboard first, then fall back to user home
-        Path gitTrackedPath = tryGetGitTrackedLeaderboardPath();
-        if (gitTrackedPath != null && Files.exists(gitTrackedPath)) {
-            this.leaderboardPath = gitTrackedPath;
-        } else {
-            this.leaderboardPath = createUserHomeLeaderboardPath();
-        }
-        ensureDirectoryExists();
-        load();
+        this(defaultPath());
     }
 
     /**
@@ -61,8 +124,25 @@ public class Leaderboard {
      */
     public Leaderboard(Path customPath) {
         this.leaderboardPath = customPath;
-        ensureDirectoryExists();
-        load();
+        this.journalPath = customPath == null ? null : customPath.resolveSibling(customPath.getFileName() + ".journal");
+        if (customPath != null) {
+            ensureDirectoryExists();
+            load();
+        }
+    }
+
+    /**
+     * Returns the path of the leaderboard file: the Git-tracked leaderboard if it exists, the user home otherwise.
+     *
+     * @return the path to the leaderboard file
+     */
+    private static Path defaultPath() {
+        // Try to use the Git-tracked leaderboard first, then fall back to user home
+        Path gitTrackedPath = tryGetGitTrackedLeaderboardPath();
+        if (gitTrackedPath != null && Files.exists(gitTrackedPath)) {
+            return gitTrackedPath;
+        }
+        return createUserHomeLeaderboardPath();
     }
 
     /**
@@ -97,12 +177,13 @@ public class Leaderboard {
 
     /**
      * Creates a Leaderboard object from its string representation.
+     * The returned leaderboard only lives in memory and is never written to disk.
      *
      * @param leaderboardString the string representation of a leaderboard
      * @return a new Leaderboard object populated with the parsed data
      */
     public static Leaderboard fromString(String leaderboardString) {
-        Leaderboard leaderboard = new Leaderboard();
+        Leaderboard leaderboard = new Leaderboard(null);
 
         // Remove the curly braces
         String content = leaderboardString.substring(1, leaderboardString.length() - 1);
@@ -136,7 +217,10 @@ public class Leaderboard {
      */
     private void ensureDirectoryExists() {
         try {
-            Files.createDirectories(leaderboardPath.getParent());
+            Path parent = leaderboardPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Could not create leaderboard directory", e);
         }
@@ -144,6 +228,7 @@ public class Leaderboard {
 
     /**
      * Updates the leaderboard by adding a key and value to the map.
+     * The change is written to disk in the background.
      *
      * @param playerName the name of the player
      * @param points     the points of the player
@@ -151,7 +236,9 @@ public class Leaderboard {
     public void update(String playerName, int points) {
         lock.writeLock().lock();
         try {
-            leaderboard.merge(playerName, points, Integer::sum);
+            Integer current = leaderboard.get(playerName);
+            put(playerName, current == null ? points : current + points);
+            enqueue(new Op(Kind.ADD, playerName, points, null));
         } finally {
             lock.writeLock().unlock();
         }
@@ -159,6 +246,7 @@ public class Leaderboard {
 
     /**
      * Sets the points for a player in the leaderboard.
+     * The change is written to disk in the background.
      *
      * @param playerName the name of the player
      * @param points     the points to set
@@ -166,66 +254,345 @@ public class Leaderboard {
     public void set(String playerName, int points) {
         lock.writeLock().lock();
         try {
-            leaderboard.put(playerName, points);
+            put(playerName, points);
+            enqueue(new Op(Kind.SET, playerName, points, null));
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     /**
-     * Saves the current leaderboard.
+     * Sets the points of a player in the map and the rank index. Must be called with the write lock held.
+     *
+     * @param playerName the name of the player
+     * @param points     the new points
+     */
+    private void put(String playerName, int points) {
+        Integer previous = leaderboard.put(playerName, points);
+        if (previous != null) {
+            ranking.remove(playerName, previous);
+        }
+        ranking.insert(playerName, points);
+    }
+
+    /**
+     * Requests a compaction of the journal into the leaderboard file.
+     * Changes are persisted by {@link #update(String, int)} already, so this method does not wait for the disk.
      */
     public void save() {
-        lock.readLock().lock();
-        try (BufferedWriter writer = Files.newBufferedWriter(leaderboardPath,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        lock.writeLock().lock();
+        try {
+            enqueue(new Op(Kind.COMPACT, null, 0, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 
-            leaderboard.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .forEach(entry -> writeEntry(writer, entry));
+    /**
+     * Waits until all changes made before the call are written to the journal and forced to disk.
+     */
+    public void flush() {
+        await(Kind.SYNC);
+    }
 
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Could not save leaderboard", e);
+    /**
+     * Writes all pending changes, compacts the journal and stops the writer.
+     * A later change starts a new writer.
+     */
+    public void close() {
+        Thread current;
+        lock.writeLock().lock();
+        try {
+            current = writer;
         } finally {
-            lock.readLock().unlock();
+            lock.writeLock().unlock();
+        }
+        if (current != null) {
+            await(Kind.CLOSE);
         }
     }
 
     /**
-     * Writes an entry of the map to the BufferedWriter. Helper Method for save().
+     * Queues an operation and waits until the writer has processed it.
      *
-     * @param writer the BufferedWriter to write to
-     * @param entry  the entry of the Map to write
+     * @param kind the kind of the operation
      */
-    private void writeEntry(BufferedWriter writer, Map.Entry<String, Integer> entry) {
+    private void await(Kind kind) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        lock.writeLock().lock();
         try {
-            writer.write(entry.getKey() + ": " + entry.getValue() + "\n");
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to write leaderboard entry", e);
+            if (leaderboardPath == null) return;
+            enqueue(new Op(kind, null, 0, done));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            done.get(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.log(Level.WARNING, "Leaderboard writer did not complete " + kind, e);
+        }
+    }
+
+    /**
+     * Queues an operation for the writer, starting it if necessary. Must be called with the write lock held,
+     * so the journal receives the changes in the order they were applied to the map.
+     *
+     * @param op the operation to queue
+     */
+    private void enqueue(Op op) {
+        if (leaderboardPath == null) {
+            return;
+        }
+        pending.add(op);
+        if (writer == null) {
+            writer = new Thread(this::runWriter, "leaderboard-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * The loop of the writer thread: writes the queued records in batches and compacts the journal.
+     */
+    private void runWriter() {
+        List<Op> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                Op first = pending.poll(COMPACTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (journalRecords > 0) compact();
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch);
+                running = writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Could not write leaderboard journal", e);
+                batch.forEach(op -> {
+                    if (op.done() != null) op.done().completeExceptionally(e);
+                });
+            }
+            batch.clear();
+        }
+        closeJournal();
+    }
+
+    /**
+     * Appends the records of a batch to the journal with a single write and force, then handles
+     * compaction and close requests of the batch.
+     *
+     * @param batch the operations taken from the queue
+     * @return false if the writer should stop
+     * @throws IOException if the journal or snapshot could not be written
+     */
+    private boolean writeBatch(List<Op> batch) throws IOException {
+        StringBuilder records = new StringBuilder();
+        boolean compact = journalRecords >= COMPACTION_THRESHOLD;
+        boolean close = false;
+        for (Op op : batch) {
+            switch (op.kind()) {
+                case ADD -> {
+                    persisted.merge(op.name(), op.points(), Integer::sum);
+                    appendRecord(records, '+', op);
+                }
+                case SET -> {
+                    persisted.put(op.name(), op.points());
+                    appendRecord(records, '=', op);
+                }
+                case COMPACT -> compact = true;
+                case CLOSE -> close = true;
+                case SYNC -> {
+                }
+            }
+        }
+        if (!records.isEmpty()) {
+            FileChannel channel = openJournal();
+            ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
         }
+        if (compact || close || journalRecords >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+        if (close) {
+            closeJournal();
+            lock.writeLock().lock();
+            try {
+                // Changes queued after the close request need a new writer
+                writer = null;
+                if (!pending.isEmpty()) enqueue(new Op(Kind.SYNC, null, 0, null));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        for (Op op : batch) {
+            if (op.done() != null) op.done().complete(null);
+        }
+        return !close;
     }
 
     /**
-     * Loads the leaderboard map from the file.
+     * Appends a journal record of the form {@code <sequence> <+|=><points> <name>}.
+     */
+    private void appendRecord(StringBuilder records, char type, Op op) {
+        records.append(++lastSequence).append(' ').append(type).append(op.points())
+                .append(' ').append(op.name()).append('\n');
+        journalRecords++;
+    }
+
+    /**
+     * Opens the journal for appending if it is not open yet.
+     *
+     * @return the open journal
+     * @throws IOException if the journal could not be opened
+     */
+    private FileChannel openJournal() throws IOException {
+        if (journal == null) {
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return journal;
+    }
+
+    /**
+     * Closes the journal, if it is open.
+     */
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not close leaderboard journal", e);
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Writes the persisted leaderboard to a new snapshot, atomically replaces the leaderboard file with it
+     * and truncates the journal. A crash at any point leaves either the old snapshot with the full journal or
+     * the new snapshot, whose header makes recovery skip the journal records it already contains.
+     *
+     * @throws IOException if the snapshot could not be written
+     */
+    private void compact() throws IOException {
+        Path temp = leaderboardPath.resolveSibling(leaderboardPath.getFileName() + ".tmp");
+        StringBuilder snapshot = new StringBuilder(HEADER_PREFIX).append(lastSequence).append('\n');
+        persisted.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> snapshot.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n'));
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, leaderboardPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, leaderboardPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (journal != null) {
+            journal.truncate(0);
+            journal.force(true);
+        } else {
+            Files.deleteIfExists(journalPath);
+        }
+        journalRecords = 0;
+    }
+
+    /**
+     * Loads the leaderboard map from the file and replays the journal records that are newer than it.
+     * Called on startup, before any change is made.
      */
     public void load() {
+        if (leaderboardPath == null) return;
         lock.writeLock().lock();
         try {
-            if (!Files.exists(leaderboardPath)) return;
-
-            try (BufferedReader reader = Files.newBufferedReader(leaderboardPath)) {
-                reader.lines()
-                        .map(line -> line.split(": "))
-                        .filter(parts -> parts.length == 2)
-                        .forEach(parts -> leaderboard.put(parts[0], Integer.parseInt(parts[1])));
+            long snapshotSequence = 0;
+            if (Files.exists(leaderboardPath)) {
+                try (BufferedReader reader = Files.newBufferedReader(leaderboardPath)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.startsWith(HEADER_PREFIX)) {
+                            snapshotSequence = Long.parseLong(line.substring(HEADER_PREFIX.length()).trim());
+                            continue;
+                        }
+                        String[] parts = line.split(": ");
+                        if (parts.length == 2) {
+                            put(parts[0], Integer.parseInt(parts[1]));
+                        }
+                    }
+                }
             }
-        } catch (IOException e) {
+            lastSequence = snapshotSequence;
+            journalRecords = 0;
+            if (Files.exists(journalPath)) {
+                replayJournal(snapshotSequence);
+            }
+            persisted.clear();
+            persisted.putAll(leaderboard);
+        } catch (IOException | NumberFormatException e) {
             LOGGER.log(Level.SEVERE, "Could not load leaderboard", e);
         } finally {
             lock.writeLock().unlock();
         }
     }
 
+    /**
+     * Applies the journal records that are not contained in the snapshot.
+     * Only records terminated by a newline are complete. An incomplete last record, torn by a crash during the
+     * write, is cut off so new records are not appended to it. Other malformed records are skipped.
+     *
+     * @param snapshotSequence the last sequence number contained in the snapshot
+     * @throws IOException if the journal could not be read
+     */
+    private void replayJournal(long snapshotSequence) throws IOException {
+        byte[] content = Files.readAllBytes(journalPath);
+        int complete = 0;
+        for (int i = content.length - 1; i >= 0; i--) {
+            if (content[i] == '\n') {
+                complete = i + 1;
+                break;
+            }
+        }
+        if (complete < content.length) {
+            LOGGER.warning("Discarding incomplete leaderboard journal record");
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+        String records = new String(content, 0, complete, StandardCharsets.UTF_8);
+        for (String line : records.split("\n")) {
+            if (line.isEmpty()) continue;
+            String[] parts = line.split(" ", 3);
+            try {
+                if (parts.length != 3 || parts[1].length() < 2) throw new NumberFormatException(line);
+                long sequence = Long.parseLong(parts[0]);
+                int points = Integer.parseInt(parts[1].substring(1));
+                lastSequence = Math.max(lastSequence, sequence);
+                if (sequence <= snapshotSequence) continue;
+                switch (parts[1].charAt(0)) {
+                    case '+' -> put(parts[2], leaderboard.getOrDefault(parts[2], 0) + points);
+                    case '=' -> put(parts[2], points);
+                    default -> throw new NumberFormatException(line);
+                }
+                journalRecords++;
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Skipping malformed leaderboard journal record: " + line);
+            }
+        }
+    }
+
     /**
      * Gets the leaderboard map (sorted from highest to lowest).
      *
@@ -234,14 +601,69 @@ public class Leaderboard {
     public Map<String, Integer> getLeaderboard() {
         lock.readLock().lock();
         try {
-            return leaderboard.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            Map.Entry::getValue,
-                            (e1, e2) -> e1,
-                            LinkedHashMap::new
-                    ));
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            for (RankedEntry entry : ranking.range(0, ranking.size())) {
+                sorted.put(entry.name(), entry.points());
+            }
+            return sorted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the players with the most points.
+     *
+     * @param count the maximum number of players
+     * @return the best players, sorted from highest to lowest
+     */
+    public List<RankedEntry> getTop(int count) {
+        return getPage(0, count);
+    }
+
+    /**
+     * Gets a page of the leaderboard.
+     *
+     * @param offset the 0-based position of the first player
+     * @param limit  the maximum number of players
+     * @return the players of the page, sorted from highest to lowest
+     */
+    public List<RankedEntry> getPage(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return ranking.range(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the rank of a player. Players with equal points are ranked by name.
+     *
+     * @param playerName the name of the player
+     * @return the player with its 1-based rank, null if the player is not on the leaderboard
+     */
+    public RankedEntry getRank(String playerName) {
+        if (playerName == null) return null;
+        lock.readLock().lock();
+        try {
+            Integer points = leaderboard.get(playerName);
+            if (points == null) return null;
+            return new RankedEntry(ranking.indexOf(playerName, points) + 1, playerName, points);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of players on the leaderboard.
+     *
+     * @return the number of players
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
         } finally {
             lock.readLock().unlock();
         }
@@ -261,4 +683,41 @@ public class Leaderboard {
             lock.readLock().unlock();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A player on the leaderboard.
+     *
+     * @param rank   the 1-based position of the player
+     * @param name   the name of the player
+     * @param points the points of the player
+     */
+    public record RankedEntry(int rank, String name, int points) {
+    }
+
+    /**
+     * The kinds of operations handled by the writer.
+     */
+    private enum Kind {
+        /** Adds points to a player */
+        ADD,
+        /** Sets the points of a player */
+        SET,
+        /** Compacts the journal into the snapshot */
+        COMPACT,
+        /** Completes once all previous records are on disk */
+        SYNC,
+        /** Compacts the journal and stops the writer */
+        CLOSE
+    }
+
+    /**
+     * An operation queued for the writer.
+     *
+     * @param kind   the kind of the operation
+     * @param name   the name of the player, null for control operations
+     * @param points the points added or set
+     * @param done   completed once the operation is processed, may be null
+     */
+    private record Op(Kind kind, String name, int points, CompletableFuture<Void> done) {
+    }
+}
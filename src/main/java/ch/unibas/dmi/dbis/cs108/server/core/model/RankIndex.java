@@ -0,0 +1,233 @@
+package ch.unibas.dmi.dbis.cs108.server.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * An order-statistic index of players ordered by points (highest first), ties ordered by name.
+ * <p>
+ * The index is a treap (a binary search tree balanced by random priorities) whose nodes also store the size of
+ * their subtree. Inserting, removing, finding the rank of a player and finding the player at a rank all take
+ * O(log n) expected time; a page of k entries takes O(log n + k).
+ * <p>
+ * The index is not thread-safe, the {@link Leaderboard} guards it with its lock.
+ */
+final class RankIndex {
+    /**
+     * Source of the node priorities
+     */
+    private final SplittableRandom random = new SplittableRandom();
+    /**
+     * The root of the tree, null if the index is empty
+     */
+    private Node root;
+
+    /**
+     * Gets the number of players in the index.
+     *
+     * @return the number of players
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Removes all players.
+     */
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Adds a player. The player must not be in the index yet.
+     *
+     * @param name   the name of the player
+     * @param points the points of the player
+     */
+    void insert(String name, int points) {
+        root = insert(root, new Node(name, points, random.nextInt()));
+    }
+
+    /**
+     * Removes a player.
+     *
+     * @param name   the name of the player
+     * @param points the points the player was inserted with
+     */
+    void remove(String name, int points) {
+        root = remove(root, name, points);
+    }
+
+    /**
+     * Gets the position of a player, 0 for the player with the most points.
+     *
+     * @param name   the name of the player
+     * @param points the current points of the player
+     * @return the 0-based position, -1 if the player is not in the index
+     */
+    int indexOf(String name, int points) {
+        int index = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(name, points, node);
+            if (c == 0) {
+                return index + size(node.left);
+            }
+            if (c < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collects the players at the positions offset to offset + limit - 1, in order.
+     *
+     * @param offset the 0-based position of the first player
+     * @param limit  the maximum number of players
+     * @return the players with their 1-based rank, fewer than limit at the end of the index
+     */
+    List<Leaderboard.RankedEntry> range(int offset, int limit) {
+        int from = Math.max(0, offset);
+        int to = (int) Math.min((long) from + Math.max(0, limit), size());
+        List<Leaderboard.RankedEntry> entries = new ArrayList<>(Math.max(0, to - from));
+        collect(root, 0, from, to, entries);
+        return entries;
+    }
+
+    /**
+     * Appends the players of a subtree whose positions are in [from, to).
+     *
+     * @param node the root of the subtree
+     * @param base the position of the first player of the subtree
+     */
+    private static void collect(Node node, int base, int from, int to, List<Leaderboard.RankedEntry> out) {
+        while (node != null) {
+            int index = base + size(node.left);
+            if (from < index) {
+                collect(node.left, base, from, to, out);
+            }
+            if (index >= to) {
+                return;
+            }
+            if (index >= from) {
+                out.add(new Leaderboard.RankedEntry(index + 1, node.name, node.points));
+            }
+            // Continue with the right subtree iteratively
+            base = index + 1;
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            split(node, added);
+            return added.update();
+        }
+        if (compare(added.name, added.points, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return node.update();
+    }
+
+    /**
+     * Splits a subtree around the key of a new node and attaches the halves as its children.
+     */
+    private static void split(Node node, Node pivot) {
+        if (node == null) {
+            pivot.left = null;
+            pivot.right = null;
+            return;
+        }
+        if (compare(pivot.name, pivot.points, node) < 0) {
+            split(node.left, pivot);
+            node.left = pivot.right;
+            pivot.right = node.update();
+        } else {
+            split(node.right, pivot);
+            node.right = pivot.left;
+            pivot.left = node.update();
+        }
+    }
+
+    private static Node remove(Node node, String name, int points) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(name, points, node);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = remove(node.left, name, points);
+        } else {
+            node.right = remove(node.right, name, points);
+        }
+        return node.update();
+    }
+
+    /**
+     * Merges two subtrees where all keys of the left one are smaller than the keys of the right one.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    /**
+     * Compares a key with a node: more points first, then by name.
+     */
+    private static int compare(String name, int points, Node node) {
+        if (points != node.points) {
+            return points > node.points ? -1 : 1;
+        }
+        return name.compareTo(node.name);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * A node of the treap.
+     */
+    private static final class Node {
+        private final String name;
+        private final int points;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(String name, int points, int priority) {
+            this.name = name;
+            this.points = points;
+            this.priority = priority;
+        }
+
+        /**
+         * Recomputes the size of the subtree.
+         *
+         * @return this node
+         */
+        private Node update() {
+            size = 1 + size(left) + size(right);
+            return this;
+        }
+    }
+}
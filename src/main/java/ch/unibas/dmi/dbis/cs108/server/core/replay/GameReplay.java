@@ -0,0 +1,224 @@
+package ch.unibas.dmi.dbis.cs108.server.core.replay;
+
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameEventNotifier;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless replay of a journaled game. The game is re-simulated from the seed and the records of its
+ * {@link GameJournal} by driving {@link GameLogic} directly, without sockets, lobby, mailbox or turn timers, so a
+ * game replays as fast as the CPU allows.
+ * <p>
+ * The replay runs the whole game from the start, also if the journal has checkpoints. The hash of the state at
+ * every turn boundary is compared with the hash of the checkpoint the original game journaled there, so the first
+ * turn where the replayed game differs from the recorded one is found, e.g. after a change of the rules. Otherwise
+ * the replay ends with the hash of the final state (see {@link GameStateCodec#hash(GameState)}).
+ * <p>
+ * The replay mirrors what a {@code Lobby} does with the game, turn changes and the end of the game after the last
+ * round, but creates no state messages. A replay is not thread-safe, but replays of different games can run in
+ * parallel.
+ */
+public final class GameReplay implements GameEventNotifier {
+
+    /**
+     * The records of the game
+     */
+    private final GameJournal.Recovery recovery;
+    /**
+     * The re-simulated game
+     */
+    private GameLogic gameLogic;
+    /**
+     * Whether the game has ended
+     */
+    private boolean ended;
+    /**
+     * Whether a checkpoint was taken since the last journaled checkpoint was compared
+     */
+    private boolean checkpointTaken;
+    /**
+     * Seed of the checkpoint taken at the last turn boundary of the replay
+     */
+    private long checkpointSeed;
+    /**
+     * Hash of the state at the last turn boundary of the replay
+     */
+    private long checkpointHash;
+
+    private GameReplay(GameJournal.Recovery recovery) {
+        this.recovery = recovery;
+    }
+
+    /**
+     * Replays a journaled game.
+     *
+     * @param recovery the records read from the journal of the game
+     * @return the result of the replay
+     */
+    public static Result replay(GameJournal.Recovery recovery) {
+        return new GameReplay(recovery).run();
+    }
+
+    /**
+     * Re-simulates the game and compares it with the journaled checkpoints.
+     *
+     * @return the result of the replay
+     */
+    private Result run() {
+        GameJournal.Start start = recovery.start();
+        gameLogic = new GameLogic(this, start.seed(), MapDefinition.load(start.map()));
+        gameLogic.getTurnManager().setCheckpointListener(this::checkpoint);
+        gameLogic.startGame(start.players().toArray(String[]::new));
+
+        List<GameJournal.Entry> entries = recovery.entries();
+        Map<String, Player> senders = new HashMap<>();
+        int index = 0;
+        for (; index < entries.size() && !ended; index++) {
+            GameJournal.Entry entry = entries.get(index);
+            if (entry instanceof GameJournal.Action action) {
+                Player sender = senders.computeIfAbsent(action.player(), Player::new);
+                gameLogic.processCommand(new Command(action.message(), sender));
+            } else if (entry instanceof GameJournal.Rename rename) {
+                senders.remove(rename.oldName());
+                gameLogic.renamePlayer(rename.oldName(), rename.newName());
+            } else if (entry == GameJournal.Turn.INSTANCE) {
+                processTurnChange();
+            } else if (entry instanceof GameJournal.Checkpoint recorded && !matches(recorded)) {
+                return result(index + 1, index);
+            }
+        }
+        return result(index, -1);
+    }
+
+    /**
+     * Takes the checkpoint of a turn boundary like the lobby does: the random source continues with a new seed
+     * drawn from it, and the hash of the state is kept to compare it with the journaled checkpoint.
+     *
+     * @param state the state of the game, locked by the turn manager
+     */
+    private void checkpoint(GameState state) {
+        checkpointTaken = true;
+        checkpointSeed = state.getRandom().reseed();
+        checkpointHash = GameStateCodec.hash(state);
+    }
+
+    /**
+     * Compares the checkpoint of the replay with a journaled one.
+     *
+     * @param recorded the journaled checkpoint
+     * @return true if both have the same seed and state
+     */
+    private boolean matches(GameJournal.Checkpoint recorded) {
+        if (!checkpointTaken) {
+            return false;
+        }
+        checkpointTaken = false;
+        try {
+            return checkpointSeed == recorded.seed() && checkpointHash == GameStateCodec.hash(recorded.state());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts the next turn and ends the game after the last round.
+     */
+    private void processTurnChange() {
+        gameLogic.getTurnManager().nextTurn();
+        if (gameLogic.getGameState().getGameRound() > 4) {
+            endGame();
+        }
+    }
+
+    private Result result(int records, int divergence) {
+        GameState state = gameLogic.getGameState();
+        return new Result(recovery.start().lobbyId(), records, GameStateCodec.hash(state), divergence,
+                state.getGameRound(), ended);
+    }
+
+    /**
+     * Messages of the replayed game are dropped.
+     *
+     * @param message the message
+     */
+    @Override
+    public void broadcastMessage(String message) {
+    }
+
+    /**
+     * Gives the final scores. Unlike a lobby, the state is not reset, so the final state can be hashed.
+     */
+    @Override
+    public void endGame() {
+        if (!ended) {
+            ended = true;
+            gameLogic.getTurnManager().giveFinalScores();
+        }
+    }
+
+    /**
+     * Ends the turn of the current player.
+     *
+     * @return true if the turn was ended, false if the game has ended
+     */
+    @Override
+    public boolean manualEndTurn() {
+        if (ended) {
+            return false;
+        }
+        processTurnChange();
+        return true;
+    }
+
+    /**
+     * Messages of the replayed game are dropped.
+     *
+     * @param player  the player
+     * @param message the message
+     */
+    @Override
+    public void sendMessageToPlayer(String player, String message) {
+    }
+
+    /**
+     * The replayed game has no players to send its state to.
+     *
+     * @return false
+     */
+    @Override
+    public boolean sendsStateMessages() {
+        return false;
+    }
+
+    /**
+     * The result of a replay.
+     *
+     * @param lobbyId    the id of the lobby the game was played in
+     * @param records    the number of journal records replayed
+     * @param stateHash  the hash of the state at the end of the replay
+     * @param divergence the index of the first journaled checkpoint the replayed state differs from, -1 if none
+     * @param gameRound  the round the replay ended in
+     * @param ended      whether the game has ended
+     */
+    public record Result(String lobbyId, int records, long stateHash, int divergence, int gameRound, boolean ended) {
+
+        /**
+         * Returns whether the replayed game differs from the recorded one.
+         *
+         * @return true if a checkpoint differs
+         */
+        public boolean diverged() {
+            return divergence >= 0;
+        }
+    }
+}
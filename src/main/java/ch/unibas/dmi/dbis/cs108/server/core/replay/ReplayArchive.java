@@ -0,0 +1,122 @@
+package ch.unibas.dmi.dbis.cs108.server.core.replay;
+
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replays an archive of game journals in parallel on a {@link ForkJoinPool}. Each journal is read and replayed
+ * by {@link GameReplay} on one worker; the list of journals is split in halves until a task holds a single game,
+ * so idle workers steal the remaining games of busy ones.
+ */
+public final class ReplayArchive {
+    /**
+     * Logger to log logging
+     */
+    private static final Logger LOGGER = Logger.getLogger(ReplayArchive.class.getName());
+
+    private ReplayArchive() {
+    }
+
+    /**
+     * Replays the journals.
+     *
+     * @param journals the journal files
+     * @param pool     the pool to replay the games on
+     * @return the results of the replays and the time taken
+     */
+    public static Report replay(List<Path> journals, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        List<GameReplay.Result> results = pool.invoke(new ReplayTask(journals));
+        return new Report(results, journals.size() - results.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Reads and replays one journal.
+     *
+     * @param journal the journal file
+     * @return the result of the replay, null if the journal cannot be read or replayed
+     */
+    private static GameReplay.Result replay(Path journal) {
+        try {
+            GameJournal.Recovery recovery = GameJournal.read(journal);
+            if (recovery == null) {
+                LOGGER.warning("No game journal: " + journal);
+                return null;
+            }
+            return GameReplay.replay(recovery);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not replay " + journal, e);
+            return null;
+        }
+    }
+
+    /**
+     * Replays a range of the journals, splitting it into halves until a single journal is left.
+     */
+    private static final class ReplayTask extends RecursiveTask<List<GameReplay.Result>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> journals;
+
+        private ReplayTask(List<Path> journals) {
+            this.journals = journals;
+        }
+
+        @Override
+        protected List<GameReplay.Result> compute() {
+            if (journals.size() <= 1) {
+                List<GameReplay.Result> results = new ArrayList<>(1);
+                if (!journals.isEmpty()) {
+                    GameReplay.Result result = replay(journals.get(0));
+                    if (result != null) {
+                        results.add(result);
+                    }
+                }
+                return results;
+            }
+            int middle = journals.size() / 2;
+            ReplayTask left = new ReplayTask(journals.subList(0, middle));
+            left.fork();
+            List<GameReplay.Result> results = new ReplayTask(journals.subList(middle, journals.size())).compute();
+            List<GameReplay.Result> merged = left.join();
+            merged.addAll(results);
+            return merged;
+        }
+    }
+
+    /**
+     * The results of replaying an archive.
+     *
+     * @param results the results of the replayed games, in the order of the journals
+     * @param failed  the number of journals that could not be read or replayed
+     * @param nanos   the time taken in nanoseconds
+     */
+    public record Report(List<GameReplay.Result> results, int failed, long nanos) {
+
+        /**
+         * Returns the number of replayed games that differ from the recorded ones.
+         *
+         * @return the number of diverged games
+         */
+        public long diverged() {
+            return results.stream().filter(GameReplay.Result::diverged).count();
+        }
+
+        /**
+         * Returns the number of games replayed per second.
+         *
+         * @return the throughput
+         */
+        public double gamesPerSecond() {
+            return nanos == 0 ? 0 : results.size() * 1e9 / nanos;
+        }
+    }
+}
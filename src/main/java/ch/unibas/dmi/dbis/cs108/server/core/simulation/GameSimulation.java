@@ -0,0 +1,439 @@
+package ch.unibas.dmi.dbis.cs108.server.core.simulation;
+
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameEventNotifier;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.NetworkProtocol.Commands;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A headless game played by {@link Policy policies}. The game is created from a seed and driven through
+ * {@link GameLogic} directly, without sockets, lobby, mailbox or turn timers: every seat's policy plays its turn,
+ * then the next turn starts, until the last round is over and the final scores are given like in a lobby.
+ * <p>
+ * The actions a policy calls are the actions of {@link GameLogic} for the player whose turn it is; successful
+ * ones are counted in the {@link SimulationStats} of the game. The simulation is not thread-safe, but games of
+ * different simulations can run in parallel.
+ * <p>
+ * A simulation can also go on from the state of a running game, e.g. for the search of a bot: it then plays on a
+ * {@link GameState#fork() fork} of the state, either the rest of the current turn, recording the protocol messages
+ * of the successful actions, or the rest of the game.
+ */
+public final class GameSimulation implements GameEventNotifier {
+
+    /**
+     * The last round of a game, the game ends when it is over
+     */
+    public static final int LAST_ROUND = 4;
+    /**
+     * Mixed into the seed of the game to seed the random decisions of the policies
+     */
+    private static final long POLICY_SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The policy of every seat
+     */
+    private final List<Policy> policies;
+    /**
+     * The statistics the game is counted in, null if the game is not counted
+     */
+    private final SimulationStats stats;
+    /**
+     * The simulated game
+     */
+    private final GameLogic gameLogic;
+    /**
+     * Source of the random decisions of the policies, separate from the random source of the game so the game
+     * draws the same numbers whatever the policies decide
+     */
+    private final GameRandom random;
+    /**
+     * The id of the statue every seat placed, -1 if none
+     */
+    private final int[] statues;
+    /**
+     * The protocol messages of the actions that changed the state, null if they are not recorded
+     */
+    private List<String> commands;
+    /**
+     * The mutation version of the state after the last recorded action
+     */
+    private long recordedVersion;
+    /**
+     * The position of the random source of the state after the last recorded action
+     */
+    private long recordedPosition;
+    /**
+     * The player whose turn it is
+     */
+    private Player player;
+
+    private GameSimulation(long seed, List<Policy> policies, SimulationStats stats) {
+        this.policies = policies;
+        this.stats = stats;
+        this.gameLogic = new GameLogic(this, seed);
+        this.random = new GameRandom(seed ^ POLICY_SEED);
+        this.statues = new int[policies.size()];
+        Arrays.fill(statues, -1);
+    }
+
+    private GameSimulation(GameState state, List<Policy> policies, GameRandom random) {
+        this.policies = policies;
+        this.stats = null;
+        this.gameLogic = new GameLogic(state.fork(this));
+        this.random = random;
+        this.statues = new int[state.getPlayers().size()];
+        Arrays.fill(statues, -1);
+        this.player = getState().findPlayerByName(getState().getPlayerTurn());
+    }
+
+    /**
+     * Plays a game and counts it in the statistics.
+     *
+     * @param seed     the seed of the game
+     * @param policies the policy of every seat, in the order of the turns
+     * @param stats    the statistics to count the game in
+     * @return the state at the end of the game
+     */
+    public static GameState play(long seed, List<Policy> policies, SimulationStats stats) {
+        return new GameSimulation(seed, policies, stats).run();
+    }
+
+    /**
+     * Plays the rest of the current turn of a running game with a policy, on a fork of its state.
+     * The fork goes on with the random source of the state, so the recorded messages have the same effect when
+     * they are sent to the running game before anything else changes it. Failed actions are recorded too if they
+     * changed the state or made a random choice, e.g. a structure that gives energy when it fails, so the running
+     * game draws the same random numbers. The state itself is not changed.
+     *
+     * @param state  the state of the running game
+     * @param policy the policy of the player whose turn it is
+     * @param random the source of the random decisions of the policy
+     * @return the fork after the turn and the protocol messages of the actions that changed it
+     */
+    public static Turn playTurn(GameState state, Policy policy, GameRandom random) {
+        GameSimulation simulation = new GameSimulation(state, List.of(policy), random);
+        simulation.commands = new ArrayList<>();
+        simulation.recordedVersion = simulation.getState().getMutationVersion();
+        simulation.recordedPosition = simulation.getState().getRandom().getPosition();
+        policy.playTurn(simulation);
+        return new Turn(simulation.getState(), simulation.commands);
+    }
+
+    /**
+     * Plays a running game to the end on a fork of its state, starting with the next turn, and gives the final
+     * scores. The random source of the fork is restarted from the seed, so playouts of the same state with
+     * different seeds draw different events. The state itself is not changed.
+     *
+     * @param state    the state of the running game
+     * @param seed     the seed of the rest of the game
+     * @param policies the policy of every seat, in the order of the turns
+     * @return the state at the end of the game
+     */
+    public static GameState playOut(GameState state, long seed, List<Policy> policies) {
+        GameSimulation simulation = new GameSimulation(state, policies, new GameRandom(seed ^ POLICY_SEED));
+        simulation.getState().getRandom().setSeed(seed);
+        simulation.gameLogic.getTurnManager().nextTurn();
+        return simulation.playRounds();
+    }
+
+    /**
+     * Starts the game and plays the turns of all rounds.
+     *
+     * @return the state at the end of the game
+     */
+    private GameState run() {
+        String[] names = new String[policies.size()];
+        for (int seat = 0; seat < names.length; seat++) {
+            names[seat] = "P" + (seat + 1);
+        }
+        gameLogic.startGame(names);
+        return playRounds();
+    }
+
+    /**
+     * Plays the turns until the last round is over and gives the final scores.
+     *
+     * @return the state at the end of the game
+     */
+    private GameState playRounds() {
+        GameState state = gameLogic.getGameState();
+        while (state.getGameRound() <= LAST_ROUND) {
+            player = state.findPlayerByName(state.getPlayerTurn());
+            policies.get(state.getPlayerRound()).playTurn(this);
+            gameLogic.getTurnManager().nextTurn();
+        }
+        player = null;
+        gameLogic.getTurnManager().giveFinalScores();
+        if (stats != null) {
+            stats.recordGame(state.getPlayers(), statues);
+        }
+        return state;
+    }
+
+    /**
+     * Returns the state of the game.
+     *
+     * @return the state
+     */
+    public GameState getState() {
+        return gameLogic.getGameState();
+    }
+
+    /**
+     * Returns the player whose turn it is.
+     *
+     * @return the current player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the other players of the game.
+     *
+     * @return the players except the current one
+     */
+    public List<Player> getOpponents() {
+        List<Player> opponents = new ArrayList<>(getState().getPlayers());
+        opponents.remove(player);
+        return opponents;
+    }
+
+    /**
+     * Returns the tiles of the board.
+     *
+     * @return the tiles, indexed by x and y
+     */
+    public Tile[][] getTiles() {
+        return getState().getBoardManager().getBoard().getTiles();
+    }
+
+    /**
+     * Returns the tile of the statue of the current player.
+     *
+     * @return the tile, null if the player has no statue
+     */
+    public Tile findStatueTile() {
+        for (Tile tile : player.getOwnedTiles()) {
+            if (tile.getEntity() instanceof Statue) {
+                return tile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the source of the random decisions of the policies.
+     *
+     * @return the random source
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Buys a tile for the current player.
+     *
+     * @param x the x-coordinate of the tile
+     * @param y the y-coordinate of the tile
+     * @return true if the tile was bought
+     */
+    public boolean buyTile(int x, int y) {
+        return count(SimulationStats.Action.BUY_TILE, gameLogic.buyTile(x, y, player.getName()),
+                Commands.BUYTILE, x, y);
+    }
+
+    /**
+     * Places a structure for the current player.
+     *
+     * @param x           the x-coordinate of the tile
+     * @param y           the y-coordinate of the tile
+     * @param structureId the id of the structure
+     * @return true if the structure was placed
+     */
+    public boolean placeStructure(int x, int y, int structureId) {
+        return count(SimulationStats.Action.PLACE_STRUCTURE,
+                gameLogic.placeStructure(x, y, structureId, player.getName()), Commands.PLACESTRUCTURE, x, y, structureId);
+    }
+
+    /**
+     * Uses a structure of the current player.
+     *
+     * @param x           the x-coordinate of the tile
+     * @param y           the y-coordinate of the tile
+     * @param structureId the id of the structure
+     * @return true if the structure was used
+     */
+    public boolean useStructure(int x, int y, int structureId) {
+        return count(SimulationStats.Action.USE_STRUCTURE,
+                gameLogic.useStructure(x, y, structureId, player.getName()), Commands.USESTRUCTURE, x, y, structureId);
+    }
+
+    /**
+     * Places a statue for the current player.
+     *
+     * @param x        the x-coordinate of the tile
+     * @param y        the y-coordinate of the tile
+     * @param statueId the id of the statue
+     * @return true if the statue was placed
+     */
+    public boolean placeStatue(int x, int y, int statueId) {
+        boolean placed = gameLogic.placeStatue(x, y, statueId, player.getName());
+        if (placed) {
+            statues[getState().getPlayerRound()] = statueId;
+        }
+        return count(SimulationStats.Action.PLACE_STATUE, placed, Commands.PLACESTATUE, x, y, statueId);
+    }
+
+    /**
+     * Upgrades the statue of the current player.
+     *
+     * @param x        the x-coordinate of the tile
+     * @param y        the y-coordinate of the tile
+     * @param statueId the id of the statue
+     * @return true if the statue was upgraded
+     */
+    public boolean upgradeStatue(int x, int y, int statueId) {
+        return count(SimulationStats.Action.UPGRADE_STATUE,
+                gameLogic.upgradeStatue(x, y, statueId, player.getName()), Commands.UPGRADESTATUE, x, y, statueId);
+    }
+
+    /**
+     * Uses the statue of the current player.
+     *
+     * @param x        the x-coordinate of the tile
+     * @param y        the y-coordinate of the tile
+     * @param statueId the id of the statue
+     * @param params   the parameters of the statue in the format "KEY1:VALUE1;KEY2:VALUE2;..."
+     * @return true if the statue was used
+     */
+    public boolean useStatue(int x, int y, int statueId, String params) {
+        return count(SimulationStats.Action.USE_STATUE,
+                gameLogic.useStatue(x, y, statueId, player.getName(), params), Commands.USESTATUE, x, y, statueId, params);
+    }
+
+    /**
+     * Uses a field artifact of the current player on a tile.
+     *
+     * @param x          the x-coordinate of the tile
+     * @param y          the y-coordinate of the tile
+     * @param artifactId the id of the artifact
+     * @return true if the artifact was used
+     */
+    public boolean useFieldArtifact(int x, int y, int artifactId) {
+        return countArtifact(artifactId, gameLogic.useFieldArtifact(x, y, artifactId, player.getName()),
+                Commands.USEFIELDARTIFACT, x, y, artifactId);
+    }
+
+    /**
+     * Uses a player artifact of the current player on a player.
+     *
+     * @param artifactId   the id of the artifact
+     * @param targetPlayer the name of the target player
+     * @return true if the artifact was used
+     */
+    public boolean usePlayerArtifact(int artifactId, String targetPlayer) {
+        return countArtifact(artifactId, gameLogic.usePlayerArtifact(artifactId, targetPlayer, player.getName()),
+                Commands.USEPLAYERARTIFACT, artifactId, targetPlayer);
+    }
+
+    /**
+     * Counts a successful action and, if recording, records its protocol message if it changed the state or made a
+     * random choice.
+     *
+     * @param action  the counted action
+     * @param success true if the action was successful
+     * @param command the command of the action
+     * @param args    the arguments of the command
+     * @return success
+     */
+    private boolean count(SimulationStats.Action action, boolean success, Commands command, Object... args) {
+        if (success && stats != null) {
+            stats.recordAction(action);
+        }
+        if (commands != null) {
+            long version = getState().getMutationVersion();
+            long position = getState().getRandom().getPosition();
+            if (success || version != recordedVersion || position != recordedPosition) {
+                StringBuilder message = new StringBuilder(command.getCommand());
+                for (Object arg : args) {
+                    message.append('$').append(arg);
+                }
+                commands.add(message.toString());
+            }
+            recordedVersion = version;
+            recordedPosition = position;
+        }
+        return success;
+    }
+
+    private boolean countArtifact(int artifactId, boolean success, Commands command, Object... args) {
+        if (success && stats != null) {
+            stats.recordArtifactUse(artifactId);
+        }
+        return count(SimulationStats.Action.USE_ARTIFACT, success, command, args);
+    }
+
+    /**
+     * Messages of the simulated game are dropped.
+     *
+     * @param message the message
+     */
+    @Override
+    public void broadcastMessage(String message) {
+    }
+
+    /**
+     * The simulation ends the game itself after the last round.
+     */
+    @Override
+    public void endGame() {
+    }
+
+    /**
+     * Turns end when the policy of the current player returns.
+     *
+     * @return false
+     */
+    @Override
+    public boolean manualEndTurn() {
+        return false;
+    }
+
+    /**
+     * Messages of the simulated game are dropped.
+     *
+     * @param player  the player
+     * @param message the message
+     */
+    @Override
+    public void sendMessageToPlayer(String player, String message) {
+    }
+
+    /**
+     * The simulated game has no players to send its state to.
+     *
+     * @return false
+     */
+    @Override
+    public boolean sendsStateMessages() {
+        return false;
+    }
+
+    /**
+     * A turn played on a fork of the state of a running game.
+     *
+     * @param state    the fork after the turn
+     * @param commands the protocol messages of the actions that changed the fork, in the order they were played
+     */
+    public record Turn(GameState state, List<String> commands) {
+    }
+}
@@ -0,0 +1,139 @@
+package ch.unibas.dmi.dbis.cs108.server.core.simulation;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A scripted policy that spends its runes as soon as it can. Every turn it
+ * <ol>
+ *     <li>buys the free tiles with the highest resource value it can afford,</li>
+ *     <li>places the first statue of the world of one of its empty tiles, or upgrades and uses its statue,</li>
+ *     <li>builds the most expensive structure it can afford on each of its empty tiles,</li>
+ *     <li>uses all of its structures,</li>
+ *     <li>uses its artifacts on the opponent with the most runes.</li>
+ * </ol>
+ */
+public class GreedyPolicy implements Policy {
+
+    /**
+     * Name of the policy in simulation configs
+     */
+    public static final String NAME = "greedy";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void playTurn(GameSimulation game) {
+        Player player = game.getPlayer();
+        buyTiles(game, player);
+        playStatue(game, player);
+        buildStructures(game, player);
+        for (Tile tile : player.getTilesWithStructures()) {
+            game.useStructure(tile.getX(), tile.getY(), tile.getEntity().getId());
+        }
+        useArtifacts(game, player);
+    }
+
+    /**
+     * Buys the most valuable affordable tiles, as many as may be bought per round.
+     */
+    private void buyTiles(GameSimulation game, Player player) {
+        for (int i = 0; i < SETTINGS.Config.PURCHASABLE_TILES_PER_ROUND.getValue(); i++) {
+            Tile best = null;
+            for (Tile[] column : game.getTiles()) {
+                for (Tile tile : column) {
+                    if (!tile.isPurchased() && tile.getPrice() <= player.getRunes()
+                            && (best == null || tile.getResourceValue() > best.getResourceValue())) {
+                        best = tile;
+                    }
+                }
+            }
+            if (best == null || !game.buyTile(best.getX(), best.getY())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Builds the most expensive affordable structure on every empty tile of the player.
+     */
+    private void buildStructures(GameSimulation game, Player player) {
+        for (Tile tile : new ArrayList<>(player.getOwnedTiles())) {
+            if (tile.hasEntity()) {
+                continue;
+            }
+            EntityRegistry.getAllStructures().stream()
+                    .filter(structure -> structure.getPrice() <= player.getRunes())
+                    .filter(structure -> structure.getId() != 5 || tile.hasRiver())
+                    .max(Comparator.comparingInt(Structure::getPrice))
+                    .ifPresent(structure -> game.placeStructure(tile.getX(), tile.getY(), structure.getId()));
+        }
+    }
+
+    /**
+     * Places a statue if the player has none, otherwise upgrades it if affordable and uses it.
+     */
+    private void playStatue(GameSimulation game, Player player) {
+        Tile statueTile = game.findStatueTile();
+        if (statueTile == null) {
+            for (Tile tile : new ArrayList<>(player.getOwnedTiles())) {
+                if (tile.hasEntity()) {
+                    continue;
+                }
+                for (Statue statue : EntityRegistry.getAllStatues()) {
+                    if (statue.getWorld() != null && statue.getWorld().equals(tile.getWorld())
+                            && statue.getPrice() <= player.getRunes()
+                            && game.placeStatue(tile.getX(), tile.getY(), statue.getId())) {
+                        return;
+                    }
+                }
+            }
+            return;
+        }
+        Statue statue = (Statue) statueTile.getEntity();
+        if (statue.getUpgradePrice() <= player.getRunes()) {
+            game.upgradeStatue(statueTile.getX(), statueTile.getY(), statue.getId());
+        }
+        Player target = richestOpponent(game);
+        String params = "TILE:" + statueTile.getX() + "," + statueTile.getY()
+                + (target != null ? ";PLAYER:" + target.getName() : "");
+        game.useStatue(statueTile.getX(), statueTile.getY(), statue.getId(), params);
+    }
+
+    /**
+     * Uses every artifact of the player: player artifacts on the opponent with the most runes, field artifacts
+     * on the most valuable tile of that opponent.
+     */
+    private void useArtifacts(GameSimulation game, Player player) {
+        Player target = richestOpponent(game);
+        if (target == null) {
+            return;
+        }
+        for (Artifact artifact : new ArrayList<>(player.getArtifacts())) {
+            if (artifact.isPlayerTarget()) {
+                game.usePlayerArtifact(artifact.getId(), target.getName());
+            } else if (artifact.isFieldTarget()) {
+                target.getOwnedTiles().stream()
+                        .max(Comparator.comparingInt(Tile::getResourceValue))
+                        .ifPresent(tile -> game.useFieldArtifact(tile.getX(), tile.getY(), artifact.getId()));
+            }
+        }
+    }
+
+    private Player richestOpponent(GameSimulation game) {
+        List<Player> opponents = game.getOpponents();
+        return opponents.stream().max(Comparator.comparingInt(Player::getRunes)).orElse(null);
+    }
+}
@@ -0,0 +1,42 @@
+package ch.unibas.dmi.dbis.cs108.server.core.simulation;
+
+/**
+ * The strategy of a simulated player. A policy plays the turns of one seat of a {@link GameSimulation}: it reads
+ * the state of the game and calls the actions of the simulation for the player whose turn it is. The turn ends
+ * when the policy returns.
+ * <p>
+ * Policies must be stateless or keep their state per game, since one instance plays the seat in every game of a
+ * simulation run on every worker thread. Random decisions are drawn from {@link GameSimulation#getRandom()}, so
+ * a simulated game is determined by its seed.
+ */
+public interface Policy {
+
+    /**
+     * Plays the turn of the current player.
+     *
+     * @param game the simulated game
+     */
+    void playTurn(GameSimulation game);
+
+    /**
+     * Returns the name of the policy, as used in simulation configs.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Returns the policy with the given name.
+     *
+     * @param name "random" or "greedy"
+     * @return the policy
+     * @throws IllegalArgumentException if there is no policy with this name
+     */
+    static Policy forName(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case RandomPolicy.NAME -> new RandomPolicy();
+            case GreedyPolicy.NAME -> new GreedyPolicy();
+            default -> throw new IllegalArgumentException("Unknown policy: " + name);
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package ch.unibas.dmi.dbis.cs108.server.core.simulation;
+
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
+
+import java.util.List;
+
+/**
+ * A policy that tries random actions with random arguments, like a player clicking around. Most attempts fail
+ * the checks of the game, the ones that succeed give a baseline of how the game plays without any strategy.
+ */
+public class RandomPolicy implements Policy {
+
+    /**
+     * Name of the policy in simulation configs
+     */
+    public static final String NAME = "random";
+    /**
+     * Number of actions tried per turn
+     */
+    private static final int ATTEMPTS_PER_TURN = 12;
+    /**
+     * Ids of all structures
+     */
+    private static final int[] STRUCTURES = EntityRegistry.getAllStructures().stream().mapToInt(GameEntity::getId).toArray();
+    /**
+     * Ids of all statues
+     */
+    private static final int[] STATUES = EntityRegistry.getAllStatues().stream().mapToInt(GameEntity::getId).toArray();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void playTurn(GameSimulation game) {
+        GameRandom random = game.getRandom();
+        Tile[][] tiles = game.getTiles();
+        for (int i = 0; i < ATTEMPTS_PER_TURN; i++) {
+            int x = random.randomIntInRange(0, tiles.length - 1);
+            int y = random.randomIntInRange(0, tiles[0].length - 1);
+            switch (random.randomIntInRange(0, 6)) {
+                case 0 -> game.buyTile(x, y);
+                case 1 -> game.placeStructure(x, y, STRUCTURES[random.randomIntInRange(0, STRUCTURES.length - 1)]);
+                case 2 -> useStructure(game, random);
+                case 3 -> game.placeStatue(x, y, STATUES[random.randomIntInRange(0, STATUES.length - 1)]);
+                case 4 -> {
+                    Tile statue = game.findStatueTile();
+                    if (statue != null) {
+                        game.upgradeStatue(statue.getX(), statue.getY(), statue.getEntity().getId());
+                    }
+                }
+                case 5 -> useStatue(game, random, x, y);
+                default -> useArtifact(game, random, x, y);
+            }
+        }
+    }
+
+    /**
+     * Uses a random structure of the player.
+     */
+    private void useStructure(GameSimulation game, GameRandom random) {
+        List<Tile> structures = game.getPlayer().getTilesWithStructures();
+        if (!structures.isEmpty()) {
+            Tile tile = random.pickRandomElement(structures);
+            game.useStructure(tile.getX(), tile.getY(), tile.getEntity().getId());
+        }
+    }
+
+    /**
+     * Uses the statue of the player with random targets for every kind of parameter.
+     */
+    private void useStatue(GameSimulation game, GameRandom random, int x, int y) {
+        Tile statue = game.findStatueTile();
+        if (statue == null) {
+            return;
+        }
+        StringBuilder params = new StringBuilder();
+        List<Player> opponents = game.getOpponents();
+        if (!opponents.isEmpty()) {
+            params.append("PLAYER:").append(random.pickRandomElement(opponents).getName()).append(';');
+        }
+        params.append("TILE:").append(x).append(',').append(y).append(';');
+        params.append("STRUCTURE:").append(STRUCTURES[random.randomIntInRange(0, STRUCTURES.length - 1)]).append(';');
+        List<Artifact> artifacts = game.getPlayer().getArtifacts();
+        if (!artifacts.isEmpty()) {
+            params.append("ARTIFACT:").append(random.pickRandomElement(artifacts).getId());
+        }
+        game.useStatue(statue.getX(), statue.getY(), statue.getEntity().getId(), params.toString());
+    }
+
+    /**
+     * Uses a random artifact of the player on a random tile or player.
+     */
+    private void useArtifact(GameSimulation game, GameRandom random, int x, int y) {
+        List<Artifact> artifacts = game.getPlayer().getArtifacts();
+        if (artifacts.isEmpty()) {
+            return;
+        }
+        Artifact artifact = random.pickRandomElement(artifacts);
+        if (artifact.isPlayerTarget()) {
+            List<Player> players = game.getState().getPlayers();
+            game.usePlayerArtifact(artifact.getId(), random.pickRandomElement(players).getName());
+        } else {
+            game.useFieldArtifact(x, y, artifact.getId());
+        }
+    }
+}
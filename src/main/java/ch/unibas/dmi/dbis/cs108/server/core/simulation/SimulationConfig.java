@@ -0,0 +1,251 @@
+package ch.unibas.dmi.dbis.cs108.server.core.simulation;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Configuration of a simulation run, read from a properties file:
+ * <pre>
+ * games=100000                      # games per parameter point
+ * policies=greedy,random,random     # policy of every seat, one name for all seats needs players=n
+ * players=4                         # number of seats if a single policy is given
+ * seed=42                           # seed of the first game, the other seeds are derived from it
+ * threads=0                         # worker threads, 0 for all cores
+ * output=simulation.csv             # CSV file the statistics are written to
+ * sweep.START_RUNES=30,50,70        # values of a SETTINGS.Config setting
+ * entity.1.0=10,20                  # values of parameter 0 of the entity with id 1
+ * </pre>
+ * Every combination of the swept values is a point that is simulated with {@code games} games; without sweeps
+ * the game is simulated with its current settings only.
+ *
+ * @param games      the number of games per point
+ * @param policies   the policy of every seat
+ * @param seed       the seed of the first game
+ * @param threads    the number of worker threads
+ * @param output     the CSV file
+ * @param parameters the swept parameters, in the order of their keys
+ */
+public record SimulationConfig(long games, List<Policy> policies, long seed, int threads, Path output,
+                               List<Parameter> parameters) {
+
+    /**
+     * Prefix of the keys of swept settings
+     */
+    private static final String SWEEP = "sweep.";
+    /**
+     * Prefix of the keys of swept entity parameters
+     */
+    private static final String ENTITY = "entity.";
+
+    /**
+     * Reads a configuration from a properties file.
+     *
+     * @param file the file
+     * @return the configuration
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static SimulationConfig read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return parse(properties);
+    }
+
+    /**
+     * Creates a configuration from properties.
+     *
+     * @param properties the properties
+     * @return the configuration
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static SimulationConfig parse(Properties properties) {
+        long games = Long.parseLong(properties.getProperty("games", "1000").trim());
+        List<Policy> policies = new ArrayList<>();
+        for (String name : properties.getProperty("policies", RandomPolicy.NAME).split(",")) {
+            policies.add(Policy.forName(name));
+        }
+        if (policies.size() == 1) {
+            int players = Integer.parseInt(properties.getProperty("players", "4").trim());
+            policies = Collections.nCopies(players, policies.get(0));
+        }
+        if (games < 0 || policies.size() < 2) {
+            throw new IllegalArgumentException("A simulation needs a non-negative number of games and two players");
+        }
+        long seed = Long.parseLong(properties.getProperty("seed", "0").trim());
+        int threads = Integer.parseInt(properties.getProperty("threads", "0").trim());
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        Path output = Path.of(properties.getProperty("output", "simulation.csv").trim());
+
+        List<Parameter> parameters = new ArrayList<>();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (key.startsWith(SWEEP) || key.startsWith(ENTITY)) {
+                List<Double> values = new ArrayList<>();
+                for (String value : properties.getProperty(key).split(",")) {
+                    values.add(Double.parseDouble(value.trim()));
+                }
+                Parameter parameter = new Parameter(key, values);
+                parameter.current(); // validates the key
+                parameters.add(parameter);
+            }
+        }
+        return new SimulationConfig(games, List.copyOf(policies), seed, threads, output, List.copyOf(parameters));
+    }
+
+    /**
+     * Returns every combination of the swept values.
+     *
+     * @return the points to simulate, a single point without values if nothing is swept
+     */
+    public List<Point> points() {
+        List<Point> points = new ArrayList<>();
+        int[] index = new int[parameters.size()];
+        while (true) {
+            double[] values = new double[parameters.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = parameters.get(i).values().get(index[i]);
+            }
+            points.add(new Point(parameters, values));
+            int i = index.length - 1;
+            while (i >= 0 && ++index[i] == parameters.get(i).values().size()) {
+                index[i--] = 0;
+            }
+            if (i < 0) {
+                return points;
+            }
+        }
+    }
+
+    /**
+     * A swept parameter: a {@link SETTINGS.Config} setting ({@code sweep.NAME}), which the games are played with
+     * as {@link SETTINGS.Overrides}, or a parameter of the original of a game entity ({@code entity.ID.INDEX}),
+     * which the copies of the entity in new games start with.
+     *
+     * @param key    the key of the parameter in the configuration file
+     * @param values the values to simulate
+     */
+    public record Parameter(String key, List<Double> values) {
+
+        /**
+         * Returns the value the parameter has now.
+         *
+         * @return the current value
+         * @throws IllegalArgumentException if there is no setting or entity parameter with this key
+         */
+        public double current() {
+            if (key.startsWith(SWEEP)) {
+                return setting().getValue();
+            }
+            return entity().getParams().get(paramIndex()).getValue();
+        }
+
+        /**
+         * Sets the parameter for the games simulated next, if it is an entity parameter. Settings are not set
+         * globally, they are added to the overrides of the point, see {@link Point#overrides()}.
+         *
+         * @param value the value
+         */
+        public void apply(double value) {
+            if (!key.startsWith(SWEEP)) {
+                entity().setParam(paramIndex(), value);
+            }
+        }
+
+        /**
+         * Adds the parameter to overrides, if it is a setting.
+         *
+         * @param overrides the overrides of the other parameters
+         * @param value     the value
+         * @return the overrides with the parameter
+         */
+        public SETTINGS.Overrides override(SETTINGS.Overrides overrides, double value) {
+            return key.startsWith(SWEEP) ? overrides.with(setting(), (int) value) : overrides;
+        }
+
+        private SETTINGS.Config setting() {
+            return SETTINGS.Config.valueOf(key.substring(SWEEP.length()));
+        }
+
+        private GameEntity entity() {
+            String[] parts = key.split("\\.");
+            GameEntity entity = parts.length == 3 ? EntityRegistry.getGameEntityOriginalById(Integer.parseInt(parts[1])) : null;
+            if (entity == null) {
+                throw new IllegalArgumentException("No entity parameter: " + key);
+            }
+            return entity;
+        }
+
+        private int paramIndex() {
+            int index = Integer.parseInt(key.split("\\.")[2]);
+            if (index < 0 || index >= entity().getParams().size()) {
+                throw new IllegalArgumentException("No entity parameter: " + key);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A combination of values of the swept parameters.
+     *
+     * @param parameters the swept parameters
+     * @param values     the value of every parameter
+     */
+    public record Point(List<Parameter> parameters, double[] values) {
+
+        /**
+         * Sets all entity parameters to the values of this point.
+         */
+        public void apply() {
+            for (int i = 0; i < values.length; i++) {
+                parameters.get(i).apply(values[i]);
+            }
+        }
+
+        /**
+         * Returns the settings of this point, the games of the point are played with them.
+         *
+         * @return the overrides of the swept settings
+         */
+        public SETTINGS.Overrides overrides() {
+            SETTINGS.Overrides overrides = new SETTINGS.Overrides();
+            for (int i = 0; i < values.length; i++) {
+                overrides = parameters.get(i).override(overrides, values[i]);
+            }
+            return overrides;
+        }
+
+        /**
+         * Returns the label of the point in the CSV output, e.g. {@code START_RUNES=30;entity.1.0=10}.
+         *
+         * @return the label, "default" if nothing is swept
+         */
+        public String label() {
+            if (values.length == 0) {
+                return "default";
+            }
+            StringBuilder label = new StringBuilder();
+            for (int i = 0; i < values.length; i++) {
+                String key = parameters.get(i).key();
+                label.append(i == 0 ? "" : ";")
+                        .append(key.startsWith(SWEEP) ? key.substring(SWEEP.length()) : key)
+                        .append('=')
+                        .append(values[i] == Math.rint(values[i]) ? String.valueOf((long) values[i]) : String.valueOf(values[i]));
+            }
+            return label.toString();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package ch.unibas.dmi.dbis.cs108.server.core.simulation;
+
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregate statistics of simulated games. Every worker counts its games in its own instance, which are merged
+ * when the workers are done, so counting needs no synchronization. The statistics are written as CSV in long
+ * format, one value per row, so runs of different parameters can simply be concatenated and pivoted.
+ * <p>
+ * The winners of a game are the players with the most runes after the final scores. If several players tie,
+ * the win is shared among them, so the win rates of all seats add up to one.
+ */
+public final class SimulationStats {
+
+    /**
+     * Header of the CSV rows written by {@link #writeCsv(Writer, String)}
+     */
+    public static final String CSV_HEADER = "point,metric,key,value";
+    /**
+     * Width of a bucket of the rune histogram
+     */
+    public static final int RUNE_BUCKET = 10;
+    /**
+     * Number of buckets of the rune histogram, the last one counts all players above
+     */
+    private static final int RUNE_BUCKETS = 100;
+    /**
+     * Key of the players that placed no statue
+     */
+    private static final int NO_STATUE = -1;
+
+    /**
+     * The actions of a policy that are counted
+     */
+    public enum Action {
+        BUY_TILE, PLACE_STRUCTURE, USE_STRUCTURE, PLACE_STATUE, UPGRADE_STATUE, USE_STATUE, USE_ARTIFACT
+    }
+
+    private long games;
+    private long failed;
+    /**
+     * Sum of the final runes of all players
+     */
+    private long runes;
+    /**
+     * Sum of the final runes of the winners of all games
+     */
+    private long winnerRunes;
+    /**
+     * Number of players per bucket of final runes
+     */
+    private final long[] runeHistogram = new long[RUNE_BUCKETS];
+    /**
+     * Wins per seat
+     */
+    private final double[] seatWins;
+    /**
+     * Successful actions per type
+     */
+    private final long[] actions = new long[Action.values().length];
+    /**
+     * Number of players that placed a statue, per statue id
+     */
+    private final Map<Integer, Long> statuePlayers = new TreeMap<>();
+    /**
+     * Wins of the players that placed a statue, per statue id
+     */
+    private final Map<Integer, Double> statueWins = new TreeMap<>();
+    /**
+     * Uses per artifact id
+     */
+    private final Map<Integer, Long> artifactUses = new TreeMap<>();
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param seats the number of players per game
+     */
+    public SimulationStats(int seats) {
+        this.seatWins = new double[seats];
+    }
+
+    /**
+     * Counts a game that has ended.
+     *
+     * @param players the players of the game, in the order of the seats
+     * @param statues the id of the statue every seat placed, -1 if none
+     */
+    public void recordGame(List<Player> players, int[] statues) {
+        int best = Integer.MIN_VALUE;
+        int winners = 0;
+        for (Player player : players) {
+            if (player.getRunes() > best) {
+                best = player.getRunes();
+                winners = 1;
+            } else if (player.getRunes() == best) {
+                winners++;
+            }
+        }
+        double share = 1.0 / winners;
+        for (int seat = 0; seat < players.size(); seat++) {
+            int playerRunes = players.get(seat).getRunes();
+            runes += playerRunes;
+            runeHistogram[Math.min(Math.max(playerRunes, 0) / RUNE_BUCKET, RUNE_BUCKETS - 1)]++;
+            int statue = statues[seat] < 0 ? NO_STATUE : statues[seat];
+            statuePlayers.merge(statue, 1L, Long::sum);
+            if (playerRunes == best) {
+                seatWins[seat] += share;
+                statueWins.merge(statue, share, Double::sum);
+            }
+        }
+        winnerRunes += best;
+        games++;
+    }
+
+    /**
+     * Counts a game that could not be played to the end, e.g. because a rule threw an exception.
+     */
+    public void recordFailure() {
+        failed++;
+    }
+
+    /**
+     * Counts a successful action.
+     *
+     * @param action the action
+     */
+    public void recordAction(Action action) {
+        actions[action.ordinal()]++;
+    }
+
+    /**
+     * Counts the use of an artifact.
+     *
+     * @param artifactId the id of the artifact
+     */
+    public void recordArtifactUse(int artifactId) {
+        artifactUses.merge(artifactId, 1L, Long::sum);
+    }
+
+    /**
+     * Adds the counts of other statistics to these.
+     *
+     * @param other statistics of games with the same number of players
+     * @return these statistics
+     */
+    public SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        failed += other.failed;
+        runes += other.runes;
+        winnerRunes += other.winnerRunes;
+        for (int i = 0; i < RUNE_BUCKETS; i++) {
+            runeHistogram[i] += other.runeHistogram[i];
+        }
+        for (int i = 0; i < seatWins.length; i++) {
+            seatWins[i] += other.seatWins[i];
+        }
+        for (int i = 0; i < actions.length; i++) {
+            actions[i] += other.actions[i];
+        }
+        other.statuePlayers.forEach((id, count) -> statuePlayers.merge(id, count, Long::sum));
+        other.statueWins.forEach((id, wins) -> statueWins.merge(id, wins, Double::sum));
+        other.artifactUses.forEach((id, count) -> artifactUses.merge(id, count, Long::sum));
+        return this;
+    }
+
+    /**
+     * Returns the number of games that ended.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games that could not be played to the end.
+     *
+     * @return the number of failed games
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the share of the games a seat has won.
+     *
+     * @param seat the seat
+     * @return the win rate, 0 if no game ended
+     */
+    public double getWinRate(int seat) {
+        return games == 0 ? 0 : seatWins[seat] / games;
+    }
+
+    /**
+     * Returns the mean final runes of a player.
+     *
+     * @return the mean runes, 0 if no game ended
+     */
+    public double getMeanRunes() {
+        return games == 0 ? 0 : (double) runes / (games * seatWins.length);
+    }
+
+    /**
+     * Returns how often an artifact was used.
+     *
+     * @param artifactId the id of the artifact
+     * @return the number of uses
+     */
+    public long getArtifactUses(int artifactId) {
+        return artifactUses.getOrDefault(artifactId, 0L);
+    }
+
+    /**
+     * Returns how often an action succeeded.
+     *
+     * @param action the action
+     * @return the number of successful actions
+     */
+    public long getActions(Action action) {
+        return actions[action.ordinal()];
+    }
+
+    /**
+     * Writes the statistics as CSV rows of the format {@link #CSV_HEADER}.
+     *
+     * @param out   the writer
+     * @param point the label of the simulated parameters, must not contain commas
+     * @throws IOException if the rows cannot be written
+     */
+    public void writeCsv(Writer out, String point) throws IOException {
+        row(out, point, "games", "", games);
+        row(out, point, "failed", "", failed);
+        row(out, point, "mean_runes", "", getMeanRunes());
+        row(out, point, "mean_winner_runes", "", games == 0 ? 0 : (double) winnerRunes / games);
+        for (int seat = 0; seat < seatWins.length; seat++) {
+            row(out, point, "seat_win_rate", String.valueOf(seat + 1), getWinRate(seat));
+        }
+        for (int i = 0; i < RUNE_BUCKETS; i++) {
+            if (runeHistogram[i] > 0) {
+                row(out, point, "rune_histogram", String.valueOf(i * RUNE_BUCKET), runeHistogram[i]);
+            }
+        }
+        for (Map.Entry<Integer, Long> entry : statuePlayers.entrySet()) {
+            String key = entry.getKey() == NO_STATUE ? "none" : String.valueOf(entry.getKey());
+            row(out, point, "statue_players", key, entry.getValue());
+            row(out, point, "statue_win_rate", key, statueWins.getOrDefault(entry.getKey(), 0.0) / entry.getValue());
+        }
+        for (Map.Entry<Integer, Long> entry : artifactUses.entrySet()) {
+            row(out, point, "artifact_uses", String.valueOf(entry.getKey()), entry.getValue());
+        }
+        for (Action action : Action.values()) {
+            row(out, point, "actions_per_game", action.name(),
+                    games == 0 ? 0 : (double) actions[action.ordinal()] / games);
+        }
+    }
+
+    private static void row(Writer out, String point, String metric, String key, long value) throws IOException {
+        out.write(point + "," + metric + "," + key + "," + value + "\n");
+    }
+
+    private static void row(Writer out, String point, String metric, String key, double value) throws IOException {
+        out.write(point + "," + metric + "," + key + "," + String.format(Locale.ROOT, "%.6f", value) + "\n");
+    }
+}
@@ -0,0 +1,181 @@
+package ch.unibas.dmi.dbis.cs108.server.core.simulation;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs Monte-Carlo simulations of the game in parallel on a {@link ForkJoinPool}, e.g. to tune the balance of
+ * settings and entities. The games of a point are split in halves down to small ranges, each range is played on
+ * one worker into its own {@link SimulationStats}, and the statistics are merged when the halves join, so the
+ * workers share nothing but the read-only entity originals and settings.
+ * <p>
+ * The points of a sweep run one after the other, since the entity originals they change are global. The swept
+ * settings are passed to the workers as {@link SETTINGS.Overrides}, so they never change the settings of the
+ * server. Every point plays the same seeds, so differences between points come from the parameters and not from
+ * luck.
+ */
+public final class Simulator {
+    /**
+     * Logger to log logging
+     */
+    private static final Logger LOGGER = Logger.getLogger(Simulator.class.getName());
+    /**
+     * Games played by a task without splitting it further
+     */
+    private static final long GAMES_PER_TASK = 64;
+    /**
+     * Odd constant the index of a game is multiplied with to derive its seed
+     */
+    private static final long SEED_STEP = 0xBF58476D1CE4E5B9L;
+
+    private Simulator() {
+    }
+
+    /**
+     * Simulates games with the current settings.
+     *
+     * @param games    the number of games
+     * @param seed     the seed of the first game
+     * @param policies the policy of every seat
+     * @param pool     the pool to play the games on
+     * @return the statistics of the games
+     */
+    public static SimulationStats simulate(long games, long seed, List<Policy> policies, ForkJoinPool pool) {
+        return simulate(games, seed, policies, new SETTINGS.Overrides(), pool);
+    }
+
+    /**
+     * Simulates games with other values of the settings.
+     *
+     * @param games     the number of games
+     * @param seed      the seed of the first game
+     * @param policies  the policy of every seat
+     * @param overrides the settings the games are played with
+     * @param pool      the pool to play the games on
+     * @return the statistics of the games
+     */
+    public static SimulationStats simulate(long games, long seed, List<Policy> policies, SETTINGS.Overrides overrides,
+                                           ForkJoinPool pool) {
+        return pool.invoke(new SimulationTask(0, games, seed, policies, overrides));
+    }
+
+    /**
+     * Simulates every point of a configuration and writes the statistics of each point as soon as it is done.
+     * The swept parameters are reset to their values from before the run afterwards.
+     *
+     * @param config the configuration
+     * @param out    the writer of the CSV rows, the header is written first
+     * @param pool   the pool to play the games on
+     * @return the results of the points, in the order they were simulated
+     * @throws IOException if the statistics cannot be written
+     */
+    public static List<Result> run(SimulationConfig config, Writer out, ForkJoinPool pool) throws IOException {
+        List<SimulationConfig.Parameter> parameters = config.parameters();
+        double[] defaults = new double[parameters.size()];
+        for (int i = 0; i < defaults.length; i++) {
+            defaults[i] = parameters.get(i).current();
+        }
+        List<Result> results = new ArrayList<>();
+        out.write(SimulationStats.CSV_HEADER + "\n");
+        try {
+            for (SimulationConfig.Point point : config.points()) {
+                point.apply();
+                long start = System.nanoTime();
+                SimulationStats stats = simulate(config.games(), config.seed(), config.policies(), point.overrides(),
+                        pool);
+                Result result = new Result(point.label(), stats, System.nanoTime() - start);
+                stats.writeCsv(out, result.point());
+                out.flush();
+                LOGGER.info(String.format("Simulated %s: %d games (%.1f games/s), %d failed", result.point(),
+                        stats.getGames(), result.gamesPerSecond(), stats.getFailed()));
+                results.add(result);
+            }
+        } finally {
+            new SimulationConfig.Point(parameters, defaults).apply();
+        }
+        return results;
+    }
+
+    /**
+     * Returns the seed of a game.
+     *
+     * @param seed  the seed of the first game
+     * @param index the index of the game
+     * @return the seed of the game
+     */
+    static long seedOf(long seed, long index) {
+        return seed + index * SEED_STEP;
+    }
+
+    /**
+     * Plays a range of games, splitting it into halves until it is small enough.
+     */
+    private static final class SimulationTask extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long seed;
+        private final List<Policy> policies;
+        private final SETTINGS.Overrides overrides;
+
+        private SimulationTask(long from, long to, long seed, List<Policy> policies, SETTINGS.Overrides overrides) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+            this.policies = policies;
+            this.overrides = overrides;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                SimulationStats stats = new SimulationStats(policies.size());
+                overrides.run(() -> {
+                    for (long index = from; index < to; index++) {
+                        long gameSeed = seedOf(seed, index);
+                        try {
+                            GameSimulation.play(gameSeed, policies, stats);
+                        } catch (RuntimeException e) {
+                            LOGGER.log(Level.FINE, "Simulated game with seed " + gameSeed + " failed", e);
+                            stats.recordFailure();
+                        }
+                    }
+                });
+                return stats;
+            }
+            long middle = from + (to - from) / 2;
+            SimulationTask left = new SimulationTask(from, middle, seed, policies, overrides);
+            left.fork();
+            SimulationStats stats = new SimulationTask(middle, to, seed, policies, overrides).compute();
+            return left.join().merge(stats);
+        }
+    }
+
+    /**
+     * The result of simulating a point.
+     *
+     * @param point the label of the point
+     * @param stats the statistics of its games
+     * @param nanos the time taken in nanoseconds
+     */
+    public record Result(String point, SimulationStats stats, long nanos) {
+
+        /**
+         * Returns the number of games played per second.
+         *
+         * @return the throughput
+         */
+        public double gamesPerSecond() {
+            return nanos == 0 ? 0 : stats.getGames() * 1e9 / nanos;
+        }
+    }
+}
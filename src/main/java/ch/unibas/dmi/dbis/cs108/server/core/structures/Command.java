@@ -1,6 +1,7 @@
 package ch.unibas.dmi.dbis.cs108.server.core.structures;
 
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommandTokenizer;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.ErrorsAPI;
 
 import java.util.Arrays;
@@ -11,12 +12,32 @@ import static ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.PingFilt
 
 /**
  * Represents a command that is sent between a client to the server
+ * <p>
+ * The message is tokenized without splitting it into strings. The arguments of game commands are parsed once into
+ * a typed {@link GameAction}; the string arguments are only created when {@link #getArgs()} is called.
  */
 public class Command {
     /**
      * Logger for the Command class
      */
     private static final Logger logger = Logger.getLogger(Command.class.getName());
+    /**
+     * Arguments of an empty message
+     */
+    private static final String[] NO_ARGS = new String[0];
+    /**
+     * Tokenizer for commands created without a tokenizer of their connection
+     */
+    private static final ThreadLocal<CommandTokenizer> TOKENIZER = ThreadLocal.withInitial(CommandTokenizer::new);
+
+    static {
+        logger.setFilter(new PingFilter());
+    }
+
+    /**
+     * The message the command was parsed from
+     */
+    private final String message;
     /**
      * The command that is sent
      */
@@ -26,9 +47,21 @@ public class Command {
      */
     private Commands commandType;
     /**
-     * The arguments that are sent with the command
+     * The number of arguments that are sent with the command
+     */
+    private int argCount;
+    /**
+     * The arguments that are sent with the command, created on first access
      */
     private String[] args;
+    /**
+     * If the number and content of the arguments match the command type
+     */
+    private boolean argumentsValid;
+    /**
+     * The typed arguments of a game command, null for other commands or invalid arguments
+     */
+    private GameAction action;
     /**
      * The player who sent the command
      */
@@ -43,23 +76,41 @@ public class Command {
      * @param player  the player who sent the command
      */
     public Command(String message, Player player) {
-        logger.setFilter(new PingFilter());
+        this(message, player, TOKENIZER.get());
+    }
+
+    /**
+     * Creates a new command using the given tokenizer, e.g. the one of the connection the message was received on.
+     *
+     * @param message   the String message, formatted as commandName$arg1$arg2$arg3
+     * @param player    the player who sent the command
+     * @param tokenizer the tokenizer to reuse, must not be used by another thread meanwhile
+     */
+    public Command(String message, Player player, CommandTokenizer tokenizer) {
+        this.message = message;
         if (message == null || message.trim().isEmpty()) {
             logger.warning(ErrorsAPI.Errors.NULL_MESSAGE_RECIEVED.getError());
+            this.args = NO_ARGS;
+            return;
+        }
+        tokenizer.tokenize(message);
+        this.player = player;
+        if (tokenizer.fieldCount() == 0) {
+            logger.warning(ErrorsAPI.Errors.INVALID_COMMAND.getError());
+            this.args = NO_ARGS;
+            return;
+        }
+        this.commandType = tokenizer.command();
+        if (commandType != null) {
+            this.command = commandType.getCommand();
         } else {
-            String[] parts = message.split("[$]");
-            if (parts.length < 1) {
-                logger.warning(ErrorsAPI.Errors.INVALID_COMMAND.getError());
-            }
-
-            this.command = parts[0];
-            this.player = player;
-            try {
-                this.commandType = Commands.fromCommand(command);
-            } catch (IllegalArgumentException e) {
-                logger.warning(ErrorsAPI.Errors.UNKNOWN_COMMAND.getError() + " : " + command);
-            }
-            this.args = Arrays.copyOfRange(parts, 1, parts.length);
+            this.command = message.substring(0, tokenizer.commandLength());
+            logger.warning(ErrorsAPI.Errors.UNKNOWN_COMMAND.getError() + " : " + command);
+        }
+        this.argCount = tokenizer.argCount();
+        this.argumentsValid = checkArgumentsSize(tokenizer);
+        if (argumentsValid) {
+            this.action = GameAction.parse(commandType, tokenizer);
         }
     }
 
@@ -93,18 +144,31 @@ public class Command {
      * @return true if the command has the correct number of arguments, false otherwise
      */
     public boolean checkArgumentsSize() {
+        return argumentsValid;
+    }
+
+    /**
+     * Checks the number of arguments of the tokenized message against the command type.
+     *
+     * @param tokenizer the tokenizer holding the message
+     * @return true if the command has the correct number of arguments, false otherwise
+     */
+    private boolean checkArgumentsSize(CommandTokenizer tokenizer) {
+        if (commandType == null) {
+            return false;
+        }
         return switch (commandType) {
-            case LISTLOBBIES, START, SHUTDOWN, SYNCHRONIZE, STARTTURN, ENDTURN, GETGAMESTATUS, GETPRICES, LEADERBOARD ->
-                    args.length == 0;
-            case REGISTER, LEAVE, CHANGENAME, PING, EXIT, DISCONNECT, CHEAT, RECONNECT -> args.length == 1;
-            case JOIN, CHATGLOBAL, CHATLOBBY, BUYTILE, USEPLAYERARTIFACT -> args.length == 2;
+            case LISTLOBBIES, START, ADDBOT, SHUTDOWN, SYNCHRONIZE, STARTTURN, ENDTURN, GETGAMESTATUS, GETPRICES -> argCount == 0;
+            case LEADERBOARD -> argCount == 0 || argCount == 2; // full, LEAD$offset$limit or LEAD$RANK$name
+            case REGISTER, LEAVE, CHANGENAME, PING, EXIT, DISCONNECT, CHEAT, RECONNECT -> argCount == 1;
+            case JOIN, CHATGLOBAL, CHATLOBBY, BUYTILE, USEPLAYERARTIFACT -> argCount == 2;
             case CHATPRIVATE, PLACESTRUCTURE, PLACESTATUE, UPGRADESTATUE, CREATELOBBY, USESTRUCTURE, USEFIELDARTIFACT ->
-                    args.length == 3;
-            case USESTATUE -> args.length == 4;
-            case LISTPLAYERS ->
-                    (args.length == 1 && args[0].equals("SERVER")) || (args.length == 2 && args[0].equals("LOBBY"));
+                    argCount == 3;
+            case USESTATUE -> argCount == 4;
+            case LISTPLAYERS -> (argCount == 1 && tokenizer.argEquals(0, "SERVER"))
+                    || (argCount == 2 && tokenizer.argEquals(0, "LOBBY"));
             default -> {
-                logger.warning("Invalid Command arguments size: " + command + " " + args.length);
+                logger.warning("Invalid Command arguments size: " + command + " " + argCount);
                 yield false;
             }
         };
@@ -119,6 +183,15 @@ public class Command {
         return command;
     }
 
+    /**
+     * Gets the message the command was parsed from
+     *
+     * @return the message
+     */
+    public String getMessage() {
+        return message;
+    }
+
     /**
      * Gets the command type
      *
@@ -134,7 +207,25 @@ public class Command {
      * @return the arguments as a String Array
      */
     public String[] getArgs() {
-        return args;
+        String[] result = args;
+        if (result == null) {
+            CommandTokenizer tokenizer = new CommandTokenizer().tokenize(message);
+            result = new String[tokenizer.argCount()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = tokenizer.arg(i);
+            }
+            args = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the typed arguments of a game command.
+     *
+     * @return the parsed action, null if this is no game command or its arguments are invalid
+     */
+    public GameAction getAction() {
+        return action;
     }
 
     /**
@@ -153,7 +244,7 @@ public class Command {
      */
     @Override
     public String toString() {
-        String args = String.join("$", this.args);
+        String args = String.join("$", getArgs());
         return command + "$" + args;
     }
 
@@ -164,12 +255,12 @@ public class Command {
      */
     public boolean isAdministrative() {
         return switch (commandType) {
-            case LEADERBOARD, LISTLOBBIES, START, SHUTDOWN, SYNCHRONIZE, REGISTER, LEAVE, CHANGENAME, PING, EXIT, JOIN,
+            case LEADERBOARD, LISTLOBBIES, START, ADDBOT, SHUTDOWN, SYNCHRONIZE, REGISTER, LEAVE, CHANGENAME, PING, EXIT, JOIN,
                  CHATGLOBAL, CHATLOBBY, CHATPRIVATE, CREATELOBBY, LISTPLAYERS, OK, DISCONNECT, RECONNECT -> true;
             case CHEAT, GETGAMESTATUS, GETPRICES, STARTTURN, ENDTURN, BUYTILE, PLACESTRUCTURE, USEPLAYERARTIFACT,
                  PLACESTATUE, UPGRADESTATUE, USESTATUE, USESTRUCTURE, USEFIELDARTIFACT -> false;
             default -> {
-                logger.warning("Invalid Command " + command + " " + Arrays.toString(args));
+                logger.warning("Invalid Command " + command + " " + Arrays.toString(getArgs()));
                 yield false;
             }
         };
@@ -0,0 +1,153 @@
+package ch.unibas.dmi.dbis.cs108.server.core.structures;
+
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommandTokenizer;
+
+import static ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.NetworkProtocol.Commands;
+
+/**
+ * The typed arguments of a game command, parsed once when the command is received.
+ * The handlers of the game commands use these records instead of parsing the string arguments again.
+ */
+public sealed interface GameAction {
+
+    /**
+     * Parses the arguments of a game command from a tokenized line.
+     * The number of arguments must already have been checked.
+     *
+     * @param type      the type of the command
+     * @param tokenizer the tokenizer holding the line
+     * @return the typed action, null if the command is no game command or its arguments are invalid
+     */
+    static GameAction parse(Commands type, CommandTokenizer tokenizer) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return switch (type) {
+                case ENDTURN -> EndTurn.INSTANCE;
+                case GETGAMESTATUS -> GetGameStatus.INSTANCE;
+                case BUYTILE -> new BuyTile(tokenizer.intArg(0), tokenizer.intArg(1));
+                case PLACESTRUCTURE -> new PlaceStructure(tokenizer.intArg(0), tokenizer.intArg(1), tokenizer.intArg(2));
+                case USESTRUCTURE -> new UseStructure(tokenizer.intArg(0), tokenizer.intArg(1), tokenizer.intArg(2));
+                case PLACESTATUE -> new PlaceStatue(tokenizer.intArg(0), tokenizer.intArg(1), tokenizer.intArg(2));
+                case UPGRADESTATUE -> new UpgradeStatue(tokenizer.intArg(0), tokenizer.intArg(1), tokenizer.intArg(2));
+                case USESTATUE -> new UseStatue(tokenizer.intArg(0), tokenizer.intArg(1), tokenizer.intArg(2),
+                        tokenizer.arg(3));
+                case USEFIELDARTIFACT -> new UseFieldArtifact(tokenizer.intArg(0), tokenizer.intArg(1),
+                        tokenizer.intArg(2));
+                case USEPLAYERARTIFACT -> new UsePlayerArtifact(tokenizer.intArg(0), tokenizer.arg(1));
+                case CHEAT -> new Cheat(tokenizer.arg(0));
+                default -> null;
+            };
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ends the turn of the player.
+     */
+    enum EndTurn implements GameAction {
+        /**
+         * The only instance, the command has no arguments.
+         */
+        INSTANCE
+    }
+
+    /**
+     * Requests the full game state.
+     */
+    enum GetGameStatus implements GameAction {
+        /**
+         * The only instance, the command has no arguments.
+         */
+        INSTANCE
+    }
+
+    /**
+     * Buys a tile.
+     *
+     * @param x the x-coordinate of the tile
+     * @param y the y-coordinate of the tile
+     */
+    record BuyTile(int x, int y) implements GameAction {
+    }
+
+    /**
+     * Places a structure on a tile.
+     *
+     * @param x           the x-coordinate of the tile
+     * @param y           the y-coordinate of the tile
+     * @param structureId the id of the structure
+     */
+    record PlaceStructure(int x, int y, int structureId) implements GameAction {
+    }
+
+    /**
+     * Uses a structure placed on a tile.
+     *
+     * @param x           the x-coordinate of the tile
+     * @param y           the y-coordinate of the tile
+     * @param structureId the id of the structure
+     */
+    record UseStructure(int x, int y, int structureId) implements GameAction {
+    }
+
+    /**
+     * Places a statue on a tile.
+     *
+     * @param x        the x-coordinate of the tile
+     * @param y        the y-coordinate of the tile
+     * @param statueId the id of the statue
+     */
+    record PlaceStatue(int x, int y, int statueId) implements GameAction {
+    }
+
+    /**
+     * Upgrades a statue placed on a tile.
+     *
+     * @param x        the x-coordinate of the tile
+     * @param y        the y-coordinate of the tile
+     * @param statueId the id of the statue
+     */
+    record UpgradeStatue(int x, int y, int statueId) implements GameAction {
+    }
+
+    /**
+     * Uses a statue placed on a tile.
+     *
+     * @param x        the x-coordinate of the tile
+     * @param y        the y-coordinate of the tile
+     * @param statueId the id of the statue
+     * @param params   the parameters of the statue effect
+     */
+    record UseStatue(int x, int y, int statueId, String params) implements GameAction {
+    }
+
+    /**
+     * Uses an artifact on a tile.
+     *
+     * @param x          the x-coordinate of the tile
+     * @param y          the y-coordinate of the tile
+     * @param artifactId the id of the artifact
+     */
+    record UseFieldArtifact(int x, int y, int artifactId) implements GameAction {
+    }
+
+    /**
+     * Uses an artifact on a player.
+     *
+     * @param artifactId   the id of the artifact
+     * @param targetPlayer the name of the targeted player
+     */
+    record UsePlayerArtifact(int artifactId, String targetPlayer) implements GameAction {
+    }
+
+    /**
+     * Activates a cheat code.
+     *
+     * @param code the cheat code
+     */
+    record Cheat(String code) implements GameAction {
+    }
+}
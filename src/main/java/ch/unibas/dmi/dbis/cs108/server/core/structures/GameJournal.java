@@ -0,0 +1,629 @@
+package ch.unibas.dmi.dbis.cs108.server.core.structures;
+
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * The append-only journal of a running game, used to recover the game after the server process died.
+ * <p>
+ * The journal holds everything needed to replay the game deterministically: a start record with the seed of the
+ * game's random source and the names of the players, followed by the accepted game commands, the turn deadlines
+ * and the name changes in the order the lobby processed them. Replaying these records into a new
+ * {@link ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic} seeded the same way rebuilds the game state.
+ * At every turn boundary a checkpoint is appended: a binary snapshot of the game state together with the seed the
+ * random source continues with, so a recovery only replays the records after the last checkpoint.
+ * <p>
+ * Records are appended to a buffer and written with a single {@link FileChannel#write(ByteBuffer)} and
+ * {@link FileChannel#force(boolean)} per batch. The flush of a batch is submitted to the given executor (usually the
+ * journal writer, see {@link #getDefaultWriter()}) with the first record of the batch. The batch is swapped for a
+ * second buffer before it is written, so records are appended while the previous batch is forced and the mailbox of
+ * the lobby never waits for the disk. Each record is framed by its length and a CRC32C checksum, so a record torn by
+ * a crash is detected and cut off when the journal is read.
+ * <p>
+ * The methods are thread-safe, but the records are expected to be appended by the mailbox of the lobby.
+ */
+public final class GameJournal {
+    /**
+     * Logger to log logging
+     */
+    private static final Logger logger = Logger.getLogger(GameJournal.class.getName());
+    /**
+     * Marks the start of a journal file ("SOAJ")
+     */
+    private static final int MAGIC = 0x534F414A;
+    /**
+     * Version of the record format. Version 2 added checkpoints, which reseed the random source of the game,
+     * so journals of version 1 cannot be replayed anymore. Version 3 draws the random choices of a game from a
+     * {@link java.util.SplittableRandom}, which gives other choices for the same seed. Version 4 added the map of
+     * the board to the start record.
+     */
+    private static final short VERSION = 4;
+    /**
+     * Size of the file header: magic and version
+     */
+    private static final int HEADER_SIZE = 6;
+    /**
+     * Size of the frame of a record: length and checksum
+     */
+    private static final int FRAME_SIZE = 8;
+    /**
+     * File name suffix of journals
+     */
+    private static final String SUFFIX = ".journal";
+
+    private static final byte START = 1;
+    private static final byte ACTION = 2;
+    private static final byte TURN = 3;
+    private static final byte RENAME = 4;
+    private static final byte CHECKPOINT = 5;
+
+    /**
+     * The server-wide journal writer, created on first use
+     */
+    private static volatile ExecutorService defaultWriter;
+
+    /**
+     * The journal file
+     */
+    private final Path path;
+    /**
+     * The executor the flush of a batch is submitted to
+     */
+    private final Executor flusher;
+    /**
+     * Held while a batch is written and forced, so batches reach the file in order. Taken before the monitor of the
+     * journal, which only guards the buffers.
+     */
+    private final Object writeLock = new Object();
+    /**
+     * The checksum of the record being framed
+     */
+    private final CRC32C crc = new CRC32C();
+    /**
+     * The open journal, null once closed
+     */
+    private FileChannel channel;
+    /**
+     * The records not yet written
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    /**
+     * The buffer of the last written batch, swapped in by the next flush
+     */
+    private ByteBuffer spare = ByteBuffer.allocate(4096);
+    /**
+     * Flag indicating whether a flush of the buffered records is submitted
+     */
+    private boolean flushScheduled;
+    /**
+     * Number of records appended
+     */
+    private long records;
+
+    private GameJournal(Path path, FileChannel channel, Executor flusher) {
+        this.path = path;
+        this.channel = channel;
+        this.flusher = flusher;
+    }
+
+    /**
+     * Returns the server-wide journal writer, creating it on first use. It is a single daemon thread that writes and
+     * forces the batches of all journals, so the disk is never waited for on the shared lobby pool.
+     *
+     * @return the journal writer
+     */
+    public static ExecutorService getDefaultWriter() {
+        ExecutorService result = defaultWriter;
+        if (result == null) {
+            synchronized (GameJournal.class) {
+                result = defaultWriter;
+                if (result == null) {
+                    result = Executors.newSingleThreadExecutor(task -> {
+                        Thread thread = new Thread(task, "game-journal-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    defaultWriter = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the journal of a new game on the default map, replacing an old journal of the lobby, and writes the
+     * start record.
+     *
+     * @param directory the directory of the journals
+     * @param lobbyId   the id of the lobby
+     * @param seed      the seed of the random source of the game
+     * @param players   the names of the players in turn order
+     * @param flusher   the executor to flush batches on, usually {@link #getDefaultWriter()}
+     * @return the journal
+     * @throws IOException if the journal cannot be created
+     */
+    public static GameJournal create(Path directory, String lobbyId, long seed, List<String> players, Executor flusher)
+            throws IOException {
+        return create(directory, lobbyId, seed, players, MapDefinition.DEFAULT, flusher);
+    }
+
+    /**
+     * Creates the journal of a new game, replacing an old journal of the lobby, and writes the start record.
+     *
+     * @param directory the directory of the journals
+     * @param lobbyId   the id of the lobby
+     * @param seed      the seed of the random source of the game
+     * @param players   the names of the players in turn order
+     * @param map       the spec of the map of the board, see {@link MapDefinition#load(String)}
+     * @param flusher   the executor to flush batches on, usually {@link #getDefaultWriter()}
+     * @return the journal
+     * @throws IOException if the journal cannot be created
+     */
+    public static GameJournal create(Path directory, String lobbyId, long seed, List<String> players, String map,
+                                     Executor flusher) throws IOException {
+        Files.createDirectories(directory);
+        Path path = fileFor(directory, lobbyId);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        GameJournal journal = new GameJournal(path, channel, flusher);
+        synchronized (journal) {
+            journal.buffer.putInt(MAGIC).putShort(VERSION);
+            int start = journal.begin(START);
+            journal.putString(lobbyId);
+            journal.buffer.putLong(seed).putInt(players.size());
+            for (String player : players) {
+                journal.putString(player);
+            }
+            journal.putString(map);
+            journal.end(start);
+        }
+        return journal;
+    }
+
+    /**
+     * Returns the journal file of a lobby. The id is encoded, so any lobby id gives a valid file name.
+     *
+     * @param directory the directory of the journals
+     * @param lobbyId   the id of the lobby
+     * @return the path of the journal
+     */
+    public static Path fileFor(Path directory, String lobbyId) {
+        String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(lobbyId.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(encoded + SUFFIX);
+    }
+
+    /**
+     * Lists the journal files in a directory.
+     *
+     * @param directory the directory of the journals
+     * @return the journal files, empty if the directory does not exist
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<Path> list(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    /**
+     * Reads a journal. Reading stops at the first incomplete or corrupt record, which is where the
+     * journal is continued when it is reopened.
+     *
+     * @param path the journal file
+     * @return the records of the journal, null if it has no valid start record
+     * @throws IOException if the file cannot be read
+     */
+    public static Recovery read(Path path) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC || data.getShort() != VERSION) {
+            return null;
+        }
+        Start start = null;
+        List<Entry> entries = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        long valid = data.position();
+        while (data.remaining() >= FRAME_SIZE) {
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length <= 0 || length > data.remaining()) {
+                break;
+            }
+            ByteBuffer body = data.slice(data.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            data.position(data.position() + length);
+            try {
+                Entry entry = decode(body);
+                if (entry instanceof Start s) {
+                    if (start != null) {
+                        break;
+                    }
+                    start = s;
+                } else if (start == null) {
+                    break;
+                } else {
+                    entries.add(entry);
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+            valid = data.position();
+        }
+        if (start == null) {
+            return null;
+        }
+        return new Recovery(path, valid, start, entries);
+    }
+
+    /**
+     * Decodes the body of a record.
+     */
+    private static Entry decode(ByteBuffer body) {
+        byte kind = body.get();
+        return switch (kind) {
+            case START -> {
+                String lobbyId = getString(body);
+                long seed = body.getLong();
+                int count = body.getInt();
+                if (count < 0 || count > body.remaining()) {
+                    throw new IllegalArgumentException("Invalid player count " + count);
+                }
+                List<String> players = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    players.add(getString(body));
+                }
+                yield new Start(lobbyId, seed, List.copyOf(players), getString(body));
+            }
+            case ACTION -> new Action(getString(body), getString(body));
+            case TURN -> Turn.INSTANCE;
+            case RENAME -> new Rename(getString(body), getString(body));
+            case CHECKPOINT -> {
+                long seed = body.getLong();
+                int length = body.getInt();
+                if (length < 0 || length > body.remaining()) {
+                    throw new IllegalArgumentException("Invalid checkpoint length " + length);
+                }
+                byte[] state = new byte[length];
+                body.get(state);
+                yield new Checkpoint(seed, state);
+            }
+            default -> throw new IllegalArgumentException("Unknown record " + kind);
+        };
+    }
+
+    private static String getString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0 || length > body.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        String value = new String(body.array(), body.arrayOffset() + body.position(), length, StandardCharsets.UTF_8);
+        body.position(body.position() + length);
+        return value;
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return the path of the journal
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the number of records appended since the journal was opened.
+     *
+     * @return the number of records
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Appends a game command accepted by the lobby.
+     *
+     * @param player  the name of the player who sent the command
+     * @param message the message the command was parsed from
+     */
+    public synchronized void appendAction(String player, String message) {
+        int start = begin(ACTION);
+        putString(player);
+        putString(message);
+        end(start);
+    }
+
+    /**
+     * Appends a turn change caused by the turn deadline.
+     */
+    public synchronized void appendTurn() {
+        end(begin(TURN));
+    }
+
+    /**
+     * Appends a name change of a player.
+     *
+     * @param oldName the old name of the player
+     * @param newName the new name of the player
+     */
+    public synchronized void appendRename(String oldName, String newName) {
+        int start = begin(RENAME);
+        putString(oldName);
+        putString(newName);
+        end(start);
+    }
+
+    /**
+     * Appends a checkpoint taken at a turn boundary.
+     *
+     * @param seed  the seed the random source of the game continues with
+     * @param state the snapshot of the game state
+     */
+    public synchronized void appendCheckpoint(long seed, byte[] state) {
+        int start = begin(CHECKPOINT);
+        ensureCapacity(12 + state.length);
+        buffer.putLong(seed).putInt(state.length).put(state);
+        end(start);
+    }
+
+    /**
+     * Writes all buffered records and forces them to disk. A failing journal is closed, the game goes on without it.
+     * Records are appended to the other buffer meanwhile.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            ByteBuffer batch;
+            FileChannel target;
+            synchronized (this) {
+                flushScheduled = false;
+                if (channel == null || buffer.position() == 0) {
+                    return;
+                }
+                batch = buffer;
+                buffer = spare;
+                target = channel;
+            }
+            batch.flip();
+            try {
+                while (batch.hasRemaining()) {
+                    target.write(batch);
+                }
+                target.force(false);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not write game journal " + path + ", journaling stopped", e);
+                synchronized (this) {
+                    closeChannel();
+                }
+            } finally {
+                batch.clear();
+                synchronized (this) {
+                    spare = batch;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flushes the buffered records and closes the journal. The file is kept, so the game can be recovered.
+     * Waits for the batches being written.
+     */
+    public void close() {
+        synchronized (writeLock) {
+            flush();
+            synchronized (this) {
+                closeChannel();
+            }
+        }
+    }
+
+    /**
+     * Closes and deletes the journal, e.g. when the game has ended. Waits for a batch being written, as the file
+     * of the lobby may be created again right away by its next game.
+     */
+    public void delete() {
+        synchronized (writeLock) {
+            synchronized (this) {
+                buffer.clear();
+                closeChannel();
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not delete game journal " + path, e);
+            }
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not close game journal " + path, e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Starts a record: reserves its frame and writes the kind.
+     *
+     * @return the position of the frame
+     */
+    private int begin(byte kind) {
+        ensureCapacity(FRAME_SIZE + 1);
+        int start = buffer.position();
+        buffer.position(start + FRAME_SIZE);
+        buffer.put(kind);
+        return start;
+    }
+
+    /**
+     * Completes the frame of a record and schedules the flush of the batch.
+     */
+    private void end(int start) {
+        int bodyStart = start + FRAME_SIZE;
+        int length = buffer.position() - bodyStart;
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + bodyStart, length);
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        records++;
+        if (!flushScheduled && channel != null) {
+            flushScheduled = true;
+            flusher.execute(this::flush);
+        }
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(4 + bytes.length);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+
+    /**
+     * A record of the journal.
+     */
+    public sealed interface Entry permits Start, Action, Turn, Rename, Checkpoint {
+    }
+
+    /**
+     * The first record of a journal.
+     *
+     * @param lobbyId the id of the lobby
+     * @param seed    the seed of the random source of the game
+     * @param players the names of the players in turn order
+     * @param map     the spec of the map of the board, see {@link MapDefinition#load(String)}
+     */
+    public record Start(String lobbyId, long seed, List<String> players, String map) implements Entry {
+
+        /**
+         * The first record of a journal of a game on the default map.
+         *
+         * @param lobbyId the id of the lobby
+         * @param seed    the seed of the random source of the game
+         * @param players the names of the players in turn order
+         */
+        public Start(String lobbyId, long seed, List<String> players) {
+            this(lobbyId, seed, players, MapDefinition.DEFAULT);
+        }
+    }
+
+    /**
+     * A game command accepted by the lobby.
+     *
+     * @param player  the name of the player who sent the command
+     * @param message the message the command was parsed from
+     */
+    public record Action(String player, String message) implements Entry {
+    }
+
+    /**
+     * A turn change caused by the turn deadline.
+     */
+    public enum Turn implements Entry {
+        /**
+         * The only instance, the record has no content.
+         */
+        INSTANCE
+    }
+
+    /**
+     * A name change of a player.
+     *
+     * @param oldName the old name of the player
+     * @param newName the new name of the player
+     */
+    public record Rename(String oldName, String newName) implements Entry {
+    }
+
+    /**
+     * A checkpoint taken at a turn boundary.
+     *
+     * @param seed  the seed the random source of the game continues with
+     * @param state the snapshot of the game state, encoded by
+     *              {@link ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec}
+     */
+    public record Checkpoint(long seed, byte[] state) implements Entry {
+    }
+
+    /**
+     * The valid records read from a journal file.
+     *
+     * @param path    the journal file
+     * @param length  the length of the valid part of the file
+     * @param start   the start record
+     * @param entries the records after the start record, in order
+     */
+    public record Recovery(Path path, long length, Start start, List<Entry> entries) {
+
+        /**
+         * Finds the last checkpoint, the replay of the game can start after it.
+         *
+         * @return the index of the last checkpoint in the entries, -1 if there is none
+         */
+        public int lastCheckpoint() {
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (entries.get(i) instanceof Checkpoint) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Reopens the journal to continue it after the recovered game was replayed.
+         * A torn record at the end of the file is cut off.
+         *
+         * @param flusher the executor to flush batches on, usually {@link GameJournal#getDefaultWriter()}
+         * @return the journal
+         * @throws IOException if the journal cannot be opened
+         */
+        public GameJournal resume(Executor flusher) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            try {
+                channel.truncate(length);
+                channel.position(length);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return new GameJournal(path, channel, flusher);
+        }
+    }
+}
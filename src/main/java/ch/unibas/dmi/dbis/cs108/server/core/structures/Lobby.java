@@ -1,26 +1,53 @@
 package ch.unibas.dmi.dbis.cs108.server.core.structures;
 
 import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.server.core.bots.BotClient;
 import ch.unibas.dmi.dbis.cs108.server.core.logic.GameEventNotifier;
 import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
 import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
 import ch.unibas.dmi.dbis.cs108.server.networking.ClientHandler;
+import ch.unibas.dmi.dbis.cs108.server.networking.Frame;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI;
+import ch.unibas.dmi.dbis.cs108.shared.protocol.ErrorsAPI;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
  * An instance of this class represents a Lobby. It provides functionality regarding managing players and starting games.
+ * <p>
+ * All game mutations of a lobby (commands, turn deadlines, disconnects and name changes) run on its {@link Mailbox},
+ * one at a time and in the order they were submitted, so the game itself needs no locking.
+ * <p>
+ * If a journal directory is set, every game is recorded in a {@link GameJournal}: the seed of its random source,
+ * the accepted commands, the turn deadlines, the name changes and a checkpoint of the state at every turn boundary.
+ * After a crash of the server, the game is rebuilt by {@link #recover(GameJournal.Recovery)} from the last
+ * checkpoint and the records after it, and the players take their seats again with {@link #rejoinPlayer}. The records
+ * are only buffered on the mailbox, the journal writer writes and forces them to disk.
+ * <p>
+ * Free seats can be taken by {@link BotClient bots}. When the turn of a bot starts, the bot searches for its actions
+ * off the mailbox and hands them back with {@link #playBotTurn}; they are then played like the commands of a human
+ * player. Bots do not count on the leaderboard and leave the lobby with the last human player.
  *
  * @author Vincent Schall
  * @version 1.0
@@ -40,6 +67,10 @@ public class Lobby implements GameEventNotifier {
      * The players, stored in a List of ClientHandlers.
      */
     private final List<ClientHandler> players;
+    /**
+     * The players by the name of their player, re-indexed when a player changes the name.
+     */
+    private final Map<String, ClientHandler> playersByName = new ConcurrentHashMap<>();
     /**
      * The number of maximal Players allowed (currently always 4).
      */
@@ -51,15 +82,48 @@ public class Lobby implements GameEventNotifier {
     /**
      * The status of the Lobby (In lobby, in game or game ended).
      */
-    private LobbyStatus status;
+    private volatile LobbyStatus status;
+    /**
+     * Set from the start of a game until it has ended, claimed with a CAS so two concurrent starts cannot both
+     * start a game.
+     */
+    private final AtomicBoolean gameClaimed = new AtomicBoolean();
     /**
      * The GameLogic corresponding to the game ongoing in the Lobby (only initialized when game starts).
      */
     private GameLogic gameLogic;
     /**
-     * The turnScheduler responsible for automatically calling TurnManager.nextTurn() after a fixed time.
+     * The shared timing wheel the turn deadlines are registered with.
+     */
+    private final TimerWheel timers;
+    /**
+     * The mailbox all game mutations of this lobby run on.
+     */
+    private final Mailbox mailbox;
+    /**
+     * The periodic turn deadline responsible for automatically calling TurnManager.nextTurn() after a fixed time.
+     */
+    private volatile TimerWheel.Timeout turnTimeout; // For automatic turns
+    /**
+     * The directory the game journals are written to, null if games are not journaled.
+     */
+    private final Path journalDirectory;
+    /**
+     * The journal of the running game, null if the game is not journaled.
+     */
+    private GameJournal journal;
+    /**
+     * The seed of the random source of the running game.
+     */
+    private long seed;
+    /**
+     * The map the boards of the games of the lobby are created from.
      */
-    private ScheduledExecutorService turnScheduler; // For automatic turns
+    private MapDefinition map;
+    /**
+     * Flag indicating whether a recovered game is being replayed, so nothing is sent, journaled or scheduled.
+     */
+    private boolean replaying;
 
     /**
      * Creates the Lobby object and instantiates fields.
@@ -69,12 +133,71 @@ public class Lobby implements GameEventNotifier {
      *              @param leaderboard The leaderboard object to use.
      */
     public Lobby(String id, int maxPlayers, Leaderboard leaderboard) {
+        this(id, maxPlayers, leaderboard, TimerWheel.getDefault(), Mailbox.getDefaultPool());
+    }
+
+    /**
+     * Creates the Lobby object and instantiates fields. Turn deadlines are registered with the given
+     * timing wheel and the mailbox of the lobby runs on the given pool.
+     *
+     * @param id          The name of the Lobby as a String.
+     * @param maxPlayers  The number of maximum players as an Integer.
+     * @param leaderboard The leaderboard object to use.
+     * @param timers      The shared timing wheel.
+     * @param pool        The pool shared by the mailboxes of all lobbies.
+     */
+    public Lobby(String id, int maxPlayers, Leaderboard leaderboard, TimerWheel timers, Executor pool) {
+        this(id, maxPlayers, leaderboard, timers, pool, null);
+    }
+
+    /**
+     * Creates the Lobby object and instantiates fields. Games started in the lobby are journaled
+     * in the given directory, so they can be recovered after a crash of the server.
+     *
+     * @param id               The name of the Lobby as a String.
+     * @param maxPlayers       The number of maximum players as an Integer.
+     * @param leaderboard      The leaderboard object to use.
+     * @param timers           The shared timing wheel.
+     * @param pool             The pool shared by the mailboxes of all lobbies.
+     * @param journalDirectory The directory of the game journals, null to not journal games.
+     */
+    public Lobby(String id, int maxPlayers, Leaderboard leaderboard, TimerWheel timers, Executor pool,
+                 Path journalDirectory) {
+        this(id, maxPlayers, leaderboard, timers, pool, journalDirectory, MapDefinition.getDefault());
+    }
+
+    /**
+     * Creates the Lobby object and instantiates fields. Games started in the lobby are played on the board of
+     * the given map and journaled in the given directory.
+     *
+     * @param id               The name of the Lobby as a String.
+     * @param maxPlayers       The number of maximum players as an Integer.
+     * @param leaderboard      The leaderboard object to use.
+     * @param timers           The shared timing wheel.
+     * @param pool             The pool shared by the mailboxes of all lobbies.
+     * @param journalDirectory The directory of the game journals, null to not journal games.
+     * @param map              The map of the boards of the games.
+     */
+    public Lobby(String id, int maxPlayers, Leaderboard leaderboard, TimerWheel timers, Executor pool,
+                 Path journalDirectory, MapDefinition map) {
         this.id = id;
         this.maxPlayers = maxPlayers;
         this.players = new CopyOnWriteArrayList<>();
         this.status = LobbyStatus.IN_LOBBY;
-        this.turnScheduler = Executors.newSingleThreadScheduledExecutor();
+        this.timers = timers;
+        this.mailbox = new Mailbox(pool);
         this.leaderboard = leaderboard;
+        this.journalDirectory = journalDirectory;
+        this.map = map;
+    }
+
+    /**
+     * Gets the map the boards of the games of the lobby are created from.
+     *
+     * @return the map
+     */
+    public MapDefinition getMap() {
+        return map;
     }
 
     /**
@@ -105,12 +228,21 @@ public class Lobby implements GameEventNotifier {
     }
 
     /**
-     * Gets the turnScheduler.
+     * Gets the current turn deadline.
+     *
+     * @return the turn timeout, null if no game has been started yet.
+     */
+    public TimerWheel.Timeout getTurnTimeout() {
+        return turnTimeout;
+    }
+
+    /**
+     * Gets the mailbox all game mutations of this lobby run on.
      *
-     * @return the TurnScheduler.
+     * @return the mailbox of the lobby.
      */
-    public ScheduledExecutorService getTurnScheduler() {
-        return turnScheduler;
+    public Mailbox getMailbox() {
+        return mailbox;
     }
 
     /**
@@ -148,7 +280,11 @@ public class Lobby implements GameEventNotifier {
         }
         if (!isFull() && !players.contains(player) && status == LobbyStatus.IN_LOBBY) {
             players.add(player);
-            logger.info(player.getPlayerName() + " has joined Lobby: " + id);
+            String name = player.getPlayerName();
+            if (name != null) {
+                playersByName.put(name, player);
+            }
+            logger.info(name + " has joined Lobby: " + id);
             return true;
         }
         logger.warning(player.getPlayerName() + " could not join Lobby: " + id);
@@ -168,16 +304,39 @@ public class Lobby implements GameEventNotifier {
         }
         if (!players.isEmpty() && players.contains(player)) {
             if (status == LobbyStatus.IN_GAME) {
-                endGame();
+                requestEndGame();
             }
             players.remove(player);
+            String name = player.getPlayerName();
+            if (name != null) {
+                playersByName.remove(name, player);
+            }
             logger.info(player + " has been removed from Lobby: " + id);
+            if (players.stream().allMatch(BotClient.class::isInstance)) {
+                removeBots();
+            }
             return true;
         }
         logger.warning(player + " was not removed from Lobby: " + id);
         return false;
     }
 
+    /**
+     * Removes all bots from the Lobby and shuts them down, e.g. after the last human player has left.
+     */
+    private void removeBots() {
+        for (ClientHandler player : players) {
+            if (player instanceof BotClient bot) {
+                players.remove(bot);
+                String name = bot.getPlayerName();
+                if (name != null) {
+                    playersByName.remove(name, bot);
+                }
+                bot.shutdown();
+            }
+        }
+    }
+
     /**
      * Gets the status of the Lobby.
      *
@@ -222,67 +381,347 @@ public class Lobby implements GameEventNotifier {
 
     /**
      * Checks for starting conditions and starts a game.
+     * The game is set up on the mailbox of the lobby, where the start and the full state of the game are broadcast
+     * before any command of the game is processed. Does not wait for the set up, so the caller, e.g. the selector
+     * loop of the server, is never blocked by it; if the set up fails, the error is broadcast by the mailbox.
      *
-     * @return if the game was started correctly.
+     * @return if the game was claimed and will be set up.
      */
     public boolean startGame() {
-        if (status == LobbyStatus.IN_GAME) {
+        if (status == LobbyStatus.IN_GAME || !gameClaimed.compareAndSet(false, true)) {
             logger.warning("Game is already started in lobby " + id);
             return false;
         }
 
         if (!isFull()) {
+            gameClaimed.set(false);
             logger.warning(String.format(
                     "Cannot start game in lobby %s: %d players (expected %d)",
                     id, players.size(), maxPlayers));
             return false;
         }
 
-        status = LobbyStatus.IN_GAME;
-        logger.info("Game started in lobby " + id);
-
         String[] playerNames = players.stream()
                 .map(ClientHandler::getPlayerName)
                 .toArray(String[]::new);
 
-        this.gameLogic = new GameLogic(this);
-        players.forEach(ClientHandler::startGame);
-        gameLogic.startGame(playerNames);
+        if (mailbox.isOwner()) {
+            setUpGame(playerNames);
+        } else {
+            mailbox.execute(() -> setUpGame(playerNames));
+        }
+        return true;
+    }
+
+    /**
+     * Creates and starts the game claimed by {@link #startGame()}, on the mailbox of the lobby. The status is only
+     * set to in game once the game has been created, so commands never run against a missing game. If the game
+     * cannot be created, the claim is released and the players are told that the game could not be started.
+     *
+     * @param playerNames the names of the players in turn order.
+     */
+    private void setUpGame(String[] playerNames) {
+        try {
+            seed = ThreadLocalRandom.current().nextLong();
+            openJournal(seed, playerNames);
+            newGame();
+            players.forEach(ClientHandler::startGame);
+            gameLogic.startGame(playerNames);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not start game in lobby " + id, e);
+            gameClaimed.set(false);
+            broadcastMessage("ERR$" + ErrorsAPI.Errors.CANNOT_START_GAME.getError());
+            return;
+        }
+        status = LobbyStatus.IN_GAME;
+        logger.info("Game started in lobby " + id);
+
         startTurnScheduler();
+        GameState gameState = gameLogic.getGameState();
+        broadcastMessage("STRT$" + gameState.getPlayerTurn());
+        for (String chunk : gameState.createBaselineStatusMessages()) {
+            broadcastMessage(chunk);
+        }
+        promptBot();
+    }
+
+    /**
+     * Creates the journal of a new game, if games are journaled.
+     * The game goes on without a journal if it cannot be created.
+     *
+     * @param seed        the seed of the random source of the game.
+     * @param playerNames the names of the players in turn order.
+     */
+    private void openJournal(long seed, String[] playerNames) {
+        if (journalDirectory == null) {
+            return;
+        }
+        try {
+            journal = GameJournal.create(journalDirectory, id, seed, Arrays.asList(playerNames), map.getName(),
+                    GameJournal.getDefaultWriter());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not create game journal for lobby " + id, e);
+            journal = null;
+        }
+    }
+
+    /**
+     * Creates the GameLogic of a new game from the seed and the map of the lobby, which takes a checkpoint at every
+     * turn boundary.
+     */
+    private void newGame() {
+        gameLogic = new GameLogic(this, seed, map);
+        gameLogic.getTurnManager().setCheckpointListener(this::checkpoint);
+    }
+
+    /**
+     * Takes a checkpoint at a turn boundary. The random source continues with a new seed drawn from it, which is
+     * journaled with the snapshot of the state, so a recovery can start at the checkpoint. The reseed also happens
+     * while a game is replayed, so the replay draws the same random numbers as the original game.
+     *
+     * @param state the state of the game, locked by the turn manager.
+     */
+    private void checkpoint(GameState state) {
+        long next = state.getRandom().reseed();
+        if (journal != null) {
+            journal.appendCheckpoint(next, GameStateCodec.encode(state));
+        }
+    }
+
+    /**
+     * Rebuilds a game from its journal by restoring the last checkpoint and replaying the journaled records after
+     * it, e.g. after a crash of the server.
+     * Must be called before the lobby is published. The players of the game are not connected yet, they take
+     * their seats with {@link #rejoinPlayer(ClientHandler)}. The turn deadline starts when the first player is back.
+     *
+     * @param recovery the records read from the journal.
+     * @return true if the game is in progress after the replay, false if it had already ended.
+     */
+    public boolean recover(GameJournal.Recovery recovery) {
+        GameJournal.Start start = recovery.start();
+        String[] playerNames = start.players().toArray(String[]::new);
+        seed = start.seed();
+        map = MapDefinition.load(start.map());
+        gameClaimed.set(true);
+        status = LobbyStatus.IN_GAME;
+        replaying = true;
+        try {
+            int next = restore(recovery, playerNames);
+            Map<String, Player> senders = new HashMap<>();
+            for (GameJournal.Entry entry : recovery.entries().subList(next, recovery.entries().size())) {
+                if (status != LobbyStatus.IN_GAME) {
+                    break;
+                }
+                if (entry instanceof GameJournal.Action action) {
+                    Player sender = senders.computeIfAbsent(action.player(), Player::new);
+                    gameLogic.processCommand(new Command(action.message(), sender));
+                } else if (entry instanceof GameJournal.Rename rename) {
+                    senders.remove(rename.oldName());
+                    renamePlayer(rename.oldName(), rename.newName());
+                } else if (entry == GameJournal.Turn.INSTANCE) {
+                    processTurnChange();
+                }
+            }
+        } finally {
+            replaying = false;
+        }
+        if (status != LobbyStatus.IN_GAME) {
+            logger.info("Recovered game of lobby " + id + " had already ended");
+            return false;
+        }
+        if (journalDirectory != null) {
+            try {
+                journal = recovery.resume(GameJournal.getDefaultWriter());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not reopen game journal for lobby " + id, e);
+            }
+        }
+        logger.info("Recovered game of lobby " + id + " from " + recovery.entries().size() + " journal records");
+        return true;
+    }
+
+    /**
+     * Creates the game to replay a journal into: restores the last checkpoint of the journal, or starts the game
+     * from the beginning if the journal has none or it cannot be decoded.
+     *
+     * @param recovery    the records read from the journal.
+     * @param playerNames the names of the players in turn order.
+     * @return the index of the first entry to replay.
+     */
+    private int restore(GameJournal.Recovery recovery, String[] playerNames) {
+        newGame();
+        int index = recovery.lastCheckpoint();
+        if (index >= 0) {
+            GameJournal.Checkpoint checkpoint = (GameJournal.Checkpoint) recovery.entries().get(index);
+            try {
+                GameStateCodec.decode(checkpoint.state(), gameLogic.getGameState());
+                gameLogic.getGameState().getRandom().setSeed(checkpoint.seed());
+                return index + 1;
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not restore checkpoint of lobby " + id + ", replaying the whole game", e);
+                newGame();
+            }
+        }
+        gameLogic.startGame(playerNames);
+        return 0;
+    }
+
+    /**
+     * Lets a player of a recovered game take the seat again. The name of the client must be the name of the
+     * player in the game.
+     *
+     * @param player The client of the player.
+     * @return if the player was seated.
+     */
+    public boolean rejoinPlayer(ClientHandler player) {
+        String name = player.getPlayerName();
+        if (status != LobbyStatus.IN_GAME || name == null
+                || gameLogic.getGameState().findPlayerByName(name) == null) {
+            return false;
+        }
+        if (isFull() || playersByName.putIfAbsent(name, player) != null) {
+            logger.warning(name + " could not rejoin Lobby: " + id);
+            return false;
+        }
+        players.add(player);
+        player.setCurrentLobby(this);
+        if (turnTimeout == null) {
+            startTurnScheduler();
+        }
+        logger.info(name + " has rejoined Lobby: " + id);
         return true;
     }
 
     /**
-     * Starts the TurnScheduler by first resetting it and the calling
-     * processTurnChange once after every minute if not stopped.
+     * Closes the journal of the running game without deleting it, e.g. when the server shuts down,
+     * so the game can be recovered on the next start.
+     */
+    public void closeJournal() {
+        mailbox.execute(() -> {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        });
+    }
+
+    /**
+     * Starts the turn deadline by first cancelling the current one and then
+     * calling processTurnChange once after every minute if not stopped.
      */
     private void startTurnScheduler() {
-        // Start automatic turn scheduler (runs every minute)
+        if (replaying) {
+            return;
+        }
+        // Start automatic turn deadline (runs every minute)
         stopTurnScheduler();
-        turnScheduler = Executors.newSingleThreadScheduledExecutor();
-        turnScheduler.scheduleAtFixedRate(
-                this::processTurnChange,
-                SETTINGS.Config.TURN_TIME.getValue(), SETTINGS.Config.TURN_TIME.getValue(), TimeUnit.SECONDS
+        turnTimeout = timers.scheduleAtFixedRate(
+                this::onTurnDeadline,
+                SETTINGS.Config.TURN_TIME.getValue(), SETTINGS.Config.TURN_TIME.getValue(), TimeUnit.SECONDS,
+                mailbox
         );
     }
 
     /**
-     * Stops the TurnScheduler by resetting it.
+     * Stops the turn deadline by cancelling it.
      */
     public void stopTurnScheduler() {
-        if (turnScheduler != null) {
-            turnScheduler.shutdownNow();
-            try {
-                if (!turnScheduler.awaitTermination(1, TimeUnit.SECONDS)) {
-                    logger.warning("Turn Scheduler failed to terminate");
-                }
-            } catch (InterruptedException e) {
-                logger.warning("Interrupted while waiting for turn Scheduler to terminate");
-                Thread.currentThread().interrupt();
+        TimerWheel.Timeout timeout = turnTimeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Processes a game command on the mailbox of the lobby.
+     * The command is rejected if the game has ended before it runs.
+     *
+     * @param command the game command to process.
+     */
+    public void processGameCommand(Command command) {
+        mailbox.execute(() -> {
+            if (status != LobbyStatus.IN_GAME) {
+                sendMessageToPlayer(command.getPlayer().getName(), "ERR$" + ErrorsAPI.Errors.NOT_IN_GAME.getError());
+                return;
             }
+            applyGameCommand(command);
+        });
+    }
+
+    /**
+     * Journals and processes a game command. Runs on the mailbox while the game is in progress.
+     *
+     * @param command the game command to process.
+     */
+    private void applyGameCommand(Command command) {
+        // Requests of the state change nothing and are not journaled
+        if (journal != null && command.getCommandType() != CommunicationAPI.NetworkProtocol.Commands.GETGAMESTATUS) {
+            journal.appendAction(command.getPlayer().getName(), command.getMessage());
+        }
+        gameLogic.processCommand(command);
+    }
+
+    /**
+     * Lets the bot whose turn it is start its turn, if the current player is a bot.
+     * Must run on the mailbox of the lobby, e.g. after the start of the game has been broadcast.
+     */
+    private void promptBot() {
+        if (replaying || status != LobbyStatus.IN_GAME) {
+            return;
+        }
+        GameState state = gameLogic.getGameState();
+        String turn = state.getPlayerTurn();
+        if (turn != null && playersByName.get(turn) instanceof BotClient bot) {
+            bot.playTurn(this, state, turnNumber());
         }
     }
 
+    /**
+     * Plays the actions a bot has chosen for its turn and ends the turn, on the mailbox of the lobby.
+     * The actions are dropped if the turn is over meanwhile, e.g. because the turn deadline has passed.
+     *
+     * @param bot      the bot.
+     * @param turn     the number of the turn the actions were chosen for.
+     * @param commands the protocol messages of the actions.
+     */
+    public void playBotTurn(BotClient bot, int turn, List<String> commands) {
+        mailbox.execute(() -> {
+            if (status != LobbyStatus.IN_GAME || turnNumber() != turn
+                    || !Objects.equals(gameLogic.getGameState().getPlayerTurn(), bot.getPlayerName())) {
+                return;
+            }
+            for (String message : commands) {
+                applyGameCommand(new Command(message, bot.getPlayer()));
+            }
+            applyGameCommand(new Command(CommunicationAPI.NetworkProtocol.Commands.ENDTURN.getCommand() + "$",
+                    bot.getPlayer()));
+        });
+    }
+
+    /**
+     * Returns the number of the current turn, counted over all rounds of the game.
+     *
+     * @return the number of the turn.
+     */
+    private int turnNumber() {
+        GameState state = gameLogic.getGameState();
+        return state.getGameRound() * state.getPlayers().size() + state.getPlayerRound();
+    }
+
+    /**
+     * Called on the mailbox when the turn deadline has passed. The turn change is journaled, turn changes
+     * caused by an end turn command are replayed with the command.
+     */
+    private void onTurnDeadline() {
+        if (status != LobbyStatus.IN_GAME) {
+            return;
+        }
+        if (journal != null) {
+            journal.appendTurn();
+        }
+        processTurnChange();
+    }
+
     /**
      * Handles the request to start a new turn. Calls the GameLogic.TurnManager.nextTurn()
      * method and broadcasts a message to the players.
@@ -329,11 +768,13 @@ public class Lobby implements GameEventNotifier {
      */
     @Override
     public void sendMessageToPlayer(String player, String message) {
-        for (ClientHandler client : players) {
-            if (client.getPlayerName().equals(player)) {
-                client.sendMessage(message);
-                return;
-            }
+        if (replaying) {
+            return;
+        }
+        ClientHandler client = player == null ? null : playersByName.get(player);
+        if (client != null) {
+            client.sendMessage(message);
+            return;
         }
         logger.warning("Player " + player + " not found in lobby " + id);
     }
@@ -347,24 +788,43 @@ public class Lobby implements GameEventNotifier {
             status = LobbyStatus.GAME_ENDED;
             gameLogic.getTurnManager().giveFinalScores();
             broadcastMessage(CommunicationAPI.NetworkProtocol.Commands.ENDGAME.getCommand() + "$" + gameLogic.createFinalScoreMessage());
-            gameLogic.getGameState().getPlayers().forEach(player -> {
-                leaderboard.update(player.getName(), player.getRunes());
-            });
-            leaderboard.save();
+            if (!replaying) {
+                gameLogic.getGameState().getPlayers().forEach(player -> {
+                    if (!(playersByName.get(player.getName()) instanceof BotClient)) {
+                        leaderboard.update(player.getName(), player.getRunes());
+                    }
+                });
+            }
             gameLogic.getGameState().reset();
             stopTurnScheduler();
+            if (journal != null) {
+                journal.delete();
+                journal = null;
+            }
+            gameClaimed.set(false);
         }
     }
 
+    /**
+     * Ends the game on the mailbox of the lobby, after all commands submitted before.
+     * Use this instead of {@link #endGame()} when not running on the mailbox, e.g. on a disconnect.
+     */
+    public void requestEndGame() {
+        mailbox.execute(this::endGame);
+    }
+
     /**
      * Sends a message to every player in the Lobby.
+     * The message is encoded once and the same frame is handed to every player.
      *
      * @param message The message to send.
      */
     @Override
     public void broadcastMessage(String message) {
+        if (players.isEmpty()) return;
+        Frame frame = Frame.of(message);
         for (ClientHandler player : players) {
-            player.sendMessage(message);
+            player.sendFrame(frame);
         }
     }
 
@@ -399,16 +859,46 @@ public class Lobby implements GameEventNotifier {
      */
     private void broadcastTurnUpdate() {
         broadcastMessage("TURN$" + gameLogic.getGameState().getPlayerTurn());
-        broadcastMessage(gameLogic.getGameState().createDetailedStatusMessage());
+        broadcastMessage(gameLogic.getGameState().createDeltaStatusMessage());
+        promptBot();
     }
 
     /**
-     * Changes the name of a player in the game.
+     * Updates the name index after a player of the lobby has changed the name.
+     *
+     * @param player  The player that changed the name.
+     * @param oldName The previous name of the player.
+     */
+    public void reindexPlayer(ClientHandler player, String oldName) {
+        if (!players.contains(player)) {
+            return;
+        }
+        if (oldName != null) {
+            playersByName.remove(oldName, player);
+        }
+        String name = player.getPlayerName();
+        if (name != null) {
+            playersByName.put(name, player);
+        }
+    }
+
+    /**
+     * Changes the name of a player in the game. The change runs on the mailbox of the lobby.
      *
      * @param oldName The old name of the player.
      * @param newName The new name of the player.
      */
     public void changeName(String oldName, String newName) {
+        mailbox.execute(() -> renamePlayer(oldName, newName));
+    }
+
+    /**
+     * Renames a player in the game state.
+     *
+     * @param oldName The old name of the player.
+     * @param newName The new name of the player.
+     */
+    private void renamePlayer(String oldName, String newName) {
         if (oldName == null || newName == null) {
             logger.warning("Old name or new name is null, cannot change name.");
             return;
@@ -425,18 +915,14 @@ public class Lobby implements GameEventNotifier {
             logger.warning("Player with name " + oldName + " not found in game.");
             return;
         }
-        // Set the newName to the player object
-        Player p = gameLogic.getGameState().findPlayerByName(oldName);
-        p.setName(newName);
-        // Update the player name for all tiles
-        p.getOwnedTiles().forEach(tile -> {
-            tile.setOwnerName(newName);
-        });
-        // Update the player name of the current turn if the player of the oldName is the current player
-        if (gameLogic.getGameState().getPlayerTurn().equals(oldName)) {
-            gameLogic.getGameState().setPlayerTurn(newName);
+        if (journal != null) {
+            journal.appendRename(oldName, newName);
+        }
+        gameLogic.renamePlayer(oldName, newName);
+        // Players are identified by name in deltas, so a rename needs a full state
+        for (String chunk : gameLogic.getGameState().createBaselineStatusMessages()) {
+            broadcastMessage(chunk);
         }
-        broadcastMessage(gameLogic.getGameState().createDetailedStatusMessage());
     }
 
     /**
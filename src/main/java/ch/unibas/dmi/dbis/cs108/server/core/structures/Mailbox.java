@@ -0,0 +1,152 @@
+package ch.unibas.dmi.dbis.cs108.server.core.structures;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The mailbox of a lobby: a single-writer executor that runs all game mutations of one lobby
+ * (commands, turn deadlines, disconnects and name changes) one at a time and in submission order.
+ * <p>
+ * A mailbox does not own a thread. Whenever it has tasks, it schedules itself on a shared pool that is
+ * sized to the number of cores, so many lobbies are spread across few threads and a lobby never runs on
+ * two threads at once. After a batch of tasks the mailbox gives its thread back to the pool, so a busy lobby
+ * cannot starve the others. The pool runs on platform threads by default, see {@link #newPool(ThreadFactory)} for
+ * a pool of other threads, e.g. virtual threads.
+ */
+public final class Mailbox implements Executor {
+    /** Logger to log logging */
+    private static final Logger logger = Logger.getLogger(Mailbox.class.getName());
+    /** Maximum number of tasks run before the thread is handed to the next mailbox */
+    private static final int BATCH_SIZE = 64;
+    /** The server-wide pool all lobbies run on */
+    private static volatile ExecutorService defaultPool;
+    /** The pool the mailbox is drained on */
+    private final Executor pool;
+    /** The pending tasks */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    /** Flag indicating whether a drain of this mailbox is scheduled or running */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /** The thread currently draining the mailbox, null if none */
+    private volatile Thread owner;
+
+    /**
+     * Creates a new mailbox that runs on the given pool.
+     *
+     * @param pool the pool to drain the mailbox on
+     */
+    public Mailbox(Executor pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the server-wide lobby pool, creating it on first use.
+     * The pool has one daemon thread per available core.
+     *
+     * @return the shared lobby pool
+     */
+    public static ExecutorService getDefaultPool() {
+        ExecutorService result = defaultPool;
+        if (result == null) {
+            synchronized (Mailbox.class) {
+                result = defaultPool;
+                if (result == null) {
+                    AtomicInteger count = new AtomicInteger();
+                    result = newPool(task -> {
+                        Thread thread = new Thread(task, "lobby-" + count.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    defaultPool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a lobby pool with one thread per available core, the threads are created by the given factory.
+     *
+     * @param factory the factory of the threads of the pool
+     * @return the pool
+     */
+    public static ExecutorService newPool(ThreadFactory factory) {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), factory);
+    }
+
+    /**
+     * Adds a task to the mailbox. The task runs after all previously submitted tasks have completed.
+     *
+     * @param task the task to run
+     */
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    /**
+     * Checks if the calling thread is currently running the tasks of this mailbox.
+     *
+     * @return true if called from a task of this mailbox
+     */
+    public boolean isOwner() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Gets the number of tasks waiting to run.
+     *
+     * @return the number of pending tasks
+     */
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Schedules a drain of the mailbox on the pool unless one is already scheduled.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                pool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                logger.warning("Lobby pool rejected mailbox, " + tasks.size() + " tasks pending: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs up to one batch of tasks and reschedules the mailbox if tasks remain.
+     */
+    private void drain() {
+        owner = Thread.currentThread();
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) break;
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.log(Level.SEVERE, "Error in lobby task", e);
+                }
+            }
+        } finally {
+            owner = null;
+            scheduled.set(false);
+        }
+        // A task may have been added after the last poll but before the flag was reset
+        if (!tasks.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ch.unibas.dmi.dbis.cs108.server.core.structures.protocol;
 
+import ch.unibas.dmi.dbis.cs108.server.core.bots.BotClient;
+import ch.unibas.dmi.dbis.cs108.server.core.bots.BotPool;
 import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
 import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
@@ -9,6 +11,7 @@ import ch.unibas.dmi.dbis.cs108.server.networking.GameServer;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Logger;
@@ -24,6 +27,8 @@ public class CommandHandler {
     private final ClientHandler ch;
     /** The GameServer instance that this CommandHandler is associated with. */
     private final GameServer server;
+    /** The maximum number of players sent in one leaderboard page */
+    private static final int MAX_LEADERBOARD_PAGE = 100;
     /** The logger for this class. */
     Logger logger = Logger.getLogger(CommandHandler.class.getName());
 
@@ -63,12 +68,15 @@ public class CommandHandler {
     private void setLocalPlayerName(String playerName) {
         Lobby currentLobby = ch.getCurrentLobby();
         Player localPlayer = ch.getPlayer();
+        String oldName = localPlayer.getName();
         if (currentLobby != null && Objects.equals(currentLobby.getStatus(), Lobby.LobbyStatus.IN_GAME.getStatus())) {
             Logger.getGlobal().info("Setting lobby playername to " + playerName);
-            currentLobby.changeName(localPlayer.getName(), playerName);
+            currentLobby.changeName(oldName, playerName);
         }
         localPlayer.setName(playerName);
-        ch.getPlayer().setName(playerName);
+        if (currentLobby != null) {
+            currentLobby.reindexPlayer(ch, oldName);
+        }
     }
 
     /**
@@ -101,23 +109,16 @@ public class CommandHandler {
      */
     public boolean handleRegister(Command cmd) {
         String playerName = cmd.getArgs()[0].toLowerCase();
-        synchronized (server) {
-            if (!server.containsPlayerName(playerName)) {
-                logger.info("player registered: " + playerName);
-                setLocalPlayer(new Player(playerName));
-                sendMessage("OK$RGST$" + playerName);
-            } else {
-                // Find a unique name by adding numbers
-                String uniqueName = playerName;
-                int suffix = 2;
-                while (server.containsPlayerName(uniqueName)) {
-                    uniqueName = playerName + suffix++;
-                }
-                logger.info("Duplicate player registered: " + uniqueName);
-                setLocalPlayer(new Player(uniqueName));
-                sendMessage("OK$RGST$" + uniqueName);
-                sendMessage("ERR$106$PLAYER_ALREADY_EXISTS$" + playerName);
-            }
+        // Reserves the name, or a unique name with a number added if it is taken
+        String uniqueName = server.changePlayerName(ch, ch.getPlayerName(), playerName);
+        setLocalPlayer(new Player(uniqueName));
+        if (uniqueName.equals(playerName)) {
+            logger.info("player registered: " + playerName);
+            sendMessage("OK$RGST$" + playerName);
+        } else {
+            logger.info("Duplicate player registered: " + uniqueName);
+            sendMessage("OK$RGST$" + uniqueName);
+            sendMessage("ERR$106$PLAYER_ALREADY_EXISTS$" + playerName);
         }
         return true;
     }
@@ -145,25 +146,17 @@ public class CommandHandler {
         String newPlayerName = cmd.getArgs()[0].toLowerCase();
         Player localPlayer = ch.getPlayer();
 
-        synchronized (server) {
-            if (!server.containsPlayerName(newPlayerName)) {
-                sendMessage("OK$CHAN$" + localPlayer.getName() + "$" + newPlayerName);
-                server.broadcast("CHAN$" + localPlayer.getName() + "$" + newPlayerName);
-                setLocalPlayerName(newPlayerName);
-                return true;
-            } else {
-                // Generate unique name
-                String uniqueName = newPlayerName;
-                int suffix = 2;
-                while (server.containsPlayerName(uniqueName)) {
-                    uniqueName = newPlayerName + suffix++;
-                }
-
-                setLocalPlayerName(uniqueName);
-                sendMessage("ERR$106$PLAYER_ALREADY_EXISTS$" + uniqueName);
-                server.broadcast("OK$CHAN$" + localPlayer.getName() + "$" + uniqueName);
-
-            }
+        // Reserves the new name, or a unique name with a number added if it is taken, and releases the old one
+        String uniqueName = server.changePlayerName(ch, localPlayer.getName(), newPlayerName);
+        if (uniqueName.equals(newPlayerName)) {
+            sendMessage("OK$CHAN$" + localPlayer.getName() + "$" + newPlayerName);
+            server.broadcast("CHAN$" + localPlayer.getName() + "$" + newPlayerName);
+            setLocalPlayerName(newPlayerName);
+            return true;
+        } else {
+            setLocalPlayerName(uniqueName);
+            sendMessage("ERR$106$PLAYER_ALREADY_EXISTS$" + uniqueName);
+            server.broadcast("OK$CHAN$" + localPlayer.getName() + "$" + uniqueName);
         }
         return false;
     }
@@ -205,7 +198,7 @@ public class CommandHandler {
      * @return true if the command was handled successfully, false otherwise
      */
     public boolean handleListLobbies() {
-        List<Lobby> lobbies = server.getLobbies();
+        Collection<Lobby> lobbies = server.getLobbies();
 
         if (lobbies.isEmpty()) {
             ch.sendMessage("OK$LIST$No available lobbies. Create your own with /create");
@@ -320,8 +313,10 @@ public class CommandHandler {
         if (existingHandler != null) {
             // Transfer player reference to new connection
             ch.setPlayer(existingHandler.getPlayer());
+            server.transferPlayerName(playerName, existingHandler, ch);
             existingHandler.shutdown(); // Clean up old connection
-        } else {
+        } else if (server.resumeRecoveredGame(playerName, ch) == null) {
+            // Neither connected nor seated in a game recovered after a restart of the server
             sendMessage("ERR$101$PLAYER_NOT_FOUND");
             return false;
         }
@@ -346,12 +341,12 @@ public class CommandHandler {
             return false;
         }
         String message = parts[2];
-        if (server.containsPlayerName(receiverName)) {
-            server.getClients().forEach(client -> {
-                if (client.isConnected() && (client.getPlayerName().equals(receiverName)) || client.getPlayerName().equals(senderName)) {
-                    client.sendMessage("CHTP$" + senderName + "$" + message);
-                }
-            });
+        ClientHandler receiver = server.findClientHandler(receiverName);
+        if (receiver != null) {
+            if (receiver.isConnected()) {
+                receiver.sendMessage("CHTP$" + senderName + "$" + message);
+            }
+            sendMessage("CHTP$" + senderName + "$" + message);
             return true;
         } else {
             sendMessage("ERR$105$NO_PLAYER_FOUND_PRIVATE_MESSAGE$" + senderName);
@@ -394,14 +389,12 @@ public class CommandHandler {
     /**
      * This method handles the starting of a game.
      *
-     * @return true if the game was started successfully, false otherwise
+     * @return true if the game was claimed and is being set up, false otherwise
      */
     public boolean handleStartGame() {
         Lobby currentLobby = ch.getCurrentLobby();
         if (currentLobby != null && currentLobby.startGame()) {
-            String startPlayerName = currentLobby.getGameLogic().getGameState().getPlayerTurn();
-            currentLobby.broadcastMessage("STRT$" + startPlayerName);
-            currentLobby.broadcastMessage(currentLobby.getGameLogic().getGameState().createDetailedStatusMessage());
+            // The lobby broadcasts the start and the baseline, or the error, from its mailbox
             return true;
         } else {
             System.out.println("ERR$106$CANNOT_START_GAME");
@@ -411,13 +404,77 @@ public class CommandHandler {
     }
 
     /**
-     * This method handles the ending of a game.
+     * This method handles the host of a lobby adding a bot to a free seat of the lobby.
+     * The bot gets a name of its own, which is announced like the join of a player.
      *
-     * @return true if the game was ended successfully, false otherwise
+     * @return true if the bot was added, false otherwise
      */
-    public boolean handleGetLeaderboard() {
+    public boolean handleAddBot() {
+        Lobby currentLobby = ch.getCurrentLobby();
+        if (currentLobby == null || !Objects.equals(currentLobby.getHostName(), ch.getPlayerName())) {
+            sendMessage("ERR$106$CANNOT_ADD_BOT");
+            return false;
+        }
+        BotClient bot = new BotClient(server, BotPool.getDefault());
+        bot.setPlayer(new Player(server.reservePlayerName(BotClient.NAME, bot)));
+        if (!currentLobby.addPlayer(bot)) {
+            bot.shutdown();
+            sendMessage("ERR$106$CANNOT_ADD_BOT");
+            return false;
+        }
+        bot.setCurrentLobby(currentLobby);
+        currentLobby.broadcastMessage("OK$JOIN$" + currentLobby.getId() + "$" +
+                currentLobby.getPlayers().stream()
+                        .map(ClientHandler::getPlayerName)
+                        .collect(Collectors.joining("%"))
+                + "$false");
+        return true;
+    }
+
+    /**
+     * This method handles a leaderboard request. Without arguments the whole leaderboard is sent.
+     * {@code LEAD$<offset>$<limit>} requests a page and is answered with
+     * {@code OK$LEAD$PAGE$<offset>$<total>$<name>:<points>%...}, {@code LEAD$RANK$<name>} requests the rank of a
+     * player and is answered with a page containing only that player, {@code OK$LEAD$RANK$<offset>$<total>$<name>:<points>}.
+     *
+     * @param cmd the transmitted command
+     * @return true if the leaderboard was sent successfully, false otherwise
+     */
+    public boolean handleGetLeaderboard(Command cmd) {
         Leaderboard leaderboard = server.getLeaderboard();
-        sendMessage("OK$" + CommunicationAPI.NetworkProtocol.Commands.LEADERBOARD.getCommand() + "$" + leaderboard);
+        String prefix = "OK$" + CommunicationAPI.NetworkProtocol.Commands.LEADERBOARD.getCommand() + "$";
+        String[] args = cmd.getArgs();
+        if (args.length == 0) {
+            sendMessage(prefix + leaderboard);
+            return true;
+        }
+        if (args[0].equals("RANK")) {
+            Leaderboard.RankedEntry entry = leaderboard.getRank(args[1]);
+            if (entry == null) {
+                sendMessage("ERR$101$PLAYER_NOT_FOUND");
+                return false;
+            }
+            sendMessage(prefix + "RANK$" + (entry.rank() - 1) + "$" + leaderboard.size() + "$"
+                    + entry.name() + ":" + entry.points());
+            return true;
+        }
+        int offset;
+        int limit;
+        try {
+            offset = Integer.parseInt(args[0]);
+            limit = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            sendMessage("ERR$101$INVALID_ARGUMENTS");
+            return false;
+        }
+        if (offset < 0 || limit <= 0) {
+            sendMessage("ERR$101$INVALID_ARGUMENTS");
+            return false;
+        }
+        List<Leaderboard.RankedEntry> page = leaderboard.getPage(offset, Math.min(limit, MAX_LEADERBOARD_PAGE));
+        sendMessage(prefix + "PAGE$" + offset + "$" + leaderboard.size() + "$" + page.stream()
+                .map(entry -> entry.name() + ":" + entry.points())
+                .collect(Collectors.joining("%")));
         return true;
     }
 
@@ -2,22 +2,27 @@ package ch.unibas.dmi.dbis.cs108.server.networking;
 
 import ch.unibas.dmi.dbis.cs108.SETTINGS;
 import ch.unibas.dmi.dbis.cs108.client.networking.events.ConnectionEvent;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.protocol.CommandHandler;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommandTokenizer;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.ErrorsAPI;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 /**
@@ -35,6 +40,8 @@ public class ClientHandler implements Runnable, CommunicationAPI {
     private static final int STATE_DISCONNECTED = 1;
     /** Connection state shutdown */
     private static final int STATE_SHUTDOWN = 2;
+    /** Maximum time to wait for queued messages to be written before the connection is closed */
+    private static final long DRAIN_TIMEOUT_MS = 500;
     /** Reference to a CommandHandler */
     private final CommandHandler ch;
     /** reference to the server */
@@ -45,17 +52,29 @@ public class ClientHandler implements Runnable, CommunicationAPI {
     protected Player localPlayer = null;
     /** The socket for the client connection */
     private Socket socket;
-    /** PrintWriter for sending messages to the client */
+    /** PrintWriter for sending messages to the client before the writer task runs */
     private PrintWriter out;
+    /** Buffered byte stream the writer task writes pre-encoded frames to, shared with {@link #out} */
+    private BufferedOutputStream output;
     /** BufferedReader for receiving messages from the client */
     private BufferedReader in;
+    /** Non-blocking connection, only set if the server uses the {@link NioTransport} */
+    private NioConnection connection;
+    /** Outgoing frames drained by the writer task, so slow clients do not block broadcasting threads */
+    private final OutboundQueue<Frame> outbound = new OutboundQueue<>();
+    /** Flag indicating whether the writer task has been started */
+    private volatile boolean writerStarted = false;
+    /** Tokenizer reused for every message received on this connection */
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
     /** Last time a ping was sent */
     private long lastPingTime = System.currentTimeMillis();
-    /** Timeout scheduler */
-    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor();
+    /** Pending reconnect grace period on the server's timing wheel, null while connected */
+    private volatile TimerWheel.Timeout reconnectTimeout;
     /** 0 if the player is connected, otherwise the currentMillis of the last disconnection */
     public long lastDisconnectionTime;
     private volatile int connectionState = STATE_CONNECTED;
+    /** Guards the connection state transitions, a lock instead of a monitor so virtual threads do not pin */
+    private final ReentrantLock stateLock = new ReentrantLock();
 
     /**
      * Constructor for the ClientHandler class.
@@ -70,7 +89,8 @@ public class ClientHandler implements Runnable, CommunicationAPI {
         this.ch = new CommandHandler(this);
         try {
             socket.setSoTimeout(SETTINGS.Config.TIMEOUT.getValue());
-            out = new PrintWriter(socket.getOutputStream(), true);
+            output = new BufferedOutputStream(socket.getOutputStream());
+            out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), false);
             in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
         } catch (IOException e) {
             logger.severe("Error setting up client handler: " + e.getMessage());
@@ -79,6 +99,32 @@ public class ClientHandler implements Runnable, CommunicationAPI {
         }
     }
 
+    /**
+     * Constructor for a ClientHandler served by the non-blocking transport.
+     * The handler does not need its own thread; received lines are passed in via {@link #onLine(String)}.
+     *
+     * @param connection the non-blocking connection of the client
+     * @param server     the GameServer
+     */
+    ClientHandler(NioConnection connection, GameServer server) {
+        logger.setFilter(new PingFilter());
+        this.connection = connection;
+        this.server = server;
+        this.ch = new CommandHandler(this);
+    }
+
+    /**
+     * Constructor for a ClientHandler without a connection, e.g. for a player hosted by the server.
+     * Subclasses decide what happens to the messages sent to the client by overriding
+     * {@link #sendMessage(String)} and {@link #sendFrame(Frame)}.
+     *
+     * @param server the GameServer
+     */
+    protected ClientHandler(GameServer server) {
+        this.server = server;
+        this.ch = new CommandHandler(this);
+    }
+
     /**
      * The run method is called when the thread is started.
      * It listens for messages from the client and processes them.
@@ -86,6 +132,7 @@ public class ClientHandler implements Runnable, CommunicationAPI {
      */
     @Override
     public void run() {
+        startWriter();
         try {
             while (connectionState != STATE_SHUTDOWN) {
                 String received;
@@ -96,12 +143,7 @@ public class ClientHandler implements Runnable, CommunicationAPI {
                         break;
                     }
 
-                    if (connectionState == STATE_DISCONNECTED) {
-                        reconnect();
-                    }
-
-                    processMessage(received);
-                    lastPingTime = System.currentTimeMillis();
+                    onLine(received);
 
                 } catch (IOException e) {
                     if (connectionState != STATE_SHUTDOWN) {
@@ -115,6 +157,75 @@ public class ClientHandler implements Runnable, CommunicationAPI {
         }
     }
 
+    /**
+     * Handles a single line received from the client.
+     * Used by the blocking read loop as well as by the non-blocking transport.
+     *
+     * @param received the received line without the line terminator
+     */
+    void onLine(String received) {
+        if (connectionState == STATE_SHUTDOWN) return;
+        if (connectionState == STATE_DISCONNECTED) {
+            reconnect();
+        }
+
+        processMessage(received);
+        lastPingTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Called by the non-blocking transport when the remote end closed the connection.
+     */
+    void onConnectionClosed() {
+        try {
+            if (connectionState != STATE_SHUTDOWN) {
+                disconnect();
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Starts the writer task that drains the outbound queue on the server's executor.
+     * Until it runs, messages are written synchronously by the calling thread.
+     * <p>
+     * The task occupies a thread of the executor for the whole connection. In {@link GameServer.TransportMode#BLOCKING}
+     * that is a second platform thread per client next to the reader, with its own stack; the cost is taken so a
+     * client whose socket buffer is full never blocks the lobby that broadcasts to it. In
+     * {@link GameServer.TransportMode#VIRTUAL} the writer is a virtual thread.
+     */
+    private void startWriter() {
+        if (output == null || writerStarted) return;
+        try {
+            server.getExecutor().execute(this::writeLoop);
+            writerStarted = true;
+        } catch (RejectedExecutionException e) {
+            logger.warning("Could not start writer, writing synchronously: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes queued frames until the queue is closed. The stream is flushed once the queue runs empty,
+     * so bursts of broadcasts are sent together.
+     */
+    private void writeLoop() {
+        try {
+            Frame frame;
+            while ((frame = outbound.take()) != null) {
+                output.write(frame.bytes());
+                if (outbound.isEmpty()) {
+                    output.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.fine("Error writing to client: " + e.getMessage());
+            disconnect();
+        }
+    }
+
     /**
      * Sends a START command to the client to initiate game start
      */
@@ -125,64 +236,124 @@ public class ClientHandler implements Runnable, CommunicationAPI {
     /**
      * Sends a message to the client indicating that the connection has been lost.
      */
-    public synchronized void shutdown() {
-        if (connectionState != STATE_SHUTDOWN) {
-            connectionState = STATE_SHUTDOWN;
-            timeoutScheduler.shutdownNow();
-            closeResources();
+    public void shutdown() {
+        if (writerStarted && connectionState != STATE_SHUTDOWN) {
+            try {
+                outbound.awaitDrained(DRAIN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        stateLock.lock();
+        try {
+            if (connectionState != STATE_SHUTDOWN) {
+                connectionState = STATE_SHUTDOWN;
+                cancelReconnectTimeout();
+                outbound.close();
+                closeResources();
+            }
+        } finally {
+            stateLock.unlock();
         }
     }
 
     /**
      * Transition to connected state
      */
-    public synchronized void reconnect() {
-        connectionState = STATE_CONNECTED;
-        if (currentLobby != null) {
-            currentLobby.broadcastMessage("RECO$" + getPlayerName());
-        }
+    public void reconnect() {
+        stateLock.lock();
+        try {
+            connectionState = STATE_CONNECTED;
+            cancelReconnectTimeout();
+            if (currentLobby != null) {
+                currentLobby.broadcastMessage("RECO$" + getPlayerName());
+                // Deltas may have been missed while disconnected, send the full state
+                if (currentLobby.getStatus().equals(Lobby.LobbyStatus.IN_GAME.getStatus())) {
+                    Lobby lobby = currentLobby;
+                    lobby.getMailbox().execute(() -> {
+                        GameLogic gameLogic = lobby.getGameLogic();
+                        if (gameLogic != null) {
+                            for (String chunk : gameLogic.getGameState().createDetailedStatusMessages()) {
+                                sendMessage(chunk);
+                            }
+                        }
+                    });
+                }
+            }
 
-        logger.info("Player " + localPlayer.getName() + " has reconnected.");
+            logger.info("Player " + localPlayer.getName() + " has reconnected.");
+        } finally {
+            stateLock.unlock();
+        }
     }
 
-    /*
+    /**
+     * Called on the server executor when the reconnect grace period has passed.
+     * Removes the client if it is still disconnected. Only the state is checked under the lock, the removal and
+     * the drain of the queue in {@link #shutdown()} run after it is released, so they cannot block a reconnect or
+     * a disconnect of this client. The game was already asked to end by {@link #disconnect()}.
+     */
     private void checkReconnectionTimeout() {
-        if (connectionState == STATE_DISCONNECTED) {
-            if (currentLobby != null) {
-                currentLobby.endGame();
-                currentLobby.removePlayer(this);
+        Lobby lobby;
+        stateLock.lock();
+        try {
+            if (connectionState != STATE_DISCONNECTED) {
+                return;
             }
-            server.removeClient(this);
-            shutdown();
+            reconnectTimeout = null;
+            lobby = currentLobby;
+        } finally {
+            stateLock.unlock();
         }
-    }*/
+        if (lobby != null) {
+            lobby.removePlayer(this);
+        }
+        server.removeClient(this);
+        shutdown();
+    }
+
+    /**
+     * Cancels the pending reconnect grace period, if any.
+     */
+    private void cancelReconnectTimeout() {
+        TimerWheel.Timeout timeout = reconnectTimeout;
+        if (timeout != null) {
+            timeout.cancel();
+            reconnectTimeout = null;
+        }
+    }
 
     /**
      * Transition to disconnected state
      */
-    public synchronized void disconnect() {
-        if (connectionState == STATE_CONNECTED) {
-            connectionState = STATE_DISCONNECTED;
-            lastDisconnectionTime = System.currentTimeMillis();
+    public void disconnect() {
+        stateLock.lock();
+        try {
+            if (connectionState == STATE_CONNECTED) {
+                connectionState = STATE_DISCONNECTED;
+                lastDisconnectionTime = System.currentTimeMillis();
 
-            // Notify lobby
-            if (currentLobby != null) {
-                currentLobby.broadcastMessage("DISC$" + getPlayerName());
-                if (currentLobby.getStatus().equals(Lobby.LobbyStatus.IN_GAME.getStatus())) {
-                    currentLobby.endGame(); // current implementation: game ends immediately, no reconnect possible
-                }
-                else if (currentLobby.getStatus().equals(Lobby.LobbyStatus.IN_LOBBY.getStatus())) {
-                    currentLobby.removePlayer(this);
+                // Notify lobby
+                if (currentLobby != null) {
+                    currentLobby.broadcastMessage("DISC$" + getPlayerName());
+                    if (currentLobby.getStatus().equals(Lobby.LobbyStatus.IN_GAME.getStatus())) {
+                        currentLobby.requestEndGame(); // current implementation: game ends immediately, no reconnect possible
+                    }
+                    else if (currentLobby.getStatus().equals(Lobby.LobbyStatus.IN_LOBBY.getStatus())) {
+                        currentLobby.removePlayer(this);
+                    }
                 }
+                reconnectTimeout = TimerWheel.getDefault().schedule(
+                        this::checkReconnectionTimeout,
+                        SETTINGS.Config.GRACE_PERIOD.getValue(),
+                        TimeUnit.MILLISECONDS,
+                        server.getExecutor() // removing the client blocks while its queue drains
+                );
+
+                logger.info("Player " + localPlayer.getName() + " has disconnected.");
             }
-            /*
-            timeoutScheduler.schedule(
-                    this::checkReconnectionTimeout,
-                    SETTINGS.Config.GRACE_PERIOD.getValue(),
-                    TimeUnit.MILLISECONDS
-            );*/
-
-            logger.info("Player " + localPlayer.getName() + " has disconnected.");
+        } finally {
+            stateLock.unlock();
         }
     }
 
@@ -191,6 +362,7 @@ public class ClientHandler implements Runnable, CommunicationAPI {
      */
     private void closeResources() {
         try {
+            if (connection != null) connection.close();
             if (out != null) out.close();
             if (in != null) in.close();
             if (socket != null && !socket.isClosed()) socket.close();
@@ -201,16 +373,61 @@ public class ClientHandler implements Runnable, CommunicationAPI {
 
     /**
      * Sends a String message to the client.
+     * Once the writer task runs, the message is only enqueued; a client whose queue is full or stays too long
+     * above the high water mark is disconnected as a slow consumer.
      *
      * @param message the message String to send
      */
     @Override
     public void sendMessage(String message) {
+        if (connection == null && !writerStarted) {
+            writeSynchronously(message);
+        } else {
+            sendFrame(Frame.of(message));
+        }
+    }
+
+    /**
+     * Sends a pre-encoded frame to the client. Used by broadcasts, so a message sent to many clients
+     * is encoded only once.
+     *
+     * @param frame the frame to send
+     */
+    public void sendFrame(Frame frame) {
+        if (connectionState == STATE_SHUTDOWN) return;
+        if (connection == null && !writerStarted) {
+            writeSynchronously(frame.text());
+            return;
+        }
+
+        try {
+            if (connection != null) {
+                if (connection.write(frame)) return;
+            } else {
+                OutboundQueue.Result result = outbound.offer(frame);
+                if (result == OutboundQueue.Result.QUEUED) return;
+                // A dropped message may not be resent, e.g. STRT or ENDG, so a full queue disconnects too
+                logger.warning("Slow consumer" + (result == OutboundQueue.Result.DROPPED ? ", queue full" : "")
+                        + ", disconnecting " + getPlayerName());
+            }
+        } catch (Exception e) {
+            logger.fine("Error sending message: " + e.getMessage());
+        }
+        disconnect();
+    }
+
+    /**
+     * Writes a message on the calling thread, used until the writer task has been started.
+     *
+     * @param message the message String to send
+     */
+    private void writeSynchronously(String message) {
         if (connectionState == STATE_SHUTDOWN) return;
 
         try {
             if (out != null && !out.checkError()) {
                 out.println(message);
+                out.flush();
                 return;
             }
         } catch (Exception e) {
@@ -219,6 +436,36 @@ public class ClientHandler implements Runnable, CommunicationAPI {
         disconnect();
     }
 
+    /**
+     * Returns the number of messages waiting to be written to the client.
+     *
+     * @return the outbound queue depth
+     */
+    public int getOutboundQueueDepth() {
+        return connection != null ? connection.queueDepth() : outbound.depth();
+    }
+
+    /**
+     * Returns the number of messages dropped because the client's outbound queue was full.
+     *
+     * @return the dropped message count
+     */
+    public long getDroppedMessages() {
+        return connection != null ? connection.droppedMessages() : outbound.getDropped();
+    }
+
+    /**
+     * Checks whether messages can still be written to the client.
+     *
+     * @return true if the output stream or channel is still usable
+     */
+    private boolean isOutputOpen() {
+        if (connection != null) {
+            return connection.isOpen();
+        }
+        return out != null && !out.checkError();
+    }
+
     /**
      * Sends a global chat message to all players in the server.
      *
@@ -233,7 +480,7 @@ public class ClientHandler implements Runnable, CommunicationAPI {
      * If the client does not respond within the timeout period, the client is disconnected.
      */
     public void sendPing() {
-        if (out == null || out.checkError()) {
+        if (!isOutputOpen()) {
             disconnect();
             return;
         }
@@ -318,14 +565,14 @@ public class ClientHandler implements Runnable, CommunicationAPI {
             sendMessage("ERR$103$Null");
             return;
         }
-        Command cmd = new Command(received, localPlayer);
+        Command cmd = new Command(received, localPlayer, tokenizer);
         if (cmd.isValid()) {
             if (cmd.isAdministrative()) {
                 processAdminCommand(cmd);
             } else {
                 if (currentLobby != null) {
                     if (Objects.equals(currentLobby.getStatus(), Lobby.LobbyStatus.IN_GAME.getStatus())) {
-                        ch.getGameLogic().processCommand(cmd);
+                        currentLobby.processGameCommand(cmd);
                     } else {
                         sendMessage("ERR$" + ErrorsAPI.Errors.NOT_IN_GAME.getError());
                     }
@@ -344,10 +591,8 @@ public class ClientHandler implements Runnable, CommunicationAPI {
      * @param cmd The command received from the client.
      */
     private void processAdminCommand(Command cmd) {
-        NetworkProtocol.Commands command;
-        try {
-            command = NetworkProtocol.Commands.fromCommand(cmd.getCommand());
-        } catch (IllegalArgumentException e) {
+        NetworkProtocol.Commands command = cmd.getCommandType();
+        if (command == null) {
             logger.warning("Protocol-Unknown command: " + cmd.getCommand());
             return;
         }
@@ -371,7 +616,7 @@ public class ClientHandler implements Runnable, CommunicationAPI {
                 break;
             case LEADERBOARD:
                 answer = false;
-                worked = ch.handleGetLeaderboard();
+                worked = ch.handleGetLeaderboard(cmd);
                 break;
             case TEST:
                 answer = false;
@@ -399,6 +644,10 @@ public class ClientHandler implements Runnable, CommunicationAPI {
                 answer = false;
                 worked = ch.handleStartGame();
                 break;
+            case ADDBOT:
+                answer = false;
+                worked = ch.handleAddBot();
+                break;
             case CHANGENAME:
                 answer = false;
                 worked = ch.handleChangeName(cmd);
@@ -0,0 +1,79 @@
+package ch.unibas.dmi.dbis.cs108.server.networking;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An immutable, pre-encoded protocol line including its line terminator.
+ * A broadcast encodes the message once and hands the same frame to every recipient,
+ * instead of letting each connection encode the same string again.
+ */
+public final class Frame {
+    /** The message without the line terminator */
+    private final String text;
+    /** The UTF-8 encoded message including the line terminator, never modified */
+    private final byte[] bytes;
+
+    /**
+     * Private constructor, use {@link #of(String)}.
+     */
+    private Frame(String text, byte[] bytes) {
+        this.text = text;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Encodes a message into a frame. A null message is encoded as "null", like PrintWriter.println does.
+     *
+     * @param message the message without the line terminator
+     * @return the encoded frame
+     */
+    public static Frame of(String message) {
+        String text = String.valueOf(message);
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[encoded.length + 1];
+        System.arraycopy(encoded, 0, bytes, 0, encoded.length);
+        bytes[encoded.length] = '\n';
+        return new Frame(text, bytes);
+    }
+
+    /**
+     * Returns the message without the line terminator.
+     *
+     * @return the message
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * Returns a new read-only view of the encoded bytes. Each recipient needs its own view,
+     * as the position is advanced while writing; the bytes themselves are shared.
+     *
+     * @return a buffer positioned at the start of the frame
+     */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the number of encoded bytes including the line terminator.
+     *
+     * @return the frame length
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Returns the encoded bytes. The array is shared and must not be modified.
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
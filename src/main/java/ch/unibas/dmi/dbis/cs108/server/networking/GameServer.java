@@ -2,54 +2,131 @@ package ch.unibas.dmi.dbis.cs108.server.networking;
 
 import ch.unibas.dmi.dbis.cs108.SETTINGS;
 import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Mailbox;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.PingFilter;
 
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
  * The GameServer class is responsible for managing the clients and their connections.
  * It listens for incoming connections and creates a new ClientHandler for each client.
+ * <p>
+ * Clients are indexed by the name of their player and lobbies by their id in concurrent hash maps, so lookups,
+ * connects and disconnects take constant time. Player names are reserved atomically in the name index
+ * (see {@link #reservePlayerName(String, ClientHandler)}), which makes a name unique without a global lock.
+ * <p>
+ * Running games are journaled (see {@link GameJournal}). When the server starts, the games left in the journal
+ * directory by a crashed server are replayed, and their players get their seats back with a reconnect.
  */
 public class GameServer {
     /** Logger instance for server logging */
     private static final Logger logger = Logger.getLogger(GameServer.class.getName());
-    /** Scheduler for periodic ping tasks to check client connection */
-    private final ScheduledExecutorService pingScheduler;
+    /** Shared timing wheel for the ping checks, turn deadlines and reconnect grace periods */
+    private final TimerWheel timers;
     /** The port number on which the server listens for connections. */
     private final int port;
     /** Thread pool executor for handling client connections */
     private final ExecutorService executor;
-    /** Thread-safe list of currently connected clients */
-    private final List<ClientHandler> clients;
-    /** Thread-safe list of active game lobbies */
-    private final List<Lobby> lobbies;
+    /** The pool the mailboxes of the lobbies run on, on virtual threads in {@link TransportMode#VIRTUAL} */
+    private final ExecutorService lobbyPool;
+    /** Thread-safe set of currently connected clients, including disconnected ones within their grace period */
+    private final Set<ClientHandler> clients;
+    /** The clients by the name of their player, the owner of a name is the client it is reserved for */
+    private final ConcurrentMap<String, ClientHandler> clientsByName;
+    /** Active game lobbies by their id */
+    private final ConcurrentMap<String, Lobby> lobbies;
+    /** Collection view of the clients that keeps the name index up to date */
+    private final Collection<ClientHandler> clientView = new ClientView();
     /** Leaderboard (global) */
     private final Leaderboard leaderboard;
+    /** The directory of the game journals, null if games are not journaled */
+    private final Path journalDirectory;
+    /** The map the boards of new lobbies are created from */
+    private volatile MapDefinition map = MapDefinition.getDefault();
+    /** The recovered games by the names of the players that have not taken their seat again */
+    private final ConcurrentMap<String, Lobby> recoveredSeats = new ConcurrentHashMap<>();
+    /** How client connections are served */
+    private final TransportMode mode;
     /** Flag indicating whether the server is currently running */
     private volatile boolean running;
     /** The server socket used to accept client connections */
     private ServerSocket serverSocket;
+    /** The non-blocking transport, only used in {@link TransportMode#NIO} */
+    private NioTransport transport;
+    /** The periodic ping check */
+    private TimerWheel.Timeout pingTimeout;
 
     /**
      * Constructs a new GameServer instance that will listen on the specified port.
+     * Games are not journaled.
      *
      * @param port The port number to listen on
      */
     public GameServer(int port) {
+        this(port, TransportMode.BLOCKING);
+    }
+
+    /**
+     * Constructs a new GameServer instance that will listen on the specified port
+     * and serve its clients in the given transport mode. Games are not journaled.
+     *
+     * @param port The port number to listen on
+     * @param mode The transport mode
+     * @see TransportMode
+     */
+    public GameServer(int port, TransportMode mode) {
+        this(port, mode, null);
+    }
+
+    /**
+     * Constructs a new GameServer instance that will listen on the specified port, serve its clients
+     * in the given transport mode and journal its games in the given directory.
+     *
+     * @param port             The port number to listen on
+     * @param mode             The transport mode
+     * @param journalDirectory The directory of the game journals, null to not journal games
+     */
+    public GameServer(int port, TransportMode mode, Path journalDirectory) {
         logger.setFilter(new PingFilter());
         this.port = port;
-        clients = new CopyOnWriteArrayList<>();
-        executor = Executors.newCachedThreadPool();
-        this.pingScheduler = Executors.newScheduledThreadPool(1);
-        this.lobbies = new CopyOnWriteArrayList<>();
+        this.mode = mode;
+        clients = ConcurrentHashMap.newKeySet();
+        clientsByName = new ConcurrentHashMap<>();
+        executor = mode == TransportMode.VIRTUAL ? VirtualThreads.newPerTaskExecutor() : Executors.newCachedThreadPool();
+        lobbyPool = mode == TransportMode.VIRTUAL ? Mailbox.newPool(VirtualThreads.factory("lobby-"))
+                : Mailbox.getDefaultPool();
+        this.timers = TimerWheel.getDefault();
+        this.lobbies = new ConcurrentHashMap<>();
         this.leaderboard = new Leaderboard();
+        this.journalDirectory = journalDirectory;
+    }
+
+    /**
+     * Returns the directory of the game journals in the user's home directory, next to the leaderboard.
+     * The games found there are recovered when a server journaling to it starts.
+     *
+     * @return the path of the journal directory
+     */
+    public static Path defaultJournalDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".settlersOfAsgard", "games");
     }
 
     /**
@@ -57,23 +134,32 @@ public class GameServer {
      */
     public void start() {
         running = true;
+        recoverGames();
         try {
-            serverSocket = new ServerSocket(port);
-            logger.info("Server started on port " + port);
-
             // Schedule ping task to check if clients are still connected
-            pingScheduler.scheduleAtFixedRate(
+            pingTimeout = timers.scheduleAtFixedRate(
                     this::checkClientConnections,
                     SETTINGS.Config.PING_INTERVAL.getValue(),
                     SETTINGS.Config.PING_INTERVAL.getValue(),
-                    TimeUnit.MILLISECONDS
+                    TimeUnit.MILLISECONDS,
+                    executor
             );
 
+            if (mode == TransportMode.NIO) {
+                transport = new NioTransport(this, port);
+                logger.info("Server started on port " + port);
+                transport.start();
+                return;
+            }
+
+            serverSocket = new ServerSocket(port);
+            logger.info("Server started on port " + port + " (" + mode + ")");
+
             while (running) {
                 try {
                     logger.info("Waiting for client connection...");
                     ClientHandler client = new ClientHandler(serverSocket.accept(), this);
-                    clients.add(client);
+                    addClient(client);
                     executor.execute(client);
                 } catch (SocketException se) {
                     if (!running) {
@@ -94,13 +180,19 @@ public class GameServer {
      */
     public void shutdown() {
         running = false;
-        pingScheduler.shutdown();
+        if (pingTimeout != null) pingTimeout.cancel();
         // Disconnect all clients
         broadcast("STDN$");
-        pingScheduler.shutdown();
         executor.shutdown();
         clients.forEach(ClientHandler::shutdown);
         clients.clear();
+        clientsByName.clear();
+        if (transport != null) transport.close();
+        // Keep the journals of running games, they are recovered on the next start
+        lobbies.values().forEach(Lobby::closeJournal);
+        // The shared pool of the platform threads serves the lobbies of every server of the process
+        if (lobbyPool != Mailbox.getDefaultPool()) lobbyPool.shutdown();
+        leaderboard.close();
         try {
             if (serverSocket != null) serverSocket.close();
         } catch (IOException e) {
@@ -122,24 +214,46 @@ public class GameServer {
 
     /**
      * Broadcasts a message to all connected clients.
+     * The message is encoded once and the same frame is handed to every client.
      *
      * @param message The message to broadcast
      */
     public void broadcast(String message) {
+        Frame frame = Frame.of(message);
         clients.stream()
                 .filter(ClientHandler::isConnected)
                 .forEach(client -> {
-                    client.sendMessage(message);
+                    client.sendFrame(frame);
                 });
     }
 
     /**
-     * Removes a client from the list of connected clients.
+     * Adds a client to the connected clients.
+     * If the client already has a player, its name is indexed unless it is reserved for another client.
+     *
+     * @param client The client to add
+     * @return true if the client was not connected yet
+     */
+    public boolean addClient(ClientHandler client) {
+        if (!clients.add(client)) {
+            return false;
+        }
+        if (client.getPlayer() != null) {
+            String name = client.getPlayerName();
+            if (name != null) {
+                clientsByName.putIfAbsent(name, client);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a client from the list of connected clients and releases the name of its player.
      *
      * @param client The client to remove
      */
     public void removeClient(ClientHandler client) {
-        if (clients.remove(client)) {
+        if (unregisterClient(client)) {
             // Only remove from lobby if client is shutting down completely
             if (client.isShutdown()) {
                 Lobby clientLobby = client.getCurrentLobby();
@@ -154,6 +268,94 @@ public class GameServer {
         }
     }
 
+    /**
+     * Removes a client from the connected clients and the name index.
+     *
+     * @param client The client to remove
+     * @return true if the client was connected
+     */
+    private boolean unregisterClient(Object client) {
+        if (!clients.remove(client)) {
+            return false;
+        }
+        String name = ((ClientHandler) client).getPlayerName();
+        if (name != null) {
+            clientsByName.remove(name, client);
+        }
+        return true;
+    }
+
+    /**
+     * Reserves a player name for a client.
+     * If the name is already reserved for another client, the first free name of the form name2, name3, ... is
+     * reserved instead. The reservation is atomic, so two clients never get the same name.
+     *
+     * @param name   The requested name
+     * @param client The client to reserve the name for
+     * @return The reserved name, either the requested one or one with a suffix
+     */
+    public String reservePlayerName(String name, ClientHandler client) {
+        if (tryReserve(name, client)) {
+            return name;
+        }
+        for (int suffix = 2; ; suffix++) {
+            String candidate = name + suffix;
+            if (tryReserve(candidate, client)) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Reserves a name for a client if it is free or already reserved for that client.
+     */
+    private boolean tryReserve(String name, ClientHandler client) {
+        ClientHandler owner = clientsByName.putIfAbsent(name, client);
+        return owner == null || owner == client;
+    }
+
+    /**
+     * Releases a player name, if it is reserved for the given client.
+     *
+     * @param name   The name to release
+     * @param client The client the name is reserved for
+     */
+    public void releasePlayerName(String name, ClientHandler client) {
+        if (name != null) {
+            clientsByName.remove(name, client);
+        }
+    }
+
+    /**
+     * Changes the name reserved for a client. The new name is reserved like in
+     * {@link #reservePlayerName(String, ClientHandler)} before the old one is released.
+     *
+     * @param client  The client changing its name
+     * @param oldName The current name of the client's player, may be null
+     * @param newName The requested name
+     * @return The reserved name, either the requested one or one with a suffix
+     */
+    public String changePlayerName(ClientHandler client, String oldName, String newName) {
+        String reserved = reservePlayerName(newName, client);
+        if (!reserved.equals(oldName)) {
+            releasePlayerName(oldName, client);
+        }
+        return reserved;
+    }
+
+    /**
+     * Moves a player name to the client that took over the player after a reconnect.
+     *
+     * @param name      The name of the player
+     * @param oldClient The client of the lost connection
+     * @param newClient The client of the new connection
+     */
+    public void transferPlayerName(String name, ClientHandler oldClient, ClientHandler newClient) {
+        if (name != null) {
+            clientsByName.replace(name, oldClient, newClient);
+        }
+    }
+
     /**
      * Returns the port, the serverStatus (running or not) and the number of connected clients.
      *
@@ -169,13 +371,55 @@ public class GameServer {
     }
 
     /**
-     * Returns a list of all connected clients.
+     * Returns all connected clients. Adding to or removing from the returned collection
+     * is the same as calling {@link #addClient(ClientHandler)} or removing the client with its name.
      *
-     * @return A list of connected clients as ClientHandler objects
+     * @return A live collection of connected clients as ClientHandler objects
      * @see ClientHandler
      */
-    public List<ClientHandler> getClients() {
-        return clients;
+    public Collection<ClientHandler> getClients() {
+        return clientView;
+    }
+
+    /**
+     * Returns the number of messages waiting to be written over all clients.
+     *
+     * @return the summed outbound queue depth
+     */
+    public int getOutboundQueueDepth() {
+        int depth = 0;
+        for (ClientHandler client : clients) {
+            depth += client.getOutboundQueueDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of outgoing messages dropped because a client's queue was full.
+     *
+     * @return the total dropped message count
+     */
+    public long getDroppedMessages() {
+        return OutboundQueue.getTotalDropped();
+    }
+
+    /**
+     * Returns the number of clients disconnected as slow consumers.
+     *
+     * @return the total eviction count
+     */
+    public long getSlowConsumerEvictions() {
+        return OutboundQueue.getTotalEvictions();
+    }
+
+    /**
+     * Sets the map the boards of lobbies created from now on are created from. Running games and recovered games
+     * keep their map.
+     *
+     * @param map The map
+     */
+    public void setMap(MapDefinition map) {
+        this.map = map;
     }
 
     /**
@@ -187,16 +431,91 @@ public class GameServer {
      * @see Lobby
      */
     public Lobby createLobby(String id, int maxPlayers) {
-        if (getLobby(id) != null) { // If lobby with id already exists
+        Lobby lobby = new Lobby(id, maxPlayers, leaderboard, timers, lobbyPool, journalDirectory, map);
+        if (lobbies.putIfAbsent(id, lobby) != null) { // If lobby with id already exists
             logger.warning("Lobby with id " + id + " already exists");
             return null;
         }
-        Lobby lobby = new Lobby(id, maxPlayers, leaderboard);
-        lobbies.add(lobby);
         logger.info("Created new Lobby: " + id);
         return lobby;
     }
 
+    /**
+     * Rebuilds the games found in the journal directory, e.g. after the server crashed. Every game is replayed
+     * into a new lobby, which waits for its players to reconnect. Journals of ended or unreadable games are deleted.
+     */
+    public void recoverGames() {
+        List<Path> files;
+        try {
+            files = GameJournal.list(journalDirectory);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not list game journals in " + journalDirectory, e);
+            return;
+        }
+        for (Path file : files) {
+            try {
+                GameJournal.Recovery recovery = GameJournal.read(file);
+                if (recovery == null || !recoverGame(recovery)) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Could not recover game from " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Replays a journaled game into a new lobby and reserves the seats of its players.
+     *
+     * @param recovery the records read from the journal
+     * @return true if the game is in progress and was added, false if the journal is no longer needed
+     */
+    private boolean recoverGame(GameJournal.Recovery recovery) {
+        String id = recovery.start().lobbyId();
+        int playerCount = recovery.start().players().size();
+        if (lobbies.containsKey(id)) {
+            logger.warning("Lobby " + id + " already exists, journaled game not recovered");
+            return true;
+        }
+        Lobby lobby = new Lobby(id, playerCount, leaderboard, timers, lobbyPool, journalDirectory);
+        if (!lobby.recover(recovery)) {
+            return false;
+        }
+        lobbies.put(id, lobby);
+        // The names may have changed during the game
+        for (Player player : lobby.getGameLogic().getGameState().getPlayers()) {
+            recoveredSeats.put(player.getName(), lobby);
+        }
+        return true;
+    }
+
+    /**
+     * Seats a reconnecting player in the recovered game the player was playing in before the server restarted.
+     * The name of the player is reserved for the client.
+     *
+     * @param playerName The name of the player in the recovered game
+     * @param client     The client of the reconnecting player
+     * @return The lobby of the recovered game, null if there is no free seat for the player
+     */
+    public Lobby resumeRecoveredGame(String playerName, ClientHandler client) {
+        Lobby lobby = recoveredSeats.get(playerName);
+        if (lobby == null || !tryReserve(playerName, client)) {
+            return null;
+        }
+        String oldName = client.getPlayerName();
+        Player oldPlayer = client.getPlayer();
+        client.setPlayer(new Player(playerName));
+        if (!recoveredSeats.remove(playerName, lobby) || !lobby.rejoinPlayer(client)) {
+            client.setPlayer(oldPlayer);
+            releasePlayerName(playerName, client);
+            return null;
+        }
+        if (oldName != null && !oldName.equals(playerName)) {
+            releasePlayerName(oldName, client);
+        }
+        return lobby;
+    }
+
     /**
      * Returns the lobby with the given id.
      *
@@ -205,12 +524,7 @@ public class GameServer {
      * @see Lobby
      */
     public Lobby getLobby(String id) {
-        for (Lobby lobby : lobbies) {
-            if (lobby.getId().equals(id)) {
-                return lobby;
-            }
-        }
-        return null;
+        return id == null ? null : lobbies.get(id);
     }
 
     /**
@@ -220,17 +534,7 @@ public class GameServer {
      * @return true if a player with this name exists, false otherwise
      */
     public boolean containsPlayerName(String playerName) {
-        if (playerName == null) {
-            return false;
-        }
-        for (ClientHandler client : clients) {
-            if (client.getPlayer() != null) {
-                if (client.getPlayerName().equals(playerName)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return playerName != null && clientsByName.containsKey(playerName);
     }
 
     /**
@@ -240,18 +544,18 @@ public class GameServer {
      * @see Lobby
      */
     public void removeLobby(Lobby lobby) {
-        lobbies.remove(lobby);
+        lobbies.remove(lobby.getId(), lobby);
         logger.info("Removed Lobby :" + lobby.getId());
     }
 
     /**
-     * Returns a list of all lobbies.
+     * Returns all lobbies.
      *
-     * @return A list of all lobbies as Lobby objects
+     * @return A live, unordered collection of all lobbies as Lobby objects
      * @see Lobby
      */
-    public List<Lobby> getLobbies() {
-        return lobbies;
+    public Collection<Lobby> getLobbies() {
+        return lobbies.values();
     }
 
     /**
@@ -279,6 +583,24 @@ public class GameServer {
         return running;
     }
 
+    /**
+     * Checks if the server uses the non-blocking transport.
+     *
+     * @return true if clients are served by event loops instead of dedicated threads
+     */
+    public boolean isNonBlocking() {
+        return mode == TransportMode.NIO;
+    }
+
+    /**
+     * Gets the transport mode of the server.
+     *
+     * @return the transport mode
+     */
+    public TransportMode getTransportMode() {
+        return mode;
+    }
+
     /**
      * Gets the executor.
      *
@@ -289,12 +611,12 @@ public class GameServer {
     }
 
     /**
-     * Gets the pingScheduler.
+     * Gets the timing wheel used for ping checks, turn deadlines and reconnect grace periods.
      *
-     * @return the pingScheduler.
+     * @return the timing wheel.
      */
-    public ScheduledExecutorService getPingScheduler() {
-        return pingScheduler;
+    public TimerWheel getTimers() {
+        return timers;
     }
 
     /**
@@ -310,14 +632,87 @@ public class GameServer {
      * Finds a client handler by player name, even if disconnected
      *
      * @param playerName The name of the player to find
-     *
-     *                   @return The ClientHandler object associated with the player name, or null if not found
+     * @return The ClientHandler object associated with the player name, or null if not found
      */
-                        public ClientHandler findClientHandler(String playerName) {
-        return clients.stream()
-                .filter(c -> c.getPlayer() != null)
-                .filter(c -> playerName.equals(c.getPlayerName()))
-                .findFirst()
-                .orElse(null);
+    public ClientHandler findClientHandler(String playerName) {
+        return playerName == null ? null : clientsByName.get(playerName);
+    }
+
+    /**
+     * Collection view of the connected clients that keeps the name index in sync.
+     */
+    private final class ClientView extends AbstractCollection<ClientHandler> {
+        @Override
+        public Iterator<ClientHandler> iterator() {
+            Iterator<ClientHandler> iterator = clients.iterator();
+            return new Iterator<>() {
+                private ClientHandler current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public ClientHandler next() {
+                    current = iterator.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    unregisterClient(current);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return clients.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return clients.contains(o);
+        }
+
+        @Override
+        public boolean add(ClientHandler client) {
+            return addClient(client);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof ClientHandler && unregisterClient(o);
+        }
+    }
+
+    /**
+     * The ways the server can serve its client connections.
+     */
+    public enum TransportMode {
+        /** Two platform threads per client, one for blocking reads and one for writes (default) */
+        BLOCKING,
+        /** Selector based event loops, one per core */
+        NIO,
+        /** One virtual thread per client and for the lobby turn work, requires Java 21 */
+        VIRTUAL;
+
+        /**
+         * Parses a transport mode from a command line argument.
+         *
+         * @param value the argument, e.g. "nio" or "virtual"
+         * @return the matching mode, BLOCKING if the value is null or unknown
+         */
+        public static TransportMode fromString(String value) {
+            if (value != null) {
+                for (TransportMode mode : values()) {
+                    if (mode.name().equalsIgnoreCase(value)) {
+                        return mode;
+                    }
+                }
+            }
+            return BLOCKING;
+        }
     }
 }
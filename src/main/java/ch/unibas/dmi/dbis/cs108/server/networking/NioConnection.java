@@ -0,0 +1,258 @@
+package ch.unibas.dmi.dbis.cs108.server.networking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * A single non-blocking client connection served by one {@link NioTransport.EventLoop}.
+ * It decodes the newline terminated protocol lines from the channel and hands them to its
+ * {@link ClientHandler}. Outgoing messages are written directly if possible, the rest is queued in a bounded
+ * {@link OutboundQueue} and flushed by the event loop once the channel becomes writable again.
+ */
+class NioConnection {
+    /** Logger to log logging */
+    private static final Logger logger = Logger.getLogger(NioConnection.class.getName());
+    /** Size of the per-connection read buffer */
+    private static final int READ_BUFFER_SIZE = 8192;
+    /** Maximum length of a single protocol line, longer lines close the connection */
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    /** The underlying channel */
+    private final SocketChannel channel;
+    /** The event loop this connection is registered with */
+    private final NioTransport.EventLoop loop;
+    /** Buffer the channel is read into */
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    /** Pending outgoing buffers that could not be written immediately */
+    private final OutboundQueue<ByteBuffer> writeQueue = new OutboundQueue<>();
+    /** Guards the write queue and the channel writes */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /** Bytes of the line that is currently being received */
+    private byte[] lineBuffer = new byte[256];
+    /** Number of valid bytes in the line buffer */
+    private int lineLength = 0;
+    /** The selection key, set by the event loop on registration */
+    private SelectionKey key;
+    /** The handler that processes the received lines */
+    private ClientHandler handler;
+    /** Flag indicating whether the connection has been closed */
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new connection for the given channel.
+     *
+     * @param channel the accepted, non-blocking channel
+     * @param loop    the event loop serving this connection
+     */
+    NioConnection(SocketChannel channel, NioTransport.EventLoop loop) {
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    /**
+     * Sets the handler that receives the decoded lines.
+     *
+     * @param handler the client handler
+     */
+    void setHandler(ClientHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Sets the selection key of this connection. Called by the event loop on registration.
+     * Messages queued before the registration are flushed as soon as the channel is writable.
+     *
+     * @param key the selection key
+     */
+    void setKey(SelectionKey key) {
+        writeLock.lock();
+        try {
+            this.key = key;
+            if (!writeQueue.isEmpty()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reads all available bytes from the channel and dispatches every complete line.
+     * Called by the event loop when the channel is readable.
+     */
+    void onReadable() {
+        int read;
+        try {
+            read = channel.read(readBuffer);
+        } catch (IOException e) {
+            logger.fine("Error reading from channel: " + e.getMessage());
+            closeAndNotify();
+            return;
+        }
+        if (read == -1) {
+            closeAndNotify();
+            return;
+        }
+
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (b == '\n') {
+                int end = lineLength;
+                if (end > 0 && lineBuffer[end - 1] == '\r') end--;
+                String line = new String(lineBuffer, 0, end, StandardCharsets.UTF_8);
+                lineLength = 0;
+                handler.onLine(line);
+                if (closed) return;
+            } else {
+                if (lineLength == MAX_LINE_LENGTH) {
+                    logger.warning("Line too long, closing connection " + this);
+                    closeAndNotify();
+                    return;
+                }
+                if (lineLength == lineBuffer.length) {
+                    lineBuffer = Arrays.copyOf(lineBuffer, Math.min(lineBuffer.length * 2, MAX_LINE_LENGTH));
+                }
+                lineBuffer[lineLength++] = b;
+            }
+        }
+        readBuffer.clear();
+    }
+
+    /**
+     * Flushes queued buffers. Called by the event loop when the channel is writable.
+     */
+    void onWritable() {
+        boolean failed = false;
+        writeLock.lock();
+        try {
+            while (!writeQueue.isEmpty()) {
+                ByteBuffer head = writeQueue.peek();
+                channel.write(head);
+                if (head.hasRemaining()) {
+                    return; // socket buffer is full again, wait for the next OP_WRITE
+                }
+                writeQueue.poll();
+            }
+            if (key != null && key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            logger.fine("Error writing to channel: " + e.getMessage());
+            failed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        if (failed) {
+            closeAndNotify();
+        }
+    }
+
+    /**
+     * Sends a pre-encoded line. Can be called from any thread; the frame's bytes are shared, not copied.
+     *
+     * @param frame the frame to send
+     * @return true if the frame was written or queued, false if the connection is closed
+     * or the client is a slow consumer that should be disconnected
+     */
+    boolean write(Frame frame) {
+        if (closed) return false;
+        ByteBuffer buffer = frame.buffer();
+
+        writeLock.lock();
+        try {
+            if (writeQueue.isEmpty()) {
+                channel.write(buffer);
+                if (!buffer.hasRemaining()) {
+                    return true;
+                }
+            }
+            if (writeQueue.offer(buffer) != OutboundQueue.Result.QUEUED) {
+                logger.warning("Slow consumer, queue depth " + writeQueue.depth() + ": " + this);
+                return false;
+            }
+            if (key != null && key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                loop.wakeup();
+            }
+            return true;
+        } catch (IOException e) {
+            logger.fine("Error writing to channel: " + e.getMessage());
+            return false;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of buffers waiting to be written.
+     *
+     * @return the queue depth
+     */
+    int queueDepth() {
+        return writeQueue.depth();
+    }
+
+    /**
+     * Returns the number of messages dropped because the queue was full.
+     *
+     * @return the dropped message count
+     */
+    long droppedMessages() {
+        return writeQueue.getDropped();
+    }
+
+    /**
+     * Checks whether the connection is still open.
+     *
+     * @return true if the connection has not been closed yet
+     */
+    boolean isOpen() {
+        return !closed && channel.isOpen();
+    }
+
+    /**
+     * Closes the channel without notifying the handler.
+     */
+    void close() {
+        if (closed) return;
+        closed = true;
+        writeQueue.close();
+        if (key != null) key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warning("Error closing channel: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the channel and lets the handler know that the remote end is gone.
+     */
+    private void closeAndNotify() {
+        boolean wasOpen = !closed;
+        close();
+        if (wasOpen && handler != null) {
+            handler.onConnectionClosed();
+        }
+    }
+
+    /**
+     * Returns the remote address of the connection.
+     *
+     * @return a string representation of this connection
+     */
+    @Override
+    public String toString() {
+        try {
+            return "NioConnection{" + channel.getRemoteAddress() + '}';
+        } catch (IOException e) {
+            return "NioConnection{closed}";
+        }
+    }
+}
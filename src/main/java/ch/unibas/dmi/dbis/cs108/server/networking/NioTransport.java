@@ -0,0 +1,235 @@
+package ch.unibas.dmi.dbis.cs108.server.networking;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking transport for the {@link GameServer}.
+ * Instead of one thread per client, a small, fixed number of event loops (one per core by default)
+ * multiplex all client channels with a {@link Selector}. Every decoded line is routed into the same
+ * {@link ClientHandler#processMessage(String)} logic as in the blocking mode, so the protocol is unchanged.
+ * Note that messages are processed on the event loop thread of the connection.
+ */
+public class NioTransport {
+    /** Logger to log logging */
+    private static final Logger logger = Logger.getLogger(NioTransport.class.getName());
+    /** The server owning this transport */
+    private final GameServer server;
+    /** The port to listen on */
+    private final int port;
+    /** The event loops serving the client channels */
+    private final EventLoop[] loops;
+    /** The channel accepting new connections */
+    private ServerSocketChannel serverChannel;
+    /** Index of the event loop the next connection is assigned to */
+    private int nextLoop = 0;
+    /** Flag indicating whether the transport is running */
+    private volatile boolean running;
+
+    /**
+     * Creates a new transport with one event loop per available core.
+     *
+     * @param server the server owning this transport
+     * @param port   the port to listen on
+     */
+    public NioTransport(GameServer server, int port) {
+        this(server, port, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new transport with the given number of event loops.
+     *
+     * @param server    the server owning this transport
+     * @param port      the port to listen on
+     * @param loopCount the number of event loop threads
+     */
+    public NioTransport(GameServer server, int port, int loopCount) {
+        this.server = server;
+        this.port = port;
+        this.loops = new EventLoop[Math.max(1, loopCount)];
+    }
+
+    /**
+     * Opens the server channel, starts the event loops and accepts connections
+     * until {@link #close()} is called. Blocks the calling thread like the blocking accept loop.
+     *
+     * @throws IOException if the server channel cannot be opened
+     */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        running = true;
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(Selector.open());
+            Thread thread = new Thread(loops[i], "nio-loop-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        logger.info("Non-blocking transport started on port " + port + " with " + loops.length + " event loops");
+
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                EventLoop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+
+                NioConnection connection = new NioConnection(channel, loop);
+                ClientHandler client = new ClientHandler(connection, server);
+                connection.setHandler(client);
+                server.addClient(client);
+                loop.register(channel, connection);
+            } catch (ClosedChannelException e) {
+                if (!running) {
+                    logger.info("Server channel closed. Exiting accept loop");
+                    break; // Expected exception when server is shutting down
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes all event loops.
+     */
+    public void close() {
+        running = false;
+        try {
+            if (serverChannel != null) serverChannel.close();
+        } catch (IOException e) {
+            logger.warning("Error closing server channel: " + e.getMessage());
+        }
+        for (EventLoop loop : loops) {
+            if (loop != null) loop.close();
+        }
+    }
+
+    /**
+     * Returns the number of event loops of this transport.
+     *
+     * @return the event loop count
+     */
+    public int getLoopCount() {
+        return loops.length;
+    }
+
+    /**
+     * Checks whether the transport is running.
+     *
+     * @return true if the transport accepts connections
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * A single selector thread serving a subset of the connections.
+     */
+    static class EventLoop implements Runnable {
+        /** The selector multiplexing the channels of this loop */
+        private final Selector selector;
+        /** Registrations handed over from the accept thread */
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        /** Flag indicating whether the loop is running */
+        private volatile boolean running = true;
+
+        /**
+         * Creates a new event loop.
+         *
+         * @param selector the selector of this loop
+         */
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Registers a channel with this loop. The registration itself happens on the loop thread.
+         *
+         * @param channel    the channel to register
+         * @param connection the connection attached to the key
+         */
+        void register(SocketChannel channel, NioConnection connection) {
+            pending.add(() -> {
+                try {
+                    connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+                } catch (IOException e) {
+                    logger.warning("Error registering channel: " + e.getMessage());
+                    connection.close();
+                }
+            });
+            selector.wakeup();
+        }
+
+        /**
+         * Wakes up the selector so that changed interest sets are picked up.
+         */
+        void wakeup() {
+            selector.wakeup();
+        }
+
+        /**
+         * Stops the loop and closes all channels registered with it.
+         */
+        void close() {
+            running = false;
+            selector.wakeup();
+        }
+
+        /**
+         * Selects ready channels and dispatches read and write events until the loop is closed.
+         */
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                    Runnable task;
+                    while ((task = pending.poll()) != null) {
+                        task.run();
+                    }
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isWritable()) {
+                                connection.onWritable();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.onReadable();
+                            }
+                        } catch (CancelledKeyException e) {
+                            // connection was closed concurrently
+                        } catch (RuntimeException e) {
+                            logger.severe("Error while processing message: " + e.getMessage());
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.severe("Event loop error: " + e.getMessage());
+                }
+            }
+
+            for (SelectionKey key : selector.keys()) {
+                ((NioConnection) key.attachment()).close();
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.warning("Error closing selector: " + e.getMessage());
+            }
+        }
+    }
+}
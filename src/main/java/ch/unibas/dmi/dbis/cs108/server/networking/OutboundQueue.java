@@ -0,0 +1,282 @@
+package ch.unibas.dmi.dbis.cs108.server.networking;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue of outgoing messages of a single connection.
+ * Broadcasting threads only enqueue, a writer drains the queue, so one stalled client cannot block
+ * the game or turn thread of its lobby. A connection whose queue stays above the high water mark for
+ * longer than the slow consumer timeout is reported for eviction; it counts as healthy again once the
+ * queue drains below the low water mark. Messages beyond the capacity are dropped; as a dropped message is
+ * lost for good, the connection should then be disconnected as well.
+ *
+ * @param <T> the type of the queued messages
+ */
+public class OutboundQueue<T> {
+    /** Total number of dropped messages over all connections */
+    private static final AtomicLong totalDropped = new AtomicLong();
+    /** Total number of evicted connections */
+    private static final AtomicLong totalEvictions = new AtomicLong();
+    /** The queued messages */
+    private final ArrayDeque<T> items = new ArrayDeque<>();
+    /** Guards the queue */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled when a message is added or the queue is closed */
+    private final Condition notEmpty = lock.newCondition();
+    /** Signalled when the writer has handled all messages or the queue is closed */
+    private final Condition drained = lock.newCondition();
+    /** Maximum number of queued messages */
+    private final int capacity;
+    /** Depth above which the connection is considered slow */
+    private final int highWater;
+    /** Depth below which the connection is considered healthy again */
+    private final int lowWater;
+    /** Time in nanoseconds a connection may stay above the high water mark */
+    private final long slowConsumerTimeoutNanos;
+    /** Number of messages dropped by this queue */
+    private long dropped = 0;
+    /** Time the queue went above the high water mark, 0 if it is below */
+    private long slowSince = 0;
+    /** Flag indicating whether the connection has already been reported for eviction */
+    private boolean evicted = false;
+    /** Flag indicating whether the queue has been closed */
+    private boolean closed = false;
+    /** Flag indicating whether the writer is still handling the last taken message */
+    private boolean writing = false;
+
+    /**
+     * Creates a queue with the limits from {@link SETTINGS.Config}.
+     */
+    public OutboundQueue() {
+        this(SETTINGS.Config.OUTBOUND_QUEUE_CAPACITY.getValue(),
+                SETTINGS.Config.OUTBOUND_HIGH_WATER.getValue(),
+                SETTINGS.Config.OUTBOUND_LOW_WATER.getValue(),
+                SETTINGS.Config.SLOW_CONSUMER_TIMEOUT.getValue());
+    }
+
+    /**
+     * Creates a queue with the given limits.
+     *
+     * @param capacity                 maximum number of queued messages
+     * @param highWater                depth above which the connection is considered slow
+     * @param lowWater                 depth below which the connection is considered healthy again
+     * @param slowConsumerTimeoutMillis time a connection may stay above the high water mark
+     */
+    public OutboundQueue(int capacity, int highWater, int lowWater, long slowConsumerTimeoutMillis) {
+        if (lowWater > highWater || highWater > capacity) {
+            throw new IllegalArgumentException("Expected lowWater <= highWater <= capacity");
+        }
+        this.capacity = capacity;
+        this.highWater = highWater;
+        this.lowWater = lowWater;
+        this.slowConsumerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(slowConsumerTimeoutMillis);
+    }
+
+    /**
+     * Enqueues a message.
+     *
+     * @param item the message
+     * @return QUEUED if the message was enqueued, DROPPED if the queue is full or closed,
+     * EVICT if the message was handled but the connection stayed above the high water mark for too long
+     */
+    public Result offer(T item) {
+        lock.lock();
+        try {
+            Result result = Result.QUEUED;
+            if (closed || items.size() >= capacity) {
+                dropped++;
+                totalDropped.incrementAndGet();
+                result = Result.DROPPED;
+            } else {
+                items.add(item);
+                notEmpty.signal();
+            }
+
+            if (items.size() > highWater) {
+                long now = System.nanoTime();
+                if (slowSince == 0) {
+                    slowSince = now;
+                } else if (!evicted && now - slowSince > slowConsumerTimeoutNanos) {
+                    evicted = true;
+                    totalEvictions.incrementAndGet();
+                    return Result.EVICT;
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for and removes the next message. Calling it again marks the previous message as handled.
+     *
+     * @return the next message, null if the queue has been closed
+     * @throws InterruptedException if the writer is interrupted while waiting
+     */
+    public T take() throws InterruptedException {
+        lock.lock();
+        try {
+            writing = false;
+            while (items.isEmpty() && !closed) {
+                drained.signalAll();
+                notEmpty.await();
+            }
+            if (closed) return null;
+            writing = true;
+            return removeFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the writer has handled all queued messages, the queue is closed or the timeout elapses.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if the queue has been drained
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while ((!items.isEmpty() || writing) && !closed) {
+                if (remaining <= 0) return false;
+                remaining = drained.awaitNanos(remaining);
+            }
+            return items.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the next message without removing it.
+     *
+     * @return the next message, null if the queue is empty
+     */
+    public T peek() {
+        lock.lock();
+        try {
+            return items.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the next message without waiting.
+     *
+     * @return the removed message, null if the queue is empty
+     */
+    public T poll() {
+        lock.lock();
+        try {
+            return items.isEmpty() ? null : removeFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the queue, discards all messages and wakes up a waiting writer.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            items.clear();
+            notEmpty.signalAll();
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of queued messages.
+     *
+     * @return the queue depth
+     */
+    public int depth() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if no messages are queued
+     */
+    public boolean isEmpty() {
+        return depth() == 0;
+    }
+
+    /**
+     * Returns the number of messages dropped by this queue.
+     *
+     * @return the dropped message count
+     */
+    public long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of messages dropped over all connections.
+     *
+     * @return the total dropped message count
+     */
+    public static long getTotalDropped() {
+        return totalDropped.get();
+    }
+
+    /**
+     * Returns the number of connections evicted as slow consumers.
+     *
+     * @return the total eviction count
+     */
+    public static long getTotalEvictions() {
+        return totalEvictions.get();
+    }
+
+    /**
+     * Removes the first message and resets the slow consumer deadline below the low water mark.
+     * Must be called with the lock held.
+     */
+    private T removeFirst() {
+        T item = items.poll();
+        if (items.size() < lowWater) {
+            slowSince = 0;
+            evicted = false;
+        }
+        return item;
+    }
+
+    /**
+     * The outcome of {@link #offer(Object)}.
+     */
+    public enum Result {
+        /** The message was enqueued */
+        QUEUED,
+        /** The message was dropped */
+        DROPPED,
+        /** The connection is a slow consumer and should be disconnected */
+        EVICT
+    }
+}
@@ -0,0 +1,384 @@
+package ch.unibas.dmi.dbis.cs108.server.networking;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timing wheel driven by a single thread.
+ * It replaces the per-client and per-lobby scheduled executors for turn deadlines,
+ * reconnect grace periods and ping checks. Scheduling and cancelling are O(1) and never block;
+ * deadlines longer than one revolution of the wheel are handled with a round counter per timeout.
+ * Expired tasks either run on the wheel thread (cheap tasks only) or are handed to an executor.
+ */
+public final class TimerWheel {
+    /** Logger to log logging */
+    private static final Logger logger = Logger.getLogger(TimerWheel.class.getName());
+    /** Default tick duration in milliseconds */
+    private static final long DEFAULT_TICK_MILLIS = 100;
+    /** Default number of buckets, one revolution covers 51.2 seconds */
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+    /** The server-wide instance */
+    private static volatile TimerWheel defaultWheel;
+    /** Duration of one tick in nanoseconds */
+    private final long tickNanos;
+    /** The buckets of the wheel */
+    private final Bucket[] wheel;
+    /** Mask to map a tick to its bucket (wheel size is a power of two) */
+    private final int mask;
+    /** Timeouts scheduled since the last tick, moved into the wheel by the worker */
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+    /** Timeouts cancelled since the last tick, removed from the wheel by the worker */
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+    /** Number of scheduled timeouts that have neither expired nor been cancelled */
+    private final AtomicInteger pending = new AtomicInteger();
+    /** The thread driving the wheel */
+    private final Thread worker;
+    /** Time the wheel was started, all deadlines are relative to it */
+    private final long startTime;
+    /** The current tick, only accessed by the worker */
+    private long tick = 0;
+    /** Flag indicating whether the wheel is running */
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts a new timing wheel.
+     *
+     * @param tickDuration the duration of one tick, the resolution of the timer
+     * @param unit         the unit of the tick duration
+     * @param wheelSize    the number of buckets, rounded up to a power of two
+     */
+    public TimerWheel(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) size <<= 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, "timer-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Returns the server-wide timing wheel, creating it on first use.
+     *
+     * @return the shared timing wheel
+     */
+    public static TimerWheel getDefault() {
+        TimerWheel result = defaultWheel;
+        if (result == null) {
+            synchronized (TimerWheel.class) {
+                result = defaultWheel;
+                if (result == null) {
+                    result = new TimerWheel(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+                    defaultWheel = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Schedules a task that runs once on the wheel thread. Only use this for short, non-blocking tasks.
+     *
+     * @param task  the task to run
+     * @param delay the delay after which the task runs
+     * @param unit  the unit of the delay
+     * @return the handle to cancel the timeout
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return schedule(task, delay, unit, null);
+    }
+
+    /**
+     * Schedules a task that runs once on the given executor.
+     *
+     * @param task     the task to run
+     * @param delay    the delay after which the task runs
+     * @param unit     the unit of the delay
+     * @param executor the executor to run the task on, null to run it on the wheel thread
+     * @return the handle to cancel the timeout
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit, Executor executor) {
+        return add(new Timeout(this, task, executor, deadlineAfter(delay, unit), 0));
+    }
+
+    /**
+     * Schedules a task that runs periodically on the given executor until it is cancelled.
+     *
+     * @param task         the task to run
+     * @param initialDelay the delay before the first run
+     * @param period       the period between two runs
+     * @param unit         the unit of the delays
+     * @param executor     the executor to run the task on, null to run it on the wheel thread
+     * @return the handle to cancel the timeout
+     */
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit, Executor executor) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return add(new Timeout(this, task, executor, deadlineAfter(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    /**
+     * Returns the number of timeouts that are scheduled and have not expired or been cancelled yet.
+     *
+     * @return the number of pending timeouts
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the wheel. Pending timeouts will not expire anymore.
+     */
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * Computes a deadline relative to the start of the wheel.
+     */
+    private long deadlineAfter(long delay, TimeUnit unit) {
+        return System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay));
+    }
+
+    /**
+     * Hands a new timeout over to the worker.
+     */
+    private Timeout add(Timeout timeout) {
+        if (!running) {
+            throw new RejectedExecutionException("Timer wheel has been shut down");
+        }
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * The worker loop: waits for the next tick, applies additions and cancellations and expires the current bucket.
+     */
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) break;
+                }
+            }
+            processCancellations();
+            transferAdditions();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Removes cancelled timeouts from their buckets.
+     */
+    private void processCancellations() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Moves newly scheduled timeouts into their buckets.
+     */
+    private void transferAdditions() {
+        Timeout timeout;
+        while ((timeout = additions.poll()) != null) {
+            if (timeout.state.get() != Timeout.STATE_PENDING) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick); // never schedule into the past
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Called by the buckets when a timeout is due.
+     */
+    private void expire(Timeout timeout) {
+        if (timeout.period > 0) {
+            if (timeout.state.get() != Timeout.STATE_PENDING) return;
+            dispatch(timeout);
+            timeout.deadline += timeout.period;
+            additions.add(timeout);
+        } else if (timeout.state.compareAndSet(Timeout.STATE_PENDING, Timeout.STATE_EXPIRED)) {
+            pending.decrementAndGet();
+            dispatch(timeout);
+        }
+    }
+
+    /**
+     * Runs the task of an expired timeout.
+     */
+    private void dispatch(Timeout timeout) {
+        try {
+            if (timeout.executor != null) {
+                timeout.executor.execute(timeout.task);
+            } else {
+                timeout.task.run();
+            }
+        } catch (RejectedExecutionException e) {
+            logger.warning("Timeout could not be dispatched: " + e.getMessage());
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Error while running timeout", e);
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+        /** Timeout is scheduled */
+        private static final int STATE_PENDING = 0;
+        /** Timeout has been cancelled */
+        private static final int STATE_CANCELLED = 1;
+        /** One-shot timeout has run */
+        private static final int STATE_EXPIRED = 2;
+        /** The wheel this timeout belongs to */
+        private final TimerWheel timer;
+        /** The task to run */
+        private final Runnable task;
+        /** The executor to run the task on, null for the wheel thread */
+        private final Executor executor;
+        /** The period of a periodic timeout in nanoseconds, 0 for one-shot timeouts */
+        private final long period;
+        /** The state of this timeout */
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+        /** The deadline relative to the start of the wheel */
+        private long deadline;
+        /** Revolutions left before the timeout is due, only accessed by the worker */
+        private long remainingRounds;
+        /** The bucket the timeout is in, only accessed by the worker */
+        private Bucket bucket;
+        /** Neighbours in the bucket, only accessed by the worker */
+        private Timeout next, prev;
+
+        private Timeout(TimerWheel timer, Runnable task, Executor executor, long deadline, long period) {
+            this.timer = timer;
+            this.task = task;
+            this.executor = executor;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the timeout. A task that is already running is not interrupted.
+         *
+         * @return true if the timeout was cancelled, false if it had already expired or been cancelled
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                timer.pending.decrementAndGet();
+                timer.cancellations.add(this);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Checks if the timeout has been cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        /**
+         * Checks if the one-shot timeout has run.
+         *
+         * @return true if expired
+         */
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+    }
+
+    /**
+     * A bucket of the wheel, a doubly linked list of timeouts. Only accessed by the worker.
+     */
+    private final class Bucket {
+        /** First timeout of the bucket */
+        private Timeout head;
+        /** Last timeout of the bucket */
+        private Timeout tail;
+
+        /**
+         * Appends a timeout.
+         */
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Expires all timeouts of this bucket that are due in the current round.
+         *
+         * @param deadline the deadline of the current tick
+         */
+        void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        TimerWheel.this.expire(timeout);
+                    } else {
+                        additions.add(timeout); // should not happen, reschedule to be safe
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        /**
+         * Removes a timeout.
+         */
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) return;
+            if (timeout.prev != null) timeout.prev.next = timeout.next;
+            if (timeout.next != null) timeout.next.prev = timeout.prev;
+            if (timeout == head) head = timeout.next;
+            if (timeout == tail) tail = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
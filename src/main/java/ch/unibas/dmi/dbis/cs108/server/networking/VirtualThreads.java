@@ -0,0 +1,95 @@
+package ch.unibas.dmi.dbis.cs108.server.networking;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+/**
+ * Access to virtual threads without requiring Java 21 at compile time.
+ * The project is built with the Java 17 toolchain by default, so the Java 21 API is looked up reflectively.
+ * If the running JVM does not support virtual threads, platform threads are used instead.
+ */
+public final class VirtualThreads {
+    /** Logger to log logging */
+    private static final Logger logger = Logger.getLogger(VirtualThreads.class.getName());
+    /** Thread.ofVirtual(), null if not available */
+    private static final Method OF_VIRTUAL;
+    /** Thread.Builder.name(String, long), null if not available */
+    private static final Method BUILDER_NAME;
+    /** Thread.Builder.factory(), null if not available */
+    private static final Method BUILDER_FACTORY;
+    /** Executors.newVirtualThreadPerTaskExecutor(), null if not available */
+    private static final Method PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null, builderName = null, builderFactory = null, perTaskExecutor = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builder.getMethod("name", String.class, long.class);
+            builderFactory = builder.getMethod("factory");
+            perTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        PER_TASK_EXECUTOR = perTaskExecutor;
+    }
+
+    /**
+     * Private constructor, utility class.
+     */
+    private VirtualThreads() {
+    }
+
+    /**
+     * Checks if the running JVM supports virtual threads.
+     *
+     * @return true if virtual threads are available
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     * Falls back to a cached thread pool if virtual threads are not supported.
+     *
+     * @return the executor
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        if (isSupported()) {
+            try {
+                return (ExecutorService) PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warning("Could not create virtual thread executor: " + e.getMessage());
+            }
+        } else {
+            logger.warning("Virtual threads are not supported by this JVM, using platform threads");
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Creates a thread factory for named virtual threads.
+     * Falls back to the default thread factory if virtual threads are not supported.
+     *
+     * @param prefix the name prefix of the created threads
+     * @return the thread factory
+     */
+    public static ThreadFactory factory(String prefix) {
+        if (isSupported()) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                logger.warning("Could not create virtual thread factory: " + e.getMessage());
+            }
+        }
+        return Executors.defaultThreadFactory();
+    }
+}
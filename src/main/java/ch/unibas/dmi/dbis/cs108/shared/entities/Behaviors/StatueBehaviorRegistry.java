@@ -13,7 +13,7 @@ import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.StatueParam
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
-import ch.unibas.dmi.dbis.cs108.shared.utils.RandomGenerator;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -37,8 +37,6 @@ public class StatueBehaviorRegistry {
     private final Map<String, Map<StatueEffectType, StatueBehavior>> behaviors = new HashMap<>();
     /** Map: Statue Name -> (Map: Effect Type -> Parameter Requirements) */
     private final Map<String, Map<StatueEffectType, StatueParameterRequirement>> requirements = new HashMap<>();
-    /** Object of type random */
-    private final Random random = new Random();
 
     /**
      * Initializes the registry with default behaviors for all statues.
@@ -54,9 +52,10 @@ public class StatueBehaviorRegistry {
      * Level 3: BLESSING (high probability) or CURSE (low probability)
      *
      * @param statue The statue being used
+     * @param random The source of randomness of the game
      * @return The effect type to apply
      */
-    public StatueEffectType determineEffectType(Statue statue) {
+    public StatueEffectType determineEffectType(Statue statue, GameRandom random) {
         int level = statue.getLevel();
 
         if (level == 1) {
@@ -64,7 +63,7 @@ public class StatueBehaviorRegistry {
         } else if (level == 2) {
             return StatueEffectType.DEAL;
         } else if (level == 3) {
-            return random.nextDouble() < (1 - (double) SETTINGS.Config.CHANCE_FOR_CURSE.getValue() / 100) ? StatueEffectType.BLESSING : StatueEffectType.CURSE;
+            return random.randomDoubleInRange(0, 1) < (1 - (double) SETTINGS.Config.CHANCE_FOR_CURSE.getValue() / 100) ? StatueEffectType.BLESSING : StatueEffectType.CURSE;
         }
 
         return StatueEffectType.NONE;
@@ -99,7 +98,7 @@ public class StatueBehaviorRegistry {
      */
     public boolean executeStatue(Statue statue, GameState gameState, Player player, StatueParameters params) {
         String statueName = statue.getName();
-        StatueEffectType effectType = determineEffectType(statue);
+        StatueEffectType effectType = determineEffectType(statue, gameState.getRandom());
 
         // Level 1 statues have no effect and disabled statues cannot be used.
         if (effectType == StatueEffectType.NONE || statue.isDisabled()) {
@@ -168,7 +167,7 @@ public class StatueBehaviorRegistry {
                     player.removePurchasableEntity(structure);
                     tile.setEntity(null);
 
-                    Tile targetTile = RandomGenerator.pickRandomElement(targetPlayer.getTilesWithStructures());
+                    Tile targetTile = gameState.getRandom().pickRandomElement(targetPlayer.getTilesWithStructures());
 
                     targetPlayer.removePurchasableEntity((PurchasableEntity) targetTile.getEntity());
                     targetTile.setEntity(null);
@@ -241,7 +240,7 @@ public class StatueBehaviorRegistry {
 
                     structure.setParam(0, structure.getParams().get(0).getValue() + 1); // Increase number of buffs by 1
 
-                    Structure targetStructure = RandomGenerator.pickRandomElement(player.getStructures());
+                    Structure targetStructure = gameState.getRandom().pickRandomElement(player.getStructures());
                     targetStructure.setRessourceValue(0);
                     return true;
                 },
@@ -288,7 +287,7 @@ public class StatueBehaviorRegistry {
                     // Gives 1 random Artifact: costs (a lot of) Runes
                     if (!player.buy((int) statue.getParams().get(0).getValue())) return false;
 
-                    player.addArtifact(EntityRegistry.getRandomArtifact());
+                    player.addArtifact(EntityRegistry.getRandomArtifact(gameState.getRandom()));
                     return true;
                 },
                 new StatueParameterRequirement()
@@ -342,7 +341,7 @@ public class StatueBehaviorRegistry {
                     Statue statue1 = (Statue) tile.getEntity();
                     statue1.disable(1); // Block statue for the next turn
 
-                    PurchasableEntity purchasableEntity = RandomGenerator.pickRandomElement(player.getPurchasableEntities());
+                    PurchasableEntity purchasableEntity = gameState.getRandom().pickRandomElement(player.getPurchasableEntities());
                     purchasableEntity.disable(2); // Block random entity for current and the next turn
 
                     return true;
@@ -355,7 +354,7 @@ public class StatueBehaviorRegistry {
                     // Destroys the statue of a random Player
                     Player targetPlayer = player;
                     while (targetPlayer == player) { // Make sure the player does not destroy his own statue
-                        targetPlayer = RandomGenerator.pickRandomElement(gameState.getPlayers());
+                        targetPlayer = gameState.getRandom().pickRandomElement(gameState.getPlayers());
                     }
 
                     Tile tile = targetPlayer.getOwnedTiles().stream().filter(t -> t.hasEntity() && t.getEntity().isStatue()).findFirst().orElse(null);
@@ -387,12 +386,12 @@ public class StatueBehaviorRegistry {
         registerBehavior("Nidhöggr", StatueEffectType.DEAL,
                 (statue, gameState, player, params) -> {
                     // Devours a random Tree on the Board: needs to be fed 1 Artifacts
-                    Tile target = RandomGenerator.pickRandomElement(gameState.getBoardManager().getRiverTiles().stream().filter(t -> t.hasEntity() && t.getEntity().getId() == 7).toArray(Tile[]::new));
+                    Tile target = gameState.getRandom().pickRandomElement(gameState.getBoardManager().getRiverTiles().stream().filter(t -> t.hasEntity() && t.getEntity().getId() == 7).toArray(Tile[]::new));
 
                     if (target == null) return false;
 
                     Structure tree = (Structure) target.getEntity();
-                    Player targetPlayer = gameState.getPlayers().stream().filter(p -> Objects.equals(p.getName(), target.getOwner())).findFirst().orElse(null);
+                    Player targetPlayer = gameState.getPlayer(target.getOwnerSeat());
                     if (targetPlayer != null) {
                         target.setEntity(null);
                         player.removePurchasableEntity(tree);
@@ -409,7 +408,7 @@ public class StatueBehaviorRegistry {
                     gameState.getBoardManager().getRiverTiles().forEach(tile -> {
                         if (tile.getEntity() != null && tile.getEntity().isStructure() && tile.getEntity().getId() == 7) { // check if tile holds a tree
                             Structure tree = (Structure) tile.getEntity();
-                            Player target = gameState.getPlayers().stream().filter(p -> Objects.equals(p.getName(), tile.getOwner())).findFirst().orElse(null);
+                            Player target = gameState.getPlayer(tile.getOwnerSeat());
                             if (target != null) {
                                 tile.setEntity(null);
                                 player.removePurchasableEntity(tree);
@@ -425,10 +424,10 @@ public class StatueBehaviorRegistry {
                 (statue, gameState, player, params) -> {
                     // Devours 2 structures of yours randomly
                     Tile[] tiles = player.getOwnedTiles().stream().filter(t -> t.hasEntity() && t.getEntity().isStructure()).toArray(Tile[]::new);
-                    Tile tile1 = RandomGenerator.pickRandomElement(tiles);
+                    Tile tile1 = gameState.getRandom().pickRandomElement(tiles);
                     if (tile1 == null) return false;
                     player.removePurchasableEntity((Structure) tile1.getEntity());
-                    Tile tile2 = RandomGenerator.pickRandomElement(tiles);
+                    Tile tile2 = gameState.getRandom().pickRandomElement(tiles);
                     if (tile2 == null) return false;
                     player.removePurchasableEntity((Structure) tile2.getEntity());
                     return true;
@@ -442,8 +441,8 @@ public class StatueBehaviorRegistry {
                     // Sets 1 Trap for a chosen Player: steals 1 Artefact in return
                     Player targetPlayer = params.getTargetPlayer();
                     if (targetPlayer == null) return false;
-                    Artifact targetArtifact = RandomGenerator.pickRandomElement(targetPlayer.getArtifacts());
-                    Artifact yourArtifact = RandomGenerator.pickRandomElement(player.getArtifacts());
+                    Artifact targetArtifact = gameState.getRandom().pickRandomElement(targetPlayer.getArtifacts());
+                    Artifact yourArtifact = gameState.getRandom().pickRandomElement(player.getArtifacts());
                     if (yourArtifact != null) {
                         player.removeArtifact(yourArtifact);
                     }
@@ -494,7 +493,7 @@ public class StatueBehaviorRegistry {
                     // Destroys 1 random Structure or Statue of a chosen Player: consumes the Flaming Sword Structure
 
                     Player targetPlayer = params.getTargetPlayer();
-                    Tile target = RandomGenerator.pickRandomElement(targetPlayer.getOwnedTiles().stream().filter(t -> t.hasEntity() && (t.getEntity().isStructure() || t.getEntity().isStatue())).toArray(Tile[]::new));
+                    Tile target = gameState.getRandom().pickRandomElement(targetPlayer.getOwnedTiles().stream().filter(t -> t.hasEntity() && (t.getEntity().isStructure() || t.getEntity().isStatue())).toArray(Tile[]::new));
                     assert target != null;
                     GameEntity entity = target.getEntity();
                     target.setEntity(null);
@@ -532,7 +531,7 @@ public class StatueBehaviorRegistry {
         registerBehavior("Surtr", StatueEffectType.CURSE,
                 (statue, gameState, player, params) -> {
                     // Destroys 1 random Structure or Statue of your own
-                    Tile target = RandomGenerator.pickRandomElement(player.getOwnedTiles().stream().filter(t -> t.hasEntity() && (t.getEntity().isStructure() || t.getEntity().isStatue())).toArray(Tile[]::new));
+                    Tile target = gameState.getRandom().pickRandomElement(player.getOwnedTiles().stream().filter(t -> t.hasEntity() && (t.getEntity().isStructure() || t.getEntity().isStatue())).toArray(Tile[]::new));
                     assert target != null;
                     GameEntity entity = target.getEntity();
                     target.setEntity(null);
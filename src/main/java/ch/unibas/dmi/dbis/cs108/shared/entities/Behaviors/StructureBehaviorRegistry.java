@@ -5,6 +5,7 @@ import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
 import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.game.Status;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
@@ -45,7 +46,7 @@ public class StructureBehaviorRegistry {
 
         registerBehavior("Mimisbrunnr", (structure, gameState, player) -> {
             if (player.getArtifacts().size() < SETTINGS.Config.MAX_ARTIFACTS.getValue()) {
-                Artifact artifact = EntityRegistry.getRandomArtifact();
+                Artifact artifact = EntityRegistry.getRandomArtifact(gameState.getRandom());
                 player.addArtifact(artifact);
                 return true;
             }
@@ -60,16 +61,13 @@ public class StructureBehaviorRegistry {
         });
 
         registerBehavior("Huginn and Muninn", (structure, gameState, player) -> {
-            Tile[][] tiles = gameState.getBoardManager().getBoard().getTiles();
-            boolean b = false;  // true if there is an artifact to show, false otherwise
-            for (Tile[] tile : tiles) {
-                for (Tile t : tile) {
-                    if (t.getArtifact() != null) {
-                        gameState.sendNotification(player.getName(),  t.getArtifact().getId() + "$" + t.getX() + "$" + t.getY());
-                        player.addEnergy((int) structure.getParams().get(0).getValue());
-                        return true;
-                    }
-                }
+            Board board = gameState.getBoardManager().getBoard();
+            int id = board.nextArtifactTile(0);
+            if (id >= 0) {
+                Tile t = board.getTile(id);
+                gameState.sendNotification(player.getName(),  t.getArtifact().getId() + "$" + t.getX() + "$" + t.getY());
+                player.addEnergy((int) structure.getParams().get(0).getValue());
+                return true;
             }
             gameState.sendNotification(player.getName(), "NULL");
             player.addEnergy((int) structure.getParams().get(0).getValue());
@@ -92,7 +90,7 @@ public class StructureBehaviorRegistry {
             int numberOfBuffs = (int) structure.getParams().get(0).getValue();
 
             for (int i = 0; i < numberOfBuffs; i++) { // Use < instead of <= to avoid extra iteration
-                int random = (int) (Math.random() * buffTypes.length); // Ensure random index is within bounds
+                int random = gameState.getRandom().randomIntInRange(0, buffTypes.length - 1); // Ensure random index is within bounds
                 double val = structure.getParams().get(random + 2).getValue(); // +2 because 0 is number of buffs, 1 is debuffOtherPlayers
                 player.addBuff(buffTypes[random], val);
 
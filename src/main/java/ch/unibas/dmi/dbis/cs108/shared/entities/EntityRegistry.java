@@ -5,7 +5,7 @@ import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.PurchasableEntity;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
-import ch.unibas.dmi.dbis.cs108.shared.utils.RandomGenerator;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -274,10 +274,11 @@ public class EntityRegistry {
     /**
      * Returns a new instance of a random artifact from the list of available artifacts.
      *
+     * @param random The source of randomness of the game
      * @return A random Artifact object
      */
-    public static Artifact getRandomArtifact() {
-        int id = RandomGenerator.pickRandomElement(getAllArtifacts().stream().filter(artifact -> !(artifact.getId() == 22)).toList()).getId();
+    public static Artifact getRandomArtifact(GameRandom random) {
+        int id = random.pickRandomElement(getAllArtifacts().stream().filter(artifact -> !(artifact.getId() == 22)).toList()).getId();
         return getArtifact(id);
     }
 
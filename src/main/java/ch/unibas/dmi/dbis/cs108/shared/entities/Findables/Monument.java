@@ -119,6 +119,7 @@ public class Monument extends FindableEntity {
      */
     public void setRunes(int runes) {
         this.runes = runes;
+        changed();
     }
 
     /**
@@ -185,6 +186,15 @@ public class Monument extends FindableEntity {
         return disabled > 0;
     }
 
+    /**
+     * Gets the number of turns this Monument stays disabled.
+     *
+     * @return the value of disabled
+     */
+    public int getDisabled() {
+        return disabled;
+    }
+
     /**
      * Sets the value of disable.
      *
@@ -192,6 +202,7 @@ public class Monument extends FindableEntity {
      */
     public void setDisabled(int disabled) {
         this.disabled = disabled;
+        changed();
     }
 
     /**
@@ -201,6 +212,7 @@ public class Monument extends FindableEntity {
      */
     public void disable(int turns) {
         this.disabled = turns;
+        changed();
     }
 
     /**
@@ -208,6 +220,7 @@ public class Monument extends FindableEntity {
      */
     public void disabledTurn() {
         this.disabled--;
+        changed();
     }
 
     /**
@@ -6,6 +6,7 @@ import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.PurchasableEntity;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -44,6 +45,12 @@ public abstract class GameEntity {
      */
     protected List<Parameter> params = new ArrayList<>();
 
+    /**
+     * The tile the entity is placed on, null if it is on none. Set by the board, so a change of the state of the
+     * entity marks the tile as changed.
+     */
+    private transient Tile tile;
+
     /**
      * Default constructor for GameEntity.
      */
@@ -112,6 +119,35 @@ public abstract class GameEntity {
     }
 
 
+    /**
+     * Returns the tile this entity is placed on.
+     *
+     * @return the tile, null if the entity is not placed on a tile
+     */
+    public Tile getTile() {
+        return tile;
+    }
+
+    /**
+     * Sets the tile this entity is placed on. Called by the board when the entity is placed on a tile or removed
+     * from it.
+     *
+     * @param tile the tile, null if the entity is not placed on a tile anymore
+     */
+    public void setTile(Tile tile) {
+        this.tile = tile;
+    }
+
+    /**
+     * Marks the tile this entity is placed on as changed, so the change of its state is sent to the clients and
+     * counted by the income ledger. Called by every setter of state that is sent or earns runes.
+     */
+    protected void changed() {
+        if (tile != null) {
+            tile.markDirty();
+        }
+    }
+
     /**
      * Returns if this entity is a structure.
      *
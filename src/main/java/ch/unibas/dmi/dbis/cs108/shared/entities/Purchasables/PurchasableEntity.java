@@ -137,6 +137,7 @@ public abstract class PurchasableEntity extends GameEntity {
      */
     public void setActivated(boolean b) {
         this.activated = b;
+        changed();
     }
 
     /**
@@ -156,6 +157,7 @@ public abstract class PurchasableEntity extends GameEntity {
      */
     public void setRessourceValue(int value) {
         this.resourceValue = value;
+        changed();
     }
 
     /**
@@ -165,6 +167,7 @@ public abstract class PurchasableEntity extends GameEntity {
      */
     public void disable(int turns) {
         this.disabled = turns;
+        changed();
     }
 
     /**
@@ -172,6 +175,7 @@ public abstract class PurchasableEntity extends GameEntity {
      */
     public void disabledTurn() {
         this.disabled--;
+        changed();
     }
 
     /**
@@ -190,6 +194,7 @@ public abstract class PurchasableEntity extends GameEntity {
      */
     public void setDisabled(int disabled) {
         this.disabled = disabled;
+        changed();
     }
 
     /**
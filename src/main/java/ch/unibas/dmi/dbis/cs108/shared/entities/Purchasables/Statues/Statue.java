@@ -114,6 +114,7 @@ public class Statue extends PurchasableEntity {
      */
     public void setLevel(int level) {
         this.level = level;
+        changed();
     }
 
     /**
@@ -193,6 +194,7 @@ public class Statue extends PurchasableEntity {
      */
     public void upgrade() {
         level++;
+        changed();
     }
 
     /**
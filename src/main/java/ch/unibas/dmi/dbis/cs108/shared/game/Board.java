@@ -2,127 +2,306 @@ package ch.unibas.dmi.dbis.cs108.shared.game;
 
 import ch.unibas.dmi.dbis.cs108.SETTINGS;
 import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
-import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
-import ch.unibas.dmi.dbis.cs108.shared.utils.RandomGenerator;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
 import java.util.logging.Logger;
 
 /**
  * Class representing a game board.
- * The board is represented as a 2D array of tiles.
- * Each tile can contain various entities such as players, artifacts, etc.
+ * <p>
+ * The values of the tiles are stored column-wise in parallel arrays indexed by the id of the tile, which is
+ * {@code x * height + y}: prices, resource values, owners, flags, entities, artifacts, worlds and statuses.
+ * Owners and worlds are stored as indexes into small tables of names. The first entries of the table of owners are
+ * the seats of the players of the game, so the owner index of a tile owned by a seated player is the seat of the
+ * player. The values of the statuses are stored in one array, {@link Status#COUNT} values per tile, and their
+ * changes are tracked with the flags of the tiles.
+ * <p>
+ * A {@link Tile} is a view of one index of these arrays, the views are created once per board, so loops over the
+ * whole board can read the arrays directly instead of visiting a tile object per field.
+ * <p>
+ * The board keeps bitsets of the tiles with a river, of the tiles with an artifact and, per seat, of the owned
+ * tiles with a structure or a statue. They are updated by every change of a river, artifact, entity or owner, so
+ * the behaviors that look for such tiles iterate over the set bits instead of the whole board.
  */
 public class Board {
 
     /**
-     * A 2D array representation of the worlds on the map
-     */
-    private static final String[][] WORLD_MAP = {
-            // y = 0 (top row)
-            {"Alfheim", "Alfheim", "Alfheim", "Asgard", "Asgard", "Asgard", "Muspelheim", "Muspelheim"},
-            // y = 1
-            {"Alfheim", "Alfheim", "Asgard", "Asgard", "Asgard", "Asgard", "Muspelheim", "Muspelheim"},
-            // y = 2
-            {"Vanaheim", "Vanaheim", "Vanaheim", "Asgard", "Midgard", "Midgard", "Muspelheim", "Muspelheim"},
-            // y = 3
-            {"Vanaheim", "Vanaheim", "Vanaheim", "Midgard", "Midgard", "Midgard", "Muspelheim", "Muspelheim"},
-            // y = 4
-            {"Vanaheim", "Jotunheim", "Vanaheim", "Vanaheim", "Nilfheim", "Helheim", "Svartalfheim", "Svartalfheim"},
-            // y = 5
-            {"Jotunheim", "Jotunheim", "Nilfheim", "Nilfheim", "Helheim", "Helheim", "Helheim", "Svartalfheim"},
-            // y = 6 (bottom row)
-            {"Jotunheim", "Jotunheim", "Nilfheim", "Nilfheim", "Nilfheim", "Helheim", "Helheim", "Helheim"}
-    };
+     * Flag of a tile with a river
+     */
+    private static final byte RIVER = 1;
+    /**
+     * Flag of a purchased tile
+     */
+    private static final byte PURCHASED = 2;
+    /**
+     * Index of a missing owner or world, and id of a missing entity
+     */
+    private static final byte NONE = -1;
     /**
      * Logger to log logging
      */
     Logger logger = Logger.getLogger(Board.class.getName());
     /**
-     * Two-dimensional array of Tiles. Represents the entire board. The first dimension is x.
+     * The number of tiles in x direction
+     */
+    private int width;
+    /**
+     * The number of tiles in y direction
+     */
+    private int height;
+    /**
+     * The price of every tile
+     */
+    private int[] price;
+    /**
+     * The resource value of every tile
+     */
+    private int[] resourceValue;
+    /**
+     * The index of the owner of every tile in {@link #owners}, {@link #NONE} if it has no owner
+     */
+    private byte[] ownerIndex;
+    /**
+     * The flags of every tile: {@link #RIVER} and {@link #PURCHASED}
+     */
+    private byte[] flags;
+    /**
+     * The id of the entity on every tile, {@link #NONE} if it has no entity
+     */
+    private short[] entityId;
+    /**
+     * The entity on every tile, not an artifact
+     */
+    private GameEntity[] entities;
+    /**
+     * The artifact on every tile
+     */
+    private Artifact[] artifacts;
+    /**
+     * The index of the world of every tile in {@link #worlds}, {@link #NONE} if it is not set
+     */
+    private byte[] worldIndex;
+    /**
+     * The values of the statuses of all tiles, {@link Status#COUNT} values per tile
+     */
+    private double[] buffs;
+    /**
+     * The status of every tile, a view of its values in {@link #buffs} created on first use
+     */
+    private Status[] statuses;
+    /**
+     * The names of the owners of tiles
+     */
+    private final List<String> owners = new ArrayList<>();
+    /**
+     * The number of entries at the start of {@link #owners} that are the names of the seats of the game
+     */
+    private int seats;
+    /**
+     * The names of the worlds of tiles
+     */
+    private final List<String> worlds = new ArrayList<>();
+    /**
+     * The view of every tile, indexed by id
+     */
+    private Tile[] views;
+    /**
+     * The views of the tiles indexed by coordinates. The first dimension is x.
      */
     private Tile[][] tiles;
+    /**
+     * Bits of the tiles changed since the last call of {@link #drainChangedTiles(IntConsumer)}
+     */
+    private long[] changedTiles = new long[0];
+    /**
+     * Bits of the tiles changed since the last state synchronization
+     */
+    private long[] dirtyTiles = new long[0];
+    /**
+     * Bits of the tiles with a river
+     */
+    private long[] riverTiles = new long[0];
+    /**
+     * Bits of the tiles with an artifact
+     */
+    private long[] artifactTiles = new long[0];
+    /**
+     * Bits of the tiles with a structure, per seat of their owner
+     */
+    private long[][] structureTiles = new long[0][];
+    /**
+     * Bits of the tiles with a statue, per seat of their owner
+     */
+    private long[][] statueTiles = new long[0][];
+    /**
+     * Counter of the game state incremented on every change, null if the board is not tracked
+     */
+    private AtomicLong changeCounter;
+
+    /**
+     * Creates an empty board, see {@link #initBoard(int, int, GameRandom)}.
+     */
+    public Board() {
+        allocate(0, 0);
+    }
+
+    /**
+     * Creates a board of empty tiles, e.g. for a single tile created with a {@link Tile.TileBuilder}.
+     *
+     * @param width  the number of tiles in x direction
+     * @param height the number of tiles in y direction
+     */
+    Board(int width, int height) {
+        allocate(width, height);
+    }
 
     /**
      * Initialize board with a specified number of tiles
      * usable for potential other maps with other sizes.
+     * The worlds, rivers and monuments are those of the {@link MapDefinition#getDefault() default map}, tiles
+     * outside of it are in the world "Unknown".
+     *
+     * @param x      The number of rows in the board.
+     * @param y      The number of columns in the board.
+     * @param random The source of randomness of the game, which places artifacts and resource values.
+     */
+    public void initBoard(int x, int y, GameRandom random) {
+        initBoard(MapDefinition.getDefault(), x, y, random);
+    }
+
+    /**
+     * Initialize the board with the size, worlds, rivers and monuments of a map.
+     *
+     * @param map    The map of the board.
+     * @param random The source of randomness of the game, which places artifacts and resource values.
+     */
+    public void initBoard(MapDefinition map, GameRandom random) {
+        initBoard(map, map.getWidth(), map.getHeight(), random);
+    }
+
+    /**
+     * Initialize the board with the tiles of a map. The artifacts and resource values are drawn tile by tile in
+     * the order of the ids, so the same seed gives the same board.
+     * The tiles are numbered column by column, the id of the tile at (i, j) is {@code i * y + j}.
      *
-     * @param x The number of rows in the board.
-     * @param y The number of columns in the board.
+     * @param map    The map giving the worlds, rivers and monuments of the tiles.
+     * @param x      The number of rows in the board.
+     * @param y      The number of columns in the board.
+     * @param random The source of randomness of the game, which places artifacts and resource values.
      */
-    public void initBoard(int x, int y) {
-        tiles = new Tile[x][y];
+    private void initBoard(MapDefinition map, int x, int y, GameRandom random) {
+        allocate(x, y);
 
         for (int i = 0; i < x; i++) {
             for (int j = 0; j < y; j++) {
-                Tile.TileBuilder tilebuilder = new Tile.TileBuilder();
-                tilebuilder.setPrice(10);
+                int id = i * y + j;
+                price[id] = 10;
                 // Set world based on coordinates
-                tilebuilder.setWorld(determineWorld(i, j));
+                worldIndex[id] = indexOf(worlds, map.getWorld(i, j));
                 // Set monument based on coordinates
-                tilebuilder.setEntity(determineMonument(i, j));
+                int monument = map.getMonument(i, j);
+                putEntity(id, monument < 0 ? null : EntityRegistry.getMonument(monument));
                 // Set river based on coordinates
-                tilebuilder.setHasRiver(determineRiver(i, j));
+                flags[id] = map.hasRiver(i, j) ? RIVER : 0;
                 // Optional artifact
-                if (RandomGenerator.chance(SETTINGS.Config.ARTIFACT_CHANCE.getValue())) {
-                    tilebuilder.setArtifact(EntityRegistry.getRandomArtifact());
-                } else {
-                    tilebuilder.setArtifact(null);
+                if (random.chance(SETTINGS.Config.ARTIFACT_CHANCE.getValue())) {
+                    artifacts[id] = EntityRegistry.getRandomArtifact(random);
                 }
 
-                tilebuilder.setResourceValue(RandomGenerator.randomIntInRange(
+                resourceValue[id] = random.randomIntInRange(
                         SETTINGS.Config.MIN_RESSOURCE_VALUE.getValue(),
                         SETTINGS.Config.MAX_RESOURCE_VALUE.getValue()
-                ));
-                tilebuilder.setX(i).setY(j);
-                tiles[i][j] = tilebuilder.build();
+                );
             }
         }
+        reindex();
     }
 
     /**
-     * Returns a new Monument object based on the coordinates of the Tile
+     * Replaces the columns with empty ones for a board of the given size and creates the views of the tiles.
      *
-     * @param x the x coordinate of the tile
-     * @param y the y coordinate of the tile
-     * @return the Monument
+     * @param width  the number of tiles in x direction
+     * @param height the number of tiles in y direction
      */
-    private Monument determineMonument(int x, int y) {
-        AtomicReference<Monument> monument = new AtomicReference<>();
-        EntityRegistry.getAllMonuments().forEach(mon -> {
-            if (mon.getTiles().contains(new Monument.Coordinates(x, y))) {
-                monument.set(EntityRegistry.getMonument(mon.getId()));
+    private void allocate(int width, int height) {
+        int size = width * height;
+        this.width = width;
+        this.height = height;
+        price = new int[size];
+        resourceValue = new int[size];
+        ownerIndex = new byte[size];
+        flags = new byte[size];
+        entityId = new short[size];
+        entities = new GameEntity[size];
+        artifacts = new Artifact[size];
+        worldIndex = new byte[size];
+        buffs = new double[size * Status.COUNT];
+        changedTiles = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        dirtyTiles = new long[changedTiles.length];
+        markAllChanged();
+        Status.reset(buffs, 0, size);
+        statuses = new Status[size];
+        Arrays.fill(ownerIndex, NONE);
+        Arrays.fill(entityId, NONE);
+        Arrays.fill(worldIndex, NONE);
+        owners.subList(seats, owners.size()).clear();
+        worlds.clear();
+        views = new Tile[size];
+        tiles = new Tile[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int id = x * height + y;
+                views[id] = new Tile(this, id, x, y);
+                tiles[x][y] = views[id];
             }
-        });
-        return monument.get();
-    }
-
-    /**
-     * Returns a String of the world (name) based on the coordinates of the Tile.
-     *
-     * @param x the x coordinate of the tile
-     * @param y the y coordinate of the tile
-     * @return name of the world
-     */
-    private String determineWorld(int x, int y) {
-        if (y >= 0 && y < WORLD_MAP.length && x >= 0 && x < WORLD_MAP[y].length) {
-            return WORLD_MAP[y][x];
         }
-        return "Unknown";
+        reindex();
     }
 
-
     /**
-     * Determines wethere a tile has a river (true) or not (false)
+     * Copies all tiles of another board, e.g. for a copy of a game state. The board gets the size of the other
+     * board, the entities and artifacts are replaced by the given copies.
      *
-     * @param x the x coordinate of the tile
-     * @param y the y coordinate of the tile
-     * @return if tile has a river (true) or not (false)
+     * @param source the board to copy
+     * @param copy   returns the copy of an entity or artifact of the other board
      */
-    private boolean determineRiver(int x, int y) {
-        if (x <= 2 && y == 2) return true;
-        if (x <= 1 && y == 3) return true;
-        return x == 0 && y == 4;
+    public void copyFrom(Board source, UnaryOperator<GameEntity> copy) {
+        if (width != source.width || height != source.height) {
+            allocate(source.width, source.height);
+        }
+        int size = views.length;
+        System.arraycopy(source.price, 0, price, 0, size);
+        System.arraycopy(source.resourceValue, 0, resourceValue, 0, size);
+        System.arraycopy(source.ownerIndex, 0, ownerIndex, 0, size);
+        System.arraycopy(source.flags, 0, flags, 0, size);
+        System.arraycopy(source.entityId, 0, entityId, 0, size);
+        System.arraycopy(source.worldIndex, 0, worldIndex, 0, size);
+        System.arraycopy(source.buffs, 0, buffs, 0, buffs.length);
+        System.arraycopy(source.changedTiles, 0, changedTiles, 0, changedTiles.length);
+        fill(dirtyTiles);
+        owners.clear();
+        owners.addAll(source.owners);
+        seats = source.seats;
+        worlds.clear();
+        worlds.addAll(source.worlds);
+        for (int id = 0; id < size; id++) {
+            GameEntity entity = source.entities[id];
+            putEntity(id, entity == null ? null : copy.apply(entity));
+            Artifact artifact = source.artifacts[id];
+            artifacts[id] = artifact == null ? null : (Artifact) copy.apply(artifact);
+        }
+        reindex();
+        if (changeCounter != null) changeCounter.incrementAndGet();
     }
 
     /**
@@ -133,7 +312,7 @@ public class Board {
      * @return The tile at the specified coordinates, or null if out of bounds.
      */
     public Tile getTileByCoordinates(int x, int y) {
-        if (x < 0 || x >= tiles.length || y < 0 || y >= tiles[0].length) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
             logger.warning(" get Tile By Coordinates Coordinates out of bounds " + x + " " + y);
             return null; // Out of bounds
         }
@@ -141,33 +320,33 @@ public class Board {
     }
 
     /**
-     * Sets a tile at the specified coordinates.
+     * Sets the values of a tile at the specified coordinates to the ones of the given tile.
      *
      * @param x    The x-coordinate of the tile.
      * @param y    The y-coordinate of the tile.
-     * @param tile The tile to be set at the specified coordinates.
+     * @param tile The tile whose values are copied to the specified coordinates.
      */
     public void setTileByCoordinates(int x, int y, Tile tile) {
-        if (x < 0 || x >= tiles.length || y < 0 || y >= tiles[0].length) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
             logger.warning("Set Tile by coordinates Coordinates out of bounds " + x + " " + y);
             return; // Out of bounds
         }
-        tiles[x][y] = tile;
+        copyTile(x * height + y, tile);
     }
 
     /**
-     * Sets a tile at the specified coordinates.
+     * Sets the values of a tile at the specified coordinates to the ones of the given tile.
      *
      * @param x    The x-coordinate of the tile.
      * @param y    The y-coordinate of the tile.
-     * @param tile The tile to be set at the specified coordinates.
+     * @param tile The tile whose values are copied to the specified coordinates.
      */
     public void setTile(int x, int y, Tile tile) {
-        if (x < 0 || x >= tiles.length || y < 0 || y >= tiles[0].length) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
             logger.warning("Set Tile Coordinates out of bounds " + x + " " + y);
             return; // Out of bounds
         }
-        tiles[x][y] = tile;
+        copyTile(x * height + y, tile);
     }
 
     /**
@@ -177,14 +356,10 @@ public class Board {
      * @return The tile with the specified ID, or null if not found.
      */
     public Tile getTile(int id) {
-        for (int i = 0; i < tiles.length; i++) {
-            for (int j = 0; j < tiles[i].length; j++) {
-                if (tiles[i][j] != null && tiles[i][j].getTileID() == id) {
-                    return tiles[i][j];
-                }
-            }
+        if (id < 0 || id >= views.length) {
+            return null;
         }
-        return null;
+        return views[id];
     }
 
     /**
@@ -197,12 +372,626 @@ public class Board {
     }
 
     /**
-     * Adds a tile to the board.
+     * Sets all tiles of the board to the values of the given tiles, the board gets the size of the array.
      *
-     * @param tiles The 2D array of tiles to be added.
+     * @param tiles The 2D array of tiles whose values are copied.
      */
     public void setTiles(Tile[][] tiles) {
-        this.tiles = tiles;
+        allocate(tiles.length, tiles.length == 0 ? 0 : tiles[0].length);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                copyTile(x * height + y, tiles[x][y]);
+            }
+        }
+    }
+
+    /**
+     * Sets the values of a tile to the ones of another tile.
+     *
+     * @param id   the id of the tile
+     * @param tile the tile to copy the values from
+     */
+    private void copyTile(int id, Tile tile) {
+        price[id] = tile.getPrice();
+        resourceValue[id] = tile.getResourceValue();
+        ownerIndex[id] = ownerIndexOf(tile.getOwner());
+        flags[id] = (byte) ((tile.hasRiver() ? RIVER : 0) | (tile.isPurchased() ? PURCHASED : 0));
+        putEntity(id, tile.getEntity());
+        artifacts[id] = tile.getArtifact();
+        worldIndex[id] = indexOf(worlds, tile.getWorld());
+        getStatus(id).copyFrom(tile.getStatus());
+        index(id);
+        changed(id);
+    }
+
+    /**
+     * Gets the number of tiles in x direction.
+     *
+     * @return the width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of tiles in y direction.
+     *
+     * @return the height of the board
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of tiles, the ids of the tiles are 0 to this number minus one.
+     *
+     * @return the number of tiles
+     */
+    public int getTileCount() {
+        return views.length;
+    }
+
+    /**
+     * Gets the price of a tile.
+     *
+     * @param id the id of the tile
+     * @return the price
+     */
+    public int getPrice(int id) {
+        return price[id];
+    }
+
+    /**
+     * Gets the resource value of a tile.
+     *
+     * @param id the id of the tile
+     * @return the resource value
+     */
+    public int getResourceValue(int id) {
+        return resourceValue[id];
+    }
+
+    /**
+     * Gets the name of the owner of a tile.
+     *
+     * @param id the id of the tile
+     * @return the name of the owner, null if the tile has no owner
+     */
+    public String getOwner(int id) {
+        byte index = ownerIndex[id];
+        return index == NONE ? null : owners.get(index);
+    }
+
+    /**
+     * Gets the seat of the player owning a tile.
+     *
+     * @param id the id of the tile
+     * @return the seat of the owner, -1 if the tile has no owner or the owner is not seated
+     */
+    public int getOwnerSeat(int id) {
+        byte index = ownerIndex[id];
+        return index < seats ? index : NONE;
+    }
+
+    /**
+     * Sets the names of the seats of the game, e.g. when the game starts. The seats take the first entries of the
+     * table of owners, tiles owned by a name keep their owner.
+     *
+     * @param names the names of the players, indexed by seat
+     */
+    public void setSeats(List<String> names) {
+        if (names.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many seats: " + names.size());
+        }
+        List<String> previous = new ArrayList<>(owners);
+        owners.clear();
+        owners.addAll(names);
+        seats = names.size();
+        byte[] remap = new byte[previous.size()];
+        for (int i = 0; i < remap.length; i++) {
+            remap[i] = indexOf(owners, previous.get(i));
+        }
+        for (int id = 0; id < ownerIndex.length; id++) {
+            if (ownerIndex[id] != NONE) {
+                ownerIndex[id] = remap[ownerIndex[id]];
+                changedTiles[id / Long.SIZE] |= 1L << id;
+            }
+        }
+        reindex();
+    }
+
+    /**
+     * Renames the player of a seat, and with it the owner of all tiles of the seat. The tiles are not marked as
+     * changed, a rename is sent to the clients as a full state.
+     *
+     * @param seat the seat of the player
+     * @param name the new name of the player
+     */
+    public void renameSeat(int seat, String name) {
+        if (seat < 0 || seat >= seats) {
+            throw new IllegalArgumentException("No seat " + seat + " on the board");
+        }
+        owners.set(seat, name);
+        if (changeCounter != null) changeCounter.incrementAndGet();
+    }
+
+    /**
+     * Checks if a tile is purchased.
+     *
+     * @param id the id of the tile
+     * @return true if the tile is purchased
+     */
+    public boolean isPurchased(int id) {
+        return (flags[id] & PURCHASED) != 0;
+    }
+
+    /**
+     * Checks if a tile has a river.
+     *
+     * @param id the id of the tile
+     * @return true if the tile has a river
+     */
+    public boolean hasRiver(int id) {
+        return (flags[id] & RIVER) != 0;
+    }
+
+    /**
+     * Gets the entity on a tile.
+     *
+     * @param id the id of the tile
+     * @return the entity, null if the tile has none
+     */
+    public GameEntity getEntity(int id) {
+        return entities[id];
+    }
+
+    /**
+     * Gets the id of the entity on a tile without reading the entity.
+     *
+     * @param id the id of the tile
+     * @return the id of the entity, -1 if the tile has none
+     */
+    public int getEntityId(int id) {
+        return entityId[id];
+    }
+
+    /**
+     * Gets the artifact on a tile.
+     *
+     * @param id the id of the tile
+     * @return the artifact, null if the tile has none
+     */
+    public Artifact getArtifact(int id) {
+        return artifacts[id];
+    }
+
+    /**
+     * Gets the name of the world of a tile.
+     *
+     * @param id the id of the tile
+     * @return the name of the world
+     */
+    public String getWorld(int id) {
+        byte index = worldIndex[id];
+        return index == NONE ? null : worlds.get(index);
+    }
+
+    /**
+     * Gets the status of a tile.
+     *
+     * @param id the id of the tile
+     * @return the status
+     */
+    public Status getStatus(int id) {
+        Status status = statuses[id];
+        if (status == null) {
+            status = new Status(this, buffs, id);
+            statuses[id] = status;
+        }
+        return status;
+    }
+
+    /**
+     * Gets a value of the status of a tile without creating the view of the status.
+     *
+     * @param id   the id of the tile
+     * @param type the type of the buff
+     * @return the value, see {@link Status#get(Status.BuffType)}
+     */
+    public double getBuff(int id, Status.BuffType type) {
+        return buffs[id * Status.COUNT + type.ordinal()];
+    }
+
+    /**
+     * Checks if a tile or its status changed since the last state synchronization.
+     *
+     * @param id the id of the tile
+     * @return true if the tile changed
+     */
+    public boolean isDirty(int id) {
+        return (dirtyTiles[id / Long.SIZE] & 1L << id) != 0;
+    }
+
+    /**
+     * Marks a tile and its status as synchronized.
+     *
+     * @param id the id of the tile
+     */
+    public void clearDirty(int id) {
+        dirtyTiles[id / Long.SIZE] &= ~(1L << id);
+    }
+
+    /**
+     * Finds the next tile that changed since the last state synchronization, so a delta only visits the changed
+     * tiles.
+     *
+     * @param from the id to start at
+     * @return the id of the first changed tile whose id is at least {@code from}, -1 if there is none
+     */
+    public int nextDirtyTile(int from) {
+        return nextTile(dirtyTiles, from);
+    }
+
+    /**
+     * Sets the counter that is incremented on every change of a tile or its status.
+     *
+     * @param changeCounter the change counter of the game state, null to stop tracking
+     */
+    public void setChangeCounter(AtomicLong changeCounter) {
+        this.changeCounter = changeCounter;
+    }
+
+    /**
+     * Sets the price of a tile, see {@link Tile#setPrice(int)}.
+     *
+     * @param id    the id of the tile
+     * @param value the price
+     */
+    void setPrice(int id, int value) {
+        price[id] = value;
+        changed(id);
+    }
+
+    /**
+     * Sets the resource value of a tile, see {@link Tile#setResourceValue(int)}.
+     *
+     * @param id    the id of the tile
+     * @param value the resource value
+     */
+    void setResourceValue(int id, int value) {
+        resourceValue[id] = value;
+        changed(id);
+    }
+
+    /**
+     * Sets the owner of a tile, see {@link Tile#setOwner(String)}.
+     *
+     * @param id    the id of the tile
+     * @param owner the name of the owner, null to remove it
+     */
+    void setOwner(int id, String owner) {
+        ownerIndex[id] = ownerIndexOf(owner);
+        index(id);
+        changed(id);
+    }
+
+    /**
+     * Sets a player as the owner of a tile, see {@link Tile#setOwner(Player)}. The seat of the player is used if
+     * it is a seat of this board, the name otherwise.
+     *
+     * @param id    the id of the tile
+     * @param seat  the seat of the player, -1 if the player is not seated
+     * @param owner the name of the player
+     */
+    void setOwner(int id, int seat, String owner) {
+        ownerIndex[id] = seat >= 0 && seat < seats ? (byte) seat : ownerIndexOf(owner);
+        index(id);
+        changed(id);
+    }
+
+    /**
+     * Sets if a tile is purchased, see {@link Tile#setPurchased(boolean)}.
+     *
+     * @param id        the id of the tile
+     * @param purchased true if the tile is purchased
+     */
+    void setPurchased(int id, boolean purchased) {
+        setFlag(id, PURCHASED, purchased);
+    }
+
+    /**
+     * Sets if a tile has a river, see {@link Tile#setHasRiver(boolean)}.
+     *
+     * @param id    the id of the tile
+     * @param river true if the tile has a river
+     */
+    void setRiver(int id, boolean river) {
+        setFlag(id, RIVER, river);
+        index(id);
+    }
+
+    /**
+     * Sets the entity on a tile, see {@link Tile#setEntity(GameEntity)}.
+     *
+     * @param id     the id of the tile
+     * @param entity the entity, null to remove it
+     */
+    void setEntity(int id, GameEntity entity) {
+        putEntity(id, entity);
+        index(id);
+        changed(id);
+    }
+
+    /**
+     * Sets the artifact on a tile, see {@link Tile#setArtifact(Artifact)}.
+     *
+     * @param id       the id of the tile
+     * @param artifact the artifact, null to remove it
+     */
+    void setArtifact(int id, Artifact artifact) {
+        artifacts[id] = artifact;
+        index(id);
+        changed(id);
+    }
+
+    /**
+     * Sets the world of a tile, see {@link Tile#setWorld(String)}.
+     *
+     * @param id    the id of the tile
+     * @param world the name of the world
+     */
+    void setWorld(int id, String world) {
+        worldIndex[id] = indexOf(worlds, world);
+        changed(id);
+    }
+
+    /**
+     * Marks a tile as changed.
+     *
+     * @param id the id of the tile
+     */
+    void changed(int id) {
+        dirtyTiles[id / Long.SIZE] |= 1L << id;
+        changedTiles[id / Long.SIZE] |= 1L << id;
+        if (changeCounter != null) changeCounter.incrementAndGet();
+    }
+
+    /**
+     * Calls the consumer with the id of every tile changed since the last call, in the order of the ids, and
+     * forgets the changes. Changes of the owners of tiles, including the first assignment of the seats, count as
+     * changes; renames of seats do not. The changes are tracked apart from the ones sent to the clients, for a single
+     * consumer such as an income ledger.
+     *
+     * @param consumer called with the id of every changed tile
+     */
+    public void drainChangedTiles(IntConsumer consumer) {
+        for (int word = 0; word < changedTiles.length; word++) {
+            long bits = changedTiles[word];
+            changedTiles[word] = 0;
+            while (bits != 0) {
+                consumer.accept(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Gets the tiles with a river.
+     *
+     * @return the tiles, in the order of their ids
+     */
+    public List<Tile> getRiverTiles() {
+        return tilesOf(riverTiles);
+    }
+
+    /**
+     * Finds the next tile with an artifact.
+     *
+     * @param from the id to start at
+     * @return the id of the first tile with an artifact whose id is at least {@code from}, -1 if there is none
+     */
+    public int nextArtifactTile(int from) {
+        return nextTile(artifactTiles, from);
+    }
+
+    /**
+     * Checks if a seat is a seat of the game of this board, see {@link #setSeats(List)}.
+     *
+     * @param seat the seat
+     * @return true if tiles can be owned by the seat
+     */
+    public boolean hasSeat(int seat) {
+        return seat >= 0 && seat < seats;
+    }
+
+    /**
+     * Gets the tiles owned by a seat that have a structure.
+     *
+     * @param seat the seat of the owner
+     * @return the tiles, in the order of their ids
+     */
+    public List<Tile> getStructureTiles(int seat) {
+        return hasSeat(seat) ? tilesOf(structureTiles[seat]) : new ArrayList<>();
+    }
+
+    /**
+     * Checks if a seat owns a tile with a statue.
+     *
+     * @param seat the seat of the owner
+     * @return true if one of the tiles of the seat has a statue
+     */
+    public boolean hasStatue(int seat) {
+        return hasSeat(seat) && nextTile(statueTiles[seat], 0) >= 0;
+    }
+
+    /**
+     * Updates the bitsets of a tile after its river, artifact, entity or owner changed.
+     */
+    private void index(int id) {
+        int word = id / Long.SIZE;
+        long bit = 1L << id;
+        riverTiles[word] = hasRiver(id) ? riverTiles[word] | bit : riverTiles[word] & ~bit;
+        artifactTiles[word] = artifacts[id] != null ? artifactTiles[word] | bit : artifactTiles[word] & ~bit;
+        for (int seat = 0; seat < seats; seat++) {
+            structureTiles[seat][word] &= ~bit;
+            statueTiles[seat][word] &= ~bit;
+        }
+        int seat = getOwnerSeat(id);
+        GameEntity entity = entities[id];
+        if (seat >= 0 && entity != null) {
+            if (entity instanceof Structure) {
+                structureTiles[seat][word] |= bit;
+            } else if (entity instanceof Statue) {
+                statueTiles[seat][word] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Builds the bitsets of all tiles again, after the columns were replaced or the seats changed.
+     */
+    private void reindex() {
+        int words = (views.length + Long.SIZE - 1) / Long.SIZE;
+        riverTiles = new long[words];
+        artifactTiles = new long[words];
+        structureTiles = new long[seats][words];
+        statueTiles = new long[seats][words];
+        for (int id = 0; id < views.length; id++) {
+            index(id);
+        }
+    }
+
+    /**
+     * Returns the views of the tiles whose bits are set.
+     */
+    private List<Tile> tilesOf(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        List<Tile> result = new ArrayList<>(count);
+        for (int id = nextTile(bits, 0); id >= 0; id = nextTile(bits, id + 1)) {
+            result.add(views[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first id from the given one on whose bit is set, -1 if there is none.
+     */
+    private static int nextTile(long[] bits, int from) {
+        int word = from / Long.SIZE;
+        if (word >= bits.length) {
+            return NONE;
+        }
+        long rest = bits[word] & (-1L << from);
+        while (rest == 0) {
+            if (++word == bits.length) {
+                return NONE;
+            }
+            rest = bits[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(rest);
+    }
+
+    /**
+     * Marks all tiles as changed, both for the state synchronization and for
+     * {@link #drainChangedTiles(IntConsumer)}.
+     */
+    private void markAllChanged() {
+        fill(changedTiles);
+        fill(dirtyTiles);
+    }
+
+    /**
+     * Sets the bits of all tiles.
+     */
+    private void fill(long[] bits) {
+        Arrays.fill(bits, -1L);
+        int size = width * height;
+        if (size % Long.SIZE != 0) {
+            bits[bits.length - 1] = (1L << (size % Long.SIZE)) - 1;
+        }
+    }
+
+    /**
+     * Sets or clears a flag of a tile and marks it as changed.
+     */
+    private void setFlag(int id, byte flag, boolean value) {
+        flags[id] = (byte) (value ? flags[id] | flag : flags[id] & ~flag);
+        changed(id);
+    }
+
+    /**
+     * Sets the entity and the entity id of a tile without marking it as changed. The entity is told its tile, so
+     * changes of its state mark the tile as changed, and an entity taken from the tile forgets it.
+     */
+    private void putEntity(int id, GameEntity entity) {
+        GameEntity previous = entities[id];
+        if (previous != null && previous != entity && previous.getTile() == views[id]) {
+            previous.setTile(null);
+        }
+        if (entity != null) {
+            entity.setTile(views[id]);
+        }
+        entities[id] = entity;
+        entityId[id] = entity == null ? NONE : (short) entity.getId();
+    }
+
+    /**
+     * Returns the index of an owner in {@link #owners}, adding it if needed. Renamed owners stay in the table
+     * until it is full, then the names no tile refers to anymore are removed.
+     */
+    private byte ownerIndexOf(String owner) {
+        if (owner == null) {
+            return NONE;
+        }
+        if (owners.size() == Byte.MAX_VALUE && !owners.contains(owner)) {
+            compactOwners();
+        }
+        return indexOf(owners, owner);
+    }
+
+    /**
+     * Removes the names from {@link #owners} that no tile refers to. The seats keep their entries.
+     */
+    private void compactOwners() {
+        byte[] remap = new byte[owners.size()];
+        Arrays.fill(remap, NONE);
+        List<String> used = new ArrayList<>(owners.subList(0, seats));
+        for (byte seat = 0; seat < seats; seat++) {
+            remap[seat] = seat;
+        }
+        for (int id = 0; id < ownerIndex.length; id++) {
+            byte index = ownerIndex[id];
+            if (index != NONE) {
+                if (remap[index] == NONE) {
+                    remap[index] = (byte) used.size();
+                    used.add(owners.get(index));
+                }
+                ownerIndex[id] = remap[index];
+            }
+        }
+        owners.clear();
+        owners.addAll(used);
+    }
+
+    /**
+     * Returns the index of a name in a table, adding it if needed.
+     */
+    private static byte indexOf(List<String> names, String name) {
+        if (name == null) {
+            return NONE;
+        }
+        int index = names.indexOf(name);
+        if (index < 0) {
+            if (names.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many different names on the board: " + name);
+            }
+            index = names.size();
+            names.add(name);
+        }
+        return (byte) index;
     }
 
     /**
@@ -218,7 +1007,7 @@ public class Board {
         for (int i = 0; i < tiles.length; i++) {
             sb.append("[");
             for (int j = 0; j < tiles[i].length; j++) {
-                sb.append(tiles[i][j] != null ? tiles[i][j].toString() : "null");
+                sb.append(tiles[i][j].toString());
                 if (j < tiles[i].length - 1) sb.append(", ");
             }
             sb.append("]");
@@ -235,25 +1024,25 @@ public class Board {
      * - Marking tiles as unpurchased
      * - Removing any structures
      * - Resetting any tile-specific state
+     *
+     * @param random The source of randomness of the game, which draws the new resource values.
      */
-    public void resetTiles() {
-        for (Tile[] tile : tiles) {
-            for (Tile value : tile) {
-                if (value != null) {
-                    // Reset tile properties
-                    value.setPurchased(false);
-                    value.setEntity(null);
-                    value.setOwner(null);
-                    value.setArtifact(null); // Some tiles start with an artifact but upon reset they should be null
-                    value.setResourceValue(RandomGenerator.randomIntInRange(SETTINGS.Config.MIN_RESSOURCE_VALUE.getValue(), SETTINGS.Config.MAX_RESOURCE_VALUE.getValue()));
-                    value.setHasRiver(false);
-                    value.getStatus().reset(); // Reset price to default value
-
-                    // If there are other properties to reset, add them here
-                    // tiles[i][j].setSomeOtherProperty(defaultValue);
-                }
-            }
+    public void resetTiles(GameRandom random) {
+        Arrays.fill(ownerIndex, NONE);
+        for (int id = 0; id < views.length; id++) {
+            putEntity(id, null);
+        }
+        // Some tiles start with an artifact but upon reset they should be null
+        Arrays.fill(artifacts, null);
+        Arrays.fill(flags, (byte) 0);
+        markAllChanged();
+        owners.subList(seats, owners.size()).clear();
+        Status.reset(buffs, 0, views.length);
+        for (int id = 0; id < views.length; id++) {
+            resourceValue[id] = random.randomIntInRange(SETTINGS.Config.MIN_RESSOURCE_VALUE.getValue(), SETTINGS.Config.MAX_RESOURCE_VALUE.getValue());
         }
+        reindex();
+        if (changeCounter != null) changeCounter.incrementAndGet();
     }
 
     /**
@@ -272,7 +1061,7 @@ public class Board {
             adjacentTiles[index++] = tiles[x - 1][y];
         }
         // Down
-        if (x < tiles.length - 1) {
+        if (x < width - 1) {
             adjacentTiles[index++] = tiles[x + 1][y];
         }
         // Left
@@ -280,7 +1069,7 @@ public class Board {
             adjacentTiles[index++] = tiles[x][y - 1];
         }
         // Right
-        if (y < tiles[0].length - 1) {
+        if (y < height - 1) {
             adjacentTiles[index++] = tiles[x][y + 1];
         }
 
@@ -289,4 +1078,4 @@ public class Board {
         System.arraycopy(adjacentTiles, 0, result, 0, index);
         return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,369 @@
+package ch.unibas.dmi.dbis.cs108.shared.game;
+
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The layout of a board: the world of every tile, the tiles with a river and the tiles monuments are placed on.
+ * <p>
+ * Maps are read from JSON, either from the resource {@code /json/maps/<name>.json} or from a file. The tiles are
+ * given as rows of characters, one row per y coordinate, and a legend maps the characters to the names of the
+ * worlds:
+ * <pre>
+ * {
+ *   "worlds": {"A": "Alfheim", "G": "Asgard"},
+ *   "tiles": ["AAG", "AGG"],
+ *   "rivers": ["~..", "..."],
+ *   "monuments": [{"id": 40, "x": 2, "y": 0}]
+ * }
+ * </pre>
+ * The rivers are optional, {@code ~} marks a tile with a river. If the monuments are missing, they are placed on
+ * the tiles given by the monuments of the {@link EntityRegistry}.
+ * <p>
+ * A map is loaded by a spec of the form {@code <name>[:<width>x<height>]}. With a size, the map is repeated in both
+ * directions until it covers a board of that size, e.g. {@code default:32x32} for a large board built from the
+ * default map; the monuments are placed once, on the first copy. Maps are immutable and cached by their spec, so
+ * lobbies using the same map share it.
+ */
+public final class MapDefinition {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(MapDefinition.class.getName());
+
+    /**
+     * The name of the map of the original game
+     */
+    public static final String DEFAULT = "default";
+    /**
+     * The world of tiles outside the map
+     */
+    private static final String UNKNOWN = "Unknown";
+    /**
+     * The character marking a tile with a river
+     */
+    private static final char RIVER = '~';
+    /**
+     * A spec with the size of a tiled map
+     */
+    private static final Pattern SIZED = Pattern.compile("(.+):(\\d+)x(\\d+)");
+    /**
+     * The maps loaded so far by their spec
+     */
+    private static final Map<String, MapDefinition> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * The spec the map was loaded with
+     */
+    private final String name;
+    /**
+     * The number of tiles in x direction
+     */
+    private final int width;
+    /**
+     * The number of tiles in y direction
+     */
+    private final int height;
+    /**
+     * The world of every tile, indexed by {@code x * height + y} like the tiles of a board
+     */
+    private final String[] worlds;
+    /**
+     * The tiles with a river
+     */
+    private final BitSet rivers;
+    /**
+     * The id of the monument on every tile, -1 for none
+     */
+    private final int[] monuments;
+
+    /**
+     * Creates a map from its tiles.
+     */
+    private MapDefinition(String name, int width, int height, String[] worlds, BitSet rivers, int[] monuments) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.worlds = worlds;
+        this.rivers = rivers;
+        this.monuments = monuments;
+    }
+
+    /**
+     * Gets the map of the original game, 8 by 7 tiles.
+     *
+     * @return the default map
+     */
+    public static MapDefinition getDefault() {
+        return load(DEFAULT);
+    }
+
+    /**
+     * Loads a map by its spec, {@code <name>[:<width>x<height>]}, see the description of the class. The name is
+     * looked up as a resource in {@code /json/maps} first, then as a path of a file.
+     *
+     * @param spec the spec of the map
+     * @return the map
+     * @throws IllegalArgumentException if the map does not exist or is invalid
+     */
+    public static MapDefinition load(String spec) {
+        MapDefinition map = CACHE.get(spec);
+        if (map == null) {
+            // Not computeIfAbsent, as reading a tiled map loads the map it repeats
+            map = read(spec);
+            MapDefinition previous = CACHE.putIfAbsent(spec, map);
+            if (previous != null) {
+                map = previous;
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Reads the map of a spec.
+     */
+    private static MapDefinition read(String spec) {
+        Matcher sized = SIZED.matcher(spec);
+        if (sized.matches()) {
+            try {
+                int width = Integer.parseInt(sized.group(2));
+                int height = Integer.parseInt(sized.group(3));
+                return load(sized.group(1)).tiled(spec, width, height);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid size of map " + spec, e);
+            }
+        }
+        InputStream is = MapDefinition.class.getResourceAsStream("/json/maps/" + spec + ".json");
+        try {
+            if (is == null) {
+                Path path = Path.of(spec);
+                if (!Files.isRegularFile(path)) {
+                    throw new IllegalArgumentException("Could not find map " + spec);
+                }
+                is = Files.newInputStream(path);
+            }
+            try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+                MapDefinition map = fromJson(spec, JsonParser.parseReader(reader).getAsJsonObject());
+                LOGGER.info("Loaded map " + spec + " with " + map.width + "x" + map.height + " tiles");
+                return map;
+            }
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // Missing or mistyped entries of the JSON fail with various runtime exceptions of Gson
+            throw new IllegalArgumentException("Could not read map " + spec + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a map from its JSON object.
+     *
+     * @param name the spec of the map
+     * @param json the map
+     * @return the map
+     * @throws IllegalArgumentException if the map is invalid
+     */
+    static MapDefinition fromJson(String name, JsonObject json) {
+        Map<Character, String> legend = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("worlds").entrySet()) {
+            if (entry.getKey().length() != 1) {
+                throw new IllegalArgumentException("World key " + entry.getKey() + " is not a single character");
+            }
+            legend.put(entry.getKey().charAt(0), entry.getValue().getAsString());
+        }
+        String[] rows = rows(json.getAsJsonArray("tiles"));
+        int height = rows.length;
+        int width = height == 0 ? 0 : rows[0].length();
+        if (width == 0) {
+            throw new IllegalArgumentException("Map " + name + " has no tiles");
+        }
+
+        String[] worlds = new String[width * height];
+        for (int y = 0; y < height; y++) {
+            if (rows[y].length() != width) {
+                throw new IllegalArgumentException("Row " + y + " of map " + name + " does not have "
+                        + width + " tiles");
+            }
+            for (int x = 0; x < width; x++) {
+                String world = legend.get(rows[y].charAt(x));
+                if (world == null) {
+                    throw new IllegalArgumentException("Unknown world " + rows[y].charAt(x) + " at " + x + "," + y);
+                }
+                worlds[x * height + y] = world;
+            }
+        }
+
+        BitSet rivers = new BitSet(worlds.length);
+        if (json.has("rivers")) {
+            String[] riverRows = rows(json.getAsJsonArray("rivers"));
+            for (int y = 0; y < Math.min(height, riverRows.length); y++) {
+                for (int x = 0; x < Math.min(width, riverRows[y].length()); x++) {
+                    if (riverRows[y].charAt(x) == RIVER) {
+                        rivers.set(x * height + y);
+                    }
+                }
+            }
+        }
+
+        int[] monuments = new int[worlds.length];
+        Arrays.fill(monuments, -1);
+        if (json.has("monuments")) {
+            for (JsonElement element : json.getAsJsonArray("monuments")) {
+                JsonObject monument = element.getAsJsonObject();
+                place(monuments, width, height, monument.get("id").getAsInt(),
+                        monument.get("x").getAsInt(), monument.get("y").getAsInt());
+            }
+        } else {
+            for (Monument monument : EntityRegistry.getAllMonuments()) {
+                for (Monument.Coordinates tile : monument.getTiles()) {
+                    place(monuments, width, height, monument.getId(), tile.x, tile.y);
+                }
+            }
+        }
+        return new MapDefinition(name, width, height, worlds, rivers, monuments);
+    }
+
+    /**
+     * Reads the rows of a grid of characters.
+     */
+    private static String[] rows(JsonArray array) {
+        String[] rows = new String[array.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = array.get(i).getAsString();
+        }
+        return rows;
+    }
+
+    /**
+     * Places a monument on a tile, if the tile is on the map.
+     */
+    private static void place(int[] monuments, int width, int height, int id, int x, int y) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            monuments[x * height + y] = id;
+        } else {
+            LOGGER.warning("Monument " + id + " at " + x + "," + y + " is outside the map");
+        }
+    }
+
+    /**
+     * Creates a map of the given size by repeating this map in both directions. The monuments are only placed on
+     * the tiles of the first copy, so every monument exists once.
+     *
+     * @param name   the spec of the new map
+     * @param width  the number of tiles in x direction
+     * @param height the number of tiles in y direction
+     * @return the map
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public MapDefinition tiled(String name, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid size of map " + name + ": " + width + "x" + height);
+        }
+        String[] tiledWorlds = new String[width * height];
+        BitSet tiledRivers = new BitSet(tiledWorlds.length);
+        int[] tiledMonuments = new int[tiledWorlds.length];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int id = x * height + y;
+                int source = x % this.width * this.height + y % this.height;
+                tiledWorlds[id] = worlds[source];
+                tiledRivers.set(id, rivers.get(source));
+                tiledMonuments[id] = x < this.width && y < this.height ? monuments[source] : -1;
+            }
+        }
+        return new MapDefinition(name, width, height, tiledWorlds, tiledRivers, tiledMonuments);
+    }
+
+    /**
+     * Gets the spec the map was loaded with, which loads the same map again with {@link #load(String)}.
+     *
+     * @return the spec
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of tiles in x direction.
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of tiles in y direction.
+     *
+     * @return the height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the world of a tile.
+     *
+     * @param x the x coordinate of the tile
+     * @param y the y coordinate of the tile
+     * @return the name of the world, "Unknown" outside the map
+     */
+    public String getWorld(int x, int y) {
+        return contains(x, y) ? worlds[x * height + y] : UNKNOWN;
+    }
+
+    /**
+     * Checks if a tile has a river.
+     *
+     * @param x the x coordinate of the tile
+     * @param y the y coordinate of the tile
+     * @return if the tile has a river, false outside the map
+     */
+    public boolean hasRiver(int x, int y) {
+        return contains(x, y) && rivers.get(x * height + y);
+    }
+
+    /**
+     * Gets the monument placed on a tile.
+     *
+     * @param x the x coordinate of the tile
+     * @param y the y coordinate of the tile
+     * @return the id of the monument, -1 if there is none or the tile is outside the map
+     */
+    public int getMonument(int x, int y) {
+        return contains(x, y) ? monuments[x * height + y] : -1;
+    }
+
+    /**
+     * Checks if a tile is on the map.
+     */
+    private boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    @Override
+    public String toString() {
+        return "MapDefinition{" + name + ", " + width + "x" + height + "}";
+    }
+}
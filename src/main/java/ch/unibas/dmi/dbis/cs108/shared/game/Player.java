@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Player class is responsible for creating a player object
@@ -22,6 +23,8 @@ public class Player {
     private final UUID playerID;
     /** The name of the player */
     private String name;
+    /** The seat of the player in its game, -1 if the player is not seated */
+    private int seat = -1;
     /** The amount of runes the player has */
     private int runes;
     /** The amount of energy the player has */
@@ -34,10 +37,16 @@ public class Player {
     private List<PurchasableEntity> purchasableEntities = new ArrayList<>();
     /** The list of monuments */
     private List<Monument> monuments = new ArrayList<>();
+    /** The number of changes of the owned monuments, for the set bonuses counted by the income ledger */
+    private int monumentChanges;
     /**  The status of the player */
     private Status status;
     /** The number of tiles the player has bought this round */
     private int roundBoughtTiles;
+    /** If the player changed since the last state synchronization */
+    private boolean dirty = true;
+    /** Counter of the game state incremented on every change, null if the player is not tracked */
+    private AtomicLong changeCounter;
 
     /**
      * Constructor for Player class
@@ -55,6 +64,25 @@ public class Player {
         roundBoughtTiles = 0;
     }
 
+    /**
+     * Copy constructor for a fork of a game state. Copies the id, name, seat, resources and status of the player.
+     * The owned tiles and held entities are left empty: they are shared with the board, so the copy must hold
+     * the copies of the board, which only the caller knows.
+     *
+     * @param other the player to copy
+     */
+    public Player(Player other) {
+        this.playerID = other.playerID;
+        this.name = other.name;
+        this.seat = other.seat;
+        this.runes = other.runes;
+        this.energy = other.energy;
+        this.status = new Status();
+        this.status.copyFrom(other.status);
+        this.roundBoughtTiles = other.roundBoughtTiles;
+        this.monumentChanges = other.monumentChanges;
+    }
+
     /**
      * Method for buying anything
      * Removes runes from the player according to given price and taking into account the buffs
@@ -63,6 +91,7 @@ public class Player {
      * @return boolean
      */
     public boolean buy(int price) {
+        changed();
         if (price < 0) {
             return false;
         }
@@ -126,6 +155,7 @@ public class Player {
      * @param purchasableEntities the purchasableEntities to set
      */
     public void setPurchasableEntities(List<PurchasableEntity> purchasableEntities) {
+        changed();
         this.purchasableEntities = purchasableEntities;
     }
 
@@ -135,6 +165,7 @@ public class Player {
      * @param entity the purchasable entity to add
      */
     public void addPurchasableEntity(PurchasableEntity entity) {
+        changed();
         purchasableEntities.add(entity);
     }
 
@@ -144,6 +175,7 @@ public class Player {
      * @param entity Structure
      */
     public void removePurchasableEntity(PurchasableEntity entity) {
+        changed();
         purchasableEntities.remove(entity);
     }
 
@@ -163,6 +195,7 @@ public class Player {
      * @param monuments the monuments to set
      */
     public void setMonuments(List<Monument> monuments) {
+        monumentChanges++;
         this.monuments = monuments;
     }
 
@@ -172,6 +205,7 @@ public class Player {
      * @param monument the monument to add
      */
     public void addOwnedMonument(Monument monument) {
+        monumentChanges++;
         monuments.add(monument);
     }
 
@@ -181,9 +215,19 @@ public class Player {
      * @param monument monument
      */
     public void removeMonument(Monument monument) {
+        monumentChanges++;
         monuments.remove(monument);
     }
 
+    /**
+     * Getter for the number of changes of the owned monuments, it changes whenever a monument is added or removed
+     *
+     * @return the number of changes
+     */
+    public int getMonumentChanges() {
+        return monumentChanges;
+    }
+
     /**
      * Checks whether a player has a complete set of a certain monument
      *
@@ -246,6 +290,7 @@ public class Player {
      * @param artifacts the artifacts
      */
     public void setArtifacts(List<Artifact> artifacts) {
+        changed();
         this.artifacts = artifacts;
     }
 
@@ -256,6 +301,7 @@ public class Player {
      * @return true if the action was successful
      */
     public boolean addArtifact(Artifact artifact) {
+        changed();
         if (artifacts.size() < SETTINGS.Config.MAX_ARTIFACTS.getValue()) {
             artifacts.add(artifact);
             return true;
@@ -269,6 +315,7 @@ public class Player {
      * @param artifact Artefact
      */
     public void removeArtifact(Artifact artifact) {
+        changed();
         artifacts.remove(artifact);
     }
 
@@ -296,9 +343,28 @@ public class Player {
      * @param name String
      */
     public void setName(String name) {
+        changed();
         this.name = name;
     }
 
+    /**
+     * Getter for the seat
+     *
+     * @return the index of the player in the players of its game, -1 if the player is not seated
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Setter for the seat
+     *
+     * @param seat the index of the player in the players of its game
+     */
+    public void setSeat(int seat) {
+        this.seat = seat;
+    }
+
     /**
      * Getter for player id
      *
@@ -323,6 +389,7 @@ public class Player {
      * @param runes int
      */
     public void setRunes(int runes) {
+        changed();
         this.runes = runes;
     }
 
@@ -341,6 +408,7 @@ public class Player {
      * @param energy int
      */
     public void setEnergy(int energy) {
+        changed();
         this.energy = energy;
     }
 
@@ -368,6 +436,7 @@ public class Player {
      * @param ownedTiles List Tile
      */
     public void setOwnedTiles(List<Tile> ownedTiles) {
+        changed();
         this.ownedTiles = ownedTiles;
     }
 
@@ -378,6 +447,7 @@ public class Player {
      *   @return int
      */
     public int addRunes(int amount) {
+        changed();
         runes += amount;
         if (runes < 0) {
             amount += runes;
@@ -395,6 +465,7 @@ public class Player {
      * @param amount int
      */
     public void addEnergy(int amount) {
+        changed();
         if (energy + amount > SETTINGS.Config.MAX_ENERGY.getValue()) {
             energy = 4;
             return;
@@ -412,9 +483,10 @@ public class Player {
      * @param tile Tile
      */
     public void addOwnedTile(Tile tile) {
+        changed();
         if (!ownedTiles.contains(tile) && tile != null) {
             ownedTiles.add(tile);
-            tile.setOwner(name);
+            tile.setOwner(this);
         }
     }
 
@@ -438,10 +510,13 @@ public class Player {
      * Cleanup the resources at the end of the game.
      */
     public void reset() {
+        changed();
         this.ownedTiles.clear();
         this.purchasableEntities.clear();
         this.monuments.clear();
+        this.monumentChanges++;
         this.status = new Status();
+        this.status.setChangeCounter(changeCounter);
         this.roundBoughtTiles = 0;
         this.name = "";
         this.artifacts.clear();
@@ -449,6 +524,48 @@ public class Player {
         this.energy = 0;
     }
 
+    /**
+     * Checks if the player or its status changed since the last state synchronization.
+     *
+     * @return true if the player changed
+     */
+    public boolean isDirty() {
+        return dirty || status.isDirty();
+    }
+
+    /**
+     * Marks the player as changed, e.g. after one of its lists was modified directly.
+     */
+    public void markDirty() {
+        changed();
+    }
+
+    /**
+     * Sets the counter that is incremented on every change of this player or its status.
+     *
+     * @param changeCounter the change counter of the game state, null to stop tracking
+     */
+    public void setChangeCounter(AtomicLong changeCounter) {
+        this.changeCounter = changeCounter;
+        status.setChangeCounter(changeCounter);
+    }
+
+    /**
+     * Marks the player as changed.
+     */
+    private void changed() {
+        dirty = true;
+        if (changeCounter != null) changeCounter.incrementAndGet();
+    }
+
+    /**
+     * Marks the player and its status as synchronized.
+     */
+    public void clearDirty() {
+        dirty = false;
+        status.clearDirty();
+    }
+
     /**
      * Checks is the player already owns a statue
      *
@@ -469,6 +586,7 @@ public class Player {
      * @param removeTile the tile to remove
      */
     public void removeOwnedTile(Tile removeTile) {
+        changed();
         for (Tile tile : ownedTiles) {
             if (tile.getX() == removeTile.getX() && tile.getY() == removeTile.getY()) {
                 ownedTiles.remove(tile);
@@ -498,6 +616,10 @@ public class Player {
      * @return the List of Tiles with Structures
      */
     public List<Tile> getTilesWithStructures() {
+        Board board = getSeatedBoard();
+        if (board != null) {
+            return board.getStructureTiles(seat);
+        }
         List<Tile> tilesWithStructures = new ArrayList<>();
         for (Tile tile : ownedTiles) {
             if (tile.hasEntity() && tile.getEntity() instanceof Structure) {
@@ -507,4 +629,18 @@ public class Player {
         return tilesWithStructures;
     }
 
+    /**
+     * Gets the board of the owned tiles if the player is seated on it, so its indexes of the tiles of the seat can
+     * be used instead of the list of owned tiles.
+     *
+     * @return the board, null if the player owns no tiles or is not seated on their board
+     */
+    private Board getSeatedBoard() {
+        if (ownedTiles.isEmpty()) {
+            return null;
+        }
+        Board board = ownedTiles.get(0).getBoard();
+        return board.hasSeat(seat) ? board : null;
+    }
+
 }
\ No newline at end of file
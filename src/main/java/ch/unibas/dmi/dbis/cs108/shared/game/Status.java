@@ -1,66 +1,89 @@
 package ch.unibas.dmi.dbis.cs108.shared.game;
 
-import javafx.fxml.FXML;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Status class represents the status of a player in the game.
  * It can be used to track various buffs and debuffs
+ * <p>
+ * The values are stored in a {@code double[]} indexed by the ordinal of the {@link BuffType}, {@link #COUNT}
+ * entries from an offset. A status of a player owns its array and its change flag. The statuses of the tiles of a
+ * {@link Board} are views of one array of the board and use the change flags of the tiles, so the board can copy
+ * and reset all of them at once and only creates a view when a status is asked for.
  */
 public class Status {
 
     /**
-     * This value determines the efficiency of rune generation.
+     * The number of values of a status, one per buff type
      */
-    private double runeEfficieny;
+    static final int COUNT = BuffType.values().length;
     /**
-     * This value determines the efficiency of energy generation.
+     * The values of a new status: all efficiencies are 1.0 and the status is debuffable
      */
-    private double energyEfficiency;
+    private static final double[] DEFAULTS = new double[COUNT];
     /**
-     * This value determines the efficiency of rune generation for river tiles.
+     * The lowest value of every buff type
      */
-    private double riverRuneEfficiency;
+    private static final double[] MINIMUM = new double[COUNT];
+
+    static {
+        Arrays.fill(DEFAULTS, 1.0);
+        MINIMUM[BuffType.SHOP_PRICE.ordinal()] = 0.5;
+    }
+
     /**
-     * This value determines the efficiency of shop prices.
+     * The values of the status, {@link #COUNT} entries from {@link #offset}
      */
-    private double shopPriceEfficiency;
+    private final double[] values;
     /**
-     * This value determines the artifact chance.
+     * The index of the first value of the status in {@link #values}
      */
-    private double artifactChance;
+    private final int offset;
     /**
-     * This value determines wether the player is debuffable or not.
+     * The board holding the values of the status of a tile, null for the status of a player
      */
-    private boolean debuffable;
+    private final Board board;
+    /**
+     * Flag indicating whether the status changed since the last state synchronization.
+     */
+    private boolean dirty = true;
+    /**
+     * Counter of the game state incremented on every change, null if the status is not tracked.
+     */
+    private AtomicLong changeCounter;
     /**
      * Constructor for Status class.
      * Initializes the efficiency values to default.
      */
     public Status() {
-        this.energyEfficiency = 1.0;
-        this.runeEfficieny = 1.0;
-        this.riverRuneEfficiency = 1.0;
-        this.shopPriceEfficiency = 1.0;
-        this.artifactChance = 1.0;
-        this.debuffable = true; // Default to debuffable
+        this.values = new double[COUNT];
+        this.offset = 0;
+        this.board = null;
+        reset(values, 0, 1);
+    }
+
+    /**
+     * Creates the view of the status of a tile, see {@link Board#getStatus(int)}.
+     *
+     * @param board  the board of the tile
+     * @param values the array of the board holding the values of all statuses
+     * @param id     the id of the tile
+     */
+    Status(Board board, double[] values, int id) {
+        this.values = values;
+        this.offset = id * COUNT;
+        this.board = board;
     }
 
     /**
      * Gets the efficiency value for a specific buff type.
      *
      * @param type the type of buff
-     * @return the efficiency value for the specified buff type
+     * @return the efficiency value for the specified buff type, 1.0 or 0.0 for {@link BuffType#DEBUFFABLE}
      */
     public double get(BuffType type) {
-        return switch (type) {
-            case RUNE_GENERATION -> runeEfficieny;
-            case ENERGY_GENERATION -> energyEfficiency;
-            case RIVER_RUNE_GENERATION -> riverRuneEfficiency;
-            case SHOP_PRICE -> shopPriceEfficiency;
-            case ARTIFACT_CHANCE -> artifactChance;
-            case DEBUFFABLE -> debuffable ? 1.0 : 0.0; // Return 1.0 if debuffable, else 0.0
-            default -> throw new IllegalArgumentException("Unknown buff type: " + type);
-        };
+        return values[offset + type.ordinal()];
     }
 
     /**
@@ -70,31 +93,13 @@ public class Status {
      * @param value the value of the buff (positive for buff, negative for debuff)
      */
     public void buff(BuffType type, double value) {
+        changed();
         value = Math.round(value * 100) / 100.0; // Round to 2 decimal places
-        switch (type) {
-            case RUNE_GENERATION:
-                runeEfficieny = Math.round((runeEfficieny + value) * 100) / 100.0;
-                if (runeEfficieny < 0) runeEfficieny = 0;
-                break;
-            case ENERGY_GENERATION:
-                energyEfficiency = Math.round((energyEfficiency + value) * 100) / 100.0;
-                if (energyEfficiency < 0) energyEfficiency = 0;
-                break;
-            case RIVER_RUNE_GENERATION:
-                riverRuneEfficiency = Math.round((riverRuneEfficiency + value) * 100) / 100.0;
-                if (riverRuneEfficiency < 0) riverRuneEfficiency = 0;
-                break;
-            case SHOP_PRICE:
-                shopPriceEfficiency = Math.round((shopPriceEfficiency + value) * 100) / 100.0;
-                if (shopPriceEfficiency < 0.5) shopPriceEfficiency = 0.5;
-                break;
-            case ARTIFACT_CHANCE:
-                artifactChance = Math.round((artifactChance + value) * 100) / 100.0;
-                if (artifactChance < 0) artifactChance = 0;
-                break;
-            case DEBUFFABLE:
-                debuffable = value > 0;
-                break;
+        int index = offset + type.ordinal();
+        if (type == BuffType.DEBUFFABLE) {
+            values[index] = value > 0 ? 1.0 : 0.0;
+        } else {
+            values[index] = Math.max(MINIMUM[type.ordinal()], Math.round((values[index] + value) * 100) / 100.0);
         }
     }
 
@@ -102,12 +107,21 @@ public class Status {
      * Resets the status to default values.
      */
     public void reset() {
-        this.energyEfficiency = 1.0;
-        this.runeEfficieny = 1.0;
-        this.riverRuneEfficiency = 1.0;
-        this.shopPriceEfficiency = 1.0;
-        this.artifactChance = 1.0;
-        this.debuffable = true; // Default to debuffable
+        changed();
+        reset(values, offset, 1);
+    }
+
+    /**
+     * Sets statuses stored one after the other in an array to the default values.
+     *
+     * @param values the array holding the values
+     * @param offset the index of the first value of the first status
+     * @param count  the number of statuses
+     */
+    static void reset(double[] values, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(DEFAULTS, 0, values, offset + i * COUNT, COUNT);
+        }
     }
 
     /**
@@ -117,15 +131,60 @@ public class Status {
      * @param value    the efficiency value to set
      */
     public void set(BuffType buffType, double value) {
-        switch (buffType) {
-            case RUNE_GENERATION -> runeEfficieny = value;
-            case ENERGY_GENERATION -> energyEfficiency = value;
-            case RIVER_RUNE_GENERATION -> riverRuneEfficiency = value;
-            case SHOP_PRICE -> shopPriceEfficiency = value;
-            case ARTIFACT_CHANCE -> artifactChance = value;
-            case DEBUFFABLE -> debuffable = value > 0; // Return 1.0 if debuffable, else 0.0
-            default -> throw new IllegalArgumentException("Unknown buff type: " + buffType);
-        };
+        changed();
+        values[offset + buffType.ordinal()] = buffType == BuffType.DEBUFFABLE ? (value > 0 ? 1.0 : 0.0) : value;
+    }
+
+    /**
+     * Sets all efficiency values to the ones of another status, e.g. for a copy of a game state.
+     *
+     * @param other the status to copy the values from
+     */
+    public void copyFrom(Status other) {
+        changed();
+        System.arraycopy(other.values, other.offset, values, offset, COUNT);
+    }
+
+    /**
+     * Checks if the status changed since the last state synchronization.
+     *
+     * @return true if the status changed
+     */
+    public boolean isDirty() {
+        return board != null ? board.isDirty(offset / COUNT) : dirty;
+    }
+
+    /**
+     * Marks the status as synchronized.
+     */
+    public void clearDirty() {
+        if (board != null) {
+            board.clearDirty(offset / COUNT);
+        } else {
+            dirty = false;
+        }
+    }
+
+    /**
+     * Sets the counter that is incremented on every change of this status. The status of a tile uses the counter
+     * of its board.
+     *
+     * @param changeCounter the change counter of the game state, null to stop tracking
+     */
+    public void setChangeCounter(AtomicLong changeCounter) {
+        this.changeCounter = changeCounter;
+    }
+
+    /**
+     * Marks the status as changed.
+     */
+    private void changed() {
+        if (board != null) {
+            board.changed(offset / COUNT);
+            return;
+        }
+        dirty = true;
+        if (changeCounter != null) changeCounter.incrementAndGet();
     }
 
     /**
@@ -167,12 +226,12 @@ public class Status {
     @Override
     public String toString() {
         return "Status{" +
-                "runeEfficieny=" + runeEfficieny +
-                ", energyEfficiency=" + energyEfficiency +
-                ", riverRuneEfficiency=" + riverRuneEfficiency +
-                ", shopPriceEfficiency=" + shopPriceEfficiency +
-                ", artifactChance=" + artifactChance +
-                ", debuffable=" + debuffable +
+                "runeEfficieny=" + get(BuffType.RUNE_GENERATION) +
+                ", energyEfficiency=" + get(BuffType.ENERGY_GENERATION) +
+                ", riverRuneEfficiency=" + get(BuffType.RIVER_RUNE_GENERATION) +
+                ", shopPriceEfficiency=" + get(BuffType.SHOP_PRICE) +
+                ", artifactChance=" + get(BuffType.ARTIFACT_CHANCE) +
+                ", debuffable=" + (get(BuffType.DEBUFFABLE) > 0) +
                 '}';
     }
 }
@@ -7,33 +7,23 @@ import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
  * Represents a tile on the game board.
  * Each tile can contain an entity, an artifact, and has various properties
  * such as ownership, price, and resource value.
+ * <p>
+ * A tile is a view of its {@link Board}, which stores the values of all tiles in arrays; getters and setters read
+ * and write the entries of the tile in these arrays. The board creates one view per tile, so tiles can be compared
+ * by identity. A tile created with a {@link TileBuilder} is the only tile of a board of its own.
  */
 public class Tile {
 
+    /** The board holding the values of the tile */
+    private final Board board;
+    /** The index of the tile in the arrays of the board */
+    private final int index;
     /** x-coordinate */
     private final int x;
     /** y-coordinate */
     private final int y;
-    /** name of the owner */
-    private String owner; //ownerID
-    /** price of the tile */
-    private int price;
-    /** The entity on the tile */
-    private GameEntity entity; // Not an artifact
-    /** The artifact on the tile */
-    private Artifact artefact;
-    /** The world the tile is in */
-    private String world;
-    /** If the tile is purchased or not */
-    private boolean purchased;
-    /** The value of the tile */
-    private int resourceValue; //Runes: bei spezifischen sind es energy: dort vermerkt
-    /** If the tile has a river */
-    private boolean hasRiver; //has a river = true
     /** the id of the tile */
-    private int tileID;
-    /** the status of the tile */
-    private final Status status;
+    private final int tileID;
 
     /**
      * Constructor for Tile.
@@ -41,18 +31,35 @@ public class Tile {
      * @param builder The TileBuilder object containing the parameters for this tile
      */
     public Tile(TileBuilder builder) {
+        this.board = new Board(1, 1);
+        this.index = 0;
         this.x = builder.x;
         this.y = builder.y;
-        this.owner = builder.owner;
-        this.price = builder.price;
-        this.entity = builder.entity;
-        this.artefact = builder.artefact;
-        this.world = builder.world;
-        this.purchased = builder.purchased;
-        this.resourceValue = builder.resourceValue;
-        this.hasRiver = builder.hasRiver;
         this.tileID = builder.tileID;
-        status = new Status();
+        board.setOwner(0, builder.owner);
+        board.setPrice(0, builder.price);
+        board.setEntity(0, builder.entity);
+        board.setArtifact(0, builder.artefact);
+        board.setWorld(0, builder.world);
+        board.setPurchased(0, builder.purchased);
+        board.setResourceValue(0, builder.resourceValue);
+        board.setRiver(0, builder.hasRiver);
+    }
+
+    /**
+     * Creates the view of a tile of a board.
+     *
+     * @param board the board
+     * @param index the index of the tile in the arrays of the board, which is also its id
+     * @param x     x-coordinate
+     * @param y     y-coordinate
+     */
+    Tile(Board board, int index, int x, int y) {
+        this.board = board;
+        this.index = index;
+        this.x = x;
+        this.y = y;
+        this.tileID = index;
     }
 
     /**
@@ -79,7 +86,7 @@ public class Tile {
      * @return true if the tile has an entity, false otherwise
      */
     public boolean hasEntity() {
-        return this.entity != null;
+        return board.getEntity(index) != null;
     }
 
     /**
@@ -89,7 +96,7 @@ public class Tile {
      * @param effect   the effect of the buff
      */
     public void setBuff(Status.BuffType buffType, double effect) {
-        status.buff(buffType, effect);
+        getStatus().buff(buffType, effect);
     }
 
     /**
@@ -98,7 +105,17 @@ public class Tile {
      * @return Status
      */
     public Status getStatus() {
-        return status;
+        return board.getStatus(index);
+    }
+
+    /**
+     * Gets a value of the status of the tile, see {@link Status#get(Status.BuffType)}.
+     *
+     * @param type the type of the buff
+     * @return the value
+     */
+    public double getBuff(Status.BuffType type) {
+        return board.getBuff(index, type);
     }
 
     /**
@@ -108,7 +125,7 @@ public class Tile {
      * @param value the value of the buff (positive for buff, negative for debuff)
      */
     public void addBuff(Status.BuffType buff, double value) {
-        status.buff(buff, value);
+        getStatus().buff(buff, value);
     }
 
     /**
@@ -117,7 +134,7 @@ public class Tile {
      * @return the entity
      */
     public GameEntity getEntity() {
-        return entity;
+        return board.getEntity(index);
     }
 
     /**
@@ -126,7 +143,7 @@ public class Tile {
      * @param entity the entity to set
      */
     public void setEntity(GameEntity entity) {
-        this.entity = entity;
+        board.setEntity(index, entity);
     }
 
     /**
@@ -135,7 +152,7 @@ public class Tile {
      * @return the owner
      */
     public String getOwner() {
-        return owner;
+        return board.getOwner(index);
     }
 
     /**
@@ -144,7 +161,25 @@ public class Tile {
      * @param owner the owner to set
      */
     public void setOwner(String owner) {
-        this.owner = owner;
+        board.setOwner(index, owner);
+    }
+
+    /**
+     * Sets a player as the owner, by the seat of the player if it is seated at the game of the board.
+     *
+     * @param player the new owner
+     */
+    public void setOwner(Player player) {
+        board.setOwner(index, player.getSeat(), player.getName());
+    }
+
+    /**
+     * Gets the seat of the owner, so ownership can be checked without comparing names.
+     *
+     * @return the seat of the owner, -1 if the tile has no owner or the owner is not seated
+     */
+    public int getOwnerSeat() {
+        return board.getOwnerSeat(index);
     }
 
     /**
@@ -153,7 +188,7 @@ public class Tile {
      * @return the price
      */
     public int getPrice() {
-        return price;
+        return board.getPrice(index);
     }
 
     /**
@@ -162,7 +197,7 @@ public class Tile {
      * @param price the price to set
      */
     public void setPrice(int price) {
-        this.price = price;
+        board.setPrice(index, price);
     }
 
     /**
@@ -171,7 +206,7 @@ public class Tile {
      * @return the artifact
      */
     public Artifact getArtifact() {
-        return artefact;
+        return board.getArtifact(index);
     }
 
     /**
@@ -180,7 +215,7 @@ public class Tile {
      * @param artefact the artifact to set
      */
     public void setArtifact(Artifact artefact) {
-        this.artefact = artefact;
+        board.setArtifact(index, artefact);
     }
 
     /**
@@ -189,7 +224,7 @@ public class Tile {
      * @return the world
      */
     public String getWorld() {
-        return world;
+        return board.getWorld(index);
     }
 
     /**
@@ -198,7 +233,7 @@ public class Tile {
      * @param s the name of the world to set.
      */
     public void setWorld(String s) {
-        this.world = s;
+        board.setWorld(index, s);
     }
 
     /**
@@ -207,7 +242,7 @@ public class Tile {
      * @return true if the tile is purchased, false otherwise
      */
     public boolean isPurchased() {
-        return purchased;
+        return board.isPurchased(index);
     }
 
     /**
@@ -216,7 +251,7 @@ public class Tile {
      * @param purchased the value to set
      */
     public void setPurchased(boolean purchased) {
-        this.purchased = purchased;
+        board.setPurchased(index, purchased);
     }
 
     /**
@@ -225,7 +260,7 @@ public class Tile {
      * @return the value
      */
     public int getResourceValue() {
-        return resourceValue;
+        return board.getResourceValue(index);
     }
 
     /**
@@ -234,7 +269,7 @@ public class Tile {
      * @param resourceValue the value to set
      */
     public void setResourceValue(int resourceValue) {
-        this.resourceValue = resourceValue;
+        board.setResourceValue(index, resourceValue);
     }
 
     /**
@@ -243,7 +278,7 @@ public class Tile {
      * @return if the tile has a river
      */
     public boolean hasRiver() {
-        return hasRiver;
+        return board.hasRiver(index);
     }
 
     /**
@@ -252,25 +287,25 @@ public class Tile {
      * @param hasRiver sets if the tile has a river
      */
     public void setHasRiver(boolean hasRiver) {
-        this.hasRiver = hasRiver;
+        board.setRiver(index, hasRiver);
     }
 
     /**
-     * getter for the tileID
+     * Gets the board holding the values of the tile.
      *
-     * @return the tileID
+     * @return the board
      */
-    public int getTileID() {
-        return tileID;
+    Board getBoard() {
+        return board;
     }
 
     /**
-     * Sets the tile ID.
+     * getter for the tileID, the index of the tile on its board
      *
-     * @param i the tileID.
+     * @return the tileID
      */
-    public void setTileID(int i) {
-        this.tileID = i;
+    public int getTileID() {
+        return tileID;
     }
 
     /**
@@ -282,8 +317,8 @@ public class Tile {
     public String toString() {
         return "Tile{" +
                 "id=" + tileID +
-                ", purchased=" + purchased +
-                ", resourceValue=" + resourceValue +
+                ", purchased=" + isPurchased() +
+                ", resourceValue=" + getResourceValue() +
                 '}';
     }
 
@@ -294,8 +329,8 @@ public class Tile {
      * @return The removed entity, or null if no entity was present.
      */
     public GameEntity removeEntity() {
-        GameEntity entity = this.entity;
-        this.entity = null;
+        GameEntity entity = board.getEntity(index);
+        board.setEntity(index, null);
         return entity;
     }
 
@@ -305,7 +340,7 @@ public class Tile {
      * @return true if the tile has an owner, false otherwise.
      */
     public boolean hasOwner() {
-        return owner != null;
+        return board.getOwner(index) != null;
     }
 
     /**
@@ -314,7 +349,30 @@ public class Tile {
      * @param newName the name to set
      */
     public void setOwnerName(String newName) {
-        this.owner = newName;
+        board.setOwner(index, newName);
+    }
+
+    /**
+     * Checks if the tile or its status changed since the last state synchronization.
+     *
+     * @return true if the tile changed
+     */
+    public boolean isDirty() {
+        return board.isDirty(index);
+    }
+
+    /**
+     * Marks the tile as changed, e.g. after the state of its entity was modified.
+     */
+    public void markDirty() {
+        board.changed(index);
+    }
+
+    /**
+     * Marks the tile and its status as synchronized.
+     */
+    public void clearDirty() {
+        board.clearDirty(index);
     }
 
     /**
@@ -0,0 +1,200 @@
+package ch.unibas.dmi.dbis.cs108.shared.protocol;
+
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.NetworkProtocol.Commands;
+
+/**
+ * A reusable tokenizer for protocol lines of the form {@code CMD$arg1$arg2}.
+ * <p>
+ * Instead of splitting the line into new strings, the tokenizer only records the boundaries of the fields in an
+ * array that is reused for the next line. Numbers are parsed directly from the line and the command name is looked
+ * up by its packed opcode, so tokenizing a line does not allocate. Strings are only created when an argument is
+ * requested as a string. Trailing empty fields are ignored, like {@code String.split} does.
+ * <p>
+ * An instance is not thread-safe and must only be used by one thread at a time.
+ */
+public final class CommandTokenizer {
+    /**
+     * The separator of the fields
+     */
+    private static final char SEPARATOR = '$';
+    /**
+     * The line that is tokenized
+     */
+    private CharSequence line;
+    /**
+     * Start and end index of every field, two entries per field
+     */
+    private int[] bounds = new int[16];
+    /**
+     * Number of fields, including the command name
+     */
+    private int count;
+
+    /**
+     * Tokenizes a line. The previous line is discarded.
+     *
+     * @param line the line to tokenize, may be null
+     * @return this tokenizer
+     */
+    public CommandTokenizer tokenize(CharSequence line) {
+        this.line = line;
+        count = 0;
+        if (line == null) {
+            return this;
+        }
+        int length = line.length();
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || line.charAt(i) == SEPARATOR) {
+                if (count * 2 + 2 > bounds.length) {
+                    int[] grown = new int[bounds.length * 2];
+                    System.arraycopy(bounds, 0, grown, 0, bounds.length);
+                    bounds = grown;
+                }
+                bounds[count * 2] = start;
+                bounds[count * 2 + 1] = i;
+                count++;
+                start = i + 1;
+            }
+        }
+        // Drop trailing empty fields
+        while (count > 0 && bounds[count * 2 - 2] == bounds[count * 2 - 1]) {
+            count--;
+        }
+        return this;
+    }
+
+    /**
+     * Gets the number of fields, including the command name.
+     *
+     * @return the number of fields
+     */
+    public int fieldCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of arguments after the command name.
+     *
+     * @return the number of arguments
+     */
+    public int argCount() {
+        return Math.max(0, count - 1);
+    }
+
+    /**
+     * Gets the command name packed into an int.
+     *
+     * @return the opcode, -1 if the line has no valid command name
+     * @see Commands#pack(CharSequence, int, int)
+     */
+    public int opcode() {
+        if (count == 0) {
+            return -1;
+        }
+        return Commands.pack(line, bounds[0], bounds[1]);
+    }
+
+    /**
+     * Gets the command of the line.
+     *
+     * @return the command, null if the command name is unknown
+     */
+    public Commands command() {
+        return Commands.fromOpcode(opcode());
+    }
+
+    /**
+     * Gets the length of the command name.
+     *
+     * @return the number of characters of the command name
+     */
+    public int commandLength() {
+        return count == 0 ? 0 : bounds[1] - bounds[0];
+    }
+
+    /**
+     * Gets an argument as a string. This allocates a new string.
+     *
+     * @param index the index of the argument, starting at 0 after the command name
+     * @return the argument
+     * @throws IndexOutOfBoundsException if there is no such argument
+     */
+    public String arg(int index) {
+        checkIndex(index);
+        int field = (index + 1) * 2;
+        return line.subSequence(bounds[field], bounds[field + 1]).toString();
+    }
+
+    /**
+     * Parses an argument as a decimal int without creating a string.
+     *
+     * @param index the index of the argument, starting at 0 after the command name
+     * @return the parsed value
+     * @throws NumberFormatException     if the argument is no valid int
+     * @throws IndexOutOfBoundsException if there is no such argument
+     */
+    public int intArg(int index) {
+        checkIndex(index);
+        int field = (index + 1) * 2;
+        int start = bounds[field];
+        int end = bounds[field + 1];
+        if (start == end) {
+            throw new NumberFormatException("Empty argument " + index);
+        }
+        boolean negative = line.charAt(start) == '-';
+        int i = negative || line.charAt(start) == '+' ? start + 1 : start;
+        if (i == end) {
+            throw new NumberFormatException("Invalid argument " + index);
+        }
+        // Accumulate negatively, so Integer.MIN_VALUE can be parsed
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10) {
+                throw new NumberFormatException("Invalid argument " + index);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("Invalid argument " + index);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Compares an argument with a string without creating a string.
+     *
+     * @param index the index of the argument, starting at 0 after the command name
+     * @param value the string to compare with
+     * @return true if the argument exists and equals the value
+     */
+    public boolean argEquals(int index, String value) {
+        if (index < 0 || index >= argCount()) {
+            return false;
+        }
+        int field = (index + 1) * 2;
+        int start = bounds[field];
+        int length = bounds[field + 1] - start;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that an argument exists.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= argCount()) {
+            throw new IndexOutOfBoundsException("Argument " + index + " of " + argCount());
+        }
+    }
+}
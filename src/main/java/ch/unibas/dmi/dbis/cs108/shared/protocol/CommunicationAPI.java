@@ -104,6 +104,10 @@ public interface CommunicationAPI {
              * Start the game
              */
             START("STRT"),
+            /**
+             * The host adds a bot to a free seat of the lobby
+             */
+            ADDBOT("ABOT"),
 
             // Chat commands
             /**
@@ -136,6 +140,10 @@ public interface CommunicationAPI {
              * Request synchronization of the game
              */
             SYNCHRONIZE("SYNC"),
+            /**
+             * Synchronization of the changed part of the game
+             */
+            SYNCDELTA("SYND"),
             /**
              * Get detailed game status
              */
@@ -201,7 +209,35 @@ public interface CommunicationAPI {
              */
             CHEAT("CHEA");
 
+            /**
+             * Size of the opcode lookup table, a power of two larger than twice the number of commands
+             */
+            private static final int TABLE_SIZE = 128;
+            /**
+             * Opcodes of the lookup table, 0 marks an empty slot
+             */
+            private static final int[] OPCODES = new int[TABLE_SIZE];
+            /**
+             * Commands of the lookup table, at the same index as their opcode
+             */
+            private static final Commands[] BY_OPCODE = new Commands[TABLE_SIZE];
+
+            static {
+                for (Commands cmd : values()) {
+                    int slot = slot(cmd.opcode);
+                    while (OPCODES[slot] != 0) {
+                        slot = (slot + 1) & (TABLE_SIZE - 1);
+                    }
+                    OPCODES[slot] = cmd.opcode;
+                    BY_OPCODE[slot] = cmd;
+                }
+            }
+
             private final String command;
+            /**
+             * The command name packed into an int, see {@link #pack(CharSequence, int, int)}
+             */
+            private final int opcode;
 
             /**
              * Constructor for the enum
@@ -210,6 +246,7 @@ public interface CommunicationAPI {
              */
             Commands(String command) {
                 this.command = command;
+                this.opcode = pack(command, 0, command.length());
             }
 
             /**
@@ -219,12 +256,71 @@ public interface CommunicationAPI {
              * @return the command enum
              */
             public static Commands fromCommand(String commandName) {
-                for (Commands cmd : values()) {
-                    if (cmd.getCommand().equals(commandName)) {
-                        return cmd;
+                Commands cmd = commandName == null ? null : fromOpcode(pack(commandName, 0, commandName.length()));
+                if (cmd == null) {
+                    throw new IllegalArgumentException("API-Unknown command: " + commandName);
+                }
+                return cmd;
+            }
+
+            /**
+             * Returns the command enum from a packed command name in constant time.
+             *
+             * @param opcode the packed command name
+             * @return the command enum, null if the opcode is unknown
+             */
+            public static Commands fromOpcode(int opcode) {
+                if (opcode <= 0) {
+                    return null;
+                }
+                int slot = slot(opcode);
+                while (OPCODES[slot] != 0) {
+                    if (OPCODES[slot] == opcode) {
+                        return BY_OPCODE[slot];
                     }
+                    slot = (slot + 1) & (TABLE_SIZE - 1);
                 }
-                throw new IllegalArgumentException("API-Unknown command: " + commandName);
+                return null;
+            }
+
+            /**
+             * Packs a command name of one to four ASCII characters into an int, one byte per character.
+             *
+             * @param text  the text containing the command name
+             * @param start the index of the first character
+             * @param end   the index after the last character
+             * @return the opcode, -1 if the range is no valid command name
+             */
+            public static int pack(CharSequence text, int start, int end) {
+                int length = end - start;
+                if (length < 1 || length > 4) {
+                    return -1;
+                }
+                int opcode = 0;
+                for (int i = start; i < end; i++) {
+                    char c = text.charAt(i);
+                    if (c == 0 || c > 0x7F) {
+                        return -1;
+                    }
+                    opcode = (opcode << 8) | c;
+                }
+                return opcode;
+            }
+
+            /**
+             * Maps an opcode to its first slot in the lookup table.
+             */
+            private static int slot(int opcode) {
+                return (opcode * 0x9E3779B9) >>> 25;
+            }
+
+            /**
+             * Getter for the opcode
+             *
+             * @return the command name packed into an int
+             */
+            public int getOpcode() {
+                return opcode;
             }
 
             /**
@@ -0,0 +1,192 @@
+package ch.unibas.dmi.dbis.cs108.shared.utils;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * GameRandom is the source of randomness of one game. It provides the same random choices as
+ * {@link RandomGenerator}, but draws them from a generator created from a seed.
+ * <p>
+ * Every game owns its own source, so games never share random state and a game can be reproduced from its seed
+ * and the commands played. The source is not thread-safe and must only be used by the thread running the game,
+ * which also means no two games contend for it.
+ * <p>
+ * The generator is the SplitMix64 algorithm of {@link SplittableRandom} and draws the same numbers as a
+ * {@code SplittableRandom} with the same seed, but keeps its state in a field, so a source can be copied for a
+ * fork of its game without drawing from it.
+ */
+public final class GameRandom {
+    /** Increment of the state per number drawn, the gamma of a seeded {@link SplittableRandom} */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** The seed the source was last created from */
+    private long seed;
+    /** The state of the generator, advanced by {@link #GOLDEN_GAMMA} per number drawn */
+    private long state;
+
+    /**
+     * Creates a source of randomness from a seed.
+     *
+     * @param seed the seed
+     */
+    public GameRandom(long seed) {
+        setSeed(seed);
+    }
+
+    private GameRandom(GameRandom source) {
+        this.seed = source.seed;
+        this.state = source.state;
+    }
+
+    /**
+     * Returns an independent source in the same state, which makes the same random choices as this one.
+     *
+     * @return the copy
+     */
+    public GameRandom copy() {
+        return new GameRandom(this);
+    }
+
+    /**
+     * Returns the seed the source was last created from.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the position of the generator, which changes with every number drawn, e.g. to check whether an
+     * action made a random choice.
+     *
+     * @return the position
+     */
+    public long getPosition() {
+        return state;
+    }
+
+    /**
+     * Restarts the source from a seed. The following random choices are the same as the ones of a new source
+     * with this seed.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * Draws a new seed from the source and restarts the source from it.
+     *
+     * @return the new seed
+     */
+    public long reseed() {
+        long next = nextLong();
+        setSeed(next);
+        return next;
+    }
+
+    /**
+     * Returns true approximately 'percentage' percent of the time.
+     *
+     * @param percentage the percentage chance of returning true
+     * @return true if the random chance is met, false otherwise
+     */
+    public boolean chance(int percentage) {
+        return nextDouble() * 100.0 < percentage;
+    }
+
+    /**
+     * Returns a random integer between 'min' and 'max' (inclusive).
+     *
+     * @param min the minimum value (inclusive)
+     * @param max the maximum value (inclusive)
+     * @return a random integer between min and max
+     */
+    public int randomIntInRange(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not exceed max.");
+        }
+        return min + nextInt((max - min) + 1);
+    }
+
+    /**
+     * Returns a random double between 'min' and 'max' (inclusive).
+     *
+     * @param min the minimum value (inclusive)
+     * @param max the maximum value (inclusive)
+     * @return a random double between min and max
+     */
+    public double randomDoubleInRange(double min, double max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not exceed max.");
+        }
+        return min + (nextDouble() * (max - min));
+    }
+
+    /**
+     * Returns a random element from an array or null if array is empty.
+     *
+     * @param array the array to pick a random element from
+     * @param <T> the generic type
+     * @return a random element from the array or null if the array is empty
+     */
+    public <T> T pickRandomElement(T[] array) {
+        if (array == null || array.length == 0) {
+            return null;
+        }
+        return array[nextInt(array.length)];
+    }
+
+    /**
+     * Returns a random element from a list or null if list is empty.
+     *
+     * @param list the list to pick a random element from
+     * @param <T> the generic type
+     * @return a random element from the list or null if the list is empty
+     */
+    public <T> T pickRandomElement(List<T> list) {
+        if (list == null || list.isEmpty()) {
+            return null;
+        }
+        return list.get(nextInt(list.size()));
+    }
+
+    private long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private int nextInt() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Returns a uniform number in [0, bound) like {@link SplittableRandom#nextInt(int)}, rejecting the values that
+     * would make small numbers more likely.
+     */
+    private int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+            // retry
+        }
+        return r;
+    }
+
+    private double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+}
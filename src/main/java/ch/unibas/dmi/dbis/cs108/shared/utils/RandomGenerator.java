@@ -2,16 +2,28 @@ package ch.unibas.dmi.dbis.cs108.shared.utils;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * RandomGenerator is a utility class that provides methods for generating random
  * numbers and making random choices.
  * It includes methods for generating random integers, doubles, and selecting
  * random elements from arrays or lists.
+ * <p>
+ * The choices are drawn from the {@link ThreadLocalRandom} of the calling thread, so threads never contend for a
+ * shared source. Games draw their random choices from their own seeded {@link GameRandom} instead, so they can be
+ * reproduced.
  */
 public class RandomGenerator {
-    /** Object of the type random */
-    private static final Random RANDOM = new Random();
+
+    /**
+     * Returns the source of randomness of the current thread.
+     *
+     * @return the source of randomness to use
+     */
+    private static Random random() {
+        return ThreadLocalRandom.current();
+    }
 
     /**
      * Returns true approximately 'percentage' percent of the time.
@@ -21,7 +33,7 @@ public class RandomGenerator {
      * @return true if the random chance is met, false otherwise
      */
     public static boolean chance(int percentage) {
-        return RANDOM.nextDouble() * 100.0 < percentage;
+        return random().nextDouble() * 100.0 < percentage;
     }
 
     /**
@@ -35,7 +47,7 @@ public class RandomGenerator {
         if (min > max) {
             throw new IllegalArgumentException("min must not exceed max.");
         }
-        return min + RANDOM.nextInt((max - min) + 1);
+        return min + random().nextInt((max - min) + 1);
     }
 
     /**
@@ -50,7 +62,7 @@ public class RandomGenerator {
         if (min > max) {
             throw new IllegalArgumentException("min must not exceed max.");
         }
-        return min + (RANDOM.nextDouble() * (max - min));
+        return min + (random().nextDouble() * (max - min));
     }
 
     /**
@@ -64,7 +76,7 @@ public class RandomGenerator {
         if (array == null || array.length == 0) {
             return null;
         }
-        int index = RANDOM.nextInt(array.length);
+        int index = random().nextInt(array.length);
         return array[index];
     }
 
@@ -80,7 +92,7 @@ public class RandomGenerator {
         if (array == null || array.isEmpty()) {
             return null;
         }
-        int index = RANDOM.nextInt(array.size());
+        int index = random().nextInt(array.size());
         return array.get(index);
     }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.core.bots.BotClient;
+import ch.unibas.dmi.dbis.cs108.server.core.bots.BotPool;
+import ch.unibas.dmi.dbis.cs108.server.core.bots.BotSearch;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameEventNotifier;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GameSimulation;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GreedyPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Policy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.RandomPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Mailbox;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the bots hosted by the server, {@link BotSearch} and {@link BotClient}, and the turns played for
+ * them by {@link GameSimulation#playTurn}.
+ */
+public class BotTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Tests that the actions chosen by a search can be played in the game they were searched for.
+     * Verifies:
+     * - the search compares several candidate turns
+     * - the tiles bought on the fork are bought in the game
+     */
+    @Test
+    void testSearchChoosesPlayableActions() {
+        GameLogic gameLogic = new GameLogic(new Silent(), 3L);
+        gameLogic.startGame(new String[]{"Alice", "Bob", "Carol"});
+        GameState state = gameLogic.getGameState();
+
+        BotSearch.Decision decision = BotSearch.search(state.fork(), TimeUnit.MILLISECONDS.toNanos(50), 9L);
+        assertTrue(decision.candidates() > 1);
+        assertTrue(decision.nodes() > 0);
+        assertFalse(decision.commands().isEmpty());
+
+        Player alice = state.findPlayerByName("Alice");
+        for (String message : decision.commands()) {
+            gameLogic.processCommand(new Command(message, alice));
+        }
+        long bought = decision.commands().stream().filter(message -> message.startsWith("BUYT$")).count();
+        assertEquals(bought, alice.getOwnedTiles().size());
+    }
+
+    /**
+     * Tests that the recorded messages of a turn played on a fork have the same effect in the game itself,
+     * including failed actions that changed the state or made random choices.
+     */
+    @Test
+    void testRecordedTurnReplaysExactly() {
+        int replayed = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            GameLogic gameLogic = new GameLogic(new Silent(), seed);
+            gameLogic.startGame(new String[]{"Alice", "Bob"});
+            GameState state = gameLogic.getGameState();
+            for (int turn = 0; turn < 8; turn++) {
+                Policy policy = turn % 2 == 0 ? new GreedyPolicy() : new RandomPolicy();
+                GameSimulation.Turn played;
+                try {
+                    played = GameSimulation.playTurn(state, policy, new GameRandom(seed * 31 + turn));
+                } catch (RuntimeException e) {
+                    // Some statue effects throw on boards they do not expect, the search skips such turns too
+                    break;
+                }
+                replayed++;
+                Player player = state.findPlayerByName(state.getPlayerTurn());
+                for (String message : played.commands()) {
+                    gameLogic.processCommand(new Command(message, player));
+                }
+                assertEquals(GameStateCodec.hash(played.state()), GameStateCodec.hash(state), "seed " + seed);
+                gameLogic.getTurnManager().nextTurn();
+            }
+        }
+        assertTrue(replayed > 100);
+    }
+
+    /**
+     * Tests that a search stops when its budget is spent.
+     */
+    @Test
+    void testSearchStaysWithinBudget() {
+        GameLogic gameLogic = new GameLogic(new Silent(), 4L);
+        gameLogic.startGame(new String[]{"Alice", "Bob", "Carol", "Dave"});
+        // The first search also loads and compiles the game
+        BotSearch.search(gameLogic.getGameState().fork(), TimeUnit.MILLISECONDS.toNanos(40), 0L);
+        BotSearch.Decision decision = BotSearch.search(gameLogic.getGameState().fork(),
+                TimeUnit.MILLISECONDS.toNanos(40), 1L);
+        assertTrue(decision.nanos() < TimeUnit.MILLISECONDS.toNanos(200), "search took " + decision.nanos() + " ns");
+    }
+
+    /**
+     * Tests a game played by bots in a lobby.
+     * Verifies:
+     * - the bots play their turns until the game ends
+     * - decisions are counted in the metrics of the pool
+     * - bots do not count on the leaderboard
+     */
+    @Test
+    void testBotsPlayGameInLobby() throws InterruptedException {
+        BotPool pool = new BotPool(1, 4, 5);
+        Leaderboard leaderboard = new Leaderboard(dir.resolve("leaderboard.txt"));
+        try {
+            Lobby lobby = new Lobby("bots", 2, leaderboard, TimerWheel.getDefault(), Mailbox.getDefaultPool());
+            for (String name : new String[]{"bot", "bot2"}) {
+                BotClient bot = new BotClient(null, pool);
+                bot.setPlayer(new Player(name));
+                assertTrue(lobby.addPlayer(bot));
+            }
+            assertTrue(lobby.startGame());
+
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (!lobby.getStatus().equals(Lobby.LobbyStatus.GAME_ENDED.getStatus())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(Lobby.LobbyStatus.GAME_ENDED.getStatus(), lobby.getStatus());
+            assertTrue(pool.getDecisions() > 0);
+            assertTrue(pool.getNodesPerSecond() > 0);
+            assertTrue(leaderboard.getLeaderboard().isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Drops the messages of a game.
+     */
+    private static final class Silent implements GameEventNotifier {
+        @Override
+        public void broadcastMessage(String message) {
+        }
+
+        @Override
+        public void endGame() {
+        }
+
+        @Override
+        public boolean manualEndTurn() {
+            return false;
+        }
+
+        @Override
+        public void sendMessageToPlayer(String player, String message) {
+        }
+    }
+}
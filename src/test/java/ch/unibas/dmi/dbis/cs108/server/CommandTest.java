@@ -1,6 +1,7 @@
 package ch.unibas.dmi.dbis.cs108.server;
 
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameAction;
 import ch.unibas.dmi.dbis.cs108.shared.game.Player;
 import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.NetworkProtocol.Commands;
 import org.junit.jupiter.api.Test;
@@ -182,4 +183,21 @@ public class CommandTest {
         assertNull(cmd.getPlayer());
         assertTrue(cmd.isValid());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests parsing of the typed arguments of game commands.
+     * Verifies:
+     * - numeric arguments are parsed into the record
+     * - string arguments are kept
+     * - invalid numbers and administrative commands yield no action
+     */
+    @Test
+    void testGameActionParsing() {
+        assertEquals(new GameAction.BuyTile(3, 4), new Command("BUYT$3$4", mockPlayer).getAction());
+        assertEquals(new GameAction.UseStatue(1, 2, 7, "5:6"), new Command("USTA$1$2$7$5:6", mockPlayer).getAction());
+        assertEquals(new GameAction.UsePlayerArtifact(9, "bob"), new Command("USPA$9$bob", mockPlayer).getAction());
+        assertSame(GameAction.EndTurn.INSTANCE, new Command("ENDT$", mockPlayer).getAction());
+        assertNull(new Command("BUYT$3$x", mockPlayer).getAction());
+        assertNull(new Command("JOIN$player$lobby", mockPlayer).getAction());
+    }
+}
@@ -0,0 +1,177 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link GameJournal} and the recovery of journaled games by {@link Lobby}.
+ */
+public class GameJournalTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Tests that the records are read back in order.
+     * Verifies:
+     * - the start record holds the lobby id, seed and players
+     * - commands, turn changes and renames follow in the order they were appended
+     */
+    @Test
+    void testRecordsAreReadBack() throws IOException {
+        GameJournal journal = GameJournal.create(dir, "lobby one", 42L, List.of("alice", "bob"), Runnable::run);
+        journal.appendAction("alice", "BUYT$1$2");
+        journal.appendTurn();
+        journal.appendRename("bob", "bobby");
+        journal.close();
+
+        GameJournal.Recovery recovery = GameJournal.read(GameJournal.fileFor(dir, "lobby one"));
+        assertNotNull(recovery);
+        assertEquals(new GameJournal.Start("lobby one", 42L, List.of("alice", "bob")), recovery.start());
+        assertEquals(List.of(
+                new GameJournal.Action("alice", "BUYT$1$2"),
+                GameJournal.Turn.INSTANCE,
+                new GameJournal.Rename("bob", "bobby")), recovery.entries());
+        assertEquals(List.of(journal.getPath()), GameJournal.list(dir));
+    }
+
+    /**
+     * Tests that the records are only buffered until the flush submitted to the writer runs.
+     * Verifies:
+     * - appending does not write to the file
+     * - a single flush is submitted per batch and writes all its records
+     */
+    @Test
+    void testBatchIsWrittenByWriter() throws IOException {
+        List<Runnable> writer = new ArrayList<>();
+        GameJournal journal = GameJournal.create(dir, "writer", 5L, List.of("alice", "bob"), writer::add);
+        journal.appendAction("alice", "BUYT$1$2");
+        journal.appendTurn();
+        assertEquals(0, Files.size(journal.getPath()));
+        assertEquals(1, writer.size());
+
+        writer.remove(0).run();
+        GameJournal.Recovery recovery = GameJournal.read(journal.getPath());
+        assertNotNull(recovery);
+        assertEquals(List.of(new GameJournal.Action("alice", "BUYT$1$2"), GameJournal.Turn.INSTANCE),
+                recovery.entries());
+        journal.close();
+    }
+
+    /**
+     * Tests that a record torn by a crash is cut off.
+     * Verifies:
+     * - the records before the torn one are read
+     * - the resumed journal continues after the last valid record
+     */
+    @Test
+    void testTornRecordIsCutOff() throws IOException {
+        GameJournal journal = GameJournal.create(dir, "torn", 1L, List.of("alice", "bob"), Runnable::run);
+        journal.appendAction("alice", "BUYT$1$2");
+        journal.close();
+        Path file = journal.getPath();
+        long valid = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 0, 20, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        GameJournal.Recovery recovery = GameJournal.read(file);
+        assertEquals(1, recovery.entries().size());
+        assertEquals(valid, recovery.length());
+
+        GameJournal resumed = recovery.resume(Runnable::run);
+        resumed.appendTurn();
+        resumed.close();
+        assertEquals(List.of(new GameJournal.Action("alice", "BUYT$1$2"), GameJournal.Turn.INSTANCE),
+                GameJournal.read(file).entries());
+    }
+
+    /**
+     * Tests that a journaled game is rebuilt deterministically.
+     * Verifies:
+     * - replaying the same journal twice gives the same game state, including the random board
+     * - commands, turn changes and renames are applied
+     */
+    @Test
+    void testRecoveryIsDeterministic() throws IOException {
+        GameJournal journal = GameJournal.create(dir, "game", 7L, List.of("alice", "bob"), Runnable::run);
+        for (int i = 0; i < 20; i++) {
+            journal.appendAction("alice", "BUYT$" + (i % 8) + "$" + (i % 7));
+        }
+        journal.appendTurn();
+        journal.appendAction("bob", "BUYT$3$3");
+        journal.appendRename("alice", "alicia");
+        journal.close();
+
+        GameJournal.Recovery recovery = GameJournal.read(journal.getPath());
+        Lobby first = recoverLobby(recovery);
+        Lobby second = recoverLobby(recovery);
+
+        GameState state = first.getGameLogic().getGameState();
+        assertEquals("bob", state.getPlayerTurn());
+        assertNotNull(state.findPlayerByName("alicia"));
+        assertFalse(state.findPlayerByName("alicia").getOwnedTiles().isEmpty());
+        assertEquals(state.createDetailedStatusMessage(),
+                second.getGameLogic().getGameState().createDetailedStatusMessage());
+    }
+
+    /**
+     * Tests that a game is recovered from the checkpoint taken at the last turn boundary.
+     * Verifies:
+     * - a turn change of the running game appends a checkpoint to the journal
+     * - only the records after the checkpoint are replayed and give the state of the running game
+     */
+    @Test
+    void testRecoveryStartsAtCheckpoint() throws IOException {
+        GameJournal journal = GameJournal.create(dir, "checkpoint", 11L, List.of("alice", "bob"), Runnable::run);
+        journal.appendAction("alice", "BUYT$0$0");
+        journal.close();
+
+        Lobby running = new Lobby("checkpoint", 2, new Leaderboard(null), TimerWheel.getDefault(), Runnable::run, dir);
+        assertTrue(running.recover(GameJournal.read(journal.getPath())));
+        running.processGameCommand(new Command("ENDT", new Player("alice")));
+        running.processGameCommand(new Command("BUYT$5$5", new Player("bob")));
+        running.stopTurnScheduler();
+        running.closeJournal();
+
+        GameJournal.Recovery recovery = GameJournal.read(journal.getPath());
+        int checkpoint = recovery.lastCheckpoint();
+        assertTrue(checkpoint > 0);
+        assertEquals(List.of(new GameJournal.Action("bob", "BUYT$5$5")),
+                recovery.entries().subList(checkpoint + 1, recovery.entries().size()));
+
+        Lobby recovered = recoverLobby(recovery);
+        assertEquals("bob", recovered.getGameLogic().getGameState().getPlayerTurn());
+        assertEquals(playersAndBoard(running), playersAndBoard(recovered));
+    }
+
+    /**
+     * Returns the full text snapshot of the game without the META section, whose version depends on the
+     * number of deltas sent.
+     */
+    private static String playersAndBoard(Lobby lobby) {
+        String snapshot = lobby.getGameLogic().getGameState().createDetailedStatusMessage();
+        return snapshot.substring(snapshot.indexOf("|PLAYERS:"));
+    }
+
+    private Lobby recoverLobby(GameJournal.Recovery recovery) {
+        Lobby lobby = new Lobby(recovery.start().lobbyId(), recovery.start().players().size(),
+                new Leaderboard(null), TimerWheel.getDefault(), Runnable::run, null);
+        assertTrue(lobby.recover(recovery));
+        return lobby;
+    }
+}
@@ -4,8 +4,10 @@ import ch.unibas.dmi.dbis.cs108.server.core.logic.GameLogic;
 import ch.unibas.dmi.dbis.cs108.server.core.logic.TurnManager;
 import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
 import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
 import ch.unibas.dmi.dbis.cs108.server.networking.ClientHandler;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
 import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
@@ -46,7 +48,8 @@ public class GameLogicTest {
      */
     @BeforeEach
     void setUp() {
-        lobby = new Lobby("testLobby", 4, mock(Leaderboard.class));
+        // The mailbox runs on the calling thread, so the game is set up once startGame returns
+        lobby = new Lobby("testLobby", 4, mock(Leaderboard.class), TimerWheel.getDefault(), Runnable::run);
         ClientHandler player1 = mock(ClientHandler.class);
         ClientHandler player2 = mock(ClientHandler.class);
         ClientHandler player3 = mock(ClientHandler.class);
@@ -106,6 +109,27 @@ public class GameLogicTest {
         assertEquals("player1", gameState.getPlayerTurn());
     }
 
+    /**
+     * This test checks that a rejected command leaves the state sent to the players as it is. It verifies:
+     * - the command is answered with an error and no delta is broadcast
+     * - the state version stays the same
+     * - the cached full state is still used afterwards
+     */
+    @Test
+    void testRejectedCommandKeepsSnapshot() {
+        Player notOnTurn = gameState.findPlayerByName("player2");
+        gameState.createDetailedStatusMessages();
+        long version = gameState.getVersion();
+        long hits = gameState.getSerializer().getSnapshotHits();
+
+        gameLogic.processCommand(new Command("BUYT$0$0", notOnTurn));
+
+        assertEquals(version, gameState.getVersion());
+        assertTrue(notOnTurn.getOwnedTiles().isEmpty());
+        gameState.createDetailedStatusMessages();
+        assertEquals(hits + 1, gameState.getSerializer().getSnapshotHits());
+    }
+
     /**
      * This test checks the turn progression. It verifies:
      * - Second Player is different from the first.
@@ -0,0 +1,115 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import ch.unibas.dmi.dbis.cs108.server.core.replay.GameReplay;
+import ch.unibas.dmi.dbis.cs108.server.core.replay.ReplayArchive;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Command;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.GameJournal;
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the headless replay of journaled games by {@link GameReplay} and {@link ReplayArchive}.
+ */
+public class GameReplayTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Tests that the replay of a recorded game matches the game.
+     * Verifies:
+     * - every checkpoint journaled by the running game is reproduced
+     * - the hash of the replayed state is the hash of the state of the running game
+     */
+    @Test
+    void testReplayMatchesRecordedGame() throws IOException {
+        Lobby running = playGame("match", 5L);
+        GameReplay.Result result = GameReplay.replay(GameJournal.read(GameJournal.fileFor(dir, "match")));
+
+        assertFalse(result.diverged());
+        assertFalse(result.ended());
+        assertEquals("match", result.lobbyId());
+        assertEquals(GameStateCodec.hash(running.getGameLogic().getGameState()), result.stateHash());
+    }
+
+    /**
+     * Tests that a replay stops at the first checkpoint the replayed game differs from.
+     */
+    @Test
+    void testDivergenceIsReported() throws IOException {
+        GameJournal journal = GameJournal.create(dir, "diverged", 3L, List.of("alice", "bob"), Runnable::run);
+        journal.appendAction("alice", "BUYT$0$0");
+        journal.appendTurn();
+        journal.appendCheckpoint(1L, new byte[]{1, 2, 3});
+        journal.appendAction("bob", "BUYT$1$1");
+        journal.close();
+
+        GameReplay.Result result = GameReplay.replay(GameJournal.read(journal.getPath()));
+        assertTrue(result.diverged());
+        assertEquals(2, result.divergence());
+        assertEquals(3, result.records());
+    }
+
+    /**
+     * Tests that an archive is replayed in parallel.
+     * Verifies:
+     * - every readable journal gives a result, in the order of the journals
+     * - a file that is no journal is counted as failed
+     */
+    @Test
+    void testArchiveIsReplayedInParallel() throws IOException {
+        for (int i = 0; i < 6; i++) {
+            playGame("game" + i, i);
+        }
+        List<Path> journals = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            journals.add(GameJournal.fileFor(dir, "game" + i));
+        }
+        journals.add(dir.resolve("missing.journal"));
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ReplayArchive.Report report = ReplayArchive.replay(journals, pool);
+            assertEquals(6, report.results().size());
+            assertEquals(1, report.failed());
+            assertEquals(0, report.diverged());
+            assertEquals("game5", report.results().get(5).lobbyId());
+            assertTrue(report.gamesPerSecond() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a journaled game of two players with commands and turn changes and closes its journal.
+     */
+    private Lobby playGame(String id, long seed) throws IOException {
+        GameJournal journal = GameJournal.create(dir, id, seed, List.of("alice", "bob"), Runnable::run);
+        journal.close();
+        Lobby lobby = new Lobby(id, 2, new Leaderboard(null), TimerWheel.getDefault(), Runnable::run, dir);
+        assertTrue(lobby.recover(GameJournal.read(journal.getPath())));
+        String[] players = {"alice", "bob"};
+        for (int turn = 0; turn < 4; turn++) {
+            Player player = new Player(players[turn % 2]);
+            lobby.processGameCommand(new Command("BUYT$" + turn + "$" + (turn + 1), player));
+            lobby.processGameCommand(new Command("BUYT$" + (turn + 2) + "$" + turn, player));
+            lobby.processGameCommand(new Command("ENDT", player));
+        }
+        lobby.stopTurnScheduler();
+        lobby.closeJournal();
+        return lobby;
+    }
+}
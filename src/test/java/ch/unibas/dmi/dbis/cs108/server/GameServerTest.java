@@ -12,6 +12,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -251,4 +255,82 @@ public class GameServerTest {
         testServer.start();
         assertEquals(1, testServer.getClients().size());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the atomic reservation of player names.
+     * Verifies:
+     * - a free name is reserved as requested
+     * - a taken name gets the next free suffix
+     * - a client keeps a name already reserved for it
+     * - the name index finds the owner of a name
+     */
+    @Test
+    void testReservePlayerName() {
+        assertEquals("bob", gameServer.reservePlayerName("bob", clientHandler1));
+        assertEquals("bob2", gameServer.reservePlayerName("bob", clientHandler2));
+        assertEquals("bob", gameServer.reservePlayerName("bob", clientHandler1));
+        assertSame(clientHandler1, gameServer.findClientHandler("bob"));
+        assertSame(clientHandler2, gameServer.findClientHandler("bob2"));
+        assertNull(gameServer.findClientHandler("bob3"));
+        assertNull(gameServer.findClientHandler(null));
+    }
+
+    /**
+     * Tests that a released suffixed name is handed out again.
+     * Verifies:
+     * - a taken name gets the lowest free suffix, not the next unused one
+     */
+    @Test
+    void testReleasedSuffixIsReused() {
+        ClientHandler clientHandler3 = mock(ClientHandler.class);
+        gameServer.reservePlayerName("bob", clientHandler1);
+        assertEquals("bob2", gameServer.reservePlayerName("bob", clientHandler2));
+        gameServer.releasePlayerName("bob2", clientHandler2);
+        assertEquals("bob2", gameServer.reservePlayerName("bob", clientHandler3));
+    }
+
+    /**
+     * Tests that a name change re-indexes the client.
+     * Verifies:
+     * - the old name is released and can be reserved by another client
+     * - the new name belongs to the renamed client
+     */
+    @Test
+    void testChangePlayerNameReindexes() {
+        gameServer.reservePlayerName("alice", clientHandler1);
+        assertEquals("carol", gameServer.changePlayerName(clientHandler1, "alice", "carol"));
+
+        assertFalse(gameServer.containsPlayerName("alice"));
+        assertSame(clientHandler1, gameServer.findClientHandler("carol"));
+        assertEquals("alice", gameServer.reservePlayerName("alice", clientHandler2));
+    }
+
+    /**
+     * Tests that concurrent registrations of the same name never hand out a name twice.
+     */
+    @Test
+    void testConcurrentNameReservation() throws InterruptedException {
+        int threads = 8;
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            ClientHandler client = mock(ClientHandler.class);
+            new Thread(() -> {
+                try {
+                    start.await();
+                    names.add(gameServer.reservePlayerName("eve", client));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(threads, names.size());
+        assertTrue(names.contains("eve"));
+    }
+}
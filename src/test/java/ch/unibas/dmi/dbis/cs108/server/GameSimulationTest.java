@@ -0,0 +1,138 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GreedyPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Policy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.RandomPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.SimulationConfig;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.SimulationStats;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Simulator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the Monte-Carlo simulation of games by {@link Simulator}.
+ */
+public class GameSimulationTest {
+
+    /**
+     * Tests that a simulation is determined by its seed, whatever the number of threads.
+     */
+    @Test
+    void testSameSeedGivesSameStatistics() throws IOException {
+        List<Policy> policies = List.of(new GreedyPolicy(), new RandomPolicy(), new RandomPolicy());
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(3);
+        try {
+            assertEquals(csv(Simulator.simulate(150, 7L, policies, single)),
+                    csv(Simulator.simulate(150, 7L, policies, parallel)));
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    /**
+     * Tests the statistics of a simulation.
+     * Verifies:
+     * - every game is counted, either as ended or as failed
+     * - the win rates of all seats add up to one
+     * - the greedy policy spends its runes on tiles and structures
+     */
+    @Test
+    void testStatisticsCountEveryGame() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            SimulationStats stats = Simulator.simulate(200, 11L, List.of(new GreedyPolicy(), new RandomPolicy()), pool);
+            assertEquals(200, stats.getGames() + stats.getFailed());
+            assertTrue(stats.getGames() > 0);
+            assertEquals(1.0, stats.getWinRate(0) + stats.getWinRate(1), 1e-9);
+            assertTrue(stats.getActions(SimulationStats.Action.BUY_TILE) > 0);
+            assertTrue(stats.getActions(SimulationStats.Action.PLACE_STRUCTURE) > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests a parameter sweep.
+     * Verifies:
+     * - every combination of the swept values is simulated and written
+     * - the swept settings are restored after the run
+     */
+    @Test
+    void testSweepSimulatesEveryPoint() throws IOException {
+        int startRunes = SETTINGS.Config.START_RUNES.getValue();
+        Properties properties = new Properties();
+        properties.setProperty("games", "8");
+        properties.setProperty("policies", "greedy");
+        properties.setProperty("players", "2");
+        properties.setProperty("sweep.START_RUNES", "20,80");
+        properties.setProperty("sweep.ARTIFACT_CHANCE", "0,50");
+        SimulationConfig config = SimulationConfig.parse(properties);
+        assertEquals(4, config.points().size());
+
+        StringWriter out = new StringWriter();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<Simulator.Result> results = Simulator.run(config, out, pool);
+            assertEquals(4, results.size());
+            assertEquals("ARTIFACT_CHANCE=0;START_RUNES=20", results.get(0).point());
+        } finally {
+            pool.shutdown();
+        }
+        String csv = out.toString();
+        assertTrue(csv.startsWith(SimulationStats.CSV_HEADER + "\n"));
+        assertTrue(csv.contains("ARTIFACT_CHANCE=50;START_RUNES=80,games,,"));
+        assertEquals(startRunes, SETTINGS.Config.START_RUNES.getValue());
+    }
+
+    /**
+     * Tests the overrides the games of a point are played with.
+     * Verifies:
+     * - the overridden value is read by the code run with the overrides
+     * - the default value is read outside of it and by other threads
+     */
+    @Test
+    void testOverridesApplyToTheirCodeOnly() {
+        int startRunes = SETTINGS.Config.START_RUNES.getValue();
+        SETTINGS.Overrides overrides = new SETTINGS.Overrides().with(SETTINGS.Config.START_RUNES, startRunes + 5);
+        int[] other = new int[1];
+        int inside = overrides.call(() -> {
+            Thread thread = new Thread(() -> other[0] = SETTINGS.Config.START_RUNES.getValue());
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SETTINGS.Config.START_RUNES.getValue();
+        });
+        assertEquals(startRunes + 5, inside);
+        assertEquals(startRunes, other[0]);
+        assertEquals(startRunes, SETTINGS.Config.START_RUNES.getValue());
+    }
+
+    /**
+     * Tests that an unknown setting in a configuration is rejected.
+     */
+    @Test
+    void testUnknownSettingIsRejected() {
+        Properties properties = new Properties();
+        properties.setProperty("sweep.NO_SUCH_SETTING", "1,2");
+        assertThrows(IllegalArgumentException.class, () -> SimulationConfig.parse(properties));
+    }
+
+    private static String csv(SimulationStats stats) throws IOException {
+        StringWriter out = new StringWriter();
+        stats.writeCsv(out, "point");
+        return out.toString();
+    }
+}
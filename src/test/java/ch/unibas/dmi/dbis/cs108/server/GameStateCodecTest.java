@@ -0,0 +1,140 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the binary checkpoints of {@link GameState} written by {@link GameStateCodec}.
+ */
+public class GameStateCodecTest {
+
+    private GameState gameState;
+
+    /**
+     * Creates a game state with two players, owned tiles, placed entities and buffs.
+     */
+    @BeforeEach
+    void setUp() {
+        gameState = new GameState(null);
+        gameState.setPlayers(new String[]{"Alice", "Bob"});
+        gameState.setPlayerTurn("Bob");
+        gameState.setPlayerRound(1);
+        gameState.setGameRound(2);
+
+        Player alice = gameState.findPlayerByName("Alice");
+        Tile tile = gameState.getBoardManager().getTile(1, 2);
+        alice.addOwnedTile(tile);
+        tile.setPurchased(true);
+        Structure structure = EntityRegistry.getStructure(1);
+        structure.setActivated(true);
+        structure.setParam(0, 3.0);
+        tile.setEntity(structure);
+        alice.addPurchasableEntity(structure);
+        alice.addArtifact(EntityRegistry.getArtifact(EntityRegistry.getAllArtifacts().iterator().next().getId()));
+        alice.addBuff(Status.BuffType.RUNE_GENERATION, 0.25);
+        alice.setRunes(123);
+
+        Player bob = gameState.findPlayerByName("Bob");
+        Tile statueTile = gameState.getBoardManager().getTile(4, 4);
+        bob.addOwnedTile(statueTile);
+        Statue statue = EntityRegistry.getStatue(EntityRegistry.getAllStatues().iterator().next().getId());
+        statue.setLevel(2);
+        statue.disable(1);
+        statueTile.setEntity(statue);
+        bob.addPurchasableEntity(statue);
+        // A statue bought but not placed is written with the player
+        bob.addPurchasableEntity(EntityRegistry.getStatue(statue.getId()));
+        statueTile.addBuff(Status.BuffType.DEBUFFABLE, -1);
+    }
+
+    /**
+     * Tests that a decoded snapshot restores the whole state.
+     * Verifies:
+     * - the full text snapshot of the restored state equals the original one
+     * - encoding the restored state gives the same bytes
+     * - the snapshot is smaller than the text snapshot
+     */
+    @Test
+    void testRoundTrip() throws IOException {
+        byte[] snapshot = GameStateCodec.encode(gameState);
+        GameState restored = new GameState(null);
+        GameStateCodec.decode(snapshot, restored);
+
+        assertEquals(gameState.createDetailedStatusMessage(), restored.createDetailedStatusMessage());
+        assertArrayEquals(snapshot, GameStateCodec.encode(restored));
+        assertTrue(snapshot.length < gameState.createDetailedStatusMessage().length());
+    }
+
+    /**
+     * Tests that the state of entities and the links between players, tiles and entities are restored.
+     * Verifies:
+     * - a placed entity held by a player is the same object as the entity of the tile
+     * - an owned tile is the tile of the board
+     * - activation, parameters, level and disabled turns are restored
+     */
+    @Test
+    void testEntitiesAreShared() throws IOException {
+        GameState restored = new GameState(null);
+        GameStateCodec.decode(GameStateCodec.encode(gameState), restored);
+
+        Player alice = restored.findPlayerByName("Alice");
+        Tile tile = restored.getBoardManager().getTile(1, 2);
+        assertSame(tile, alice.getOwnedTiles().get(0));
+        assertSame(tile.getEntity(), alice.getPurchasableEntities().get(0));
+        assertTrue(alice.getPurchasableEntities().get(0).isActivated());
+        assertEquals(3.0, tile.getEntity().getParams().get(0).getValue());
+
+        Player bob = restored.findPlayerByName("Bob");
+        Statue placed = (Statue) restored.getBoardManager().getTile(4, 4).getEntity();
+        assertSame(placed, bob.getPurchasableEntities().get(0));
+        assertNotSame(placed, bob.getPurchasableEntities().get(1));
+        assertEquals(2, placed.getLevel());
+        assertEquals(1, placed.getDisabled());
+        assertFalse(restored.getBoardManager().getTile(4, 4).getStatus().get(Status.BuffType.DEBUFFABLE) > 0);
+    }
+
+    /**
+     * Tests the hash of a state.
+     * Verifies:
+     * - the hash of a state equals the hash of its snapshot
+     * - the version of the state, advanced by a state message, does not change the hash
+     * - a change of the state changes the hash
+     */
+    @Test
+    void testHashIgnoresVersion() throws IOException {
+        long hash = GameStateCodec.hash(gameState);
+        assertEquals(hash, GameStateCodec.hash(GameStateCodec.encode(gameState)));
+
+        gameState.createDeltaStatusMessage();
+        assertEquals(hash, GameStateCodec.hash(gameState));
+
+        gameState.findPlayerByName("Alice").setRunes(124);
+        assertNotEquals(hash, GameStateCodec.hash(gameState));
+    }
+
+    /**
+     * Tests that input which is no snapshot is rejected.
+     */
+    @Test
+    void testCorruptSnapshotIsRejected() {
+        byte[] snapshot = GameStateCodec.encode(gameState);
+        snapshot[0] ^= 1;
+        assertThrows(IOException.class, () -> GameStateCodec.decode(snapshot, new GameState(null)));
+
+        byte[] truncated = Arrays.copyOf(GameStateCodec.encode(gameState), 40);
+        assertThrows(IOException.class, () -> GameStateCodec.decode(truncated, new GameState(null)));
+    }
+}
@@ -0,0 +1,108 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.core.actions.TileActionHandler;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateCodec;
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the copies of a {@link GameState} created by {@link GameState#fork()}.
+ */
+public class GameStateForkTest {
+
+    private GameState gameState;
+
+    /**
+     * Creates a game state with two players, owned tiles, placed entities and buffs.
+     */
+    @BeforeEach
+    void setUp() {
+        gameState = new GameState(null, 5L);
+        gameState.setPlayers(new String[]{"Alice", "Bob"});
+        gameState.setPlayerTurn("Alice");
+        gameState.setGameRound(1);
+
+        Player alice = gameState.findPlayerByName("Alice");
+        Tile tile = gameState.getBoardManager().getTile(1, 2);
+        tile.setPurchased(true);
+        tile.setOwner("Alice");
+        alice.addOwnedTile(tile);
+        Structure structure = EntityRegistry.getStructure(1);
+        structure.setActivated(true);
+        tile.setEntity(structure);
+        alice.addPurchasableEntity(structure);
+        alice.addBuff(Status.BuffType.RUNE_GENERATION, 0.5);
+
+        Player bob = gameState.findPlayerByName("Bob");
+        Tile statueTile = gameState.getBoardManager().getTile(4, 4);
+        statueTile.setOwner("Bob");
+        bob.addOwnedTile(statueTile);
+        Statue statue = EntityRegistry.getStatue(EntityRegistry.getAllStatues().iterator().next().getId());
+        statue.setLevel(3);
+        statueTile.setEntity(statue);
+        bob.addPurchasableEntity(statue);
+    }
+
+    /**
+     * Tests that a fork is a copy of the state.
+     * Verifies:
+     * - the fork has the same snapshot hash as the state
+     * - tiles, players and entities are copies, with the links between them pointing to the copies
+     */
+    @Test
+    void testForkIsCopy() {
+        GameState fork = gameState.fork();
+        assertEquals(GameStateCodec.hash(gameState), GameStateCodec.hash(fork));
+
+        Player alice = fork.findPlayerByName("Alice");
+        Tile tile = fork.getBoardManager().getTile(1, 2);
+        assertNotSame(gameState.getBoardManager().getTile(1, 2), tile);
+        assertSame(tile, alice.getOwnedTiles().get(0));
+        assertSame(tile.getEntity(), alice.getPurchasableEntities().get(0));
+        assertNotSame(gameState.findPlayerByName("Alice"), alice);
+        assertEquals(1.5, alice.getStatus().get(Status.BuffType.RUNE_GENERATION));
+        assertEquals(3, ((Statue) fork.getBoardManager().getTile(4, 4).getEntity()).getLevel());
+    }
+
+    /**
+     * Tests that changes to a fork do not affect the state and vice versa.
+     */
+    @Test
+    void testForkIsIndependent() {
+        long hash = GameStateCodec.hash(gameState);
+        GameState fork = gameState.fork();
+        int runes = gameState.findPlayerByName("Bob").getRunes();
+
+        assertTrue(new TileActionHandler(fork).buyTile(0, 0, "Bob"));
+        fork.findPlayerByName("Alice").getStatus().buff(Status.BuffType.SHOP_PRICE, 1);
+        ((Structure) fork.getBoardManager().getTile(1, 2).getEntity()).setActivated(false);
+        fork.setPlayerTurn("Bob");
+
+        assertEquals(hash, GameStateCodec.hash(gameState));
+        assertEquals(runes, gameState.findPlayerByName("Bob").getRunes());
+        assertFalse(gameState.getBoardManager().getTile(0, 0).isPurchased());
+
+        gameState.findPlayerByName("Alice").setRunes(1);
+        assertNotEquals(1, fork.findPlayerByName("Alice").getRunes());
+    }
+
+    /**
+     * Tests that a fork continues the random source of the state.
+     */
+    @Test
+    void testForkMakesSameRandomChoices() {
+        GameState fork = gameState.fork();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(gameState.getRandom().randomIntInRange(0, 1000), fork.getRandom().randomIntInRange(0, 1000));
+        }
+    }
+}
@@ -1,4 +1,284 @@
 package ch.unibas.dmi.dbis.cs108.server;
 
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameEventNotifier;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameStateSerializer;
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test suite for the synchronization messages of {@link GameState},
+ * verifying the state version, the content of full and delta messages and the snapshot cache.
+ */
 public class GameStateTest {
+
+    private GameState gameState;
+
+    /**
+     * Creates a game state with two players and sends the baseline.
+     */
+    @BeforeEach
+    void setUp() {
+        gameState = new GameState(mock(GameEventNotifier.class));
+        gameState.setPlayers(new String[]{"Alice", "Bob"});
+        gameState.setPlayerTurn("Alice");
+        gameState.createBaselineStatusMessage();
+    }
+
+    /**
+     * Tests that a delta without changes only contains the META section.
+     * Verifies:
+     * - the version is incremented
+     * - the delta references the previous version
+     * - no players or tiles are included
+     */
+    @Test
+    void testEmptyDelta() {
+        long version = gameState.getVersion();
+        String delta = gameState.createDeltaStatusMessage();
+
+        assertEquals(version + 1, gameState.getVersion());
+        assertTrue(delta.startsWith("SYND$META:0,0,Alice," + (version + 1) + "," + version + "|"));
+        assertTrue(delta.endsWith("|PLAYERS:|BOARD:"));
+    }
+
+    /**
+     * Tests that a delta contains exactly the changed tile and player.
+     */
+    @Test
+    void testDeltaContainsChangedEntities() {
+        gameState.getBoardManager().getBoard().getTileByCoordinates(2, 3).setPrice(42);
+        gameState.findPlayerByName("Bob").addRunes(5);
+
+        String delta = gameState.createDeltaStatusMessage();
+
+        assertTrue(delta.contains("PLAYERS:Bob{"));
+        assertFalse(delta.contains("Alice{"));
+        assertTrue(delta.contains("BOARD:2,3{"));
+        assertTrue(delta.contains("P=42|"));
+        assertEquals(2, delta.chars().filter(c -> c == ';').count(), "one player and one tile entry expected");
+        assertTrue(gameState.createDeltaStatusMessage().endsWith("|PLAYERS:|BOARD:"));
+    }
+
+    /**
+     * Tests that buffs applied to a tile status mark the tile as changed.
+     */
+    @Test
+    void testStatusChangeMarksTile() {
+        Tile tile = gameState.getBoardManager().getBoard().getTileByCoordinates(0, 0);
+        tile.addBuff(Status.BuffType.RUNE_GENERATION, 0.5);
+
+        String delta = gameState.createDeltaStatusMessage();
+
+        assertTrue(delta.contains("BOARD:0,0{"));
+        assertFalse(tile.isDirty());
+    }
+
+    /**
+     * Tests that a change of the state of an entity marks its tile as changed.
+     * Verifies:
+     * - the delta contains the tile with the new state of the entity, and no other tile
+     * - an entity taken from the tile does not mark it anymore
+     */
+    @Test
+    void testEntityChangeMarksTile() {
+        Tile tile = gameState.getBoardManager().getBoard().getTileByCoordinates(3, 3);
+        Structure structure = EntityRegistry.getStructure(1);
+        tile.setEntity(structure);
+        gameState.createDeltaStatusMessage();
+        assertFalse(gameState.hasDeltaChanges());
+
+        structure.disable(2);
+        assertTrue(gameState.hasDeltaChanges());
+        String delta = gameState.createDeltaStatusMessage();
+        assertTrue(delta.contains("BOARD:3,3{"));
+        assertTrue(delta.contains("DI=true"));
+        assertEquals(1, delta.chars().filter(c -> c == ';').count(), "one tile entry expected");
+
+        tile.removeEntity();
+        gameState.createDeltaStatusMessage();
+        structure.disabledTurn();
+        assertFalse(gameState.hasDeltaChanges());
+        assertTrue(gameState.createDeltaStatusMessage().endsWith("|PLAYERS:|BOARD:"));
+    }
+
+    /**
+     * Tests that a full state sent to a single player does not affect the change tracking.
+     */
+    @Test
+    void testFullStateKeepsChanges() {
+        long version = gameState.getVersion();
+        gameState.findPlayerByName("Alice").setEnergy(3);
+
+        String full = gameState.createDetailedStatusMessage();
+        assertTrue(full.startsWith("SYNC$META:0,0,Alice," + version + ",8,7|"));
+        assertEquals(version, gameState.getVersion());
+
+        assertTrue(gameState.createDeltaStatusMessage().contains("PLAYERS:Alice{"));
+    }
+
+    /**
+     * Tests that an unchanged state is served from the snapshot cache.
+     * Verifies:
+     * - the same message instance is returned
+     * - the request is counted as a hit
+     */
+    @Test
+    void testSnapshotCacheHit() {
+        GameStateSerializer serializer = gameState.getSerializer();
+        String first = gameState.createDetailedStatusMessage();
+        long hits = serializer.getSnapshotHits();
+        long misses = serializer.getSnapshotMisses();
+
+        assertSame(first, gameState.createDetailedStatusMessage());
+        assertEquals(hits + 1, serializer.getSnapshotHits());
+        assertEquals(misses, serializer.getSnapshotMisses());
+    }
+
+    /**
+     * Tests that changes of tiles, players and the turn invalidate the cached snapshot.
+     */
+    @Test
+    void testSnapshotInvalidatedByChanges() {
+        GameStateSerializer serializer = gameState.getSerializer();
+        gameState.createDetailedStatusMessage();
+        long misses = serializer.getSnapshotMisses();
+
+        gameState.getBoardManager().getBoard().getTileByCoordinates(1, 1).setPrice(7);
+        assertTrue(gameState.createDetailedStatusMessage().contains("1,1{HE=0|O=null|P=7|"));
+
+        gameState.findPlayerByName("Bob").getStatus().buff(Status.BuffType.SHOP_PRICE, 1);
+        gameState.createDetailedStatusMessage();
+
+        gameState.setPlayerTurn("Bob");
+        assertTrue(gameState.createDetailedStatusMessage().startsWith("SYNC$META:0,0,Bob,"));
+
+        assertEquals(misses + 3, serializer.getSnapshotMisses());
+        assertTrue(serializer.getSerializationNanos() > 0);
+    }
+
+    /**
+     * Tests that the version of a delta is reflected in the next snapshot.
+     */
+    @Test
+    void testSnapshotAfterDelta() {
+        gameState.createDetailedStatusMessage();
+        gameState.createDeltaStatusMessage();
+
+        assertTrue(gameState.createDetailedStatusMessage()
+                .startsWith("SYNC$META:0,0,Alice," + gameState.getVersion() + ",8,7|"));
+    }
+
+    /**
+     * Tests that players are seated in the order of their names and own their tiles by seat.
+     */
+    @Test
+    void testTilesOwnedBySeat() {
+        Player bob = gameState.findPlayerByName("Bob");
+        Tile tile = gameState.getBoardManager().getBoard().getTileByCoordinates(4, 2);
+        bob.addOwnedTile(tile);
+
+        assertEquals(0, gameState.findPlayerByName("Alice").getSeat());
+        assertEquals(1, bob.getSeat());
+        assertSame(bob, gameState.getPlayer(1));
+        assertNull(gameState.getPlayer(2));
+        assertEquals(1, tile.getOwnerSeat());
+        assertEquals("Bob", tile.getOwner());
+        assertEquals(1, gameState.fork().getBoardManager().getBoard().getTileByCoordinates(4, 2).getOwnerSeat());
+    }
+
+    /**
+     * Tests that a rename changes the owner of the tiles of the seat and the current turn.
+     * Verifies:
+     * - the player is found by the new name only
+     * - the tiles of the player are sent with the new name
+     */
+    @Test
+    void testRenameKeepsSeat() {
+        Player alice = gameState.findPlayerByName("Alice");
+        Tile tile = gameState.getBoardManager().getBoard().getTileByCoordinates(1, 1);
+        alice.addOwnedTile(tile);
+
+        assertTrue(gameState.renamePlayer("Alice", "Alma"));
+        assertFalse(gameState.renamePlayer("Alice", "Anna"));
+
+        assertNull(gameState.findPlayerByName("Alice"));
+        assertSame(alice, gameState.findPlayerByName("Alma"));
+        assertEquals("Alma", gameState.getPlayerTurn());
+        assertEquals("Alma", tile.getOwner());
+        assertEquals(0, tile.getOwnerSeat());
+        assertTrue(gameState.createBaselineStatusMessage().contains("1,1{HE=0|O=Alma|"));
+    }
+
+    /**
+     * Tests that the seats and the name index agree after a reset of the state.
+     * Verifies:
+     * - the reset players keep their seats
+     * - the player of the first seat is found by its cleared name, the old names are not found
+     */
+    @Test
+    void testResetKeepsIndexesConsistent() {
+        Player alice = gameState.getPlayer(0);
+
+        gameState.reset();
+
+        assertSame(alice, gameState.getPlayer(0));
+        assertNotNull(gameState.getPlayer(1));
+        assertSame(alice, gameState.findPlayerByName(alice.getName()));
+        assertNull(gameState.findPlayerByName("Alice"));
+        assertNull(gameState.findPlayerByName("Bob"));
+    }
+
+    /**
+     * Tests that the full state of a large board is sent in chunks.
+     * Verifies:
+     * - the first chunk is the full state with the size of the board and all players
+     * - the further chunks are deltas based on the version of the full state, without players
+     * - every tile is sent once, in chunks of at most {@link SETTINGS.Config#SYNC_CHUNK_TILES} tiles
+     * - the chunks joined give the single full state message
+     */
+    @Test
+    void testChunkedFullState() {
+        GameState large = new GameState(mock(GameEventNotifier.class), 42L, MapDefinition.load("default:32x32"));
+        large.setPlayers(new String[]{"Alice", "Bob"});
+        large.setPlayerTurn("Alice");
+
+        List<String> chunks = large.createBaselineStatusMessages();
+        long version = large.getVersion();
+        int chunkTiles = SETTINGS.Config.SYNC_CHUNK_TILES.getValue();
+        assertEquals((1024 + chunkTiles - 1) / chunkTiles, chunks.size());
+        assertTrue(chunks.get(0).startsWith("SYNC$META:0,0,Alice," + version + ",32,32|PLAYERS:Alice{"));
+
+        StringBuilder tiles = new StringBuilder();
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            if (i > 0) {
+                assertTrue(chunk.startsWith("SYND$META:0,0,Alice," + version + "," + version + "|PLAYERS:|BOARD:"));
+            }
+            String board = chunk.substring(chunk.indexOf("|BOARD:") + 7);
+            assertTrue(board.split(";").length <= chunkTiles);
+            tiles.append(board);
+        }
+        String[] entries = tiles.toString().split(";");
+        assertEquals(1024, entries.length);
+        for (int id = 0; id < entries.length; id++) {
+            assertTrue(entries[id].contains("|ID=" + id + "|"));
+        }
+
+        assertEquals(chunks, large.createDetailedStatusMessages());
+        String head = chunks.get(0).substring(0, chunks.get(0).indexOf("|BOARD:") + 7);
+        assertEquals(head + tiles, large.createDetailedStatusMessage());
+    }
 }
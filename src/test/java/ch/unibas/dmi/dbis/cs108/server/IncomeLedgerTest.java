@@ -0,0 +1,209 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.SETTINGS;
+import ch.unibas.dmi.dbis.cs108.server.core.logic.GameEventNotifier;
+import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
+import ch.unibas.dmi.dbis.cs108.server.core.model.IncomeLedger;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GameSimulation;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.GreedyPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.Policy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.RandomPolicy;
+import ch.unibas.dmi.dbis.cs108.server.core.simulation.SimulationStats;
+import ch.unibas.dmi.dbis.cs108.shared.entities.EntityRegistry;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
+import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
+import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.Player;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
+import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test suite for the {@link IncomeLedger}, verifying that the income read from the ledger is the same as
+ * counting the owned tiles of the players and the structures and monuments on them.
+ */
+public class IncomeLedgerTest {
+
+    private GameState gameState;
+    private Board board;
+    private Player alice;
+    private Player bob;
+
+    /**
+     * Creates a game state with two players, each owning two tiles.
+     */
+    @BeforeEach
+    void setUp() {
+        gameState = new GameState(mock(GameEventNotifier.class), 42L);
+        gameState.setPlayers(new String[]{"Alice", "Bob"});
+        board = gameState.getBoardManager().getBoard();
+        alice = gameState.findPlayerByName("Alice");
+        bob = gameState.findPlayerByName("Bob");
+        buy(alice, board.getTile(0));
+        buy(alice, board.getTile(1));
+        buy(bob, board.getTile(2));
+        buy(bob, board.getTile(3));
+    }
+
+    /**
+     * Tests that the income follows the changes of the tiles and players.
+     * Verifies:
+     * - bought tiles are counted for their buyer only
+     * - resource values, rivers and the buffs of tiles and players are counted once they change
+     */
+    @Test
+    void testIncomeFollowsChanges() {
+        assertIncome();
+
+        buy(alice, board.getTile(4));
+        assertIncome();
+
+        board.getTile(0).setResourceValue(board.getTile(0).getResourceValue() + 7);
+        board.getTile(1).setHasRiver(!board.getTile(1).hasRiver());
+        assertIncome();
+
+        board.getTile(2).addBuff(Status.BuffType.RUNE_GENERATION, 1.0);
+        board.getTile(1).addBuff(Status.BuffType.RIVER_RUNE_GENERATION, 0.5);
+        assertIncome();
+
+        alice.getStatus().buff(Status.BuffType.RUNE_GENERATION, 0.5);
+        bob.getStatus().buff(Status.BuffType.RIVER_RUNE_GENERATION, 1.0);
+        assertIncome();
+
+        gameState.renamePlayer("Bob", "Robert");
+        assertIncome();
+    }
+
+    /**
+     * Tests that the income follows the structures and monuments on the tiles.
+     * Verifies:
+     * - structures and monuments are counted once they are placed, and not while they are disabled
+     * - set bonuses are counted again once the monuments of the owner change
+     */
+    @Test
+    void testIncomeFollowsEntities() {
+        Structure structure = EntityRegistry.getStructure(1);
+        board.getTile(0).setEntity(structure);
+        assertIncome();
+
+        structure.disable(1);
+        assertIncome();
+        structure.disabledTurn();
+        assertIncome();
+
+        Monument monument = EntityRegistry.getMonument(EntityRegistry.getAllMonuments().stream()
+                .filter(Monument::isSet).findFirst().orElseThrow().getId());
+        board.getTile(1).setEntity(monument);
+        alice.addOwnedMonument(monument);
+        assertIncome();
+
+        monument.disable(1);
+        assertIncome();
+        monument.disabledTurn();
+        alice.removeMonument(monument);
+        assertIncome();
+
+        board.getTile(0).removeEntity();
+        assertIncome();
+    }
+
+    /**
+     * Tests that a fork has a ledger of its own.
+     * Verifies:
+     * - the fork reads the same income as the state
+     * - changes of the fork do not change the income of the state
+     */
+    @Test
+    void testForkHasOwnLedger() {
+        int income = gameState.getIncomeLedger().getIncome(alice);
+
+        GameState fork = gameState.fork();
+        Player forkAlice = fork.findPlayerByName("Alice");
+        assertEquals(income, fork.getIncomeLedger().getIncome(forkAlice));
+
+        Tile tile = fork.getBoardManager().getBoard().getTile(0);
+        tile.setResourceValue(tile.getResourceValue() + 10);
+        assertEquals(count(forkAlice, fork.getBoardManager().getBoard()), fork.getIncomeLedger().getIncome(forkAlice));
+        assertEquals(income, gameState.getIncomeLedger().getIncome(alice));
+    }
+
+    /**
+     * Tests that the income is empty after a reset of the state.
+     */
+    @Test
+    void testResetClearsIncome() {
+        assertTrue(gameState.getIncomeLedger().getIncome(alice) > 0);
+
+        gameState.reset();
+
+        assertEquals(0, gameState.getIncomeLedger().getIncome(alice));
+        assertEquals(0, gameState.getIncomeLedger().getIncome(bob));
+    }
+
+    /**
+     * Tests games played with the income check turned on, so every turn compares the ledger with a full count.
+     * Games may fail for other reasons, but never because of the ledger.
+     */
+    @Test
+    void testCheckedGames() {
+        List<Policy> policies = List.of(new GreedyPolicy(), new RandomPolicy(), new GreedyPolicy());
+        new SETTINGS.Overrides().with(SETTINGS.Config.INCOME_CHECK, 1).run(() -> {
+            for (long seed = 0; seed < 50; seed++) {
+                try {
+                    GameSimulation.play(seed, policies, new SimulationStats(policies.size()));
+                } catch (IllegalStateException e) {
+                    fail("Game " + seed + ": " + e.getMessage());
+                } catch (RuntimeException e) {
+                    // failures of the game rules are counted by the simulator, not by the ledger
+                }
+            }
+        });
+    }
+
+    /**
+     * Buys a tile for a player, as buying it in the game does.
+     */
+    private void buy(Player player, Tile tile) {
+        tile.setPurchased(true);
+        player.addOwnedTile(tile);
+    }
+
+    /**
+     * Asserts that the ledger gives the counted income of both players.
+     */
+    private void assertIncome() {
+        assertEquals(count(alice, board), gameState.getIncomeLedger().getIncome(alice));
+        assertEquals(count(bob, board), gameState.getIncomeLedger().getIncome(bob));
+    }
+
+    /**
+     * Counts the runes of the owned tiles of a player on a board and of the structures and monuments on them.
+     */
+    private int count(Player player, Board board) {
+        double runeBuff = player.getStatus().get(Status.BuffType.RUNE_GENERATION);
+        double riverBuff = player.getStatus().get(Status.BuffType.RIVER_RUNE_GENERATION);
+        int sum = 0;
+        for (Tile tile : player.getOwnedTiles()) {
+            sum += IncomeLedger.runes(tile.getResourceValue(), runeBuff, riverBuff,
+                    board, tile.getTileID());
+            GameEntity entity = tile.getEntity();
+            if (entity instanceof Structure structure && !structure.isDisabled()) {
+                sum += IncomeLedger.runes(structure.getResourceValue(), runeBuff, riverBuff, board, tile.getTileID());
+            } else if (entity instanceof Monument monument && !monument.isDisabled()) {
+                int value = monument.getRunes();
+                if (monument.isSet() && player.hasCompleteSet(monument)) {
+                    value *= SETTINGS.Config.SET_BONUS_MULTIPLIER.getValue();
+                }
+                sum += IncomeLedger.runes(value, runeBuff, riverBuff, board, tile.getTileID());
+            }
+        }
+        return sum;
+    }
+}
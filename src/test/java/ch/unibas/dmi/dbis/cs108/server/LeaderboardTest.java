@@ -0,0 +1,132 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link Leaderboard}, verifying the write-behind journal, compaction and recovery.
+ */
+public class LeaderboardTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Tests that flushed changes are recovered from the journal without a compaction.
+     * Verifies:
+     * - the journal contains the records
+     * - a new leaderboard replays them on top of the snapshot
+     */
+    @Test
+    void testRecoveryFromJournal() throws IOException {
+        Path file = dir.resolve("leaderboard.txt");
+        Files.writeString(file, "alice: 10\n");
+        Leaderboard leaderboard = new Leaderboard(file);
+        leaderboard.update("alice", 5);
+        leaderboard.update("bob", 7);
+        leaderboard.set("carol", 3);
+        leaderboard.flush();
+
+        assertEquals(3, Files.readAllLines(dir.resolve("leaderboard.txt.journal")).size());
+        Leaderboard recovered = new Leaderboard(file);
+        assertEquals(15, recovered.getLeaderboard().get("alice"));
+        assertEquals(7, recovered.getLeaderboard().get("bob"));
+        assertEquals(3, recovered.getLeaderboard().get("carol"));
+    }
+
+    /**
+     * Tests that closing compacts the journal into the snapshot.
+     * Verifies:
+     * - the journal is empty afterwards
+     * - the snapshot is sorted from highest to lowest and readable again
+     */
+    @Test
+    void testCompactionOnClose() throws IOException {
+        Path file = dir.resolve("leaderboard.txt");
+        Leaderboard leaderboard = new Leaderboard(file);
+        leaderboard.update("alice", 5);
+        leaderboard.update("bob", 7);
+        leaderboard.close();
+
+        assertEquals(0, Files.size(dir.resolve("leaderboard.txt.journal")));
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(List.of("# 2", "bob: 7", "alice: 5"), lines);
+        assertEquals(12, new Leaderboard(file).getLeaderboard().values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    /**
+     * Tests recovery after a crash between the snapshot rename and the journal truncation,
+     * and with a torn last journal record.
+     * Verifies:
+     * - records already contained in the snapshot are not applied twice
+     * - newer records are applied
+     * - an incomplete last record is cut off
+     */
+    @Test
+    void testRecoverySkipsCompactedRecords() throws IOException {
+        Path file = dir.resolve("leaderboard.txt");
+        Files.writeString(file, "# 2\nalice: 12\n");
+        Files.writeString(dir.resolve("leaderboard.txt.journal"), "1 +5 alice\n2 +7 alice\n3 +1 alice\n4 +9 al");
+
+        Leaderboard leaderboard = new Leaderboard(file);
+        assertEquals(13, leaderboard.getLeaderboard().get("alice"));
+        assertEquals(1, leaderboard.getLeaderboard().size());
+        assertEquals("1 +5 alice\n2 +7 alice\n3 +1 alice\n", Files.readString(dir.resolve("leaderboard.txt.journal")));
+    }
+
+    /**
+     * Tests the rank index against a sorted copy of the leaderboard after random updates.
+     * Verifies:
+     * - the leaderboard is sorted by points, ties by name
+     * - pages and ranks match the sorted order
+     * - unknown players have no rank
+     */
+    @Test
+    void testRankQueries() {
+        Leaderboard leaderboard = Leaderboard.fromString("{}");
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String name = "p" + random.nextInt(300);
+            int points = random.nextInt(50);
+            if (random.nextBoolean()) {
+                leaderboard.update(name, points);
+                expected.merge(name, points, Integer::sum);
+            } else {
+                leaderboard.set(name, points);
+                expected.put(name, points);
+            }
+        }
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        assertEquals(sorted.size(), leaderboard.size());
+        assertEquals(sorted.stream().map(Map.Entry::getKey).toList(), new ArrayList<>(leaderboard.getLeaderboard().keySet()));
+        List<Leaderboard.RankedEntry> page = leaderboard.getPage(40, 25);
+        assertEquals(25, page.size());
+        for (int i = 0; i < page.size(); i++) {
+            assertEquals(41 + i, page.get(i).rank());
+            assertEquals(sorted.get(40 + i).getKey(), page.get(i).name());
+        }
+        for (int i = 0; i < sorted.size(); i += 17) {
+            Leaderboard.RankedEntry entry = leaderboard.getRank(sorted.get(i).getKey());
+            assertEquals(i + 1, entry.rank());
+            assertEquals(sorted.get(i).getValue(), entry.points());
+        }
+        assertEquals(sorted.get(0).getKey(), leaderboard.getTop(1).get(0).name());
+        assertTrue(leaderboard.getPage(sorted.size(), 10).isEmpty());
+        assertNull(leaderboard.getRank("unknown"));
+    }
+}
@@ -6,11 +6,17 @@ import ch.unibas.dmi.dbis.cs108.server.core.model.GameState;
 import ch.unibas.dmi.dbis.cs108.server.core.model.Leaderboard;
 import ch.unibas.dmi.dbis.cs108.server.core.structures.Lobby;
 import ch.unibas.dmi.dbis.cs108.server.networking.ClientHandler;
+import ch.unibas.dmi.dbis.cs108.server.networking.Frame;
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -33,7 +39,8 @@ public class LobbyTest {
      */
     @BeforeEach
     void setUp() {
-        lobby = new Lobby("testLobby", 2, mock(Leaderboard.class));
+        // The mailbox runs on the calling thread, so the game is set up once startGame returns
+        lobby = new Lobby("testLobby", 2, mock(Leaderboard.class), TimerWheel.getDefault(), Runnable::run);
         player1 = mock(ClientHandler.class);
         player2 = mock(ClientHandler.class);
     }
@@ -132,14 +139,19 @@ public class LobbyTest {
      * Verifies:
      * - Message is sent to each player exactly once
      * - Message content is preserved
+     * - Both players receive the same encoded frame
      */
     @Test
     void testBroadcastMessage() {
         lobby.addPlayer(player1);
         lobby.addPlayer(player2);
         lobby.broadcastMessage("TEST_MSG");
-        verify(player1).sendMessage("TEST_MSG");
-        verify(player2).sendMessage("TEST_MSG");
+        ArgumentCaptor<Frame> frame1 = ArgumentCaptor.forClass(Frame.class);
+        ArgumentCaptor<Frame> frame2 = ArgumentCaptor.forClass(Frame.class);
+        verify(player1).sendFrame(frame1.capture());
+        verify(player2).sendFrame(frame2.capture());
+        assertEquals("TEST_MSG", frame1.getValue().text());
+        assertSame(frame1.getValue(), frame2.getValue());
     }
 
     /**
@@ -189,6 +201,29 @@ public class LobbyTest {
         assertFalse(lobby.removePlayer(null));
     }
 
+    /**
+     * Tests that starting a game does not wait for the mailbox of the lobby.
+     * Verifies:
+     * - startGame returns true before the game is set up
+     * - a second start is refused while the set up is pending
+     * - the game is in progress once the mailbox has run
+     */
+    @Test
+    void testStartGameDoesNotWait() {
+        List<Runnable> pending = new ArrayList<>();
+        lobby = new Lobby("testLobby", 2, mock(Leaderboard.class), TimerWheel.getDefault(), pending::add);
+        lobby.addPlayer(player1);
+        lobby.addPlayer(player2);
+
+        assertTrue(lobby.startGame());
+        assertEquals("In lobby", lobby.getStatus());
+        assertFalse(lobby.startGame());
+
+        pending.remove(0).run();
+        assertEquals("In-Game", lobby.getStatus());
+        lobby.endGame();
+    }
+
     /**
      * Tests starting game when lobby is not full.
      * Verifies:
@@ -243,7 +278,7 @@ public class LobbyTest {
     /**
      * Tests that turn scheduler is stopped when game ends.
      * Verifies:
-     * - turnScheduler is shutdown after endGame
+     * - turn deadline is cancelled after endGame
      */
     @Test
     void testTurnSchedulerStopsOnGameEnd() {
@@ -251,8 +286,8 @@ public class LobbyTest {
         lobby.addPlayer(player2);
         lobby.startGame();
         lobby.endGame();
-        // Verify scheduler was stopped
-        assertTrue(lobby.getTurnScheduler().isShutdown());
+        // Verify turn deadline was cancelled
+        assertTrue(lobby.getTurnTimeout().isCancelled());
     }
 
     /**
@@ -274,6 +309,6 @@ public class LobbyTest {
     void testBroadcastNullMessage() {
         lobby.addPlayer(player1);
         assertDoesNotThrow(() -> lobby.broadcastMessage(null));
-        verify(player1).sendMessage(null);
+        verify(player1).sendFrame(argThat(frame -> frame.text().equals("null")));
     }
 }
\ No newline at end of file
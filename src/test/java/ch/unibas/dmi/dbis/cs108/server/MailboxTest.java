@@ -0,0 +1,105 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.core.structures.Mailbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link Mailbox}, verifying the ordering and the single-writer execution of lobby tasks.
+ */
+public class MailboxTest {
+
+    private ExecutorService pool;
+
+    /**
+     * Creates a pool with more threads than mailboxes could use at once.
+     */
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    /**
+     * Shuts the pool down.
+     */
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Tests that tasks submitted from several threads never overlap and keep the order of each submitter.
+     * Verifies:
+     * - all tasks have run
+     * - no two tasks ran at the same time
+     * - the tasks of one submitter ran in submission order
+     */
+    @Test
+    void testTasksRunSeriallyInOrder() throws InterruptedException {
+        Mailbox mailbox = new Mailbox(pool);
+        int submitters = 4;
+        int tasksPerSubmitter = 500;
+        AtomicBoolean running = new AtomicBoolean();
+        AtomicBoolean overlap = new AtomicBoolean();
+        List<List<Integer>> seen = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(submitters * tasksPerSubmitter);
+
+        for (int s = 0; s < submitters; s++) {
+            List<Integer> order = new ArrayList<>(); // only accessed by the mailbox
+            seen.add(order);
+            new Thread(() -> {
+                for (int i = 0; i < tasksPerSubmitter; i++) {
+                    int value = i;
+                    mailbox.execute(() -> {
+                        if (!running.compareAndSet(false, true)) overlap.set(true);
+                        order.add(value);
+                        running.set(false);
+                        done.countDown();
+                    });
+                }
+            }).start();
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(overlap.get());
+        for (List<Integer> order : seen) {
+            for (int i = 0; i < tasksPerSubmitter; i++) {
+                assertEquals(i, order.get(i));
+            }
+        }
+    }
+
+    /**
+     * Tests that a failing task does not stop the mailbox and that tasks know they run on it.
+     */
+    @Test
+    void testFailingTaskDoesNotStopMailbox() throws InterruptedException {
+        Mailbox mailbox = new Mailbox(pool);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger owner = new AtomicInteger();
+
+        mailbox.execute(() -> {
+            throw new IllegalStateException("test");
+        });
+        mailbox.execute(() -> {
+            if (mailbox.isOwner()) owner.incrementAndGet();
+            done.countDown();
+        });
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(1, owner.get());
+        assertFalse(mailbox.isOwner());
+    }
+}
@@ -0,0 +1,91 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.networking.GameServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the non-blocking transport of the {@link GameServer}, verifying that
+ * the line protocol is handled the same way as with one thread per client.
+ */
+public class NioTransportTest {
+
+    private static final int TEST_PORT = 8091;
+    private GameServer gameServer;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        gameServer = new GameServer(TEST_PORT, GameServer.TransportMode.NIO);
+        new Thread(gameServer::start).start();
+        Thread.sleep(200); // give the transport time to bind
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameServer.shutdown();
+    }
+
+    /**
+     * Tests that a client can register over the non-blocking transport.
+     * Verifies:
+     * - the server uses the non-blocking transport
+     * - the register command is answered with OK
+     * - the client is added to the server's client list
+     */
+    @Test
+    void testRegisterOverNonBlockingTransport() throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(2000);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println("RGST$alice");
+
+            String response = in.readLine();
+            while (response != null && response.startsWith("PING$")) {
+                response = in.readLine();
+            }
+            assertTrue(gameServer.isNonBlocking());
+            assertEquals("OK$RGST$alice", response);
+            assertTrue(gameServer.containsPlayerName("alice"));
+        }
+    }
+
+    /**
+     * Tests that several lines sent in one packet are all processed.
+     * Verifies:
+     * - every line gets its own response in order
+     */
+    @Test
+    void testMultipleLinesInOnePacket() throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(2000);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), false);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.print("RGST$bob\nLIST$\n");
+            out.flush();
+
+            String first = in.readLine();
+            while (first != null && first.startsWith("PING$")) {
+                first = in.readLine();
+            }
+            String second = in.readLine();
+            while (second != null && second.startsWith("PING$")) {
+                second = in.readLine();
+            }
+            assertEquals("OK$RGST$bob", first);
+            assertNotNull(second);
+            assertTrue(second.startsWith("OK$LIST$"));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.networking.OutboundQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link OutboundQueue}, verifying the capacity limit, slow consumer eviction
+ * and closing of the queue.
+ */
+public class OutboundQueueTest {
+
+    /**
+     * Tests that messages beyond the capacity are dropped.
+     * Verifies:
+     * - the first messages are queued
+     * - the overflowing message is dropped and counted
+     */
+    @Test
+    void testDropsWhenFull() {
+        OutboundQueue<String> queue = new OutboundQueue<>(2, 2, 1, 10_000);
+
+        assertEquals(OutboundQueue.Result.QUEUED, queue.offer("a"));
+        assertEquals(OutboundQueue.Result.QUEUED, queue.offer("b"));
+        assertEquals(OutboundQueue.Result.DROPPED, queue.offer("c"));
+        assertEquals(2, queue.depth());
+        assertEquals(1, queue.getDropped());
+        assertEquals("a", queue.poll());
+    }
+
+    /**
+     * Tests that a queue staying above the high water mark is reported for eviction once.
+     * Verifies:
+     * - no eviction before the timeout
+     * - exactly one eviction after the timeout
+     */
+    @Test
+    void testEvictsSlowConsumer() throws InterruptedException {
+        OutboundQueue<String> queue = new OutboundQueue<>(10, 1, 0, 20);
+
+        queue.offer("a");
+        assertEquals(OutboundQueue.Result.QUEUED, queue.offer("b"));
+        Thread.sleep(50);
+        assertEquals(OutboundQueue.Result.EVICT, queue.offer("c"));
+        assertEquals(OutboundQueue.Result.QUEUED, queue.offer("d"));
+    }
+
+    /**
+     * Tests that draining below the low water mark resets the slow consumer deadline.
+     */
+    @Test
+    void testLowWaterResetsDeadline() throws InterruptedException {
+        OutboundQueue<String> queue = new OutboundQueue<>(10, 1, 1, 20);
+
+        queue.offer("a");
+        queue.offer("b");
+        Thread.sleep(50);
+        queue.poll();
+        queue.poll();
+
+        assertEquals(OutboundQueue.Result.QUEUED, queue.offer("c"));
+        assertEquals(OutboundQueue.Result.QUEUED, queue.offer("d"));
+    }
+
+    /**
+     * Tests that awaitDrained returns once the writer has handled all messages.
+     * Verifies:
+     * - waiting times out while a message is queued
+     * - waiting succeeds after the writer asks for the next message
+     */
+    @Test
+    void testAwaitDrained() throws InterruptedException {
+        OutboundQueue<String> queue = new OutboundQueue<>(10, 5, 1, 10_000);
+        queue.offer("a");
+        assertFalse(queue.awaitDrained(20));
+
+        Thread writer = new Thread(() -> {
+            try {
+                while (queue.take() != null) {
+                    // discard
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        writer.start();
+
+        assertTrue(queue.awaitDrained(1000));
+        queue.close();
+        writer.join(1000);
+    }
+
+    /**
+     * Tests that closing the queue wakes up a waiting writer and drops further messages.
+     */
+    @Test
+    void testCloseWakesWriter() throws InterruptedException {
+        OutboundQueue<String> queue = new OutboundQueue<>(10, 5, 1, 10_000);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> taken = new AtomicReference<>("unset");
+
+        Thread writer = new Thread(() -> {
+            try {
+                taken.set(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        writer.start();
+        queue.close();
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertNull(taken.get());
+        assertEquals(OutboundQueue.Result.DROPPED, queue.offer("a"));
+    }
+}
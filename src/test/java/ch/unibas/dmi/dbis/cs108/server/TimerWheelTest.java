@@ -0,0 +1,107 @@
+package ch.unibas.dmi.dbis.cs108.server;
+
+import ch.unibas.dmi.dbis.cs108.server.networking.TimerWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link TimerWheel}, verifying expiry, cancellation, periodic timeouts
+ * and deadlines longer than one revolution of the wheel.
+ */
+public class TimerWheelTest {
+
+    private TimerWheel timers;
+
+    @BeforeEach
+    void setUp() {
+        // 10ms ticks, 8 buckets: one revolution is 80ms
+        timers = new TimerWheel(10, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timers.shutdown();
+    }
+
+    /**
+     * Tests that a one-shot timeout runs after its delay.
+     * Verifies:
+     * - the task runs
+     * - the timeout is expired and no longer pending
+     */
+    @Test
+    void testScheduleExpires() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TimerWheel.Timeout timeout = timers.schedule(latch::countDown, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, timers.getPendingCount());
+    }
+
+    /**
+     * Tests that a task is not run before its deadline, even if it spans several revolutions.
+     * Verifies:
+     * - the task has not run after half of the delay
+     * - the task runs after the full delay
+     */
+    @Test
+    void testDeadlineLongerThanOneRevolution() throws InterruptedException {
+        long start = System.nanoTime();
+        CountDownLatch latch = new CountDownLatch(1);
+        timers.schedule(latch::countDown, 250, TimeUnit.MILLISECONDS);
+
+        assertFalse(latch.await(120, TimeUnit.MILLISECONDS));
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 240);
+    }
+
+    /**
+     * Tests that a cancelled timeout does not run.
+     * Verifies:
+     * - cancel returns true only once
+     * - the task never runs
+     */
+    @Test
+    void testCancel() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        TimerWheel.Timeout timeout = timers.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        Thread.sleep(150);
+        assertEquals(0, runs.get());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, timers.getPendingCount());
+    }
+
+    /**
+     * Tests periodic timeouts.
+     * Verifies:
+     * - the task runs repeatedly on the given executor
+     * - the task stops running after cancel
+     */
+    @Test
+    void testScheduleAtFixedRate() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(3);
+        TimerWheel.Timeout timeout = timers.scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        }, 20, 20, TimeUnit.MILLISECONDS, Runnable::run);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        timeout.cancel();
+        Thread.sleep(30); // let a run that was already dispatched finish
+        int afterCancel = runs.get();
+        Thread.sleep(100);
+        assertEquals(afterCancel, runs.get());
+    }
+}
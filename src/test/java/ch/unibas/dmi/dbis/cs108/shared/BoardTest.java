@@ -1,14 +1,21 @@
 package ch.unibas.dmi.dbis.cs108.shared;
 
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Artifact;
+import ch.unibas.dmi.dbis.cs108.shared.entities.Findables.Monument;
 import ch.unibas.dmi.dbis.cs108.shared.entities.GameEntity;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.PurchasableEntity;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Statues.Statue;
 import ch.unibas.dmi.dbis.cs108.shared.entities.Purchasables.Structure;
 import ch.unibas.dmi.dbis.cs108.shared.game.Board;
+import ch.unibas.dmi.dbis.cs108.shared.game.MapDefinition;
+import ch.unibas.dmi.dbis.cs108.shared.game.Status;
 import ch.unibas.dmi.dbis.cs108.shared.game.Tile;
+import ch.unibas.dmi.dbis.cs108.shared.utils.GameRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
@@ -21,7 +28,25 @@ public class BoardTest {
     @BeforeEach
     void setUp() {
         board = new Board();
-        board.initBoard(WIDTH, HEIGHT);
+        board.initBoard(WIDTH, HEIGHT, new GameRandom(42));
+    }
+
+    @Test
+    void testSameSeedGivesSameBoard() {
+        Board other = new Board();
+        other.initBoard(WIDTH, HEIGHT, new GameRandom(42));
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                Tile tile = board.getTileByCoordinates(x, y);
+                Tile otherTile = other.getTileByCoordinates(x, y);
+                assertEquals(tile.getResourceValue(), otherTile.getResourceValue());
+                if (tile.getArtifact() == null) {
+                    assertNull(otherTile.getArtifact());
+                } else {
+                    assertEquals(tile.getArtifact().getId(), otherTile.getArtifact().getId());
+                }
+            }
+        }
     }
 
     @Test
@@ -137,7 +162,7 @@ public class BoardTest {
         board.getTileByCoordinates(2, 2).setEntity(mock(Structure.class));
 
         // Reset the board
-        board.resetTiles();
+        board.resetTiles(new GameRandom(7));
 
         // Verify board is back to initial state
         for (int x = 0; x < WIDTH; x++) {
@@ -148,4 +173,149 @@ public class BoardTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTileIds() {
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                Tile tile = board.getTileByCoordinates(x, y);
+                assertEquals(x * HEIGHT + y, tile.getTileID());
+                assertSame(tile, board.getTile(tile.getTileID()));
+            }
+        }
+        assertNull(board.getTile(WIDTH * HEIGHT));
+        assertNull(board.getTile(-1));
+    }
+
+    @Test
+    void testManyOwnerNames() {
+        Tile tile = board.getTileByCoordinates(0, 0);
+        board.getTileByCoordinates(1, 0).setOwner("Keeper");
+        // Renames add names to the owner table of the board, unused names are dropped when it is full
+        for (int i = 0; i < 500; i++) {
+            tile.setOwnerName("Player" + i);
+            assertEquals("Player" + i, tile.getOwner());
+        }
+        assertEquals("Keeper", board.getTileByCoordinates(1, 0).getOwner());
+    }
+
+    @Test
+    void testTileStatuses() {
+        Status status = board.getTileByCoordinates(2, 2).getStatus();
+        status.buff(Status.BuffType.RUNE_GENERATION, 0.25);
+        status.buff(Status.BuffType.SHOP_PRICE, -2);
+        assertEquals(1.25, status.get(Status.BuffType.RUNE_GENERATION));
+        assertEquals(0.5, status.get(Status.BuffType.SHOP_PRICE));
+        assertEquals(1.0, board.getTileByCoordinates(2, 3).getStatus().get(Status.BuffType.RUNE_GENERATION));
+
+        Board copy = new Board();
+        copy.copyFrom(board, entity -> entity);
+        Status copied = copy.getTileByCoordinates(2, 2).getStatus();
+        assertEquals(1.25, copied.get(Status.BuffType.RUNE_GENERATION));
+        copied.set(Status.BuffType.DEBUFFABLE, 0);
+        assertEquals(1.0, status.get(Status.BuffType.DEBUFFABLE));
+
+        board.resetTiles(new GameRandom(1));
+        assertEquals(1.0, status.get(Status.BuffType.RUNE_GENERATION));
+        assertEquals(1.0, status.get(Status.BuffType.SHOP_PRICE));
+        assertEquals(0.0, copied.get(Status.BuffType.DEBUFFABLE));
+    }
+
+    @Test
+    void testIndexes() {
+        for (Tile tile : board.getRiverTiles()) {
+            assertTrue(tile.hasRiver());
+        }
+        Tile river = board.getTileByCoordinates(5, 5);
+        river.setHasRiver(true);
+        assertTrue(board.getRiverTiles().contains(river));
+        river.setHasRiver(false);
+        assertFalse(board.getRiverTiles().contains(river));
+
+        for (int id = 0; id < board.getTileCount(); id++) {
+            board.getTile(id).setArtifact(null);
+        }
+        assertEquals(-1, board.nextArtifactTile(0));
+        board.getTile(70).setArtifact(mock(Artifact.class));
+        assertEquals(70, board.nextArtifactTile(0));
+        assertEquals(-1, board.nextArtifactTile(71));
+
+        board.setSeats(List.of("Alice", "Bob"));
+        Tile structure = board.getTileByCoordinates(1, 2);
+        structure.setEntity(mock(Structure.class));
+        Tile statue = board.getTileByCoordinates(3, 4);
+        statue.setEntity(mock(Statue.class));
+        assertTrue(board.getStructureTiles(0).isEmpty());
+        assertFalse(board.hasStatue(1));
+
+        structure.setOwner("Alice");
+        statue.setOwner("Bob");
+        assertEquals(List.of(structure), board.getStructureTiles(0));
+        assertTrue(board.hasStatue(1));
+        assertFalse(board.hasStatue(0));
+
+        Board copy = new Board();
+        copy.copyFrom(board, entity -> entity);
+        assertEquals(List.of(copy.getTile(structure.getTileID())), copy.getStructureTiles(0));
+
+        structure.setOwner("Bob");
+        statue.removeEntity();
+        assertTrue(board.getStructureTiles(0).isEmpty());
+        assertEquals(List.of(structure), board.getStructureTiles(1));
+        assertFalse(board.hasStatue(1));
+        assertTrue(copy.hasStatue(1));
+    }
+
+    @Test
+    void testMapBoard() {
+        MapDefinition map = MapDefinition.getDefault();
+        assertEquals(8, map.getWidth());
+        assertEquals(7, map.getHeight());
+
+        Board mapBoard = new Board();
+        mapBoard.initBoard(map, new GameRandom(42));
+        Board sized = new Board();
+        sized.initBoard(8, 7, new GameRandom(42));
+        assertEquals(sized.toString(), mapBoard.toString());
+        for (int id = 0; id < sized.getTileCount(); id++) {
+            assertEquals(sized.getWorld(id), mapBoard.getWorld(id));
+            assertEquals(sized.getResourceValue(id), mapBoard.getResourceValue(id));
+        }
+
+        assertEquals("Alfheim", mapBoard.getTileByCoordinates(0, 0).getWorld());
+        assertEquals("Helheim", mapBoard.getTileByCoordinates(7, 6).getWorld());
+        assertEquals(List.of(mapBoard.getTileByCoordinates(0, 2), mapBoard.getTileByCoordinates(0, 3),
+                mapBoard.getTileByCoordinates(0, 4), mapBoard.getTileByCoordinates(1, 2),
+                mapBoard.getTileByCoordinates(1, 3), mapBoard.getTileByCoordinates(2, 2)), mapBoard.getRiverTiles());
+        assertTrue(mapBoard.getTileByCoordinates(0, 0).getEntity() instanceof Monument);
+        assertEquals("Unknown", board.getTileByCoordinates(9, 9).getWorld());
+    }
+
+    @Test
+    void testTiledMap() {
+        MapDefinition map = MapDefinition.load("default:32x32");
+        assertSame(map, MapDefinition.load("default:32x32"));
+        assertEquals(32, map.getWidth());
+        assertEquals(32, map.getHeight());
+
+        Board large = new Board();
+        large.initBoard(map, new GameRandom(42));
+        assertEquals(1024, large.getTileCount());
+        assertEquals(large.getTileByCoordinates(1, 1).getWorld(), large.getTileByCoordinates(17, 15).getWorld());
+        assertTrue(large.getTileByCoordinates(8, 9).hasRiver());
+        // 4 copies in x direction, each with 4 whole maps and the rows 0 to 3 of a fifth in y direction
+        assertEquals(4 * (4 * 6 + 5), large.getRiverTiles().size());
+
+        int monuments = 0;
+        for (int id = 0; id < large.getTileCount(); id++) {
+            if (large.getEntity(id) instanceof Monument) {
+                monuments++;
+                assertTrue(large.getTile(id).getX() < 8 && large.getTile(id).getY() < 7);
+            }
+        }
+        assertTrue(monuments > 0);
+
+        assertThrows(IllegalArgumentException.class, () -> MapDefinition.load("no such map"));
+        assertThrows(IllegalArgumentException.class, () -> MapDefinition.load("default:0x4"));
+    }
+}
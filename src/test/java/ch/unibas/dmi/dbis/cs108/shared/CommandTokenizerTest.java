@@ -0,0 +1,64 @@
+package ch.unibas.dmi.dbis.cs108.shared;
+
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommandTokenizer;
+import ch.unibas.dmi.dbis.cs108.shared.protocol.CommunicationAPI.NetworkProtocol.Commands;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link CommandTokenizer} and the opcode lookup of {@link Commands}.
+ */
+public class CommandTokenizerTest {
+
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+
+    /**
+     * Tests that the fields match the result of splitting the line, including the removal of trailing empty fields.
+     */
+    @Test
+    void testFieldsMatchSplit() {
+        for (String line : new String[]{"BUYT$1$2", "ENDT$", "CHTG$$", "a$$b$$", "$x", "PING", "$$$"}) {
+            assertEquals(line.split("[$]").length, tokenizer.tokenize(line).fieldCount(), line);
+        }
+        tokenizer.tokenize("JOIN$$lobby");
+        assertEquals(2, tokenizer.argCount());
+        assertEquals("", tokenizer.arg(0));
+        assertEquals("lobby", tokenizer.arg(1));
+    }
+
+    /**
+     * Tests parsing of int arguments.
+     * Verifies:
+     * - signs and the int range are handled like Integer.parseInt
+     * - invalid numbers are rejected
+     */
+    @Test
+    void testIntArguments() {
+        tokenizer.tokenize("USSR$-3$+4$2147483647$-2147483648");
+        assertEquals(-3, tokenizer.intArg(0));
+        assertEquals(4, tokenizer.intArg(1));
+        assertEquals(Integer.MAX_VALUE, tokenizer.intArg(2));
+        assertEquals(Integer.MIN_VALUE, tokenizer.intArg(3));
+
+        tokenizer.tokenize("BUYT$1a$2147483648$-$");
+        assertThrows(NumberFormatException.class, () -> tokenizer.intArg(0));
+        assertThrows(NumberFormatException.class, () -> tokenizer.intArg(1));
+        assertThrows(NumberFormatException.class, () -> tokenizer.intArg(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.intArg(3));
+    }
+
+    /**
+     * Tests that every command is found by its opcode and unknown names are rejected.
+     */
+    @Test
+    void testOpcodeLookup() {
+        for (Commands command : Commands.values()) {
+            assertSame(command, Commands.fromCommand(command.getCommand()));
+            assertSame(command, tokenizer.tokenize(command.getCommand() + "$x").command());
+        }
+        assertNull(tokenizer.tokenize("ABCD$x").command());
+        assertNull(tokenizer.tokenize("TOOLONG$x").command());
+        assertThrows(IllegalArgumentException.class, () -> Commands.fromCommand("ABCD"));
+    }
+}